@@ -0,0 +1,305 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.brics;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+/**
+ * Conversions of Brics automata into compact automata.
+ * <p>
+ * Copying a Brics automaton via the generic {@link BricsDFA} adapter requires a scan of the character
+ * range transitions of a state for every single character of the alphabet, which is prohibitively slow
+ * for large character alphabets. The methods in this class instead compile the range transitions in a
+ * single pass: the character domain is partitioned into {@link CharacterClasses character classes}, i.e.,
+ * maximal intervals between the range boundaries of all transitions, and every transition range is
+ * entered into the transition table by visiting only the classes it covers.
+ * 
+ * @author agent
+ */
+@ParametersAreNonnullByDefault
+public final class BricsConverter {
+	
+	private BricsConverter() {
+		throw new IllegalStateException("Constructor should never be invoked");
+	}
+	
+	/**
+	 * Computes the character classes of a Brics automaton, i.e., the coarsest partition of the
+	 * characters such that all characters of a class have the same successor in every state.
+	 * 
+	 * @param automaton the Brics automaton
+	 * @return the character classes of the automaton
+	 * @throws IllegalArgumentException if the transition table of the (determinized) automaton, with one
+	 * entry per state and elementary interval of characters, exceeds the maximum array size
+	 */
+	public static CharacterClasses computeCharacterClasses(Automaton automaton) {
+		return new Compiler(automaton).computeClasses();
+	}
+	
+	/**
+	 * Compiles a Brics automaton into a {@link CompactDFA} over its {@link CharacterClasses character
+	 * classes}. If the automaton is nondeterministic, a determinized copy of it is compiled instead, i.e.,
+	 * the automaton itself is never modified.
+	 * 
+	 * @param automaton the Brics automaton
+	 * @return the compiled DFA, along with the mapping of characters to input indices
+	 * @throws IllegalArgumentException if the transition table of the (determinized) automaton, with one
+	 * entry per state and elementary interval of characters, exceeds the maximum array size
+	 */
+	public static CharacterClassDFA toCharacterClassDFA(Automaton automaton) {
+		Compiler compiler = new Compiler(automaton);
+		CharacterClasses classes = compiler.computeClasses();
+		
+		int numClasses = classes.getNumClasses();
+		int[] classIntervals = new int[numClasses];
+		Arrays.fill(classIntervals, -1);
+		for (int i = 0; i < compiler.numIntervals; i++) {
+			int cls = compiler.intervalClasses[i];
+			if (classIntervals[cls] < 0) {
+				classIntervals[cls] = i;
+			}
+		}
+		
+		CompactDFA<Integer> dfa = new CompactDFA<>(classes.getClassAlphabet(), compiler.numStates);
+		compiler.initStates(dfa);
+		for (int s = 0; s < compiler.numStates; s++) {
+			for (int cls = 0; cls < numClasses; cls++) {
+				int succ = compiler.getSuccessor(s, classIntervals[cls]);
+				if (succ >= 0) {
+					dfa.setTransition(s, cls, succ);
+				}
+			}
+		}
+		
+		return new CharacterClassDFA(dfa, classes);
+	}
+	
+	/**
+	 * Compiles a Brics automaton into a {@link CompactDFA} over an explicit character alphabet. Transitions
+	 * for characters not contained in the alphabet are omitted. If the automaton is nondeterministic, a
+	 * determinized copy of it is compiled instead, i.e., the automaton itself is never modified.
+	 * 
+	 * @param automaton the Brics automaton
+	 * @param alphabet the input alphabet
+	 * @return the compiled DFA
+	 * @throws IllegalArgumentException if the transition table of the (determinized) automaton, with one
+	 * entry per state and elementary interval of characters, exceeds the maximum array size
+	 */
+	public static CompactDFA<Character> toCompactDFA(Automaton automaton, Alphabet<Character> alphabet) {
+		Compiler compiler = new Compiler(automaton);
+		
+		int numInputs = alphabet.size();
+		int[] inputIntervals = new int[numInputs];
+		for (int i = 0; i < numInputs; i++) {
+			inputIntervals[i] = compiler.findInterval(alphabet.getSymbol(i).charValue());
+		}
+		
+		CompactDFA<Character> dfa = new CompactDFA<>(alphabet, compiler.numStates);
+		compiler.initStates(dfa);
+		for (int s = 0; s < compiler.numStates; s++) {
+			for (int i = 0; i < numInputs; i++) {
+				int succ = compiler.getSuccessor(s, inputIntervals[i]);
+				if (succ >= 0) {
+					dfa.setTransition(s, i, succ);
+				}
+			}
+		}
+		
+		return dfa;
+	}
+	
+	
+	/**
+	 * Compiles the transitions of a (determinized) Brics automaton into a table indexed by states and
+	 * elementary intervals, i.e., the maximal intervals not containing any range boundary.
+	 */
+	private static final class Compiler {
+		private final State[] states;
+		private final int numStates;
+		private final char[] intervalStarts;
+		private final int numIntervals;
+		// table[interval * numStates + state] is the successor of state on all characters in interval
+		private final int[] table;
+		private int[] intervalClasses;
+		
+		public Compiler(Automaton automaton) {
+			Automaton aut = automaton;
+			if (!aut.isDeterministic()) {
+				aut = aut.clone();
+				aut.determinize();
+			}
+			
+			Map<State,Integer> stateIds = new HashMap<>();
+			Queue<State> queue = new ArrayDeque<>();
+			State init = aut.getInitialState();
+			stateIds.put(init, 0);
+			queue.add(init);
+			
+			Set<State> allStates = aut.getStates();
+			this.states = new State[allStates.size()];
+			int count = 0;
+			
+			// collect the states in BFS order, and all range boundaries
+			char[] boundaries = new char[16];
+			int numBoundaries = 0;
+			boundaries[numBoundaries++] = Character.MIN_VALUE;
+			
+			State curr;
+			while ((curr = queue.poll()) != null) {
+				states[count++] = curr;
+				for (Transition t : curr.getTransitions()) {
+					if (numBoundaries + 2 > boundaries.length) {
+						boundaries = Arrays.copyOf(boundaries, boundaries.length * 2);
+					}
+					boundaries[numBoundaries++] = t.getMin();
+					if (t.getMax() != Character.MAX_VALUE) {
+						boundaries[numBoundaries++] = (char)(t.getMax() + 1);
+					}
+					State dest = t.getDest();
+					if (!stateIds.containsKey(dest)) {
+						stateIds.put(dest, stateIds.size());
+						queue.add(dest);
+					}
+				}
+			}
+			this.numStates = count;
+			
+			Arrays.sort(boundaries, 0, numBoundaries);
+			int numUnique = 0;
+			for (int i = 0; i < numBoundaries; i++) {
+				if (numUnique == 0 || boundaries[i] != boundaries[numUnique - 1]) {
+					boundaries[numUnique++] = boundaries[i];
+				}
+			}
+			this.intervalStarts = Arrays.copyOf(boundaries, numUnique);
+			this.numIntervals = numUnique;
+			
+			long tableSize = (long) numIntervals * numStates;
+			if (tableSize > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Automaton too large: transition table would require "
+						+ tableSize + " entries (" + numStates + " states, " + numIntervals + " intervals)");
+			}
+			this.table = new int[(int) tableSize];
+			Arrays.fill(table, -1);
+			for (int s = 0; s < numStates; s++) {
+				for (Transition t : states[s].getTransitions()) {
+					int succ = stateIds.get(t.getDest()).intValue();
+					int interval = Arrays.binarySearch(intervalStarts, t.getMin());
+					int max = t.getMax();
+					while (interval < numIntervals && intervalStarts[interval] <= max) {
+						table[interval * numStates + s] = succ;
+						interval++;
+					}
+				}
+			}
+		}
+		
+		public int findInterval(char c) {
+			int idx = Arrays.binarySearch(intervalStarts, c);
+			return (idx >= 0) ? idx : -idx - 2;
+		}
+		
+		public int getSuccessor(int state, int interval) {
+			return table[interval * numStates + state];
+		}
+		
+		public void initStates(CompactDFA<?> dfa) {
+			for (int s = 0; s < numStates; s++) {
+				dfa.addIntState(states[s].isAccept());
+			}
+			if (numStates > 0) {
+				dfa.setInitialState(0);
+			}
+		}
+		
+		public CharacterClasses computeClasses() {
+			if (intervalClasses == null) {
+				computeIntervalClasses();
+			}
+			int numClasses = 0;
+			for (int cls : intervalClasses) {
+				numClasses = Math.max(numClasses, cls + 1);
+			}
+			return new CharacterClasses(intervalStarts, intervalClasses, numClasses);
+		}
+		
+		// merges intervals with identical columns in the transition table into one class
+		private void computeIntervalClasses() {
+			this.intervalClasses = new int[numIntervals];
+			Map<Integer,int[]> buckets = new HashMap<>();
+			int numClasses = 0;
+			
+			for (int i = 0; i < numIntervals; i++) {
+				int hash = columnHash(i);
+				int[] candidates = buckets.get(hash);
+				int cls = -1;
+				if (candidates != null) {
+					for (int j = 0; j < candidates.length && cls < 0; j++) {
+						if (columnsEqual(candidates[j], i)) {
+							cls = intervalClasses[candidates[j]];
+						}
+					}
+				}
+				if (cls < 0) {
+					cls = numClasses++;
+					int[] newCandidates;
+					if (candidates == null) {
+						newCandidates = new int[]{ i };
+					}
+					else {
+						newCandidates = Arrays.copyOf(candidates, candidates.length + 1);
+						newCandidates[candidates.length] = i;
+					}
+					buckets.put(hash, newCandidates);
+				}
+				intervalClasses[i] = cls;
+			}
+		}
+		
+		private int columnHash(int interval) {
+			int hash = 1;
+			int base = interval * numStates;
+			for (int s = 0; s < numStates; s++) {
+				hash = 31 * hash + table[base + s];
+			}
+			return hash;
+		}
+		
+		private boolean columnsEqual(int interval1, int interval2) {
+			int base1 = interval1 * numStates;
+			int base2 = interval2 * numStates;
+			for (int s = 0; s < numStates; s++) {
+				if (table[base1 + s] != table[base2 + s]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
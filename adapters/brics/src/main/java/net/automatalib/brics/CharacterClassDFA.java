@@ -0,0 +1,89 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.brics;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+
+/**
+ * A {@link CompactDFA} over an alphabet of {@link CharacterClasses character class} indices, along with
+ * the mapping of characters to their classes.
+ * <p>
+ * Instances of this class are obtained by compiling a Brics automaton via
+ * {@link BricsConverter#toCharacterClassDFA(dk.brics.automaton.Automaton)}. Raw strings can be evaluated
+ * directly via {@link #accepts(CharSequence)}, which translates each character to its class index and
+ * follows the (array-based) transitions of the compact DFA.
+ * 
+ * @author agent
+ */
+@ParametersAreNonnullByDefault
+public final class CharacterClassDFA {
+	
+	private final CompactDFA<Integer> dfa;
+	private final CharacterClasses classes;
+	
+	CharacterClassDFA(CompactDFA<Integer> dfa, CharacterClasses classes) {
+		this.dfa = dfa;
+		this.classes = classes;
+	}
+	
+	/**
+	 * Retrieves the underlying DFA, the inputs of which are character class indices.
+	 * 
+	 * @return the underlying DFA
+	 */
+	public CompactDFA<Integer> getDFA() {
+		return dfa;
+	}
+	
+	/**
+	 * Retrieves the mapping of characters to the class indices used as inputs of the
+	 * {@link #getDFA() underlying DFA}.
+	 * 
+	 * @return the character classes
+	 */
+	public CharacterClasses getCharacterClasses() {
+		return classes;
+	}
+	
+	/**
+	 * Retrieves the (integer) state reached by reading the given string.
+	 * 
+	 * @param chars the string to read
+	 * @return the state reached by reading {@code chars}, or {@code -1} if the string leads outside of the
+	 * defined transitions
+	 */
+	public int getIntState(CharSequence chars) {
+		int state = dfa.getIntInitialState();
+		int len = chars.length();
+		for (int i = 0; i < len && state >= 0; i++) {
+			state = dfa.getIntTransition(state, classes.getClassIndex(chars.charAt(i)));
+		}
+		return state;
+	}
+	
+	/**
+	 * Checks whether the given string is accepted.
+	 * 
+	 * @param chars the string to check
+	 * @return {@code true} if {@code chars} is accepted, {@code false} otherwise
+	 */
+	public boolean accepts(CharSequence chars) {
+		int state = getIntState(chars);
+		return state >= 0 && dfa.isAccepting(state);
+	}
+}
@@ -0,0 +1,133 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.brics;
+
+import java.util.Arrays;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+/**
+ * A partition of the set of all characters into <i>character classes</i>, i.e., sets of characters that
+ * are treated the same way by some automaton.
+ * <p>
+ * Character classes are represented as unions of character intervals, and are identified by consecutive
+ * indices starting at {@code 0}. A character is mapped to its class index in constant time for ASCII
+ * characters, and in time logarithmic in the number of intervals otherwise.
+ * 
+ * @author agent
+ * 
+ * @see BricsConverter#computeCharacterClasses(dk.brics.automaton.Automaton)
+ */
+public final class CharacterClasses {
+	
+	private static final int ASCII_SIZE = 128;
+	
+	// intervalStarts[i] is the first character of the i-th interval, which extends up to
+	// (excluding) intervalStarts[i+1]. intervalStarts[0] is always Character.MIN_VALUE
+	private final char[] intervalStarts;
+	private final int[] intervalClasses;
+	private final int numClasses;
+	private final int[] asciiClasses;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param intervalStarts the (strictly ascending) start characters of the intervals, the first of
+	 * which must be {@link Character#MIN_VALUE}
+	 * @param intervalClasses the class indices of the intervals
+	 * @param numClasses the number of classes
+	 */
+	CharacterClasses(char[] intervalStarts, int[] intervalClasses, int numClasses) {
+		if (intervalStarts.length == 0 || intervalStarts[0] != Character.MIN_VALUE) {
+			throw new IllegalArgumentException("Intervals must cover all characters");
+		}
+		this.intervalStarts = intervalStarts;
+		this.intervalClasses = intervalClasses;
+		this.numClasses = numClasses;
+		this.asciiClasses = new int[ASCII_SIZE];
+		for (int c = 0; c < ASCII_SIZE; c++) {
+			asciiClasses[c] = intervalClasses[findInterval((char) c)];
+		}
+	}
+	
+	/**
+	 * Retrieves the number of character classes.
+	 * 
+	 * @return the number of character classes
+	 */
+	public int getNumClasses() {
+		return numClasses;
+	}
+	
+	/**
+	 * Retrieves an alphabet of the class indices, i.e., of the integers from {@code 0} (inclusive) to
+	 * {@link #getNumClasses()} (exclusive).
+	 * 
+	 * @return an alphabet of the class indices
+	 */
+	public Alphabet<Integer> getClassAlphabet() {
+		return Alphabets.integers(0, numClasses - 1);
+	}
+	
+	/**
+	 * Retrieves the index of the class containing the given character.
+	 * 
+	 * @param c the character
+	 * @return the index of the class containing {@code c}
+	 */
+	public int getClassIndex(char c) {
+		if (c < ASCII_SIZE) {
+			return asciiClasses[c];
+		}
+		return intervalClasses[findInterval(c)];
+	}
+	
+	/**
+	 * Translates a character sequence into the sequence of the indices of the classes of its characters.
+	 * 
+	 * @param chars the character sequence
+	 * @return the class indices of the characters
+	 */
+	public int[] toClassIndices(CharSequence chars) {
+		int len = chars.length();
+		int[] result = new int[len];
+		for (int i = 0; i < len; i++) {
+			result[i] = getClassIndex(chars.charAt(i));
+		}
+		return result;
+	}
+	
+	/**
+	 * Retrieves a representative of the given class, i.e., a character contained in this class.
+	 * 
+	 * @param classIdx the class index
+	 * @return the smallest character contained in the class
+	 */
+	public char getRepresentative(int classIdx) {
+		for (int i = 0; i < intervalClasses.length; i++) {
+			if (intervalClasses[i] == classIdx) {
+				return intervalStarts[i];
+			}
+		}
+		throw new IllegalArgumentException("Invalid class index " + classIdx);
+	}
+	
+	private int findInterval(char c) {
+		int idx = Arrays.binarySearch(intervalStarts, c);
+		return (idx >= 0) ? idx : -idx - 2;
+	}
+}
@@ -0,0 +1,121 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.brics;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.RegExp;
+
+@Test
+public class BricsConverterTest {
+	
+	private static final String[] REGEXPS = {
+		"a(b*|cc+)d?e",
+		"ab|ac",
+		"[a-z]+[0-9]",
+		"(x|[\u00e0-\u00ff\u4e00-\u4e0f])*y?",
+		"[^a]*a[^b]",
+		"#"
+	};
+	
+	private static final char[] CHARS = { 'a', 'b', 'c', 'd', 'e', 'x', 'y', 'z', '0', '9', ':', '\u00e4',
+		'\u4e01', '\u4e10', '\uffff', '\u0000' };
+	
+	@Test
+	public void testCharacterClasses() {
+		CharacterClasses classes = BricsConverter.computeCharacterClasses(new RegExp("[a-z]+[0-9]").toAutomaton());
+		
+		// all characters other than [a-z] and [0-9] are rejected in every state
+		Assert.assertEquals(classes.getNumClasses(), 3);
+		Assert.assertEquals(classes.getClassIndex('b'), classes.getClassIndex('z'));
+		Assert.assertEquals(classes.getClassIndex('0'), classes.getClassIndex('5'));
+		Assert.assertEquals(classes.getClassIndex('!'), classes.getClassIndex('\u4e00'));
+		Assert.assertNotEquals(classes.getClassIndex('a'), classes.getClassIndex('0'));
+		Assert.assertNotEquals(classes.getClassIndex('a'), classes.getClassIndex('A'));
+		
+		int letters = classes.getClassIndex('q');
+		Assert.assertEquals(classes.getRepresentative(letters), 'a');
+	}
+	
+	@Test
+	public void testCharacterClassDFA() {
+		Random random = new Random(42L);
+		
+		for (String regexp : REGEXPS) {
+			Automaton automaton = new RegExp(regexp).toAutomaton();
+			Automaton nondet = nondeterministic(automaton);
+			
+			CharacterClassDFA dfa = BricsConverter.toCharacterClassDFA(automaton);
+			CharacterClassDFA nondetDfa = BricsConverter.toCharacterClassDFA(nondet);
+			Assert.assertEquals(dfa.getDFA().size(), automaton.getNumberOfStates());
+			
+			for (int i = 0; i < 500; i++) {
+				String s = randomString(random);
+				boolean expected = automaton.run(s);
+				Assert.assertEquals(dfa.accepts(s), expected);
+				Assert.assertEquals(nondetDfa.accepts(s), expected);
+				Assert.assertEquals(dfa.getDFA().accepts(dfa.getCharacterClasses().toClassIndices(s)), expected);
+			}
+		}
+	}
+	
+	@Test
+	public void testCompactDFA() {
+		Random random = new Random(42L);
+		Alphabet<Character> alphabet = Alphabets.characters('a', 'e');
+		
+		for (String regexp : REGEXPS) {
+			Automaton automaton = new RegExp(regexp).toAutomaton();
+			CompactDFA<Character> dfa = BricsConverter.toCompactDFA(automaton, alphabet);
+			BricsDFA reference = new BricsDFA(automaton, true);
+			
+			for (int i = 0; i < 500; i++) {
+				StringBuilder sb = new StringBuilder();
+				int len = random.nextInt(8);
+				for (int j = 0; j < len; j++) {
+					sb.append((char)('a' + random.nextInt(alphabet.size())));
+				}
+				Word<Character> word = Word.fromString(sb.toString());
+				Assert.assertEquals(dfa.accepts(word), reference.accepts(word));
+			}
+		}
+	}
+	
+	private static Automaton nondeterministic(Automaton automaton) {
+		// the union with a copy of itself yields an equivalent, but nondeterministic automaton
+		Automaton union = automaton.union(automaton.clone());
+		Assert.assertFalse(union.isDeterministic());
+		return union;
+	}
+	
+	private static String randomString(Random random) {
+		int len = random.nextInt(8);
+		StringBuilder sb = new StringBuilder(len);
+		for (int i = 0; i < len; i++) {
+			sb.append(CHARS[random.nextInt(CHARS.length)]);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,98 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.helpers;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.commons.util.mappings.MutableMapping;
+
+/**
+ * Base class for static mappings from states to primitive values, backed by a primitive array indexed by
+ * the {@link StateIDs state IDs}.
+ * <p>
+ * In addition to the (boxing) {@link MutableMapping} methods, subclasses offer primitive accessors
+ * indexed by state IDs, which allow algorithms working on integer state IDs to store per-state data
+ * without any boxing. Since primitive values cannot be {@code null}, neither states nor values passed
+ * to the {@link MutableMapping} methods may be {@code null}.
+ *
+ * @author agent
+ *
+ * @param <S> state class
+ * @param <V> (boxed) value class
+ */
+public abstract class AbstractStateIDPrimitiveMapping<S, V> implements MutableMapping<S, V> {
+	
+	private final StateIDs<S> stateIds;
+	
+	protected AbstractStateIDPrimitiveMapping(StateIDs<S> stateIds) {
+		this.stateIds = stateIds;
+	}
+	
+	/**
+	 * Retrieves the state IDs by which this mapping is indexed.
+	 * 
+	 * @return the state IDs
+	 */
+	public StateIDs<S> getStateIDs() {
+		return stateIds;
+	}
+	
+	/**
+	 * Retrieves the ID of the given state.
+	 * 
+	 * @param state the state
+	 * @return the ID of the state
+	 * @throws IllegalArgumentException if {@code state} is {@code null}
+	 */
+	protected final int getStateId(S state) {
+		if (state == null) {
+			throw new IllegalArgumentException("State must not be null");
+		}
+		return stateIds.getStateId(state);
+	}
+	
+	/**
+	 * Retrieves the value for the state with the given ID, in boxed form.
+	 * 
+	 * @param stateId the state ID
+	 * @return the value for the respective state
+	 */
+	protected abstract V getBoxed(int stateId);
+	
+	/**
+	 * Sets the value for the state with the given ID.
+	 * 
+	 * @param stateId the state ID
+	 * @param value the new value, never {@code null}
+	 */
+	protected abstract void setBoxed(int stateId, V value);
+	
+	@Override
+	public V get(S elem) {
+		return getBoxed(getStateId(elem));
+	}
+	
+	@Override
+	public V put(S key, V value) {
+		int id = getStateId(key);
+		if (value == null) {
+			throw new IllegalArgumentException("Value must not be null");
+		}
+		V old = getBoxed(id);
+		setBoxed(id, value);
+		return old;
+	}
+	
+}
@@ -0,0 +1,81 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.helpers;
+
+import java.util.Arrays;
+
+import net.automatalib.automata.concepts.StateIDs;
+
+/**
+ * A static mapping from states to {@code int} values, backed by a primitive array indexed by
+ * the {@link StateIDs state IDs}.
+ *
+ * @author agent
+ *
+ * @param <S> state class
+ */
+public class StateIDIntMapping<S> extends AbstractStateIDPrimitiveMapping<S, Integer> {
+	
+	private final int[] storage;
+	
+	public StateIDIntMapping(StateIDs<S> stateIds, int size) {
+		super(stateIds);
+		this.storage = new int[size];
+	}
+	
+	/**
+	 * Constructor. Initializes the values for all states with the given default value.
+	 * 
+	 * @param stateIds the state IDs
+	 * @param size the number of states
+	 * @param defaultValue the initial value for all states
+	 */
+	public StateIDIntMapping(StateIDs<S> stateIds, int size, int defaultValue) {
+		this(stateIds, size);
+		Arrays.fill(storage, defaultValue);
+	}
+	
+	/**
+	 * Retrieves the value for the state with the given ID.
+	 * 
+	 * @param stateId the state ID (see {@link StateIDs#getStateId(Object)})
+	 * @return the value for the respective state
+	 */
+	public int getInt(int stateId) {
+		return storage[stateId];
+	}
+	
+	/**
+	 * Sets the value for the state with the given ID.
+	 * 
+	 * @param stateId the state ID (see {@link StateIDs#getStateId(Object)})
+	 * @param value the new value
+	 */
+	public void setInt(int stateId, int value) {
+		storage[stateId] = value;
+	}
+	
+	@Override
+	protected Integer getBoxed(int stateId) {
+		return storage[stateId];
+	}
+	
+	@Override
+	protected void setBoxed(int stateId, Integer value) {
+		storage[stateId] = value;
+	}
+	
+}
@@ -27,6 +27,36 @@ public class StateIDStaticMapping<S, V> implements MutableMapping<S, V> {
 		this.stateIds = stateIds;
 		this.storage = new Object[size];
 	}
+	
+	/**
+	 * Retrieves the state IDs by which this mapping is indexed.
+	 * 
+	 * @return the state IDs
+	 */
+	public StateIDs<S> getStateIDs() {
+		return stateIds;
+	}
+	
+	/**
+	 * Retrieves the value for the state with the given ID.
+	 * 
+	 * @param stateId the state ID (see {@link StateIDs#getStateId(Object)})
+	 * @return the value for the respective state
+	 */
+	@SuppressWarnings("unchecked")
+	public V getValue(int stateId) {
+		return (V)storage[stateId];
+	}
+	
+	/**
+	 * Sets the value for the state with the given ID.
+	 * 
+	 * @param stateId the state ID (see {@link StateIDs#getStateId(Object)})
+	 * @param value the new value
+	 */
+	public void setValue(int stateId, V value) {
+		storage[stateId] = value;
+	}
 
 	@Override
 	@SuppressWarnings("unchecked")
@@ -22,6 +22,9 @@ import javax.annotation.Nonnull;
 
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.helpers.SimpleStateIDs;
+import net.automatalib.automata.helpers.StateIDBooleanMapping;
+import net.automatalib.automata.helpers.StateIDIntMapping;
+import net.automatalib.automata.helpers.StateIDLongMapping;
 import net.automatalib.automata.helpers.StateIDStaticMapping;
 import net.automatalib.commons.util.mappings.MutableMapping;
 import net.automatalib.ts.simple.SimpleTS;
@@ -70,4 +73,42 @@ public interface SimpleAutomaton<S, I> extends SimpleTS<S,I>, Iterable<S> {
 	default public <V> MutableMapping<S,V> createStaticStateMapping() {
 		return new StateIDStaticMapping<>(stateIDs(), size());
 	}
+	
+	/**
+	 * Creates a static mapping from the states of this automaton to {@code boolean}s. All values are
+	 * initially {@code false}.
+	 * <p>
+	 * The mapping is indexed by the {@link #stateIDs() state IDs}, and allows accessing the values by state
+	 * ID without any boxing.
+	 * 
+	 * @return a static, primitive state mapping
+	 */
+	@Nonnull
+	default public StateIDBooleanMapping<S> createStaticStateBooleanMapping() {
+		return new StateIDBooleanMapping<>(stateIDs(), size());
+	}
+	
+	/**
+	 * Creates a static mapping from the states of this automaton to {@code int}s. All values are
+	 * initially {@code 0}.
+	 * 
+	 * @return a static, primitive state mapping
+	 * @see #createStaticStateBooleanMapping()
+	 */
+	@Nonnull
+	default public StateIDIntMapping<S> createStaticStateIntMapping() {
+		return new StateIDIntMapping<>(stateIDs(), size());
+	}
+	
+	/**
+	 * Creates a static mapping from the states of this automaton to {@code long}s. All values are
+	 * initially {@code 0}.
+	 * 
+	 * @return a static, primitive state mapping
+	 * @see #createStaticStateBooleanMapping()
+	 */
+	@Nonnull
+	default public StateIDLongMapping<S> createStaticStateLongMapping() {
+		return new StateIDLongMapping<>(stateIDs(), size());
+	}
 }
@@ -15,6 +15,7 @@
  */
 package net.automatalib.words;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Objects;
@@ -54,6 +55,28 @@ public interface Alphabet<I> extends ArrayWritable<I>, Collection<I>, Comparator
      */
     public abstract int getSymbolIndex(@Nullable I symbol) throws IllegalArgumentException;
     
+    /**
+     * Translates a sequence of symbols into the sequence of their indices in this alphabet.
+     * 
+     * @param symbols the symbols to translate
+     * @return an array containing the indices of the given symbols, in order
+     * @throws IllegalArgumentException if one of the symbols does not belong to the alphabet.
+     */
+    default public int[] getSymbolIndices(Iterable<? extends I> symbols) throws IllegalArgumentException {
+    	if (symbols instanceof Word) {
+    		return ((Word<? extends I>)symbols).toIntArray(this::getSymbolIndex);
+    	}
+    	int[] result = new int[16];
+    	int len = 0;
+    	for (I sym : symbols) {
+    		if (len == result.length) {
+    			result = Arrays.copyOf(result, len * 2);
+    		}
+    		result[len++] = getSymbolIndex(sym);
+    	}
+    	return Arrays.copyOf(result, len);
+    }
+    
     @Override
     default public I apply(int index) {
     	return getSymbol(index);
@@ -0,0 +1,108 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.Arrays;
+
+/**
+ * An {@link IntWord} storing its symbol indices in a {@code byte[]}.
+ * 
+ * @author agent
+ */
+final class ByteIntWord extends IntWord {
+	
+	static final ByteIntWord EMPTY = new ByteIntWord(new byte[0]);
+	
+	private final byte[] data;
+	
+	ByteIntWord(byte[] data) {
+		this.data = data;
+	}
+	
+	@Override
+	public int length() {
+		return data.length;
+	}
+	
+	@Override
+	public int getSymbolIndex(int index) {
+		return (data[index] & 0xFF);
+	}
+	
+	@Override
+	public void writeToArray(int offset, int[] array, int tgtOfs, int num) {
+		for (int i = 0; i < num; i++) {
+			array[tgtOfs + i] = (data[offset + i] & 0xFF);
+		}
+	}
+	
+	@Override
+	protected IntWord _subWord(int fromIndex, int toIndex) {
+		return new ByteIntWord(Arrays.copyOfRange(data, fromIndex, toIndex));
+	}
+	
+	@Override
+	public IntWord append(int symbolIndex) {
+		if (symbolIndex < 0 || symbolIndex >= BYTE_LIMIT) {
+			return super.append(symbolIndex);
+		}
+		byte[] newData = Arrays.copyOf(data, data.length + 1);
+		newData[data.length] = (byte) symbolIndex;
+		return new ByteIntWord(newData);
+	}
+	
+	@Override
+	public IntWord concat(IntWord other) {
+		if (!(other instanceof ByteIntWord) || isEmpty()) {
+			return super.concat(other);
+		}
+		byte[] otherData = ((ByteIntWord) other).data;
+		byte[] newData = Arrays.copyOf(data, data.length + otherData.length);
+		System.arraycopy(otherData, 0, newData, data.length, otherData.length);
+		return new ByteIntWord(newData);
+	}
+	
+	@Override
+	public int longestCommonPrefixLength(IntWord other) {
+		if (!(other instanceof ByteIntWord)) {
+			return super.longestCommonPrefixLength(other);
+		}
+		byte[] otherData = ((ByteIntWord) other).data;
+		int maxLen = Math.min(data.length, otherData.length);
+		int i = 0;
+		while (i < maxLen && data[i] == otherData[i]) {
+			i++;
+		}
+		return i;
+	}
+	
+	@Override
+	protected boolean contentEquals(IntWord other) {
+		if (other instanceof ByteIntWord) {
+			return Arrays.equals(data, ((ByteIntWord) other).data);
+		}
+		return super.contentEquals(other);
+	}
+	
+	@Override
+	protected int computeHashCode() {
+		int h = 1;
+		for (byte d : data) {
+			h = 31 * h + (d & 0xFF);
+		}
+		return h;
+	}
+}
@@ -0,0 +1,389 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * An immutable word over the <i>indices</i> of the symbols of an {@link Alphabet}.
+ * <p>
+ * In contrast to {@link Word}s, which store references to arbitrary symbol objects, an {@link IntWord}
+ * stores the symbol indices in a primitive array. Depending on the size of the alphabet, this is a
+ * {@code byte[]} (up to 256 symbols), a {@code short[]} (up to 65536 symbols), or an {@code int[]}. The hash
+ * code is computed only once, and {@link #equals(Object)}, {@link #isPrefixOf(IntWord)} and
+ * {@link #longestCommonPrefixLength(IntWord)} compare the primitive arrays directly whenever both words
+ * use the same representation. This makes {@link IntWord}s well-suited as keys in large hash-based
+ * caches.
+ * <p>
+ * Two {@link IntWord}s are equal if and only if they contain the same sequence of symbol indices,
+ * regardless of their internal representation.
+ * 
+ * @author agent
+ */
+@ParametersAreNonnullByDefault
+public abstract class IntWord {
+	
+	static final int BYTE_LIMIT = 1 << Byte.SIZE;
+	static final int SHORT_LIMIT = 1 << Short.SIZE;
+	
+	// 0 means "not yet computed"; words with hash 0 are re-hashed on every call, like strings
+	private int hash;
+	
+	IntWord() {
+	}
+	
+	/**
+	 * Retrieves the empty word.
+	 * 
+	 * @return the empty word
+	 */
+	@Nonnull
+	public static IntWord epsilon() {
+		return ByteIntWord.EMPTY;
+	}
+	
+	/**
+	 * Creates a word from the given symbol indices. The array is copied.
+	 * 
+	 * @param indices the symbol indices
+	 * @return a word containing the given symbol indices
+	 */
+	@Nonnull
+	public static IntWord fromIndices(int... indices) {
+		return fromIndices(indices, 0, indices.length);
+	}
+	
+	/**
+	 * Creates a word from a range of the given array of symbol indices. The array is copied.
+	 * 
+	 * @param indices the array containing the symbol indices
+	 * @param offset the start index of the range
+	 * @param length the length of the range
+	 * @return a word containing the given symbol indices
+	 */
+	@Nonnull
+	public static IntWord fromIndices(int[] indices, int offset, int length) {
+		int max = 0;
+		for (int i = offset; i < offset + length; i++) {
+			int idx = indices[i];
+			if (idx < 0) {
+				throw new IllegalArgumentException("Invalid symbol index " + idx);
+			}
+			if (idx > max) {
+				max = idx;
+			}
+		}
+		return create(indices, offset, length, max);
+	}
+	
+	/**
+	 * Creates an {@link IntWord} containing the indices of the symbols of the given word, with respect
+	 * to the given alphabet.
+	 * 
+	 * @param word the word
+	 * @param alphabet the alphabet
+	 * @return the word of the symbol indices
+	 */
+	@Nonnull
+	public static <I> IntWord fromWord(Word<? extends I> word, Alphabet<I> alphabet) {
+		int[] indices = word.toIntArray(alphabet);
+		return create(indices, 0, indices.length, alphabet.size() - 1);
+	}
+	
+	static IntWord create(int[] indices, int offset, int length, int maxIndex) {
+		if (length == 0) {
+			return epsilon();
+		}
+		if (maxIndex < BYTE_LIMIT) {
+			byte[] data = new byte[length];
+			for (int i = 0; i < length; i++) {
+				data[i] = (byte) indices[offset + i];
+			}
+			return new ByteIntWord(data);
+		}
+		if (maxIndex < SHORT_LIMIT) {
+			short[] data = new short[length];
+			for (int i = 0; i < length; i++) {
+				data[i] = (short) indices[offset + i];
+			}
+			return new ShortIntWord(data);
+		}
+		return new IntArrayIntWord(Arrays.copyOfRange(indices, offset, offset + length));
+	}
+	
+	/**
+	 * Retrieves the length of this word.
+	 * 
+	 * @return the length of this word
+	 */
+	public abstract int length();
+	
+	/**
+	 * Retrieves the symbol index at the given position.
+	 * 
+	 * @param index the position
+	 * @return the symbol index at position {@code index}
+	 */
+	public abstract int getSymbolIndex(int index);
+	
+	/**
+	 * Checks whether this word is empty.
+	 * 
+	 * @return {@code true} if this word is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return length() == 0;
+	}
+	
+	/**
+	 * Writes a range of the symbol indices of this word to an array.
+	 * 
+	 * @param offset the start index of the range in this word
+	 * @param array the target array
+	 * @param tgtOfs the start index in the target array
+	 * @param num the number of symbol indices to write
+	 */
+	public void writeToArray(int offset, int[] array, int tgtOfs, int num) {
+		for (int i = 0; i < num; i++) {
+			array[tgtOfs + i] = getSymbolIndex(offset + i);
+		}
+	}
+	
+	/**
+	 * Retrieves the symbol indices of this word as an array. The returned array is a copy, i.e., it may be
+	 * freely modified.
+	 * 
+	 * @return an array containing the symbol indices of this word
+	 */
+	@Nonnull
+	public int[] toIntArray() {
+		int len = length();
+		int[] result = new int[len];
+		writeToArray(0, result, 0, len);
+		return result;
+	}
+	
+	/**
+	 * Converts this word to a {@link Word} over the symbols of the given alphabet.
+	 * 
+	 * @param alphabet the alphabet
+	 * @return the word of the symbols with the indices in this word
+	 */
+	@Nonnull
+	public <I> Word<I> toWord(Alphabet<I> alphabet) {
+		int len = length();
+		if (len == 0) {
+			return Word.epsilon();
+		}
+		if (len == 1) {
+			return Word.fromLetter(alphabet.getSymbol(getSymbolIndex(0)));
+		}
+		Object[] symbols = new Object[len];
+		for (int i = 0; i < len; i++) {
+			symbols[i] = alphabet.getSymbol(getSymbolIndex(i));
+		}
+		return new SharedWord<>(symbols);
+	}
+	
+	/**
+	 * Retrieves the subword of this word in the given range.
+	 * 
+	 * @param fromIndex the start index (inclusive)
+	 * @param toIndex the end index (exclusive)
+	 * @return the subword in the given range
+	 */
+	@Nonnull
+	public final IntWord subWord(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex < fromIndex || toIndex > length()) {
+			throw new IndexOutOfBoundsException("Invalid subword range [" + fromIndex + ", " + toIndex + ")");
+		}
+		if (fromIndex == 0 && toIndex == length()) {
+			return this;
+		}
+		if (fromIndex == toIndex) {
+			return epsilon();
+		}
+		return _subWord(fromIndex, toIndex);
+	}
+	
+	/**
+	 * Retrieves the prefix of the given length.
+	 * 
+	 * @param prefixLen the length of the prefix
+	 * @return the prefix of length {@code prefixLen}
+	 */
+	@Nonnull
+	public final IntWord prefix(int prefixLen) {
+		return subWord(0, prefixLen);
+	}
+	
+	/**
+	 * Retrieves the suffix of the given length.
+	 * 
+	 * @param suffixLen the length of the suffix
+	 * @return the suffix of length {@code suffixLen}
+	 */
+	@Nonnull
+	public final IntWord suffix(int suffixLen) {
+		int len = length();
+		return subWord(len - suffixLen, len);
+	}
+	
+	/**
+	 * Realizes the creation of a subword. The range is guaranteed to be valid and non-empty.
+	 * 
+	 * @param fromIndex the start index (inclusive)
+	 * @param toIndex the end index (exclusive)
+	 * @return the subword in the given range
+	 */
+	@Nonnull
+	protected abstract IntWord _subWord(int fromIndex, int toIndex);
+	
+	/**
+	 * Appends a symbol index to this word and returns the result as a new word.
+	 * 
+	 * @param symbolIndex the symbol index to append
+	 * @return this word with {@code symbolIndex} appended
+	 */
+	@Nonnull
+	public IntWord append(int symbolIndex) {
+		int len = length();
+		int[] indices = new int[len + 1];
+		writeToArray(0, indices, 0, len);
+		indices[len] = symbolIndex;
+		return fromIndices(indices);
+	}
+	
+	/**
+	 * Concatenates this word with another word and returns the result as a new word.
+	 * 
+	 * @param other the word to append
+	 * @return the concatenation of this word and {@code other}
+	 */
+	@Nonnull
+	public IntWord concat(IntWord other) {
+		if (other.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return other;
+		}
+		int len = length(), otherLen = other.length();
+		int[] indices = new int[len + otherLen];
+		writeToArray(0, indices, 0, len);
+		other.writeToArray(0, indices, len, otherLen);
+		return fromIndices(indices);
+	}
+	
+	/**
+	 * Checks if this word is a prefix of another word.
+	 * 
+	 * @param other the other word
+	 * @return {@code true} if this word is a prefix of {@code other}, {@code false} otherwise
+	 */
+	public boolean isPrefixOf(IntWord other) {
+		int len = length();
+		return len <= other.length() && longestCommonPrefixLength(other) == len;
+	}
+	
+	/**
+	 * Determines the length of the longest common prefix of this word and another word.
+	 * 
+	 * @param other the other word
+	 * @return the length of the longest common prefix of this word and {@code other}
+	 */
+	public int longestCommonPrefixLength(IntWord other) {
+		int maxLen = Math.min(length(), other.length());
+		int i = 0;
+		while (i < maxLen && getSymbolIndex(i) == other.getSymbolIndex(i)) {
+			i++;
+		}
+		return i;
+	}
+	
+	/**
+	 * Determines the longest common prefix of this word and another word.
+	 * 
+	 * @param other the other word
+	 * @return the longest common prefix of this word and {@code other}
+	 */
+	@Nonnull
+	public IntWord longestCommonPrefix(IntWord other) {
+		return prefix(longestCommonPrefixLength(other));
+	}
+	
+	/**
+	 * Checks whether the symbol indices of this word equal those of another word of the same length.
+	 * 
+	 * @param other the other word, having the same length as this word
+	 * @return {@code true} if both words contain the same symbol indices, {@code false} otherwise
+	 */
+	protected boolean contentEquals(IntWord other) {
+		return longestCommonPrefixLength(other) == length();
+	}
+	
+	/**
+	 * Computes the hash code of this word. The result must only depend on the sequence of symbol indices,
+	 * and be consistent with {@code 31 * h + index} folded over all indices, starting with {@code h = 1}.
+	 * 
+	 * @return the hash code of this word
+	 */
+	protected int computeHashCode() {
+		int h = 1;
+		int len = length();
+		for (int i = 0; i < len; i++) {
+			h = 31 * h + getSymbolIndex(i);
+		}
+		return h;
+	}
+	
+	@Override
+	public final int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			h = computeHashCode();
+			hash = h;
+		}
+		return h;
+	}
+	
+	@Override
+	public final boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntWord)) {
+			return false;
+		}
+		IntWord other = (IntWord) obj;
+		if (length() != other.length()) {
+			return false;
+		}
+		int h = hash, otherHash = other.hash;
+		if (h != 0 && otherHash != 0 && h != otherHash) {
+			return false;
+		}
+		return contentEquals(other);
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toIntArray());
+	}
+}
@@ -18,6 +18,7 @@ package net.automatalib.words;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Spliterator;
 
 
@@ -110,6 +111,8 @@ final class SharedWord<I> extends Word<I> {
 	private final Object[] storage;
 	private final int offset;
 	private final int length;
+	// cached hash code, 0 means "not yet computed"
+	private int hash;
 	
 	/**
 	 * Constructor.
@@ -224,6 +227,47 @@ final class SharedWord<I> extends Word<I> {
 		return new SharedWord<>(trimmed);
 	}
 	
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0) {
+			h = 5;
+			for (int i = offset; i < offset + length; i++) {
+				Object sym = storage[i];
+				h *= 89;
+				h += (sym != null) ? sym.hashCode() : 0;
+			}
+			hash = h;
+		}
+		return h;
+	}
+	
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof SharedWord)) {
+			return super.equals(other);
+		}
+		if (this == other) {
+			return true;
+		}
+		SharedWord<?> otherWord = (SharedWord<?>) other;
+		if (length != otherWord.length) {
+			return false;
+		}
+		int h = hash, otherHash = otherWord.hash;
+		if (h != 0 && otherHash != 0 && h != otherHash) {
+			return false;
+		}
+		Object[] otherStorage = otherWord.storage;
+		int otherOffset = otherWord.offset;
+		for (int i = 0; i < length; i++) {
+			if (!Objects.equals(storage[offset + i], otherStorage[otherOffset + i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	@Override
 	@SuppressWarnings("unchecked")
     public Spliterator<I> spliterator() {
@@ -0,0 +1,106 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.Arrays;
+
+/**
+ * An {@link IntWord} storing its symbol indices in a {@code short[]}.
+ * 
+ * @author agent
+ */
+final class ShortIntWord extends IntWord {
+	
+	private final short[] data;
+	
+	ShortIntWord(short[] data) {
+		this.data = data;
+	}
+	
+	@Override
+	public int length() {
+		return data.length;
+	}
+	
+	@Override
+	public int getSymbolIndex(int index) {
+		return (data[index] & 0xFFFF);
+	}
+	
+	@Override
+	public void writeToArray(int offset, int[] array, int tgtOfs, int num) {
+		for (int i = 0; i < num; i++) {
+			array[tgtOfs + i] = (data[offset + i] & 0xFFFF);
+		}
+	}
+	
+	@Override
+	protected IntWord _subWord(int fromIndex, int toIndex) {
+		return new ShortIntWord(Arrays.copyOfRange(data, fromIndex, toIndex));
+	}
+	
+	@Override
+	public IntWord append(int symbolIndex) {
+		if (symbolIndex < 0 || symbolIndex >= SHORT_LIMIT) {
+			return super.append(symbolIndex);
+		}
+		short[] newData = Arrays.copyOf(data, data.length + 1);
+		newData[data.length] = (short) symbolIndex;
+		return new ShortIntWord(newData);
+	}
+	
+	@Override
+	public IntWord concat(IntWord other) {
+		if (!(other instanceof ShortIntWord) || isEmpty()) {
+			return super.concat(other);
+		}
+		short[] otherData = ((ShortIntWord) other).data;
+		short[] newData = Arrays.copyOf(data, data.length + otherData.length);
+		System.arraycopy(otherData, 0, newData, data.length, otherData.length);
+		return new ShortIntWord(newData);
+	}
+	
+	@Override
+	public int longestCommonPrefixLength(IntWord other) {
+		if (!(other instanceof ShortIntWord)) {
+			return super.longestCommonPrefixLength(other);
+		}
+		short[] otherData = ((ShortIntWord) other).data;
+		int maxLen = Math.min(data.length, otherData.length);
+		int i = 0;
+		while (i < maxLen && data[i] == otherData[i]) {
+			i++;
+		}
+		return i;
+	}
+	
+	@Override
+	protected boolean contentEquals(IntWord other) {
+		if (other instanceof ShortIntWord) {
+			return Arrays.equals(data, ((ShortIntWord) other).data);
+		}
+		return super.contentEquals(other);
+	}
+	
+	@Override
+	protected int computeHashCode() {
+		int h = 1;
+		for (short d : data) {
+			h = 31 * h + (d & 0xFFFF);
+		}
+		return h;
+	}
+}
@@ -0,0 +1,195 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A word that is represented by a node of a {@link WordTrie}.
+ * <p>
+ * Each node stores its last symbol and a reference to its parent, i.e., the node of its longest proper
+ * prefix. Additionally, each node stores a <i>jump</i> reference to one of its ancestors, which is chosen
+ * according to a skew-binary decomposition of the depth (cf. E. W. Myers, "An applicative random-access
+ * stack", 1983). This allows locating the ancestor at an arbitrary depth in logarithmic time.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ */
+final class TrieWord<I> extends Word<I> {
+	
+	private static final int EMPTY_HASH = 5;
+	private static final int HASH_FACTOR = 89;
+	
+	private final WordTrie<I> trie;
+	private final TrieWord<I> parent;
+	private final TrieWord<I> jump;
+	private final I symbol;
+	private final int length;
+	private final int hash;
+	
+	// null, a single child of type TrieWord, or a Map<I,TrieWord<I>>
+	private Object children;
+	
+	/**
+	 * Constructor for the root node.
+	 * 
+	 * @param trie the trie
+	 */
+	TrieWord(WordTrie<I> trie) {
+		this.trie = trie;
+		this.parent = null;
+		this.jump = this;
+		this.symbol = null;
+		this.length = 0;
+		this.hash = EMPTY_HASH;
+	}
+	
+	private TrieWord(TrieWord<I> parent, I symbol) {
+		this.trie = parent.trie;
+		this.parent = parent;
+		this.symbol = symbol;
+		this.length = parent.length + 1;
+		this.hash = parent.hash * HASH_FACTOR + Objects.hashCode(symbol);
+		
+		TrieWord<I> pJump = parent.jump;
+		if (parent.length - pJump.length == pJump.length - pJump.jump.length) {
+			this.jump = pJump.jump;
+		}
+		else {
+			this.jump = parent;
+		}
+	}
+	
+	WordTrie<I> getTrie() {
+		return trie;
+	}
+	
+	@SuppressWarnings("unchecked")
+	TrieWord<I> getChild(I sym) {
+		if (children == null) {
+			TrieWord<I> child = new TrieWord<>(this, sym);
+			children = child;
+			trie.nodeCreated();
+			return child;
+		}
+		Map<I,TrieWord<I>> childMap;
+		if (children instanceof TrieWord) {
+			TrieWord<I> single = (TrieWord<I>) children;
+			if (Objects.equals(single.symbol, sym)) {
+				return single;
+			}
+			childMap = new HashMap<>(4);
+			childMap.put(single.symbol, single);
+			children = childMap;
+		}
+		else {
+			childMap = (Map<I,TrieWord<I>>) children;
+		}
+		TrieWord<I> child = childMap.get(sym);
+		if (child == null) {
+			child = new TrieWord<>(this, sym);
+			childMap.put(sym, child);
+			trie.nodeCreated();
+		}
+		return child;
+	}
+	
+	/**
+	 * Retrieves the ancestor (i.e., prefix) of this node at the given depth.
+	 * 
+	 * @param depth the depth, which must not exceed the length of this word
+	 * @return the prefix of this word of length {@code depth}
+	 */
+	private TrieWord<I> ancestor(int depth) {
+		TrieWord<I> node = this;
+		while (node.length > depth) {
+			node = (node.jump.length >= depth) ? node.jump : node.parent;
+		}
+		return node;
+	}
+
+	@Override
+	public I getSymbol(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		}
+		return ancestor(index + 1).symbol;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+	
+	@Override
+	public I lastSymbol() {
+		return symbol;
+	}
+	
+	@Override
+	protected Word<I> _subWord(int fromIndex, int toIndex) {
+		if (fromIndex == 0) {
+			return ancestor(toIndex);
+		}
+		return super._subWord(fromIndex, toIndex);
+	}
+	
+	@Override
+	public void writeToArray(int offset, Object[] array, int tgtOfs, int num) {
+		TrieWord<I> node = ancestor(offset + num);
+		for (int i = tgtOfs + num - 1; i >= tgtOfs; i--) {
+			array[i] = node.symbol;
+			node = node.parent;
+		}
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public java.util.Iterator<I> iterator() {
+		Object[] symbols = new Object[length];
+		writeToArray(0, symbols, 0, length);
+		return Arrays.asList((I[]) symbols).iterator();
+	}
+	
+	@Override
+	public boolean isPrefixOf(Word<?> other) {
+		if (other instanceof TrieWord && ((TrieWord<?>) other).trie == trie) {
+			TrieWord<?> otherNode = (TrieWord<?>) other;
+			return length <= otherNode.length && otherNode.ancestor(length) == this;
+		}
+		return super.isPrefixOf(other);
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+	
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other instanceof TrieWord && ((TrieWord<?>) other).trie == trie) {
+			return false;
+		}
+		return super.equals(other);
+	}
+}
@@ -0,0 +1,113 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A pool of hash-consed, persistent words, which are stored in a prefix tree.
+ * <p>
+ * Every word obtained from a word trie is represented by a node of the trie, which stores its last
+ * symbol and a reference to the node of its longest proper prefix. Words are <i>interned</i>: appending
+ * the same symbol to the same word via {@link #append(Word, Object)} always yields the same object.
+ * Consequently,
+ * <ul>
+ * <li>{@link #append(Word, Object) appending} a symbol to a word of the trie takes (amortized) constant time,
+ * and so does computing the hash code of the result;</li>
+ * <li>a set of words with common prefixes (such as a state or transition cover) requires memory
+ * proportional to the number of distinct prefixes, not to the sum of the word lengths;</li>
+ * <li>two words of the same trie are equal if and only if they are identical.</li>
+ * </ul>
+ * Since the symbols of a word are not stored contiguously, accessing the symbol at an arbitrary position
+ * takes time logarithmic in the length of the word. Iterating over a word, or writing it to an array,
+ * takes linear time.
+ * <p>
+ * Words are only added to a trie through its own methods. The words themselves are immutable, and
+ * operations on them such as {@link Word#append(Object)} or {@link Word#concat(Word...)} yield ordinary
+ * words, not words of the trie. Hence, they may be shared between threads like any other word.
+ * A word trie never forgets a word, i.e., its memory consumption grows with the number of distinct words
+ * created. It is not thread-safe.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ */
+@ParametersAreNonnullByDefault
+public final class WordTrie<I> {
+	
+	private final TrieWord<I> root = new TrieWord<>(this);
+	private int size = 1;
+	
+	/**
+	 * Retrieves the empty word of this trie.
+	 * 
+	 * @return the empty word
+	 */
+	@Nonnull
+	public Word<I> epsilon() {
+		return root;
+	}
+	
+	/**
+	 * Retrieves the word of this trie that is equal to the given word.
+	 * 
+	 * @param word the word to intern
+	 * @return the word of this trie that is equal to {@code word}
+	 */
+	@Nonnull
+	public Word<I> intern(Word<? extends I> word) {
+		return internWord(word);
+	}
+	
+	/**
+	 * Retrieves the word of this trie that is obtained by appending a symbol to the given word.
+	 * 
+	 * @param word the word
+	 * @param symbol the symbol to append
+	 * @return the word of this trie that is equal to {@code word.append(symbol)}
+	 */
+	@Nonnull
+	public Word<I> append(Word<? extends I> word, @Nullable I symbol) {
+		return internWord(word).getChild(symbol);
+	}
+	
+	/**
+	 * Retrieves the number of distinct words (including the empty word) created by this trie.
+	 * 
+	 * @return the number of words in this trie
+	 */
+	public int size() {
+		return size;
+	}
+	
+	void nodeCreated() {
+		size++;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private TrieWord<I> internWord(Word<? extends I> word) {
+		if (word instanceof TrieWord && ((TrieWord<?>) word).getTrie() == this) {
+			return (TrieWord<I>) word;
+		}
+		TrieWord<I> node = root;
+		for (I sym : word) {
+			node = node.getChild(sym);
+		}
+		return node;
+	}
+}
@@ -0,0 +1,133 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.AbstractList;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class IntWordTest {
+	
+	private static final class IntegerAlphabet extends AbstractList<Integer> implements Alphabet<Integer> {
+		private final int size;
+		
+		public IntegerAlphabet(int size) {
+			this.size = size;
+		}
+		
+		@Override
+		public Integer getSymbol(int index) {
+			return index;
+		}
+		
+		@Override
+		public int getSymbolIndex(Integer symbol) {
+			return symbol.intValue();
+		}
+		
+		@Override
+		public Integer get(int index) {
+			return index;
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+	
+	@Test
+	public void testRepresentations() {
+		Assert.assertTrue(IntWord.fromIndices(1, 255) instanceof ByteIntWord);
+		Assert.assertTrue(IntWord.fromIndices(1, 256) instanceof ShortIntWord);
+		Assert.assertTrue(IntWord.fromIndices(1, 65536) instanceof IntArrayIntWord);
+		Assert.assertSame(IntWord.fromIndices(), IntWord.epsilon());
+		
+		Assert.assertEquals(IntWord.fromIndices(200, 255).toIntArray(), new int[]{ 200, 255 });
+		Assert.assertEquals(IntWord.fromIndices(40000, 65535).toIntArray(), new int[]{ 40000, 65535 });
+		
+		// appending a symbol index that does not fit widens the representation
+		IntWord widened = IntWord.fromIndices(1, 2).append(1000);
+		Assert.assertTrue(widened instanceof ShortIntWord);
+		Assert.assertEquals(widened, IntWord.fromIndices(1, 2, 1000));
+	}
+	
+	@Test
+	public void testEqualityAcrossRepresentations() {
+		int[] indices = { 3, 1, 4, 1, 5, 9, 2, 6 };
+		IntWord byteWord = IntWord.fromIndices(indices);
+		IntWord shortWord = IntWord.create(indices, 0, indices.length, IntWord.SHORT_LIMIT - 1);
+		IntWord intWord = IntWord.create(indices, 0, indices.length, Integer.MAX_VALUE);
+		
+		Assert.assertTrue(shortWord instanceof ShortIntWord);
+		Assert.assertTrue(intWord instanceof IntArrayIntWord);
+		
+		for (IntWord w1 : new IntWord[]{ byteWord, shortWord, intWord }) {
+			for (IntWord w2 : new IntWord[]{ byteWord, shortWord, intWord }) {
+				Assert.assertEquals(w1, w2);
+				Assert.assertEquals(w1.hashCode(), w2.hashCode());
+				Assert.assertTrue(w1.isPrefixOf(w2));
+				Assert.assertEquals(w1.concat(w2), w2.concat(w1));
+			}
+		}
+		
+		Assert.assertNotEquals(byteWord, IntWord.fromIndices(3, 1, 4, 1, 5, 9, 2, 7));
+		Assert.assertNotEquals(byteWord, byteWord.prefix(7));
+	}
+	
+	@Test
+	public void testPrefixes() {
+		IntWord w1 = IntWord.fromIndices(0, 1, 2, 3, 4);
+		IntWord w2 = IntWord.fromIndices(0, 1, 2, 4);
+		
+		Assert.assertEquals(w1.longestCommonPrefixLength(w2), 3);
+		Assert.assertEquals(w1.longestCommonPrefix(w2), IntWord.fromIndices(0, 1, 2));
+		Assert.assertTrue(w1.prefix(3).isPrefixOf(w2));
+		Assert.assertFalse(w1.isPrefixOf(w2));
+		Assert.assertFalse(w2.isPrefixOf(w1));
+		Assert.assertTrue(IntWord.epsilon().isPrefixOf(w1));
+		
+		Assert.assertEquals(w1.suffix(2), IntWord.fromIndices(3, 4));
+		Assert.assertEquals(w1.subWord(1, 3), IntWord.fromIndices(1, 2));
+		Assert.assertSame(w1.subWord(0, 5), w1);
+	}
+	
+	@Test
+	public void testWordConversion() {
+		Random random = new Random(42L);
+		
+		for (int alphabetSize : new int[]{ 2, 300, 70000 }) {
+			Alphabet<Integer> alphabet = new IntegerAlphabet(alphabetSize);
+			for (int i = 0; i < 50; i++) {
+				int len = random.nextInt(20);
+				WordBuilder<Integer> wb = new WordBuilder<>(len);
+				for (int j = 0; j < len; j++) {
+					wb.add(random.nextInt(alphabetSize));
+				}
+				Word<Integer> word = wb.toWord();
+				
+				IntWord intWord = IntWord.fromWord(word, alphabet);
+				Assert.assertEquals(intWord.length(), len);
+				Assert.assertEquals(intWord.toWord(alphabet), word);
+				Assert.assertEquals(intWord.toIntArray(), alphabet.getSymbolIndices(word));
+				Assert.assertEquals(IntWord.fromIndices(intWord.toIntArray()), intWord);
+			}
+		}
+	}
+}
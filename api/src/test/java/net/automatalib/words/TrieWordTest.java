@@ -0,0 +1,129 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.words;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class TrieWordTest extends NonemptyWordTest {
+	
+	private final WordTrie<Object> trie = new WordTrie<>();
+	
+	@Test
+	public void testLength() {
+		Assert.assertEquals(testWord.length(), 4);
+	}
+	
+	@Test
+	public void testInterning() {
+		Word<Object> w1 = trie.intern(Word.fromSymbols(1, 3, 3, 7));
+		Assert.assertSame(w1, testWord);
+		Assert.assertSame(trie.append(w1.prefix(3), 7), testWord);
+		Assert.assertSame(trie.append(trie.append(w1.prefix(2), 3), 7), testWord);
+		Assert.assertSame(trie.intern(trie.epsilon()), trie.epsilon());
+		
+		WordTrie<Object> other = new WordTrie<>();
+		Word<Object> w2 = other.intern(testWord);
+		Assert.assertNotSame(w2, testWord);
+		Assert.assertEquals(w2, testWord);
+		Assert.assertSame(other.intern(w2), w2);
+	}
+	
+	@Test
+	public void testSharing() {
+		WordTrie<Integer> localTrie = new WordTrie<>();
+		Random random = new Random(42L);
+		
+		Word<Integer> word = localTrie.epsilon();
+		Word<Integer> reference = Word.epsilon();
+		for (int i = 0; i < 1000; i++) {
+			int sym = random.nextInt(3);
+			word = localTrie.append(word, sym);
+			reference = reference.append(sym);
+			// all prefixes of a single word add exactly one node per symbol
+			Assert.assertEquals(localTrie.size(), i + 2);
+		}
+		
+		Assert.assertEquals(word, reference);
+		Assert.assertEquals(reference, word);
+		Assert.assertEquals(word.hashCode(), reference.hashCode());
+		
+		for (int i = 0; i < 1000; i++) {
+			int idx = random.nextInt(word.length());
+			Assert.assertEquals(word.getSymbol(idx), reference.getSymbol(idx));
+			
+			Word<Integer> prefix = word.prefix(idx);
+			Assert.assertEquals(prefix, reference.prefix(idx));
+			Assert.assertTrue(prefix.isPrefixOf(word));
+			Assert.assertSame(localTrie.intern(reference.prefix(idx)), prefix);
+			
+			Assert.assertEquals(word.subWord(idx, word.length()), reference.subWord(idx, reference.length()));
+		}
+		
+		Assert.assertEquals(localTrie.size(), 1001);
+	}
+	
+	@Test
+	public void testPlainOperations() {
+		WordTrie<Integer> localTrie = new WordTrie<>();
+		Word<Integer> word = localTrie.intern(Word.fromSymbols(1, 2));
+		int size = localTrie.size();
+		
+		// operations on words of the trie do not add words to the trie
+		Assert.assertEquals(word.append(3), Word.fromSymbols(1, 2, 3));
+		Assert.assertEquals(word.concat(Word.fromSymbols(3, 4)), Word.fromSymbols(1, 2, 3, 4));
+		Assert.assertEquals(localTrie.size(), size);
+		Assert.assertSame(localTrie.intern(word.append(3)), localTrie.append(word, 3));
+	}
+	
+	@Override
+	protected Word<Object> testWord() {
+		return trie.intern(Word.fromSymbols(1, 3, 3, 7));
+	}
+
+	@Override
+	protected List<Word<Object>> equalWords() {
+		return Arrays.<Word<Object>>asList(new SharedWord<Object>(Arrays.asList(1, 3, 3, 7)),
+				new WordTrie<>().intern(Word.fromSymbols(1, 3, 3, 7)));
+	}
+
+	@Override
+	protected List<Word<Object>> unequalWords() {
+		return Arrays.<Word<Object>>asList(trie.intern(Word.fromSymbols(1, 3, 3)),
+				trie.intern(Word.fromSymbols(1, 3, 3, 8)),
+				trie.epsilon(),
+				new SharedWord<Object>(Arrays.asList(2, 4)));
+	}
+
+	@Override
+	protected List<Word<Object>> realPrefixes() {
+		return Arrays.<Word<Object>>asList(trie.epsilon(), trie.intern(Word.fromSymbols(1, 3)),
+				new SharedWord<>(new Object[]{1, 3, 3}),
+				new LetterWord<Object>(1));
+	}
+
+	@Override
+	protected List<Word<Object>> realSuffixes() {
+		return Arrays.<Word<Object>>asList(new EmptyWord(), trie.intern(Word.fromSymbols(3, 7)),
+				new SharedWord<>(new Object[]{3, 3, 7}),
+				new LetterWord<Object>(7));
+	}
+}
@@ -0,0 +1,133 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+/**
+ * Utility methods for generating the (reproducible) random input data of the benchmarks.
+ *
+ * @author agent
+ */
+public abstract class BenchmarkAutomata {
+
+	/**
+	 * The seed used for all random data, such that all runs operate on the same inputs.
+	 */
+	public static final long SEED = 42L;
+
+	public static Alphabet<Integer> alphabet(int size) {
+		return Alphabets.integers(0, size - 1);
+	}
+
+	/**
+	 * Generates a random, complete, initially connected DFA.
+	 *
+	 * @param rand the randomness source
+	 * @param numStates the number of states
+	 * @param alphabet the input alphabet
+	 * @param minimal whether the DFA should be minimized after generation
+	 * @return the generated DFA
+	 */
+	public static <I> CompactDFA<I> randomDFA(Random rand, int numStates, Alphabet<I> alphabet, boolean minimal) {
+		return RandomAutomata.randomICDFA(rand, numStates, alphabet, minimal);
+	}
+
+	/**
+	 * Generates a random Mealy machine, using the given number of distinct output symbols.
+	 *
+	 * @param rand the randomness source
+	 * @param numStates the number of states
+	 * @param alphabet the input alphabet
+	 * @param numOutputs the number of distinct output symbols
+	 * @return the generated Mealy machine
+	 */
+	public static <I> CompactMealy<I,Integer> randomMealy(Random rand, int numStates, Alphabet<I> alphabet, int numOutputs) {
+		List<Integer> outputs = new ArrayList<>(numOutputs);
+		for (int i = 0; i < numOutputs; i++) {
+			outputs.add(i);
+		}
+		return RandomAutomata.randomMealy(rand, numStates, alphabet, outputs, false);
+	}
+
+	/**
+	 * Generates a random NFA, where each state has on average {@code density} successors for
+	 * each input symbol, and each state is accepting with probability {@code 1/2}.
+	 *
+	 * @param rand the randomness source
+	 * @param numStates the number of states
+	 * @param alphabet the input alphabet
+	 * @param density the expected number of successors per state and input
+	 * @return the generated NFA
+	 */
+	public static <I> CompactNFA<I> randomNFA(Random rand, int numStates, Alphabet<I> alphabet, double density) {
+		CompactNFA<I> nfa = new CompactNFA<>(alphabet, numStates);
+		for (int i = 0; i < numStates; i++) {
+			nfa.addIntState(rand.nextBoolean());
+		}
+		nfa.setInitial(0, true);
+		int numInputs = alphabet.size();
+		double prob = density / numStates;
+		for (int i = 0; i < numStates; i++) {
+			for (int j = 0; j < numInputs; j++) {
+				for (int k = 0; k < numStates; k++) {
+					if (rand.nextDouble() < prob) {
+						nfa.addTransition(i, j, k);
+					}
+				}
+			}
+		}
+		return nfa;
+	}
+
+	/**
+	 * Generates a list of random words of the given length.
+	 *
+	 * @param rand the randomness source
+	 * @param alphabet the alphabet to draw symbols from
+	 * @param numWords the number of words
+	 * @param length the length of each word
+	 * @return the list of generated words
+	 */
+	public static <I> List<Word<I>> randomWords(Random rand, Alphabet<I> alphabet, int numWords, int length) {
+		List<Word<I>> result = new ArrayList<>(numWords);
+		int numInputs = alphabet.size();
+		WordBuilder<I> wb = new WordBuilder<>(length);
+		for (int i = 0; i < numWords; i++) {
+			for (int j = 0; j < length; j++) {
+				wb.append(alphabet.getSymbol(rand.nextInt(numInputs)));
+			}
+			result.add(wb.toWord());
+			wb.clear();
+		}
+		return result;
+	}
+
+	private BenchmarkAutomata() {
+		throw new IllegalStateException("Constructor should never be invoked");
+	}
+}
@@ -0,0 +1,81 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link Automata#characterizingSet(net.automatalib.automata.UniversalDeterministicAutomaton,
+ * java.util.Collection)} on minimal random DFAs and Mealy machines.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharacterizingSetBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	public int size;
+
+	@Param({"2", "10"})
+	public int alphabetSize;
+
+	private Alphabet<Integer> alphabet;
+	private CompactDFA<Integer> dfa;
+	private CompactMealy<Integer,Integer> mealy;
+
+	@Setup
+	public void setUp() {
+		this.alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		Random rand = new Random(BenchmarkAutomata.SEED);
+		this.dfa = BenchmarkAutomata.randomDFA(rand, size, alphabet, true);
+		this.mealy = BenchmarkAutomata.randomMealy(rand, size, alphabet, 4);
+	}
+
+	@Benchmark
+	public List<Word<Integer>> characterizingSetDFA() {
+		return Automata.characterizingSet(dfa, alphabet);
+	}
+
+	@Benchmark
+	public List<Word<Integer>> characterizingSetMealy() {
+		return Automata.characterizingSet(mealy, alphabet);
+	}
+}
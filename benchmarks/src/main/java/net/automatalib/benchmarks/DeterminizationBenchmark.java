@@ -0,0 +1,79 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.fsa.NFAs;
+import net.automatalib.words.Alphabet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the subset construction ({@link NFAs#determinize(net.automatalib.automata.fsa.NFA, Alphabet, boolean, boolean)})
+ * on random NFAs.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeterminizationBenchmark {
+
+	@Param({"10", "14", "18"})
+	public int size;
+
+	@Param({"2", "4"})
+	public int alphabetSize;
+
+	@Param({"1.5"})
+	public double density;
+
+	private Alphabet<Integer> alphabet;
+	private CompactNFA<Integer> nfa;
+
+	@Setup
+	public void setUp() {
+		this.alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		this.nfa = BenchmarkAutomata.randomNFA(new Random(BenchmarkAutomata.SEED), size, alphabet, density);
+	}
+
+	@Benchmark
+	public CompactDFA<Integer> determinize() {
+		return NFAs.determinize(nfa, alphabet, false, false);
+	}
+
+	@Benchmark
+	public CompactDFA<Integer> determinizeAndMinimize() {
+		return NFAs.determinize(nfa, alphabet, false, true);
+	}
+}
@@ -0,0 +1,91 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.copy.AutomatonCopyMethod;
+import net.automatalib.util.automata.copy.AutomatonLowLevelCopy;
+import net.automatalib.util.automata.equivalence.DeterministicEquivalenceTest;
+import net.automatalib.util.automata.equivalence.NearLinearEquivalenceTest;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link NearLinearEquivalenceTest#findSeparatingWord(net.automatalib.automata.UniversalDeterministicAutomaton,
+ * net.automatalib.automata.UniversalDeterministicAutomaton, java.util.Collection)} and the product-based
+ * {@link DeterministicEquivalenceTest#findSeparatingWordLarge(net.automatalib.automata.UniversalDeterministicAutomaton,
+ * net.automatalib.automata.UniversalDeterministicAutomaton, java.util.Collection)} (as well as its parallel
+ * counterpart) on a random DFA and an (equivalent) copy of it. As no separating word exists, the entire
+ * product has to be explored, which is the worst case for this operation.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquivalenceBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"2", "10"})
+	public int alphabetSize;
+
+	private Alphabet<Integer> alphabet;
+	private CompactDFA<Integer> dfa;
+	private CompactDFA<Integer> copy;
+
+	@Setup
+	public void setUp() {
+		this.alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		this.dfa = BenchmarkAutomata.randomDFA(new Random(BenchmarkAutomata.SEED), size, alphabet, false);
+		this.copy = new CompactDFA<>(alphabet, dfa.size());
+		AutomatonLowLevelCopy.copy(AutomatonCopyMethod.STATE_BY_STATE, dfa, alphabet, copy);
+	}
+
+	@Benchmark
+	public Word<Integer> findSeparatingWord() {
+		return NearLinearEquivalenceTest.findSeparatingWord(dfa, copy, alphabet);
+	}
+
+	@Benchmark
+	public Word<Integer> findShortestSeparatingWord() {
+		return DeterministicEquivalenceTest.findSeparatingWordLarge(dfa, copy, alphabet);
+	}
+
+	@Benchmark
+	public Word<Integer> findShortestSeparatingWordParallel() {
+		return DeterministicEquivalenceTest.findSeparatingWordParallel(dfa, copy, alphabet);
+	}
+}
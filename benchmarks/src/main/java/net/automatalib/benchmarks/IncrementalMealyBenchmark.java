@@ -0,0 +1,107 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.mealy.dag.ConcurrentIncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the construction of incremental Mealy machine builders from a set of random words, whose outputs
+ * are obtained from a random Mealy machine.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalMealyBenchmark {
+
+	@Param({"1000", "10000"})
+	public int numWords;
+
+	@Param({"20"})
+	public int wordLength;
+
+	@Param({"2", "10"})
+	public int alphabetSize;
+
+	private Alphabet<Integer> alphabet;
+	private List<Word<Integer>> inputs;
+	private List<Word<Integer>> outputs;
+
+	@Setup
+	public void setUp() {
+		this.alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		Random rand = new Random(BenchmarkAutomata.SEED);
+		CompactMealy<Integer,Integer> mealy = BenchmarkAutomata.randomMealy(rand, 100, alphabet, 4);
+		this.inputs = BenchmarkAutomata.randomWords(rand, alphabet, numWords, wordLength);
+		this.outputs = new ArrayList<>(numWords);
+		for (Word<Integer> input : inputs) {
+			outputs.add(mealy.computeOutput(input));
+		}
+	}
+
+	@Benchmark
+	public IncrementalMealyDAGBuilder<Integer,Integer> insertDAG() {
+		IncrementalMealyDAGBuilder<Integer,Integer> builder = new IncrementalMealyDAGBuilder<>(alphabet);
+		for (int i = 0; i < numWords; i++) {
+			builder.insert(inputs.get(i), outputs.get(i));
+		}
+		return builder;
+	}
+
+	@Benchmark
+	public IncrementalMealyTreeBuilder<Integer,Integer> insertTree() {
+		IncrementalMealyTreeBuilder<Integer,Integer> builder = new IncrementalMealyTreeBuilder<>(alphabet);
+		for (int i = 0; i < numWords; i++) {
+			builder.insert(inputs.get(i), outputs.get(i));
+		}
+		return builder;
+	}
+
+	@Benchmark
+	public ConcurrentIncrementalMealyDAGBuilder<Integer,Integer> insertConcurrentDAG() {
+		ConcurrentIncrementalMealyDAGBuilder<Integer,Integer> builder = new ConcurrentIncrementalMealyDAGBuilder<>(alphabet);
+		for (int i = 0; i < numWords; i++) {
+			builder.insert(inputs.get(i), outputs.get(i));
+		}
+		return builder;
+	}
+}
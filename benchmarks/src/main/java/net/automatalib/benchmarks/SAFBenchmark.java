@@ -0,0 +1,84 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.serialization.saf.SAFSerialization;
+import net.automatalib.words.Alphabet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks reading and writing DFAs in the SAF format via {@link SAFSerialization}.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SAFBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	public int size;
+
+	@Param({"2", "10"})
+	public int alphabetSize;
+
+	@Param({"false", "true"})
+	public boolean compressed;
+
+	private Alphabet<Integer> alphabet;
+	private CompactDFA<Integer> dfa;
+	private byte[] data;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		this.dfa = BenchmarkAutomata.randomDFA(new Random(BenchmarkAutomata.SEED), size, alphabet, false);
+		this.data = writeDFA();
+	}
+
+	@Benchmark
+	public CompactDFA<Integer> readDFA() throws IOException {
+		return SAFSerialization.getInstance().readGenericDFA(new ByteArrayInputStream(data));
+	}
+
+	@Benchmark
+	public byte[] writeDFA() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		SAFSerialization.getInstance().writeDFA(dfa, alphabet, baos, compressed);
+		return baos.toByteArray();
+	}
+}
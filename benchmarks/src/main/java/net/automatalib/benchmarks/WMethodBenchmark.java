@@ -0,0 +1,102 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.StreamSupport;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.conformance.WMethodTestsIterator;
+import net.automatalib.util.automata.conformance.WMethodTestsSpliterator;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the generation of <i>W method</i> test suites for minimal random DFAs, measured as the total length
+ * of all generated tests. The middle parts of the tests have a length of up to {@value #MAX_DEPTH}; the parallel
+ * variant uses the common fork/join pool.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WMethodBenchmark {
+
+	private static final int MAX_DEPTH = 2;
+	private static final int BATCH_SIZE = 1024;
+
+	@Param({"100"})
+	public int size;
+
+	@Param({"2", "10"})
+	public int alphabetSize;
+
+	private Alphabet<Integer> alphabet;
+	private CompactDFA<Integer> dfa;
+
+	@Setup
+	public void setUp() {
+		this.alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		this.dfa = BenchmarkAutomata.randomDFA(new Random(BenchmarkAutomata.SEED), size, alphabet, true);
+	}
+
+	@Benchmark
+	public long iterator() {
+		long totalLength = 0L;
+		WMethodTestsIterator<Integer> it = new WMethodTestsIterator<>(alphabet, dfa, MAX_DEPTH);
+		while (it.hasNext()) {
+			Word<Integer> test = it.next();
+			totalLength += test.length();
+		}
+		return totalLength;
+	}
+
+	@Benchmark
+	public long batches() {
+		long[] totalLength = new long[1];
+		new WMethodTestsSpliterator<>(alphabet, dfa, MAX_DEPTH).forEachBatch(BATCH_SIZE, batch -> {
+			totalLength[0] += batch.getOffset(batch.size());
+		});
+		return totalLength[0];
+	}
+
+	@Benchmark
+	public long batchesParallel() {
+		LongAdder totalLength = new LongAdder();
+		WMethodTestsSpliterator<Integer> spliterator = new WMethodTestsSpliterator<>(alphabet, dfa, MAX_DEPTH);
+		StreamSupport.stream(spliterator.batchSpliterator(BATCH_SIZE), true)
+				.forEach(batch -> totalLength.add(batch.getOffset(batch.size())));
+		return totalLength.sum();
+	}
+}
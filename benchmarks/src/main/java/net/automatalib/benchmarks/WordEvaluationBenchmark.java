@@ -0,0 +1,118 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the evaluation of a batch of random words on compact DFAs and Mealy machines, both via
+ * the generic {@link Word}-based API and via pre-translated input index arrays.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordEvaluationBenchmark {
+
+	@Param({"10000"})
+	public int numWords;
+
+	@Param({"50"})
+	public int wordLength;
+
+	@Param({"2", "10"})
+	public int alphabetSize;
+
+	private CompactDFA<Integer> dfa;
+	private CompactMealy<Integer,Integer> mealy;
+	private List<Word<Integer>> words;
+	private int[][] indexWords;
+
+	private boolean[] acceptance;
+	private int[][] outputIndices;
+	private int[] numRead;
+
+	@Setup
+	public void setUp() {
+		Alphabet<Integer> alphabet = BenchmarkAutomata.alphabet(alphabetSize);
+		Random rand = new Random(BenchmarkAutomata.SEED);
+		this.dfa = BenchmarkAutomata.randomDFA(rand, 1000, alphabet, false);
+		this.mealy = BenchmarkAutomata.randomMealy(rand, 1000, alphabet, 4);
+		this.words = BenchmarkAutomata.randomWords(rand, alphabet, numWords, wordLength);
+		this.indexWords = new int[numWords][];
+		for (int i = 0; i < numWords; i++) {
+			indexWords[i] = dfa.toInputIndices(words.get(i));
+		}
+		this.acceptance = new boolean[numWords];
+		this.outputIndices = new int[numWords][wordLength];
+		this.numRead = new int[numWords];
+	}
+
+	@Benchmark
+	public int acceptsWords() {
+		int count = 0;
+		for (Word<Integer> word : words) {
+			if (dfa.accepts(word)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public boolean[] acceptsIndices() {
+		dfa.acceptsAll(indexWords, acceptance);
+		return acceptance;
+	}
+
+	@Benchmark
+	public int computeOutputWords() {
+		int hash = 0;
+		for (Word<Integer> word : words) {
+			hash += mealy.computeOutput(word).hashCode();
+		}
+		return hash;
+	}
+
+	@Benchmark
+	public int[][] computeOutputIndices() {
+		mealy.computeAllOutputIndices(indexWords, outputIndices, numRead);
+		return outputIndices;
+	}
+}
@@ -0,0 +1,301 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.smartcollections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed binary min-heap of {@code int} elements with primitive {@code float} keys.
+ * <p>
+ * Unlike {@link BinaryHeap}, this heap neither requires a {@link java.util.Comparator} nor allocates
+ * wrapper objects: elements are non-negative integers (e.g., node or state IDs), which directly serve as
+ * indices into the arrays storing their keys and their positions in the heap. Hence, the key of an
+ * element can be changed in logarithmic time without requiring a separate {@link ElementReference}.
+ * <p>
+ * The heap grows automatically if an element is inserted that exceeds the current capacity.
+ * It is advisable, however, to specify the (maximum element + 1) as the initial capacity.
+ * 
+ * @author agent
+ */
+public class IntFloatBinaryHeap {
+	
+	private static final int DEFAULT_INITIAL_CAPACITY = 10;
+	private static final int NOT_CONTAINED = -1;
+	
+	private int[] heap;
+	private int[] positions;
+	private float[] keys;
+	private int size;
+	
+	public IntFloatBinaryHeap() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param initialCapacity the initial capacity, i.e., the maximum element (plus one) that can be
+	 * stored without resizing
+	 */
+	public IntFloatBinaryHeap(int initialCapacity) {
+		int cap = Math.max(initialCapacity, 1);
+		this.heap = new int[cap];
+		this.positions = new int[cap];
+		Arrays.fill(positions, NOT_CONTAINED);
+		this.keys = new float[cap];
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public boolean contains(int elem) {
+		return elem >= 0 && elem < positions.length && positions[elem] != NOT_CONTAINED;
+	}
+	
+	/**
+	 * Retrieves the key of an element in this heap.
+	 * 
+	 * @param elem the element
+	 * @return the key of the element
+	 * @throws NoSuchElementException if the element is not contained in this heap
+	 */
+	public float getKey(int elem) {
+		checkContained(elem);
+		return keys[elem];
+	}
+	
+	/**
+	 * Inserts an element into the heap.
+	 * 
+	 * @param elem the element, must be non-negative
+	 * @param key the key of the element
+	 * @throws IllegalArgumentException if the element is already contained in this heap
+	 */
+	public void insert(int elem, float key) {
+		if (contains(elem)) {
+			throw new IllegalArgumentException("Element " + elem + " is already contained in the heap");
+		}
+		ensureCapacity(elem + 1);
+		keys[elem] = key;
+		int pos = size++;
+		heap[pos] = elem;
+		positions[elem] = pos;
+		upHeap(pos);
+	}
+	
+	/**
+	 * Decreases the key of an element in this heap.
+	 * 
+	 * @param elem the element
+	 * @param key the new key, must not be greater than the current key
+	 * @throws NoSuchElementException if the element is not contained in this heap
+	 * @throws IllegalArgumentException if the new key is greater than the current key
+	 */
+	public void decreaseKey(int elem, float key) {
+		checkContained(elem);
+		if (key > keys[elem]) {
+			throw new IllegalArgumentException("New key " + key + " is greater than current key " + keys[elem]);
+		}
+		keys[elem] = key;
+		upHeap(positions[elem]);
+	}
+	
+	/**
+	 * Inserts an element into the heap if it is not yet contained, or decreases its key if the given
+	 * key is less than its current key. This is the typical <i>relax</i> operation of shortest path
+	 * algorithms.
+	 * 
+	 * @param elem the element, must be non-negative
+	 * @param key the (new) key of the element
+	 * @return {@code true} if the element was inserted or its key was decreased, {@code false} otherwise
+	 */
+	public boolean insertOrDecreaseKey(int elem, float key) {
+		if (!contains(elem)) {
+			insert(elem, key);
+			return true;
+		}
+		if (key < keys[elem]) {
+			keys[elem] = key;
+			upHeap(positions[elem]);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Changes the key of an element in this heap, regardless of whether the new key is less or greater
+	 * than the current key.
+	 * 
+	 * @param elem the element
+	 * @param key the new key
+	 * @throws NoSuchElementException if the element is not contained in this heap
+	 */
+	public void updateKey(int elem, float key) {
+		checkContained(elem);
+		float oldKey = keys[elem];
+		keys[elem] = key;
+		if (key < oldKey) {
+			upHeap(positions[elem]);
+		}
+		else {
+			downHeap(positions[elem]);
+		}
+	}
+	
+	/**
+	 * Retrieves, but does not remove, an element with minimum key.
+	 * 
+	 * @return an element with minimum key
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int peekMin() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap[0];
+	}
+	
+	public float peekMinKey() {
+		return keys[peekMin()];
+	}
+	
+	/**
+	 * Retrieves and removes an element with minimum key.
+	 * 
+	 * @return an element with minimum key
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int extractMin() {
+		int min = peekMin();
+		removeAt(0);
+		return min;
+	}
+	
+	/**
+	 * Removes an element from this heap.
+	 * 
+	 * @param elem the element to remove
+	 * @return {@code true} if the element was contained in this heap, {@code false} otherwise
+	 */
+	public boolean remove(int elem) {
+		if (!contains(elem)) {
+			return false;
+		}
+		removeAt(positions[elem]);
+		return true;
+	}
+	
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = NOT_CONTAINED;
+		}
+		size = 0;
+	}
+	
+	/**
+	 * Ensures that all elements less than the given capacity can be stored without resizing.
+	 * 
+	 * @param minCapacity the minimal capacity
+	 * @return {@code true} if the internal storage had to be resized, {@code false} otherwise
+	 */
+	public boolean ensureCapacity(int minCapacity) {
+		int oldCap = positions.length;
+		if (minCapacity <= oldCap) {
+			return false;
+		}
+		int newCap = Math.max(minCapacity, oldCap + (oldCap >> 1));
+		heap = Arrays.copyOf(heap, newCap);
+		positions = Arrays.copyOf(positions, newCap);
+		Arrays.fill(positions, oldCap, newCap, NOT_CONTAINED);
+		keys = Arrays.copyOf(keys, newCap);
+		return true;
+	}
+	
+	private void checkContained(int elem) {
+		if (!contains(elem)) {
+			throw new NoSuchElementException("Element " + elem + " is not contained in the heap");
+		}
+	}
+	
+	private void removeAt(int pos) {
+		int elem = heap[pos];
+		positions[elem] = NOT_CONTAINED;
+		int last = heap[--size];
+		if (pos == size) {
+			return;
+		}
+		heap[pos] = last;
+		positions[last] = pos;
+		if (keys[last] < keys[elem]) {
+			upHeap(pos);
+		}
+		else {
+			downHeap(pos);
+		}
+	}
+	
+	private void upHeap(int pos) {
+		final int[] heap = this.heap;
+		final float[] keys = this.keys;
+		int elem = heap[pos];
+		float key = keys[elem];
+		
+		while (pos > 0) {
+			int parentPos = (pos - 1) >>> 1;
+			int parent = heap[parentPos];
+			if (keys[parent] <= key) {
+				break;
+			}
+			heap[pos] = parent;
+			positions[parent] = pos;
+			pos = parentPos;
+		}
+		heap[pos] = elem;
+		positions[elem] = pos;
+	}
+	
+	private void downHeap(int pos) {
+		final int[] heap = this.heap;
+		final float[] keys = this.keys;
+		int elem = heap[pos];
+		float key = keys[elem];
+		int half = size >>> 1;
+		
+		while (pos < half) {
+			int childPos = 2 * pos + 1;
+			int child = heap[childPos];
+			int rightPos = childPos + 1;
+			if (rightPos < size && keys[heap[rightPos]] < keys[child]) {
+				childPos = rightPos;
+				child = heap[childPos];
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			heap[pos] = child;
+			positions[child] = pos;
+			pos = childPos;
+		}
+		heap[pos] = elem;
+		positions[elem] = pos;
+	}
+}
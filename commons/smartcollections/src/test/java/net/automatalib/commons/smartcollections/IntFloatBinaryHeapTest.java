@@ -0,0 +1,119 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.smartcollections;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class IntFloatBinaryHeapTest {
+	
+	@Test
+	public void testHeapOps() {
+		IntFloatBinaryHeap heap = new IntFloatBinaryHeap(2);
+		Assert.assertTrue(heap.isEmpty());
+		
+		heap.insert(0, 42.0f);
+		heap.insert(5, 37.0f);
+		heap.insert(3, 50.0f);
+		Assert.assertEquals(heap.size(), 3);
+		Assert.assertTrue(heap.contains(3));
+		Assert.assertFalse(heap.contains(1));
+		Assert.assertFalse(heap.contains(100));
+		
+		Assert.assertEquals(heap.peekMin(), 5);
+		Assert.assertEquals(heap.peekMinKey(), 37.0f);
+		
+		heap.decreaseKey(3, 1.0f);
+		Assert.assertEquals(heap.peekMin(), 3);
+		Assert.assertFalse(heap.insertOrDecreaseKey(3, 2.0f));
+		Assert.assertTrue(heap.insertOrDecreaseKey(1, 40.0f));
+		
+		heap.updateKey(3, 45.0f);
+		Assert.assertEquals(heap.extractMin(), 5);
+		Assert.assertEquals(heap.extractMin(), 1);
+		Assert.assertTrue(heap.remove(0));
+		Assert.assertFalse(heap.remove(0));
+		Assert.assertEquals(heap.getKey(3), 45.0f);
+		Assert.assertEquals(heap.extractMin(), 3);
+		Assert.assertTrue(heap.isEmpty());
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testDuplicateInsert() {
+		IntFloatBinaryHeap heap = new IntFloatBinaryHeap();
+		heap.insert(1, 1.0f);
+		heap.insert(1, 2.0f);
+	}
+	
+	@Test(expectedExceptions = NoSuchElementException.class)
+	public void testExtractFromEmpty() {
+		new IntFloatBinaryHeap().extractMin();
+	}
+	
+	@Test
+	public void testRandomOps() {
+		final int numElems = 200;
+		Random rand = new Random(42L);
+		IntFloatBinaryHeap heap = new IntFloatBinaryHeap(numElems);
+		float[] keys = new float[numElems];
+		boolean[] contained = new boolean[numElems];
+		
+		for (int i = 0; i < 10000; i++) {
+			int elem = rand.nextInt(numElems);
+			float key = rand.nextFloat();
+			switch (rand.nextInt(4)) {
+			case 0:
+				if (heap.insertOrDecreaseKey(elem, key)) {
+					keys[elem] = contained[elem] ? Math.min(keys[elem], key) : key;
+					contained[elem] = true;
+				}
+				break;
+			case 1:
+				if (contained[elem]) {
+					heap.updateKey(elem, key);
+					keys[elem] = key;
+				}
+				break;
+			case 2:
+				Assert.assertEquals(heap.remove(elem), contained[elem]);
+				contained[elem] = false;
+				break;
+			default:
+				if (!heap.isEmpty()) {
+					float minKey = heap.peekMinKey();
+					int min = heap.extractMin();
+					Assert.assertEquals(keys[min], minKey);
+					for (int j = 0; j < numElems; j++) {
+						Assert.assertTrue(!contained[j] || keys[j] >= minKey);
+					}
+					contained[min] = false;
+				}
+			}
+		}
+		
+		float last = Float.NEGATIVE_INFINITY;
+		while (!heap.isEmpty()) {
+			int min = heap.extractMin();
+			Assert.assertTrue(contained[min]);
+			Assert.assertTrue(keys[min] >= last);
+			last = keys[min];
+		}
+	}
+}
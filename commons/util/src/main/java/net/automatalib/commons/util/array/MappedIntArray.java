@@ -0,0 +1,402 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util.array;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+/**
+ * A growable, {@code long}-indexed <tt>int</tt> array that lives outside of the Java heap.
+ * <p>
+ * The storage is organized in chunks of {@code 2^chunkBits} elements each, which are either
+ * allocated as direct buffers, or mapped from a (scratch) file via a {@link FileChannel}. In the
+ * latter case, the operating system is responsible for paging the data in and out, allowing
+ * arrays that exceed the available physical memory. Growing the array never copies existing
+ * data, it merely adds new chunks.
+ * <p>
+ * Newly allocated memory is always initialized with {@code 0}.
+ * <p>
+ * Backing files start with a small header identifying them, followed by the elements in
+ * little-endian byte order, regardless of the native byte order of the platform. Files can hence
+ * be moved between platforms.
+ *
+ * @author agent
+ */
+public final class MappedIntArray implements Closeable {
+
+	/**
+	 * The default number of index bits per chunk, i.e., chunks hold {@code 2^24} elements
+	 * (64 MB) by default.
+	 */
+	public static final int DEFAULT_CHUNK_BITS = 24;
+
+	/**
+	 * The minimum number of index bits per chunk chosen by {@link #allocateDirect(long)}.
+	 */
+	public static final int MIN_CHUNK_BITS = 12;
+
+	/**
+	 * The byte order of the elements in a backing file.
+	 */
+	public static final ByteOrder FILE_BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	private static final int MAGIC = 0x4D494131; // "MIA1"
+	private static final int HEADER_BYTES = 8;
+
+	/**
+	 * Allocates a new array in direct (off-heap) memory. The chunk size is derived from the
+	 * initial capacity, such that small arrays do not occupy a full chunk of the default size.
+	 *
+	 * @param initialCapacity the initial capacity
+	 * @return the allocated array
+	 */
+	public static MappedIntArray allocateDirect(long initialCapacity) {
+		int chunkBits = 64 - Long.numberOfLeadingZeros(Math.max(initialCapacity - 1, 1L));
+		chunkBits = Math.max(MIN_CHUNK_BITS, Math.min(DEFAULT_CHUNK_BITS, chunkBits));
+		return allocateDirect(chunkBits, initialCapacity);
+	}
+
+	/**
+	 * Allocates a new array in direct (off-heap) memory, using the specified chunk size.
+	 *
+	 * @param chunkBits the number of index bits per chunk (each chunk holds {@code 2^chunkBits} elements)
+	 * @param initialCapacity the initial capacity
+	 * @return the allocated array
+	 */
+	public static MappedIntArray allocateDirect(int chunkBits, long initialCapacity) {
+		return new MappedIntArray(null, chunkBits, initialCapacity);
+	}
+
+	/**
+	 * Creates a new array that is backed by a memory-mapped file. The file is created if it
+	 * does not exist, and enlarged as needed. Existing contents of the file are used as the
+	 * initial contents of the array, i.e., the initial capacity is at least the number of elements
+	 * already stored in the file.
+	 *
+	 * @param file the backing file
+	 * @param initialCapacity the initial capacity
+	 * @return the mapped array
+	 * @throws IOException if the file could not be opened or mapped
+	 */
+	public static MappedIntArray map(File file, long initialCapacity) throws IOException {
+		return map(file, DEFAULT_CHUNK_BITS, initialCapacity);
+	}
+
+	/**
+	 * Creates a new array that is backed by a memory-mapped file, using the specified
+	 * chunk size.
+	 *
+	 * @param file the backing file
+	 * @param chunkBits the number of index bits per chunk (each chunk holds {@code 2^chunkBits} elements)
+	 * @param initialCapacity the initial capacity
+	 * @return the mapped array
+	 * @throws IOException if the file could not be opened or mapped, or if it is not empty and
+	 * was not created by this class
+	 * @see #map(File, long)
+	 */
+	@SuppressWarnings("resource")
+	public static MappedIntArray map(File file, int chunkBits, long initialCapacity) throws IOException {
+		FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+		try {
+			checkOrWriteHeader(channel, file);
+			long existingCapacity = (channel.size() - HEADER_BYTES) / 4L;
+			return new MappedIntArray(channel, chunkBits, Math.max(initialCapacity, existingCapacity));
+		}
+		catch (IOException ex) {
+			channel.close();
+			throw ex;
+		}
+		catch (UncheckedIOException ex) {
+			channel.close();
+			throw ex.getCause();
+		}
+	}
+
+	private static void checkOrWriteHeader(FileChannel channel, File file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(FILE_BYTE_ORDER);
+		if (channel.size() == 0L) {
+			header.putInt(MAGIC).putInt(0);
+			header.flip();
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+			return;
+		}
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new IOException("File " + file + " is not a mapped int array file: header is truncated");
+			}
+		}
+		int magic = header.getInt(0);
+		if (magic == Integer.reverseBytes(MAGIC)) {
+			throw new IOException("File " + file + " was written with byte order "
+					+ (FILE_BYTE_ORDER == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN)
+					+ ", expected " + FILE_BYTE_ORDER);
+		}
+		if (magic != MAGIC) {
+			throw new IOException("File " + file + " is not a mapped int array file");
+		}
+	}
+
+	private final FileChannel channel;
+	private final int chunkBits;
+	private final int chunkMask;
+	private ByteBuffer[] buffers;
+	private IntBuffer[] chunks;
+	private int numChunks;
+
+	private MappedIntArray(FileChannel channel, int chunkBits, long initialCapacity) {
+		if (chunkBits <= 0 || chunkBits > 28) {
+			throw new IllegalArgumentException("Chunk bits must be between 1 and 28, but are " + chunkBits);
+		}
+		this.channel = channel;
+		this.chunkBits = chunkBits;
+		this.chunkMask = (1 << chunkBits) - 1;
+		this.buffers = new ByteBuffer[8];
+		this.chunks = new IntBuffer[8];
+		ensureCapacity(initialCapacity);
+	}
+
+	/**
+	 * Retrieves the current capacity of this array, i.e., the number of elements that can be
+	 * accessed without calling {@link #ensureCapacity(long)} first.
+	 *
+	 * @return the capacity of this array
+	 */
+	public long capacity() {
+		return (long)numChunks << chunkBits;
+	}
+
+	/**
+	 * Ensures that this array can hold at least the specified number of elements.
+	 *
+	 * @param minCapacity the minimal capacity
+	 * @return {@code true} if new memory had to be allocated, {@code false} otherwise
+	 * @throws UncheckedIOException if mapping the backing file failed
+	 */
+	public boolean ensureCapacity(long minCapacity) {
+		if (minCapacity <= capacity()) {
+			return false;
+		}
+		long reqChunks = (minCapacity + chunkMask) >>> chunkBits;
+		if (reqChunks > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Capacity " + minCapacity + " exceeds maximum capacity");
+		}
+		int newNumChunks = (int)reqChunks;
+		if (newNumChunks > chunks.length) {
+			int newLength = Math.max(newNumChunks, chunks.length * 2);
+			buffers = Arrays.copyOf(buffers, newLength);
+			chunks = Arrays.copyOf(chunks, newLength);
+		}
+		for (int i = numChunks; i < newNumChunks; i++) {
+			ByteBuffer buf = allocateChunk(i);
+			buffers[i] = buf;
+			chunks[i] = buf.asIntBuffer();
+		}
+		numChunks = newNumChunks;
+		return true;
+	}
+
+	private ByteBuffer allocateChunk(int chunkIdx) {
+		long chunkBytes = 4L << chunkBits;
+		ByteBuffer buf;
+		if (channel == null) {
+			buf = ByteBuffer.allocateDirect((int)chunkBytes);
+		}
+		else {
+			try {
+				buf = channel.map(MapMode.READ_WRITE, HEADER_BYTES + chunkIdx * chunkBytes, chunkBytes);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			return buf.order(FILE_BYTE_ORDER);
+		}
+		return buf.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Retrieves the element at the given index.
+	 *
+	 * @param index the index
+	 * @return the element at the given index
+	 */
+	public int get(long index) {
+		return chunks[(int)(index >>> chunkBits)].get((int)index & chunkMask);
+	}
+
+	/**
+	 * Sets the element at the given index.
+	 *
+	 * @param index the index
+	 * @param value the new value
+	 */
+	public void set(long index, int value) {
+		chunks[(int)(index >>> chunkBits)].put((int)index & chunkMask, value);
+	}
+
+	/**
+	 * Copies a contiguous range of elements into an on-heap array.
+	 *
+	 * @param index the index of the first element to copy
+	 * @param dst the destination array
+	 * @param offset the offset in the destination array
+	 * @param length the number of elements to copy
+	 */
+	public void get(long index, int[] dst, int offset, int length) {
+		while (length > 0) {
+			IntBuffer chunk = chunks[(int)(index >>> chunkBits)];
+			int chunkOfs = (int)index & chunkMask;
+			int num = Math.min(length, chunkMask + 1 - chunkOfs);
+			IntBuffer view = chunk.duplicate();
+			view.position(chunkOfs);
+			view.get(dst, offset, num);
+			index += num;
+			offset += num;
+			length -= num;
+		}
+	}
+
+	/**
+	 * Copies a contiguous range of elements from an on-heap array into this array.
+	 *
+	 * @param index the index of the first element to overwrite
+	 * @param src the source array
+	 * @param offset the offset in the source array
+	 * @param length the number of elements to copy
+	 */
+	public void set(long index, int[] src, int offset, int length) {
+		while (length > 0) {
+			IntBuffer chunk = chunks[(int)(index >>> chunkBits)];
+			int chunkOfs = (int)index & chunkMask;
+			int num = Math.min(length, chunkMask + 1 - chunkOfs);
+			IntBuffer view = chunk.duplicate();
+			view.position(chunkOfs);
+			view.put(src, offset, num);
+			index += num;
+			offset += num;
+			length -= num;
+		}
+	}
+
+	/**
+	 * Sets all elements in the given range to the specified value.
+	 *
+	 * @param fromIndex the first index (inclusive)
+	 * @param toIndex the last index (exclusive)
+	 * @param value the value
+	 */
+	public void fill(long fromIndex, long toIndex, int value) {
+		for (long i = fromIndex; i < toIndex; i++) {
+			set(i, value);
+		}
+	}
+
+	/**
+	 * Forces any changes to be written to the backing file. If this array is not backed by
+	 * a file, this method does nothing.
+	 */
+	public void force() {
+		for (int i = 0; i < numChunks; i++) {
+			if (buffers[i] instanceof MappedByteBuffer) {
+				((MappedByteBuffer)buffers[i]).force();
+			}
+		}
+	}
+
+	/**
+	 * Releases all resources held by this array, i.e., frees the direct memory or unmaps the
+	 * backing file, respectively. The array must not be accessed after it has been closed.
+	 * <p>
+	 * If the running JVM does not permit releasing direct buffers explicitly, the memory is
+	 * released once the buffers are garbage collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		ByteBuffer[] oldBuffers = buffers;
+		int oldNumChunks = numChunks;
+		buffers = new ByteBuffer[0];
+		chunks = new IntBuffer[0];
+		numChunks = 0;
+		for (int i = 0; i < oldNumChunks; i++) {
+			release(oldBuffers[i]);
+		}
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	private static void release(ByteBuffer buffer) {
+		try {
+			BufferReleaser.RELEASER.release(buffer);
+		}
+		catch (ReflectiveOperationException | RuntimeException ex) {
+			// the buffer will be released by the garbage collector
+		}
+	}
+
+	/**
+	 * Explicitly releases direct buffers, using the {@code sun.misc.Unsafe.invokeCleaner} method on
+	 * Java 9 and later, and the buffer's cleaner on Java 8.
+	 */
+	private static abstract class BufferReleaser {
+
+		static final BufferReleaser RELEASER = create();
+
+		abstract void release(ByteBuffer buffer) throws ReflectiveOperationException;
+
+		private static BufferReleaser create() {
+			try {
+				Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				Object unsafe = theUnsafe.get(null);
+				return new BufferReleaser() {
+					@Override
+					void release(ByteBuffer buffer) throws ReflectiveOperationException {
+						invokeCleaner.invoke(unsafe, buffer);
+					}
+				};
+			}
+			catch (ReflectiveOperationException | RuntimeException ex) {
+				return new BufferReleaser() {
+					@Override
+					void release(ByteBuffer buffer) throws ReflectiveOperationException {
+						Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+						cleanerMethod.setAccessible(true);
+						Object cleaner = cleanerMethod.invoke(buffer);
+						if (cleaner != null) {
+							cleaner.getClass().getMethod("clean").invoke(cleaner);
+						}
+					}
+				};
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util.array;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class MappedIntArrayTest {
+
+	@Test
+	public void testDirect() throws IOException {
+		try (MappedIntArray array = MappedIntArray.allocateDirect(10)) {
+			array.ensureCapacity(100000);
+			Assert.assertTrue(array.capacity() >= 100000);
+			array.set(99999, 42);
+			array.set(0, new int[]{ 1, 2, 3 }, 0, 3);
+			int[] result = new int[4];
+			array.get(0, result, 0, 4);
+			Assert.assertEquals(result, new int[]{ 1, 2, 3, 0 });
+			Assert.assertEquals(array.get(99999), 42);
+		}
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		File file = File.createTempFile("mapped", ".bin");
+		try {
+			Assert.assertTrue(file.delete());
+			try (MappedIntArray array = MappedIntArray.map(file, 12, 10000)) {
+				for (int i = 0; i < 10000; i++) {
+					array.set(i, i * 31);
+				}
+				array.force();
+			}
+
+			// elements are stored in little-endian byte order after the header
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			Assert.assertEquals(bytes.length, 8 + 3 * 4 * (1 << 12));
+			// element 1, following the 8 byte header and element 0
+			int ofs = 8 + 4;
+			Assert.assertEquals(bytes[ofs], (byte)31);
+			Assert.assertEquals(bytes[ofs + 1], (byte)0);
+
+			try (MappedIntArray array = MappedIntArray.map(file, 12, 0)) {
+				Assert.assertTrue(array.capacity() >= 10000);
+				for (int i = 0; i < 10000; i++) {
+					Assert.assertEquals(array.get(i), i * 31);
+				}
+			}
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void testForeignFile() throws IOException {
+		File file = File.createTempFile("foreign", ".bin");
+		try {
+			Files.write(file.toPath(), new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+			MappedIntArray.map(file, 12, 10).close();
+		}
+		finally {
+			file.delete();
+		}
+	}
+}
@@ -15,6 +15,7 @@
  */
 package net.automatalib.automata.base.compact;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 import net.automatalib.automata.MutableDeterministic;
@@ -39,6 +40,11 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 	protected int initial = -1;
 	protected final float resizeFactor;
 	
+	// copy-on-write snapshot support, initialized upon the first call to snapshot()
+	private SnapshotTracker snapshotTracker;
+	private Object[][] snapshotTransitions;
+	private Object[][] snapshotProperties;
+	
 	
 	protected static final int getId(Integer id) {
 		return (id != null) ? id.intValue() : -1;
@@ -70,6 +76,29 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 		this.stateCapacity = stateCapacity;
 	}
 	
+	/**
+	 * Constructor. Uses the given array as the transition table, without initializing it.
+	 * <p>
+	 * Subclasses that keep their transitions in a different kind of storage pass {@code null}
+	 * as the array. They must override all methods that access the transition table, i.e.,
+	 * {@link #ensureTransitionCapacity(int, int)}, {@link #getTransition(int, int)},
+	 * {@link #setTransition(int, int, Object)}, {@link #clearTransitions(int, int)} and
+	 * {@link #copyTransitions(int, int)}.
+	 * 
+	 * @param alphabet the input alphabet
+	 * @param transitions the transition table, or {@code null}
+	 * @param stateCapacity the number of states the transition table can hold
+	 * @param resizeFactor the resize factor
+	 */
+	protected AbstractCompactDeterministic(Alphabet<I> alphabet, Object[] transitions, int stateCapacity,
+			float resizeFactor) {
+		this.alphabet = alphabet;
+		this.alphabetSize = alphabet.size();
+		this.transitions = transitions;
+		this.resizeFactor = resizeFactor;
+		this.stateCapacity = stateCapacity;
+	}
+	
 	protected void ensureCapacity() {
 	}
 	
@@ -81,13 +110,24 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 		if(newCap < newCapacity)
 			newCap = newCapacity;
 		
-		Object[] newTrans = new Object[newCap * alphabetSize];
-		System.arraycopy(transitions, 0, newTrans, 0, stateCapacity * alphabetSize);
-		this.transitions = newTrans;
+		ensureTransitionCapacity(stateCapacity, newCap);
 		this.stateCapacity = newCap;
 		ensureCapacity();
 	}
 	
+	/**
+	 * Enlarges the transition table such that it can hold the transitions of the given number
+	 * of states.
+	 * 
+	 * @param oldCap the previous state capacity
+	 * @param newCap the new state capacity
+	 */
+	protected void ensureTransitionCapacity(int oldCap, int newCap) {
+		Object[] newTrans = new Object[newCap * alphabetSize];
+		System.arraycopy(transitions, 0, newTrans, 0, oldCap * alphabetSize);
+		this.transitions = newTrans;
+	}
+	
 	@Override
 	public int size() {
 		return numStates;
@@ -104,6 +144,7 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 	
 	public void setTransition(int state, int inputIdx, T trans) {
 		transitions[state * alphabetSize + inputIdx] = trans;
+		stateModified(state);
 	}
 	
 	public void setTransition(int state, I input, T trans) {
@@ -195,13 +236,22 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 
 	@Override
 	public void clear() {
-		int endIdx = numStates * alphabetSize;
+		statesModified(0, numStates);
+		clearTransitions(0, numStates);
 		numStates = 0;
-		for(int i = 0; i < endIdx; i++)
-			transitions[i] = null;
 		this.initial = -1;
 	}
 	
+	/**
+	 * Removes all transitions of the states in the given range.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 */
+	protected void clearTransitions(int stateLow, int stateHigh) {
+		Arrays.fill(transitions, stateLow * alphabetSize, stateHigh * alphabetSize, null);
+	}
+	
 	protected final int createState() {
 		int newState = numStates++;
 		ensureCapacity(numStates);
@@ -225,6 +275,7 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 	public int addIntState(SP property) {
 		int newState = createState();
 		setStateProperty(newState, property);
+		stateModified(newState);
 		return newState;
 	}
 
@@ -240,11 +291,14 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 		setStateProperty(state.intValue(), property);
 	}
 
+	public void removeAllTransitions(int state) {
+		clearTransitions(state, state + 1);
+		stateModified(state);
+	}
+	
 	@Override
 	public void removeAllTransitions(Integer state) {
-		int base = state.intValue() * alphabetSize;
-		for(int i = 0; i < alphabetSize; i++)
-			transitions[base++] = null;
+		removeAllTransitions(state.intValue());
 	}
 	
 	
@@ -285,4 +339,110 @@ public abstract class AbstractCompactDeterministic<I, T, SP, TP>
 		return alphabet.size();
 	}
 	
+	/**
+	 * Takes an immutable snapshot of this automaton. The snapshot reflects the state of this automaton
+	 * at the time of the call, and is not affected by any subsequent modifications of the automaton structure
+	 * or the state properties. It may be accessed by arbitrarily many threads concurrently, without any
+	 * synchronization.
+	 * <p>
+	 * Unless {@link #copyTransitions(int, int)} is overridden, the snapshot shares the transition objects
+	 * with this automaton. It evaluates their successors and
+	 * properties using this automaton's {@link #getIntSuccessor(Object)} and
+	 * {@link #getTransitionProperty(Object)} methods. Transitions hence must not be modified in place
+	 * (i.e., they have to be replaced via {@link #setTransition(int, int, Object)} instead), and these methods
+	 * must not depend on any mutable state.
+	 * <p>
+	 * As for {@link AbstractCompactSimpleDet#snapshot()}, only the chunks of states modified since the previous
+	 * snapshot are copied.
+	 * <p>
+	 * This method must not be invoked concurrently with modifications of this automaton.
+	 * 
+	 * @return an immutable snapshot of this automaton
+	 */
+	public CompactDeterministicSnapshot<I,T,SP,TP> snapshot() {
+		updateSnapshot();
+		return new CompactDeterministicSnapshot<>(this, numStates, initial, snapshotTransitions, snapshotProperties);
+	}
+	
+	/**
+	 * Updates the {@link #getSnapshotTransitions() transition} and {@link #getSnapshotProperties() property}
+	 * chunks, such that they reflect the current state of this automaton.
+	 */
+	protected final void updateSnapshot() {
+		int numChunks = SnapshotTracker.numChunks(numStates);
+		if (snapshotTracker == null) {
+			snapshotTracker = new SnapshotTracker();
+			snapshotTransitions = new Object[0][];
+			snapshotProperties = new Object[0][];
+		}
+		snapshotTransitions = snapshotTracker.update(snapshotTransitions, numChunks,
+				c -> copyTransitions(SnapshotTracker.chunkLow(c), SnapshotTracker.chunkHigh(c, numStates)));
+		snapshotProperties = snapshotTracker.update(snapshotProperties, numChunks, c -> {
+			int low = SnapshotTracker.chunkLow(c), high = SnapshotTracker.chunkHigh(c, numStates);
+			Object[] props = new Object[high - low];
+			for (int i = low; i < high; i++) {
+				props[i - low] = getStateProperty(i);
+			}
+			return props;
+		});
+		snapshotTracker.clearDirty();
+	}
+	
+	/**
+	 * Retrieves the transition chunks of the most recent snapshot, as computed by {@link #updateSnapshot()}.
+	 * 
+	 * @return the transition chunks
+	 */
+	protected final Object[][] getSnapshotTransitions() {
+		return snapshotTransitions;
+	}
+	
+	/**
+	 * Retrieves the state property chunks of the most recent snapshot, as computed by {@link #updateSnapshot()}.
+	 * 
+	 * @return the state property chunks
+	 */
+	protected final Object[][] getSnapshotProperties() {
+		return snapshotProperties;
+	}
+	
+	/**
+	 * Copies the transitions of the states in the given range, for use in a {@link #snapshot() snapshot}.
+	 * The transition of state {@code i} for the input symbol with index {@code j} is stored at index
+	 * <code>(i - stateLow) * numInputs() + j</code>, undefined transitions are represented by {@code null}.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 * @return the copied transitions
+	 */
+	protected Object[] copyTransitions(int stateLow, int stateHigh) {
+		return Arrays.copyOfRange(transitions, stateLow * alphabetSize, stateHigh * alphabetSize);
+	}
+	
+	/**
+	 * Notifies this automaton that a state has been modified. Subclasses have to call this method
+	 * whenever they modify state properties, to ensure that these modifications are reflected in
+	 * subsequent {@link #snapshot() snapshots}.
+	 * 
+	 * @param state the modified state
+	 */
+	protected final void stateModified(int state) {
+		if (snapshotTracker != null) {
+			snapshotTracker.markDirty(state);
+		}
+	}
+	
+	/**
+	 * Notifies this automaton that all states in the given range have been modified.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 * 
+	 * @see #stateModified(int)
+	 */
+	protected final void statesModified(int stateLow, int stateHigh) {
+		if (snapshotTracker != null) {
+			snapshotTracker.markDirty(stateLow, stateHigh);
+		}
+	}
 }
@@ -43,6 +43,11 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 	protected int initial = -1;
 	protected final float resizeFactor;
 	
+	// copy-on-write snapshot support, initialized upon the first call to snapshot()
+	private SnapshotTracker snapshotTracker;
+	private int[][] snapshotTransitions;
+	private Object[] snapshotProperties;
+	
 	public AbstractCompactSimpleDet(Alphabet<I> alphabet) {
 		this(alphabet, DEFAULT_INIT_CAPACITY, DEFAULT_RESIZE_FACTOR);
 	}
@@ -84,6 +89,27 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 	}
 	
 	
+	/**
+	 * Constructor. Uses the given array as the transition table, without initializing it.
+	 * <p>
+	 * Subclasses that keep their transition table in a different kind of storage pass {@code null}
+	 * as the array. They must override all methods that access the transition table, i.e.,
+	 * {@link #ensureCapacity(int)}, {@link #getIntTransition(int, int)}, {@link #setTransition(int, int, int)},
+	 * {@link #setTransitions(int, int, int[], int)}, {@link #copyTransitions(int, int, int[], int)},
+	 * {@link #getIntSuccessor(int, int[], int, int)} and {@link #clearTransitions(int, int)}.
+	 * 
+	 * @param alphabet the input alphabet
+	 * @param transitions the transition table, or {@code null}
+	 * @param stateCapacity the number of states the transition table can hold
+	 */
+	protected AbstractCompactSimpleDet(Alphabet<I> alphabet, int[] transitions, int stateCapacity) {
+		this.alphabet = alphabet;
+		this.alphabetSize = alphabet.size();
+		this.transitions = transitions;
+		this.stateCapacity = stateCapacity;
+		this.resizeFactor = DEFAULT_RESIZE_FACTOR;
+	}
+	
 	protected AbstractCompactSimpleDet(Alphabet<I> alphabet, AbstractCompactSimpleDet<?,?> other) {
 		this(alphabet, other.numStates, other.initial, other.transitions.clone(), other.resizeFactor);
 	}
@@ -191,11 +217,42 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 	
 	public void setTransition(int state, int inputIdx, int succ) {
 		transitions[state * alphabetSize + inputIdx] = succ;
+		stateModified(state);
 	}
 	
 	public void setTransition(int state, I input, int succ) {
 		setTransition(state, alphabet.getSymbolIndex(input), succ);
 	}
+	
+	/**
+	 * Sets the transitions of all states in the range from {@code stateLow} (inclusive) to {@code stateHigh}
+	 * (exclusive) at once. The successor (ID) of state {@code i} for the input symbol with index {@code j} is
+	 * read from the index <code>srcOfs + (i - stateLow) * numInputs() + j</code> of the {@code src} array.
+	 * A successor ID of {@code -1} denotes an undefined transition.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 * @param src the array containing the successor IDs
+	 * @param srcOfs the offset in the {@code src} array
+	 */
+	public void setTransitions(int stateLow, int stateHigh, int[] src, int srcOfs) {
+		System.arraycopy(src, srcOfs, transitions, stateLow * alphabetSize, (stateHigh - stateLow) * alphabetSize);
+		statesModified(stateLow, stateHigh);
+	}
+	
+	/**
+	 * Copies the transitions of all states in the range from {@code stateLow} (inclusive) to {@code stateHigh}
+	 * (exclusive) to the given array. The layout is the same as for
+	 * {@link #setTransitions(int, int, int[], int)}.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 * @param dst the array to store the successor IDs in
+	 * @param dstOfs the offset in the {@code dst} array
+	 */
+	public void copyTransitions(int stateLow, int stateHigh, int[] dst, int dstOfs) {
+		System.arraycopy(transitions, stateLow * alphabetSize, dst, dstOfs, (stateHigh - stateLow) * alphabetSize);
+	}
 
 	@Override
 	public void setTransition(Integer state, I input, Integer transition) {
@@ -210,17 +267,26 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 
 	@Override
 	public void clear() {
-		int endIdx = numStates * alphabetSize;
+		statesModified(0, numStates);
+		clearTransitions(0, numStates);
 		numStates = 0;
-		Arrays.fill(transitions, 0, endIdx, -1);
 		initial = -1;
 	}
 
 
 	public void removeAllTransitions(int state) {
-		int base = state * alphabetSize;
-		
-		Arrays.fill(transitions, base, base + alphabetSize, -1);
+		clearTransitions(state, state + 1);
+		stateModified(state);
+	}
+	
+	/**
+	 * Removes all transitions of the states in the given range.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 */
+	protected void clearTransitions(int stateLow, int stateHigh) {
+		Arrays.fill(transitions, stateLow * alphabetSize, stateHigh * alphabetSize, -1);
 	}
 	
 	@Override
@@ -269,6 +335,7 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 		int stateId = numStates++;
 		ensureCapacity(numStates);
 		initState(stateId, property);
+		stateModified(stateId);
 		return stateId;
 	}
 	
@@ -347,6 +414,51 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 	public int getIntState(Iterable<? extends I> input) {
 		return getIntSuccessor(initial, input);
 	}
+	
+	/**
+	 * Translates an input word into the sequence of the indices of its symbols in the input
+	 * alphabet. The result can be evaluated using {@link #getIntSuccessor(int, int[], int, int)}
+	 * and related methods, without any further symbol lookups.
+	 * 
+	 * @param input the input word
+	 * @return the input indices of the symbols of the word
+	 */
+	public int[] toInputIndices(Iterable<? extends I> input) {
+		return alphabet.getSymbolIndices(input);
+	}
+	
+	/**
+	 * Retrieves the state reached from the given state by reading the input indices
+	 * {@code inputs[offset]} through {@code inputs[offset + length - 1]}.
+	 * <p>
+	 * The input indices are not validated, and no objects are allocated.
+	 * 
+	 * @param state the ID of the source state
+	 * @param inputs the array containing the input indices
+	 * @param offset the offset of the first input index
+	 * @param length the number of inputs to read
+	 * @return the ID of the reached state, or {@code -1} if an undefined transition was encountered
+	 */
+	public int getIntSuccessor(int state, int[] inputs, int offset, int length) {
+		final int[] trans = transitions;
+		final int numInputs = alphabetSize;
+		final int end = offset + length;
+		
+		int current = state;
+		for (int i = offset; current >= 0 && i < end; i++) {
+			current = trans[current * numInputs + inputs[i]];
+		}
+		
+		return current;
+	}
+	
+	public int getIntSuccessor(int state, int[] inputs) {
+		return getIntSuccessor(state, inputs, 0, inputs.length);
+	}
+	
+	public int getIntState(int[] inputs) {
+		return getIntSuccessor(initial, inputs, 0, inputs.length);
+	}
 	@Override
 	public Integer getState(Iterable<? extends I> input) {
 		return wrapState(getIntState(input));
@@ -415,6 +527,114 @@ public abstract class AbstractCompactSimpleDet<I, SP>
 		return alphabet.size();
 	}
 
+	/**
+	 * Takes an immutable snapshot of this automaton. The snapshot reflects the state of this automaton
+	 * at the time of the call, and is not affected by any subsequent modifications. It may be accessed by
+	 * arbitrarily many threads concurrently, without any synchronization.
+	 * <p>
+	 * The data of the snapshot is split into chunks of consecutive states. Once the first snapshot has been
+	 * taken, this automaton keeps track of the chunks that are modified, and subsequent snapshots only copy
+	 * the modified chunks, sharing all others with the previous snapshot. Taking a snapshot hence only requires
+	 * time proportional to the amount of modifications since the previous snapshot (plus a small, constant
+	 * fraction of the size of the automaton).
+	 * <p>
+	 * This method must not be invoked concurrently with modifications of this automaton.
+	 * 
+	 * @return an immutable snapshot of this automaton
+	 */
+	public CompactSimpleDetSnapshot<I,SP> snapshot() {
+		updateSnapshot();
+		return new CompactSimpleDetSnapshot<>(alphabet, numStates, initial, getSnapshotTransitions(),
+				getSnapshotProperties());
+	}
+	
+	/**
+	 * Updates the {@link #getSnapshotTransitions() transition} and {@link #getSnapshotProperties() property}
+	 * chunks, such that they reflect the current state of this automaton.
+	 */
+	protected final void updateSnapshot() {
+		int numChunks = SnapshotTracker.numChunks(numStates);
+		if (snapshotTracker == null) {
+			snapshotTracker = new SnapshotTracker();
+			snapshotTransitions = new int[0][];
+			snapshotProperties = new Object[0];
+		}
+		snapshotTransitions = snapshotTracker.update(snapshotTransitions, numChunks,
+				c -> copyTransitionChunk(SnapshotTracker.chunkLow(c), SnapshotTracker.chunkHigh(c, numStates)));
+		snapshotProperties = snapshotTracker.update(snapshotProperties, numChunks,
+				c -> copyStateProperties(SnapshotTracker.chunkLow(c), SnapshotTracker.chunkHigh(c, numStates)));
+		snapshotTracker.clearDirty();
+	}
+	
+	/**
+	 * Retrieves the transition chunks of the most recent snapshot, as computed by {@link #updateSnapshot()}.
+	 * 
+	 * @return the transition chunks
+	 */
+	protected final int[][] getSnapshotTransitions() {
+		return snapshotTransitions;
+	}
+	
+	/**
+	 * Retrieves the state property chunks of the most recent snapshot, as computed by {@link #updateSnapshot()}.
+	 * The chunks are of the form returned by {@link #copyStateProperties(int, int)}.
+	 * 
+	 * @return the state property chunks
+	 */
+	protected final Object[] getSnapshotProperties() {
+		return snapshotProperties;
+	}
+	
+	private int[] copyTransitionChunk(int stateLow, int stateHigh) {
+		int[] chunk = new int[(stateHigh - stateLow) * alphabetSize];
+		copyTransitions(stateLow, stateHigh, chunk, 0);
+		return chunk;
+	}
+	
+	/**
+	 * Copies the properties of the states in the given range, for use in a {@link #snapshot() snapshot}.
+	 * The default implementation returns an {@code Object[]} array containing the state properties, which
+	 * is the representation expected by {@link CompactSimpleDetSnapshot}.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 * @return the copied properties
+	 */
+	protected Object copyStateProperties(int stateLow, int stateHigh) {
+		Object[] props = new Object[stateHigh - stateLow];
+		for (int i = stateLow; i < stateHigh; i++) {
+			props[i - stateLow] = getStateProperty(i);
+		}
+		return props;
+	}
+	
+	/**
+	 * Notifies this automaton that a state has been modified. Subclasses have to call this method
+	 * whenever they modify state properties (or other per-state data), to ensure that these modifications
+	 * are reflected in subsequent {@link #snapshot() snapshots}.
+	 * 
+	 * @param state the modified state
+	 */
+	protected final void stateModified(int state) {
+		if (snapshotTracker != null) {
+			snapshotTracker.markDirty(state);
+		}
+	}
+	
+	/**
+	 * Notifies this automaton that all states in the given range have been modified.
+	 * 
+	 * @param stateLow the lowest state (inclusive)
+	 * @param stateHigh the highest state (exclusive)
+	 * 
+	 * @see #stateModified(int)
+	 */
+	protected final void statesModified(int stateLow, int stateHigh) {
+		if (snapshotTracker != null) {
+			snapshotTracker.markDirty(stateLow, stateHigh);
+		}
+	}
+	
 	protected static Integer wrapState(int id) {
 		if(id < 0) {
 			return null;
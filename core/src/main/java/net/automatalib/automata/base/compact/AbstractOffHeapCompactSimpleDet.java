@@ -0,0 +1,155 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.base.compact;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import net.automatalib.commons.util.array.MappedIntArray;
+import net.automatalib.words.Alphabet;
+
+/**
+ * Variant of {@link AbstractCompactSimpleDet} that stores its transition table outside of the
+ * Java heap, in a {@link MappedIntArray}.
+ * <p>
+ * The transition table is indexed by {@code long}s, hence the number of transitions is not limited
+ * by the maximum size of a Java array (only the number of states is). Since the storage is
+ * not subject to garbage collection, automata with hundreds of millions of transitions can be
+ * kept in memory without increasing the heap size. If a backing file is used, the operating
+ * system takes care of paging the transition table in and out.
+ * <p>
+ * Only the methods accessing the transition table are overridden, all other functionality is
+ * inherited from {@link AbstractCompactSimpleDet}. Internally, successors are stored with an offset
+ * of one, such that freshly allocated (i.e., zeroed) memory corresponds to undefined transitions,
+ * and does not need to be initialized.
+ * <p>
+ * Instances of this class should be {@link #close() closed} once they are no longer needed,
+ * in order to release the backing file.
+ *
+ * @author agent
+ *
+ * @param <I> input symbol type
+ * @param <SP> state property type
+ */
+public abstract class AbstractOffHeapCompactSimpleDet<I, SP> extends AbstractCompactSimpleDet<I, SP>
+		implements Closeable {
+
+	protected final MappedIntArray offHeapTransitions;
+
+	public AbstractOffHeapCompactSimpleDet(Alphabet<I> alphabet) {
+		this(alphabet, DEFAULT_INIT_CAPACITY);
+	}
+
+	public AbstractOffHeapCompactSimpleDet(Alphabet<I> alphabet, int stateCapacity) {
+		this(alphabet, MappedIntArray.allocateDirect((long)stateCapacity * alphabet.size()));
+	}
+
+	/**
+	 * Constructor. Uses the given storage for the transition table. The storage must be
+	 * zeroed, i.e., it must not contain any previously stored transitions.
+	 *
+	 * @param alphabet the input alphabet
+	 * @param transitions the storage for the transition table
+	 */
+	protected AbstractOffHeapCompactSimpleDet(Alphabet<I> alphabet, MappedIntArray transitions) {
+		super(alphabet, null, computeStateCapacity(transitions, alphabet.size()));
+		this.offHeapTransitions = transitions;
+	}
+
+	private static int computeStateCapacity(MappedIntArray transitions, int alphabetSize) {
+		if (alphabetSize == 0) {
+			// the transition table is empty, and hence does not limit the number of states
+			return 0;
+		}
+		long cap = transitions.capacity() / alphabetSize;
+		return (cap > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)cap;
+	}
+
+	@Override
+	public void ensureCapacity(int newCapacity) {
+		if(newCapacity <= stateCapacity)
+			return;
+
+		int oldCap = stateCapacity;
+		int newCap = newCapacity;
+		if (alphabetSize > 0) {
+			offHeapTransitions.ensureCapacity((long)newCapacity * alphabetSize);
+			newCap = computeStateCapacity(offHeapTransitions, alphabetSize);
+		}
+		ensureCapacity(oldCap, newCap);
+		this.stateCapacity = newCap;
+	}
+
+	/**
+	 * Forces all changes to the transition table to be written to the backing file, if any.
+	 */
+	public void force() {
+		offHeapTransitions.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		offHeapTransitions.close();
+	}
+
+	@Override
+	public int getIntTransition(int state, int input) {
+		return offHeapTransitions.get((long)state * alphabetSize + input) - 1;
+	}
+
+	@Override
+	public void setTransition(int state, int inputIdx, int succ) {
+		offHeapTransitions.set((long)state * alphabetSize + inputIdx, succ + 1);
+		stateModified(state);
+	}
+
+	@Override
+	public void setTransitions(int stateLow, int stateHigh, int[] src, int srcOfs) {
+		long base = (long)stateLow * alphabetSize;
+		int length = (stateHigh - stateLow) * alphabetSize;
+		for (int i = 0; i < length; i++) {
+			offHeapTransitions.set(base + i, src[srcOfs + i] + 1);
+		}
+		statesModified(stateLow, stateHigh);
+	}
+
+	@Override
+	public void copyTransitions(int stateLow, int stateHigh, int[] dst, int dstOfs) {
+		int length = (stateHigh - stateLow) * alphabetSize;
+		offHeapTransitions.get((long)stateLow * alphabetSize, dst, dstOfs, length);
+		for (int i = dstOfs; i < dstOfs + length; i++) {
+			dst[i]--;
+		}
+	}
+
+	@Override
+	public int getIntSuccessor(int state, int[] inputs, int offset, int length) {
+		final int end = offset + length;
+
+		int current = state;
+		for (int i = offset; current >= 0 && i < end; i++) {
+			current = getIntTransition(current, inputs[i]);
+		}
+
+		return current;
+	}
+
+	@Override
+	protected void clearTransitions(int stateLow, int stateHigh) {
+		offHeapTransitions.fill((long)stateLow * alphabetSize, (long)stateHigh * alphabetSize, 0);
+	}
+
+}
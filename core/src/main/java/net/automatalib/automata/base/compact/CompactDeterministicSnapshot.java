@@ -0,0 +1,166 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.base.compact;
+
+import java.util.Collection;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.UniversalFiniteAlphabetAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.words.Alphabet;
+
+/**
+ * An immutable snapshot of an {@link AbstractCompactDeterministic}, as obtained via
+ * {@link AbstractCompactDeterministic#snapshot()}.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ * @param <T> transition class
+ * @param <SP> state property class
+ * @param <TP> transition property class
+ * 
+ * @see CompactSimpleDetSnapshot
+ */
+public class CompactDeterministicSnapshot<I,T,SP,TP> implements
+		UniversalDeterministicAutomaton<Integer,I,T,SP,TP>,
+		UniversalFiniteAlphabetAutomaton<Integer,I,T,SP,TP>,
+		StateIDs<Integer>,
+		UniversalDeterministicAutomaton.StateIntAbstraction<I,T,SP,TP>,
+		UniversalDeterministicAutomaton.FullIntAbstraction<T,SP,TP> {
+	
+	private final AbstractCompactDeterministic<I,T,SP,TP> automaton;
+	private final Alphabet<I> alphabet;
+	private final int alphabetSize;
+	private final int numStates;
+	private final int initial;
+	private final Object[][] transitionChunks;
+	private final Object[][] propertyChunks;
+	
+	protected CompactDeterministicSnapshot(AbstractCompactDeterministic<I,T,SP,TP> automaton, int numStates, int initial,
+			Object[][] transitionChunks, Object[][] propertyChunks) {
+		this.automaton = automaton;
+		this.alphabet = automaton.getInputAlphabet();
+		this.alphabetSize = alphabet.size();
+		this.numStates = numStates;
+		this.initial = initial;
+		this.transitionChunks = transitionChunks;
+		this.propertyChunks = propertyChunks;
+	}
+	
+	@Override
+	public Alphabet<I> getInputAlphabet() {
+		return alphabet;
+	}
+	
+	@Override
+	public int size() {
+		return numStates;
+	}
+	
+	@Override
+	public int numInputs() {
+		return alphabetSize;
+	}
+	
+	@Override
+	public Collection<Integer> getStates() {
+		return CollectionsUtil.intRange(0, numStates);
+	}
+	
+	@Override
+	public Integer getState(int id) {
+		return id;
+	}
+	
+	@Override
+	public int getStateId(Integer state) {
+		return state.intValue();
+	}
+	
+	@Override
+	public StateIDs<Integer> stateIDs() {
+		return this;
+	}
+	
+	@Override
+	public Integer getInitialState() {
+		return (initial >= 0) ? Integer.valueOf(initial) : null;
+	}
+	
+	@Override
+	public int getIntInitialState() {
+		return initial;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public T getTransition(int state, int input) {
+		return (T) transitionChunks[state >>> SnapshotTracker.CHUNK_SHIFT]
+				[(state & SnapshotTracker.CHUNK_MASK) * alphabetSize + input];
+	}
+	
+	@Override
+	public T getTransition(int state, I input) {
+		return getTransition(state, alphabet.getSymbolIndex(input));
+	}
+	
+	@Override
+	public T getTransition(Integer state, I input) {
+		return getTransition(state.intValue(), alphabet.getSymbolIndex(input));
+	}
+	
+	@Override
+	public int getIntSuccessor(T transition) {
+		return automaton.getIntSuccessor(transition);
+	}
+	
+	@Override
+	public Integer getSuccessor(T transition) {
+		int succ = getIntSuccessor(transition);
+		return (succ >= 0) ? Integer.valueOf(succ) : null;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public SP getStateProperty(int state) {
+		return (SP) propertyChunks[state >>> SnapshotTracker.CHUNK_SHIFT][state & SnapshotTracker.CHUNK_MASK];
+	}
+	
+	@Override
+	public SP getStateProperty(Integer state) {
+		return getStateProperty(state.intValue());
+	}
+	
+	@Override
+	public TP getTransitionProperty(T transition) {
+		return automaton.getTransitionProperty(transition);
+	}
+	
+	@Override
+	public StateIntAbstraction<I,T,SP,TP> stateIntAbstraction() {
+		return this;
+	}
+	
+	@Override
+	public FullIntAbstraction<T,SP,TP> fullIntAbstraction(Alphabet<I> alphabet) {
+		if (alphabet == this.alphabet) {
+			return this;
+		}
+		return UniversalDeterministicAutomaton.super.fullIntAbstraction(alphabet);
+	}
+}
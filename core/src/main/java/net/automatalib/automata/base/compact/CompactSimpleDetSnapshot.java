@@ -0,0 +1,234 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.base.compact;
+
+import java.util.Collection;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.UniversalFiniteAlphabetAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.words.Alphabet;
+
+/**
+ * An immutable snapshot of an {@link AbstractCompactSimpleDet}, as obtained via
+ * {@link AbstractCompactSimpleDet#snapshot()}.
+ * <p>
+ * States and transitions are represented in the same way as in the automaton the snapshot was taken from,
+ * but the transition array is split into chunks, which are shared with other snapshots of the same automaton
+ * if they have not been modified in between. A snapshot can safely be accessed by an arbitrary number of
+ * threads concurrently, without any synchronization, and regardless of modifications of the original
+ * automaton.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ * @param <SP> state property class
+ */
+public class CompactSimpleDetSnapshot<I,SP> implements
+		UniversalDeterministicAutomaton<Integer,I,Integer,SP,Void>,
+		UniversalFiniteAlphabetAutomaton<Integer,I,Integer,SP,Void>,
+		StateIDs<Integer>,
+		UniversalDeterministicAutomaton.StateIntAbstraction<I,Integer,SP,Void>,
+		UniversalDeterministicAutomaton.FullIntAbstraction<Integer,SP,Void> {
+	
+	/**
+	 * The number of states per chunk is {@code 1 << CHUNK_SHIFT}.
+	 */
+	protected static final int CHUNK_SHIFT = SnapshotTracker.CHUNK_SHIFT;
+	protected static final int CHUNK_MASK = SnapshotTracker.CHUNK_MASK;
+	
+	protected final Alphabet<I> alphabet;
+	protected final int alphabetSize;
+	protected final int numStates;
+	protected final int initial;
+	protected final int[][] transitionChunks;
+	protected final Object[] propertyChunks;
+	
+	protected CompactSimpleDetSnapshot(Alphabet<I> alphabet, int numStates, int initial,
+			int[][] transitionChunks, Object[] propertyChunks) {
+		this.alphabet = alphabet;
+		this.alphabetSize = alphabet.size();
+		this.numStates = numStates;
+		this.initial = initial;
+		this.transitionChunks = transitionChunks;
+		this.propertyChunks = propertyChunks;
+	}
+	
+	@Override
+	public Alphabet<I> getInputAlphabet() {
+		return alphabet;
+	}
+	
+	@Override
+	public int size() {
+		return numStates;
+	}
+	
+	@Override
+	public int numInputs() {
+		return alphabetSize;
+	}
+	
+	@Override
+	public Collection<Integer> getStates() {
+		return CollectionsUtil.intRange(0, numStates);
+	}
+	
+	@Override
+	public Integer getState(int id) {
+		return id;
+	}
+	
+	@Override
+	public int getStateId(Integer state) {
+		return state.intValue();
+	}
+	
+	@Override
+	public StateIDs<Integer> stateIDs() {
+		return this;
+	}
+	
+	@Override
+	public Integer getInitialState() {
+		return wrapState(initial);
+	}
+	
+	@Override
+	public int getIntInitialState() {
+		return initial;
+	}
+	
+	public int getIntTransition(int state, int input) {
+		return transitionChunks[state >>> CHUNK_SHIFT]
+				[(state & CHUNK_MASK) * alphabetSize + input];
+	}
+	
+	public int getIntTransition(int state, I input) {
+		return getIntTransition(state, alphabet.getSymbolIndex(input));
+	}
+	
+	@Override
+	public Integer getTransition(Integer state, I input) {
+		return wrapState(getIntTransition(state.intValue(), input));
+	}
+	
+	@Override
+	public Integer getTransition(int state, I input) {
+		return wrapState(getIntTransition(state, input));
+	}
+	
+	@Override
+	public Integer getTransition(int state, int input) {
+		return wrapState(getIntTransition(state, input));
+	}
+	
+	@Override
+	public int getSuccessor(int state, I input) {
+		return getIntTransition(state, input);
+	}
+	
+	@Override
+	public int getSuccessor(int state, int input) {
+		return getIntTransition(state, input);
+	}
+	
+	@Override
+	public Integer getSuccessor(Integer transition) {
+		return transition;
+	}
+	
+	@Override
+	public int getIntSuccessor(Integer transition) {
+		return (transition != null) ? transition.intValue() : INVALID_STATE;
+	}
+	
+	/**
+	 * Retrieves the state reached from the given state by reading the input indices
+	 * {@code inputs[offset]} through {@code inputs[offset + length - 1]}.
+	 * 
+	 * @param state the ID of the source state
+	 * @param inputs the array containing the input indices
+	 * @param offset the offset of the first input index
+	 * @param length the number of inputs to read
+	 * @return the ID of the reached state, or {@code -1} if an undefined transition was encountered
+	 * 
+	 * @see AbstractCompactSimpleDet#getIntSuccessor(int, int[], int, int)
+	 */
+	public int getIntSuccessor(int state, int[] inputs, int offset, int length) {
+		final int[][] chunks = transitionChunks;
+		final int numInputs = alphabetSize;
+		final int end = offset + length;
+		
+		int current = state;
+		for (int i = offset; current >= 0 && i < end; i++) {
+			current = chunks[current >>> CHUNK_SHIFT]
+					[(current & CHUNK_MASK) * numInputs + inputs[i]];
+		}
+		
+		return current;
+	}
+	
+	public int getIntState(int[] inputs) {
+		return getIntSuccessor(initial, inputs, 0, inputs.length);
+	}
+	
+	public int[] toInputIndices(Iterable<? extends I> input) {
+		return alphabet.getSymbolIndices(input);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public SP getStateProperty(int state) {
+		Object[] chunk = (Object[]) propertyChunks[state >>> CHUNK_SHIFT];
+		return (SP) chunk[state & CHUNK_MASK];
+	}
+	
+	@Override
+	public SP getStateProperty(Integer state) {
+		return getStateProperty(state.intValue());
+	}
+	
+	@Override
+	public Void getTransitionProperty(Integer transition) {
+		return null;
+	}
+	
+	@Override
+	public StateIntAbstraction<I,Integer,SP,Void> stateIntAbstraction() {
+		return this;
+	}
+	
+	@Override
+	public FullIntAbstraction<Integer,SP,Void> fullIntAbstraction(Alphabet<I> alphabet) {
+		if (alphabet == this.alphabet) {
+			return this;
+		}
+		return UniversalDeterministicAutomaton.super.fullIntAbstraction(alphabet);
+	}
+	
+	public FullIntAbstraction<Integer,SP,Void> fullIntAbstraction() {
+		return this;
+	}
+	
+	protected static Integer wrapState(int id) {
+		if (id < 0) {
+			return null;
+		}
+		return Integer.valueOf(id);
+	}
+}
@@ -0,0 +1,86 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.base.compact;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/**
+ * Bookkeeping for copy-on-write snapshots of compact automata.
+ * <p>
+ * In a snapshot, the states of an automaton are grouped into <i>chunks</i> of {@link #CHUNK_SIZE}
+ * consecutive states, and the data of each chunk (transitions, state properties) is stored in
+ * separate arrays. Once the first snapshot has been taken, every modification marks the chunk
+ * of the affected state as dirty. When the next snapshot is taken, only the dirty chunks are copied,
+ * while all other chunks are shared with the previous snapshot.
+ * 
+ * @author agent
+ */
+final class SnapshotTracker {
+	
+	static final int CHUNK_SHIFT = 8;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	
+	private final BitSet dirty = new BitSet();
+	
+	static int numChunks(int numStates) {
+		return (numStates + CHUNK_MASK) >>> CHUNK_SHIFT;
+	}
+	
+	static int chunkLow(int chunk) {
+		return chunk << CHUNK_SHIFT;
+	}
+	
+	static int chunkHigh(int chunk, int numStates) {
+		return Math.min((chunk + 1) << CHUNK_SHIFT, numStates);
+	}
+	
+	public void markDirty(int state) {
+		dirty.set(state >>> CHUNK_SHIFT);
+	}
+	
+	public void markDirty(int stateLow, int stateHigh) {
+		if (stateLow < stateHigh) {
+			dirty.set(stateLow >>> CHUNK_SHIFT, ((stateHigh - 1) >>> CHUNK_SHIFT) + 1);
+		}
+	}
+	
+	/**
+	 * Computes the chunks of a new snapshot, sharing all clean chunks with the previous snapshot.
+	 * 
+	 * @param previous the chunks of the previous snapshot
+	 * @param numChunks the number of chunks of the new snapshot
+	 * @param copyChunk the function for copying the (current) data of a chunk
+	 * @return the chunks of the new snapshot
+	 */
+	public <C> C[] update(C[] previous, int numChunks, IntFunction<? extends C> copyChunk) {
+		C[] chunks = Arrays.copyOf(previous, numChunks);
+		for (int c = previous.length; c < numChunks; c++) {
+			chunks[c] = copyChunk.apply(c);
+		}
+		int limit = Math.min(previous.length, numChunks);
+		for (int c = dirty.nextSetBit(0); c >= 0 && c < limit; c = dirty.nextSetBit(c + 1)) {
+			chunks[c] = copyChunk.apply(c);
+		}
+		return chunks;
+	}
+	
+	public void clearDirty() {
+		dirty.clear();
+	}
+}
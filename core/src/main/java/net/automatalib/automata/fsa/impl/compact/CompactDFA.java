@@ -86,6 +86,7 @@ public class CompactDFA<I> extends AbstractCompactSimpleDet<I, Boolean> implemen
 	@Override
 	public void flipAcceptance() {
 		acceptance.flip(0, size());
+		statesModified(0, size());
 	}
 
 	
@@ -99,6 +100,7 @@ public class CompactDFA<I> extends AbstractCompactSimpleDet<I, Boolean> implemen
 
 	public void setAccepting(int state, boolean accepting) {
 		acceptance.set(state, accepting);
+		stateModified(state);
 	}
 
 	@Override
@@ -122,6 +124,46 @@ public class CompactDFA<I> extends AbstractCompactSimpleDet<I, Boolean> implemen
 		return isAccepting(state.intValue());
 	}
 
+	@Override
+	public boolean accepts(Iterable<? extends I> input) {
+		int state = getIntState(input);
+		return state >= 0 && acceptance.get(state);
+	}
+	
+	/**
+	 * Checks whether the word given by the specified sequence of input indices (see
+	 * {@link #toInputIndices(Iterable)}) is accepted. No objects are allocated.
+	 * 
+	 * @param inputs the input indices
+	 * @return {@code true} if the word is accepted, {@code false} otherwise
+	 */
+	public boolean accepts(int[] inputs) {
+		int state = getIntSuccessor(initial, inputs, 0, inputs.length);
+		return state >= 0 && acceptance.get(state);
+	}
+	
+	/**
+	 * Checks for each of the given words (in input index representation) whether it is accepted, and
+	 * stores the results in the given array.
+	 * 
+	 * @param words the words, as sequences of input indices
+	 * @param result the array to store the results in, must be at least as long as {@code words}
+	 */
+	public void acceptsAll(int[][] words, boolean[] result) {
+		final int init = initial;
+		for (int i = 0; i < words.length; i++) {
+			int[] word = words[i];
+			int state = getIntSuccessor(init, word, 0, word.length);
+			result[i] = state >= 0 && acceptance.get(state);
+		}
+	}
+	
+	public boolean[] acceptsAll(int[][] words) {
+		boolean[] result = new boolean[words.length];
+		acceptsAll(words, result);
+		return result;
+	}
+
 	@Override
 	public Boolean getStateProperty(int stateId) {
 		return isAccepting(stateId);
@@ -144,6 +186,18 @@ public class CompactDFA<I> extends AbstractCompactSimpleDet<I, Boolean> implemen
 	public Integer addInitialState(boolean accepting) {
 		return super.addInitialState(Boolean.valueOf(accepting));
 	}
+	
+	@Override
+	public CompactDFASnapshot<I> snapshot() {
+		updateSnapshot();
+		return new CompactDFASnapshot<>(alphabet, numStates, initial, getSnapshotTransitions(),
+				getSnapshotProperties());
+	}
+	
+	@Override
+	protected Object copyStateProperties(int stateLow, int stateHigh) {
+		return acceptance.get(stateLow, stateHigh).toLongArray();
+	}
 
 	
 }
@@ -0,0 +1,95 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.fsa.impl.compact;
+
+import net.automatalib.automata.base.compact.CompactSimpleDetSnapshot;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.words.Alphabet;
+
+/**
+ * An immutable snapshot of a {@link CompactDFA}, as obtained via {@link CompactDFA#snapshot()}.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ * 
+ * @see CompactSimpleDetSnapshot
+ */
+public class CompactDFASnapshot<I> extends CompactSimpleDetSnapshot<I,Boolean> implements DFA<Integer,I> {
+	
+	CompactDFASnapshot(Alphabet<I> alphabet, int numStates, int initial, int[][] transitionChunks,
+			Object[] propertyChunks) {
+		super(alphabet, numStates, initial, transitionChunks, propertyChunks);
+	}
+	
+	public boolean isAccepting(int state) {
+		// acceptance is stored as the words of a BitSet per chunk, with trailing zero words omitted
+		long[] words = (long[]) propertyChunks[state >>> CHUNK_SHIFT];
+		int bit = state & CHUNK_MASK;
+		int wordIdx = bit >>> 6;
+		return wordIdx < words.length && (words[wordIdx] & (1L << bit)) != 0L;
+	}
+	
+	@Override
+	public boolean isAccepting(Integer state) {
+		return isAccepting(state.intValue());
+	}
+	
+	@Override
+	public Boolean getStateProperty(int state) {
+		return isAccepting(state);
+	}
+	
+	@Override
+	public Boolean getStateProperty(Integer state) {
+		return isAccepting(state.intValue());
+	}
+	
+	@Override
+	public boolean accepts(Iterable<? extends I> input) {
+		return accepts(toInputIndices(input));
+	}
+	
+	/**
+	 * Checks whether the word given by the specified sequence of input indices is accepted.
+	 * 
+	 * @param inputs the input indices
+	 * @return {@code true} if the word is accepted, {@code false} otherwise
+	 * 
+	 * @see CompactDFA#accepts(int[])
+	 */
+	public boolean accepts(int[] inputs) {
+		int state = getIntSuccessor(initial, inputs, 0, inputs.length);
+		return state >= 0 && isAccepting(state);
+	}
+	
+	/**
+	 * Checks for each of the given words (in input index representation) whether it is accepted, and
+	 * stores the results in the given array.
+	 * 
+	 * @param words the words, as sequences of input indices
+	 * @param result the array to store the results in, must be at least as long as {@code words}
+	 * 
+	 * @see CompactDFA#acceptsAll(int[][], boolean[])
+	 */
+	public void acceptsAll(int[][] words, boolean[] result) {
+		for (int i = 0; i < words.length; i++) {
+			int[] word = words[i];
+			int state = getIntSuccessor(initial, word, 0, word.length);
+			result[i] = state >= 0 && isAccepting(state);
+		}
+	}
+}
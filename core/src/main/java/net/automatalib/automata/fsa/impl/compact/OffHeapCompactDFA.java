@@ -0,0 +1,173 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.fsa.impl.compact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.BitSet;
+
+import net.automatalib.automata.AutomatonCreator;
+import net.automatalib.automata.base.compact.AbstractOffHeapCompactSimpleDet;
+import net.automatalib.automata.fsa.MutableDFA;
+import net.automatalib.commons.util.array.MappedIntArray;
+import net.automatalib.words.Alphabet;
+
+/**
+ * A {@link CompactDFA} counterpart whose transition table is stored outside of the Java heap
+ * (see {@link AbstractOffHeapCompactSimpleDet}). The transition table is either kept in direct
+ * memory, or in a memory-mapped scratch file.
+ * <p>
+ * Acceptance flags are stored on the heap, in a {@link BitSet}.
+ *
+ * @author agent
+ *
+ * @param <I> input symbol type
+ */
+public class OffHeapCompactDFA<I> extends AbstractOffHeapCompactSimpleDet<I, Boolean> implements
+		MutableDFA<Integer,I> {
+
+	public static final class Creator<I> implements AutomatonCreator<OffHeapCompactDFA<I>, I> {
+		private final File backingFile;
+
+		/**
+		 * Constructor. Creates automata whose transition table is kept in direct memory.
+		 */
+		public Creator() {
+			this(null);
+		}
+
+		/**
+		 * Constructor. Creates automata whose transition table is mapped from the given file.
+		 * Note that the file will be overwritten by every automaton created by this creator.
+		 *
+		 * @param backingFile the backing file, or {@code null} if direct memory should be used
+		 */
+		public Creator(File backingFile) {
+			this.backingFile = backingFile;
+		}
+
+		@Override
+		public OffHeapCompactDFA<I> createAutomaton(Alphabet<I> alphabet) {
+			return createAutomaton(alphabet, DEFAULT_INIT_CAPACITY);
+		}
+
+		@Override
+		public OffHeapCompactDFA<I> createAutomaton(Alphabet<I> alphabet, int numStates) {
+			if (backingFile == null) {
+				return new OffHeapCompactDFA<>(alphabet, numStates);
+			}
+			try {
+				return new OffHeapCompactDFA<>(alphabet, numStates, backingFile);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+	private final BitSet acceptance;
+
+	public OffHeapCompactDFA(Alphabet<I> alphabet) {
+		super(alphabet);
+		this.acceptance = new BitSet();
+	}
+
+	public OffHeapCompactDFA(Alphabet<I> alphabet, int stateCapacity) {
+		super(alphabet, stateCapacity);
+		this.acceptance = new BitSet();
+	}
+
+	/**
+	 * Constructor. Creates a DFA whose transition table is mapped from the given file. Any previous
+	 * contents of the file are discarded.
+	 *
+	 * @param alphabet the input alphabet
+	 * @param stateCapacity the initial state capacity
+	 * @param backingFile the file to map the transition table from
+	 * @throws IOException if the file could not be mapped
+	 */
+	public OffHeapCompactDFA(Alphabet<I> alphabet, int stateCapacity, File backingFile) throws IOException {
+		super(alphabet, mapTruncated(backingFile, (long)stateCapacity * alphabet.size()));
+		this.acceptance = new BitSet();
+	}
+
+	private static MappedIntArray mapTruncated(File file, long capacity) throws IOException {
+		if (file.exists() && !file.delete()) {
+			throw new IOException("Could not delete existing backing file " + file);
+		}
+		return MappedIntArray.map(file, capacity);
+	}
+
+	@Override
+	public void flipAcceptance() {
+		acceptance.flip(0, size());
+		statesModified(0, size());
+	}
+
+	@Override
+	public void clear() {
+		acceptance.clear();
+		super.clear();
+	}
+
+	public void setAccepting(int state, boolean accepting) {
+		acceptance.set(state, accepting);
+		stateModified(state);
+	}
+
+	@Override
+	public void setAccepting(Integer state, boolean accepting) {
+		setAccepting(state.intValue(), accepting);
+	}
+
+	@Override
+	public Integer addState(boolean accepting) {
+		return addState(Boolean.valueOf(accepting));
+	}
+
+	public boolean isAccepting(int stateId) {
+		return acceptance.get(stateId);
+	}
+
+	@Override
+	public boolean isAccepting(Integer state) {
+		return isAccepting(state.intValue());
+	}
+
+	@Override
+	public Boolean getStateProperty(int stateId) {
+		return isAccepting(stateId);
+	}
+
+	@Override
+	public void initState(int stateId, Boolean property) {
+		boolean bval = (property == null) ? false : property.booleanValue();
+		setAccepting(stateId, bval);
+	}
+
+	@Override
+	public void setStateProperty(int stateId, Boolean property) {
+		boolean bval = (property == null) ? false : property.booleanValue();
+		setAccepting(stateId, bval);
+	}
+
+	@Override
+	public Integer addInitialState(boolean accepting) {
+		return super.addInitialState(Boolean.valueOf(accepting));
+	}
+
+}
@@ -1,12 +1,12 @@
 /* Copyright (C) 2013 TU Dortmund
  * This file is part of AutomataLib, http://www.automatalib.net/.
- * 
+ *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  *     http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -15,15 +15,40 @@
  */
 package net.automatalib.automata.transout.impl.compact;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import net.automatalib.automata.AutomatonCreator;
 import net.automatalib.automata.base.compact.AbstractCompactDeterministic;
 import net.automatalib.automata.transout.MutableMealyMachine;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 
+/**
+ * A compact, array-based Mealy machine implementation.
+ * <p>
+ * Transitions are not stored as objects. Instead, successors are stored in an <tt>int</tt> array, and
+ * outputs are stored as indices into a table of (interned) output symbols, in a second <tt>int</tt> array.
+ * Since outputs are interned, output symbols must provide sensible {@link Object#equals(Object) equals}
+ * and {@link Object#hashCode() hashCode} implementations. Transition objects ({@link CompactMealyTransition})
+ * are only created when required by the generic {@link MutableMealyMachine} API; all methods operating on
+ * integer states and inputs (as well as {@link #trace(Integer, Iterable, List)}) do not allocate any
+ * transition objects.
+ *
+ * @author Malte Isberner
+ *
+ * @param <I> input symbol type
+ * @param <O> output symbol type
+ */
 public class CompactMealy<I, O> extends
 		AbstractCompactDeterministic<I, CompactMealyTransition<O>, Void, O> implements
 		MutableMealyMachine<Integer, I, CompactMealyTransition<O>, O> {
-	
+
 	public static final class Creator<I,O> implements AutomatonCreator<CompactMealy<I,O>, I> {
 		@Override
 		public CompactMealy<I, O> createAutomaton(Alphabet<I> alphabet) {
@@ -34,22 +59,404 @@ public class CompactMealy<I, O> extends
 			return new CompactMealy<>(alphabet, sizeHint);
 		}
 	}
-		
+
+	/**
+	 * The output index of the {@code null} output.
+	 */
+	protected static final int NULL_OUTPUT = 0;
+
+	protected int[] successors;
+	protected int[] outputIndices;
+
+	private final List<O> outputTable;
+	private final Map<O,Integer> outputIndexMap;
+
+	public CompactMealy(Alphabet<I> alphabet) {
+		this(alphabet, DEFAULT_INIT_CAPACITY, DEFAULT_RESIZE_FACTOR);
+	}
+
+	public CompactMealy(Alphabet<I> alphabet, int stateCapacity) {
+		this(alphabet, stateCapacity, DEFAULT_RESIZE_FACTOR);
+	}
+
 	public CompactMealy(Alphabet<I> alphabet, float resizeFactor) {
-		super(alphabet, resizeFactor);
+		this(alphabet, DEFAULT_INIT_CAPACITY, resizeFactor);
 	}
 
 	public CompactMealy(Alphabet<I> alphabet, int stateCapacity,
 			float resizeFactor) {
-		super(alphabet, stateCapacity, resizeFactor);
+		super(alphabet, null, stateCapacity, resizeFactor);
+		this.successors = new int[stateCapacity * alphabetSize];
+		Arrays.fill(this.successors, -1);
+		this.outputIndices = new int[stateCapacity * alphabetSize];
+		this.outputTable = new ArrayList<>();
+		this.outputTable.add(null);
+		this.outputIndexMap = new HashMap<>();
 	}
 
-	public CompactMealy(Alphabet<I> alphabet, int stateCapacity) {
-		super(alphabet, stateCapacity);
+	@Override
+	protected void ensureTransitionCapacity(int oldCap, int newCap) {
+		int oldSize = oldCap * alphabetSize;
+		int newSize = newCap * alphabetSize;
+		this.successors = Arrays.copyOf(successors, newSize);
+		Arrays.fill(successors, oldSize, newSize, -1);
+		this.outputIndices = Arrays.copyOf(outputIndices, newSize);
 	}
 
-	public CompactMealy(Alphabet<I> alphabet) {
-		super(alphabet);
+	@Override
+	protected void clearTransitions(int stateLow, int stateHigh) {
+		int low = stateLow * alphabetSize, high = stateHigh * alphabetSize;
+		Arrays.fill(successors, low, high, -1);
+		Arrays.fill(outputIndices, low, high, NULL_OUTPUT);
+	}
+
+	/**
+	 * Creates transition objects for the transitions in the given range. The created transitions
+	 * are not associated with this automaton, i.e., changing their output does not affect it.
+	 */
+	@Override
+	protected Object[] copyTransitions(int stateLow, int stateHigh) {
+		int low = stateLow * alphabetSize, high = stateHigh * alphabetSize;
+		Object[] result = new Object[high - low];
+		for (int i = low; i < high; i++) {
+			int succ = successors[i];
+			if (succ >= 0) {
+				result[i - low] = new CompactMealyTransition<>(succ, outputTable.get(outputIndices[i]));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public CompactMealySnapshot<I, O> snapshot() {
+		updateSnapshot();
+		return new CompactMealySnapshot<>(this, numStates, initial, getSnapshotTransitions(),
+				getSnapshotProperties());
+	}
+
+	/**
+	 * Retrieves the index of the given output symbol in the output table, adding it
+	 * if necessary.
+	 *
+	 * @param output the output symbol
+	 * @return the index of the output symbol in the output table
+	 */
+	protected int internOutput(O output) {
+		if (output == null) {
+			return NULL_OUTPUT;
+		}
+		Integer idx = outputIndexMap.get(output);
+		if (idx != null) {
+			return idx.intValue();
+		}
+		int newIdx = outputTable.size();
+		outputTable.add(output);
+		outputIndexMap.put(output, newIdx);
+		return newIdx;
+	}
+
+	/**
+	 * Retrieves the index of the given output symbol in the output table, without adding it.
+	 *
+	 * @param output the output symbol
+	 * @return the index of the output symbol in the output table, or {@code -1} if it is not
+	 * contained in the output table
+	 */
+	private int lookupOutput(O output) {
+		if (output == null) {
+			return NULL_OUTPUT;
+		}
+		Integer idx = outputIndexMap.get(output);
+		return (idx != null) ? idx.intValue() : -1;
+	}
+
+	/**
+	 * Retrieves the output symbol stored under the given index in the output table.
+	 *
+	 * @param outputIdx the output index
+	 * @return the corresponding output symbol
+	 */
+	public O getOutputSymbol(int outputIdx) {
+		return outputTable.get(outputIdx);
+	}
+
+	/**
+	 * Retrieves the number of distinct output symbols (including {@code null}) that have been
+	 * used in this automaton.
+	 *
+	 * @return the size of the output table
+	 */
+	public int numOutputSymbols() {
+		return outputTable.size();
+	}
+
+	@Override
+	public int getSuccessor(int state, int input) {
+		return successors[state * alphabetSize + input];
+	}
+
+	@Override
+	public int getSuccessor(int state, I input) {
+		return getSuccessor(state, alphabet.getSymbolIndex(input));
+	}
+
+	@Override
+	public Integer getSuccessor(Integer state, I input) {
+		return makeId(getSuccessor(state.intValue(), input));
+	}
+
+	public int getIntSuccessor(int state, Iterable<? extends I> input) {
+		int current = state;
+
+		Iterator<? extends I> inputIt = input.iterator();
+
+		while(current >= 0 && inputIt.hasNext()) {
+			current = getSuccessor(current, inputIt.next());
+		}
+
+		return current;
+	}
+
+	@Override
+	public Integer getSuccessor(Integer state, Iterable<? extends I> input) {
+		return makeId(getIntSuccessor(state.intValue(), input));
+	}
+
+	@Override
+	public Integer getState(Iterable<? extends I> input) {
+		return makeId(getIntSuccessor(initial, input));
+	}
+
+	/**
+	 * Retrieves the output index of the transition for the given state and input index.
+	 *
+	 * @param state the source state
+	 * @param input the input index
+	 * @return the output index of the transition (see {@link #getOutputSymbol(int)})
+	 */
+	public int getOutputIndex(int state, int input) {
+		return outputIndices[state * alphabetSize + input];
+	}
+
+	public O getOutput(int state, int input) {
+		return outputTable.get(getOutputIndex(state, input));
+	}
+
+	public O getOutput(int state, I input) {
+		return getOutput(state, alphabet.getSymbolIndex(input));
+	}
+
+	@Override
+	public O getOutput(Integer state, I input) {
+		int memIdx = state.intValue() * alphabetSize + alphabet.getSymbolIndex(input);
+		if (successors[memIdx] < 0) {
+			return null;
+		}
+		return outputTable.get(outputIndices[memIdx]);
+	}
+
+	@Override
+	public O getTransitionProperty(int state, int input) {
+		return getOutput(state, input);
+	}
+
+	@Override
+	public O getTransitionProperty(int state, I input) {
+		return getOutput(state, input);
+	}
+
+	@Override
+	public boolean trace(Integer state, Iterable<? extends I> input, List<? super O> output) {
+		int curr = state.intValue();
+		for (I sym : input) {
+			int memIdx = curr * alphabetSize + alphabet.getSymbolIndex(sym);
+			int succ = successors[memIdx];
+			if (succ < 0) {
+				return false;
+			}
+			output.add(outputTable.get(outputIndices[memIdx]));
+			curr = succ;
+		}
+		return true;
+	}
+
+	/**
+	 * Translates an input word into the sequence of the indices of its symbols in the input
+	 * alphabet, for use with {@link #computeOutputIndices(int, int[], int, int, int[], int)} and
+	 * related methods.
+	 *
+	 * @param input the input word
+	 * @return the input indices of the symbols of the word
+	 */
+	public int[] toInputIndices(Iterable<? extends I> input) {
+		return alphabet.getSymbolIndices(input);
+	}
+
+	/**
+	 * Reads the input indices {@code inputs[inOfs]} through {@code inputs[inOfs + length - 1]}, starting
+	 * in the given state, and stores the output indices (see {@link #getOutputSymbol(int)}) of the
+	 * traversed transitions in the {@code outputs} array, starting at offset {@code outOfs}.
+	 * <p>
+	 * The input indices are not validated, and no objects are allocated.
+	 *
+	 * @param state the ID of the source state
+	 * @param inputs the array containing the input indices
+	 * @param inOfs the offset of the first input index
+	 * @param length the number of inputs to read
+	 * @param outputs the array to store the output indices in
+	 * @param outOfs the offset at which to store the first output index
+	 * @return the number of inputs read, which is less than {@code length} if and only if an undefined
+	 * transition was encountered
+	 */
+	public int computeOutputIndices(int state, int[] inputs, int inOfs, int length, int[] outputs, int outOfs) {
+		final int[] succs = successors;
+		final int[] outIdcs = outputIndices;
+		final int numInputs = alphabetSize;
+
+		int curr = state;
+		int i = 0;
+		while (curr >= 0 && i < length) {
+			int memIdx = curr * numInputs + inputs[inOfs + i];
+			curr = succs[memIdx];
+			if (curr < 0) {
+				break;
+			}
+			outputs[outOfs + i] = outIdcs[memIdx];
+			i++;
+		}
+
+		return i;
+	}
+
+	public int computeOutputIndices(int[] inputs, int[] outputs) {
+		return computeOutputIndices(initial, inputs, 0, inputs.length, outputs, 0);
+	}
+
+	/**
+	 * Computes the output indices for each of the given words (in input index representation).
+	 * The output indices for {@code words[i]} are stored in {@code outputs[i]}, and the number of
+	 * inputs that could be read in {@code numRead[i]}.
+	 *
+	 * @param words the words, as sequences of input indices
+	 * @param outputs the arrays to store the output indices in, each must be at least as long as
+	 * the respective word
+	 * @param numRead the array to store the number of inputs read in, must be at least as long as
+	 * {@code words}
+	 */
+	public void computeAllOutputIndices(int[][] words, int[][] outputs, int[] numRead) {
+		final int init = initial;
+		for (int i = 0; i < words.length; i++) {
+			int[] word = words[i];
+			numRead[i] = computeOutputIndices(init, word, 0, word.length, outputs[i], 0);
+		}
+	}
+
+	/**
+	 * Translates a sequence of output indices into the corresponding word of output symbols.
+	 *
+	 * @param outputIdcs the array containing the output indices
+	 * @param offset the offset of the first output index
+	 * @param length the number of output indices
+	 * @return the word of output symbols
+	 */
+	public Word<O> toOutputWord(int[] outputIdcs, int offset, int length) {
+		WordBuilder<O> wb = new WordBuilder<>(length);
+		for (int i = offset; i < offset + length; i++) {
+			wb.append(outputTable.get(outputIdcs[i]));
+		}
+		return wb.toWord();
+	}
+
+	protected CompactMealyTransition<O> getTransition(int memIdx) {
+		int succ = successors[memIdx];
+		if (succ < 0) {
+			return null;
+		}
+		int outputIdx = outputIndices[memIdx];
+		return new CompactMealyTransition<>(this, memIdx, outputIdx, succ, outputTable.get(outputIdx));
+	}
+
+	@Override
+	public CompactMealyTransition<O> getTransition(int stateId, int inputIdx) {
+		return getTransition(stateId * alphabetSize + inputIdx);
+	}
+
+	/**
+	 * Sets a transition, specifying its output by its index in the output table (see
+	 * {@link #getOutputIndex(int, int)}) rather than by the output symbol itself.
+	 *
+	 * @param state the source state
+	 * @param inputIdx the input index
+	 * @param succId the successor state, or {@code -1} to remove the transition
+	 * @param outputIdx the index of the output symbol in the output table
+	 */
+	public void setTransitionByOutputIndex(int state, int inputIdx, int succId, int outputIdx) {
+		int memIdx = state * alphabetSize + inputIdx;
+		successors[memIdx] = succId;
+		outputIndices[memIdx] = (succId < 0) ? NULL_OUTPUT : outputIdx;
+		stateModified(state);
+	}
+
+	@Override
+	public void setTransition(int state, int inputIdx, CompactMealyTransition<O> trans) {
+		if (trans == null) {
+			setTransitionByOutputIndex(state, inputIdx, -1, NULL_OUTPUT);
+			return;
+		}
+		int memIdx = state * alphabetSize + inputIdx;
+		int outputIdx = internOutput(trans.getOutput());
+		setTransitionByOutputIndex(state, inputIdx, trans.getSuccId(), outputIdx);
+		// a transition that is still part of the table only tracks its original position,
+		// the new position merely receives a copy of it
+		if (!trans.isAutomatonTransition()) {
+			trans.attach(this, memIdx, outputIdx);
+		}
+	}
+
+	@Override
+	public void setTransition(int stateId, int inputIdx, int succId, O property) {
+		setTransitionByOutputIndex(stateId, inputIdx, succId, internOutput(property));
+	}
+
+	@Override
+	public void setTransition(int stateId, I input, int succId, O property) {
+		setTransition(stateId, alphabet.getSymbolIndex(input), succId, property);
+	}
+
+	@Override
+	public void setTransition(Integer state, I input, Integer successor, O property) {
+		setTransition(getId(state), alphabet.getSymbolIndex(input), getId(successor), property);
+	}
+
+	@Override
+	public void removeTransition(Integer state, I input, CompactMealyTransition<O> transition) {
+		if (transition == null) {
+			return;
+		}
+		int stateId = state.intValue();
+		int memIdx = stateId * alphabetSize + alphabet.getSymbolIndex(input);
+		int succ = successors[memIdx];
+		if (succ >= 0 && succ == transition.getSuccId()
+				&& outputIndices[memIdx] == lookupOutput(transition.getOutput())) {
+			successors[memIdx] = -1;
+			outputIndices[memIdx] = NULL_OUTPUT;
+			stateModified(stateId);
+		}
+	}
+
+	@Override
+	public CompactMealyTransition<O> createTransition(int succId, O property) {
+		return new CompactMealyTransition<>(succId, property);
+	}
+
+	@Override
+	public CompactMealyTransition<O> copyTransition(CompactMealyTransition<O> trans, int succId) {
+		return new CompactMealyTransition<>(succId, trans.getOutput());
+	}
+
+	@Override
+	public int getIntSuccessor(CompactMealyTransition<O> transition) {
+		return transition.getSuccId();
 	}
 
 	/*
@@ -60,15 +467,15 @@ public class CompactMealy<I, O> extends
 	public O getTransitionOutput(CompactMealyTransition<O> transition) {
 		return transition.getOutput();
 	}
-	
+
 	@Override
 	public O getTransitionProperty(CompactMealyTransition<O> transition) {
 		return transition.getOutput();
 	}
-	
+
 	@Override
 	public void setTransitionProperty(CompactMealyTransition<O> transition, O property) {
-		transition.setOutput(property);
+		setTransitionOutput(transition, property);
 	}
 
 	/*
@@ -81,49 +488,27 @@ public class CompactMealy<I, O> extends
 		transition.setOutput(output);
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * @see net.automatalib.automata.base.compact.AbstractCompactDeterministic#getIntSuccessor(java.lang.Object)
+	/**
+	 * Checks whether the given position of the transition table (still) contains the given transition.
 	 */
-	@Override
-	public int getIntSuccessor(CompactMealyTransition<O> transition) {
-		return transition.getSuccId();
+	boolean containsTransition(int memIdx, int succId, int outputIdx) {
+		return successors[memIdx] == succId && outputIndices[memIdx] == outputIdx;
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * @see net.automatalib.automata.base.compact.AbstractCompactDeterministic#getStateProperty(int)
-	 */
-	@Override
-	public Void getStateProperty(int stateId) {
-		return null;
-	}
-	
-	/*
-	 * (non-Javadoc)
-	 * @see net.automatalib.automata.base.compact.AbstractCompactDeterministic#createTransition(int, java.lang.Object)
-	 */
-	@Override
-	public CompactMealyTransition<O> createTransition(int succId, O property) {
-		return new CompactMealyTransition<O>(succId, property);
+	int setOutput(int memIdx, O output) {
+		int outputIdx = internOutput(output);
+		outputIndices[memIdx] = outputIdx;
+		stateModified(memIdx / alphabetSize);
+		return outputIdx;
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * @see net.automatalib.automata.base.compact.AbstractCompactDeterministic#copyTransition(java.lang.Object, int)
-	 */
 	@Override
-	public CompactMealyTransition<O> copyTransition(
-			CompactMealyTransition<O> trans, int succId) {
-		return new CompactMealyTransition<O>(succId, trans.getOutput());
+	public Void getStateProperty(int stateId) {
+		return null;
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * @see net.automatalib.automata.base.compact.AbstractCompactDeterministic#setStateProperty(int, java.lang.Object)
-	 */
 	@Override
 	public void setStateProperty(int state, Void property) {
 	}
-	
+
 }
@@ -0,0 +1,46 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.transout.impl.compact;
+
+import net.automatalib.automata.base.compact.CompactDeterministicSnapshot;
+import net.automatalib.automata.transout.MealyMachine;
+
+/**
+ * An immutable snapshot of a {@link CompactMealy}, as obtained via {@link CompactMealy#snapshot()}.
+ * <p>
+ * The transitions of the snapshot are detached copies, i.e., changing their output does not affect
+ * the snapshot or the automaton.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ * @param <O> output symbol class
+ * 
+ * @see CompactDeterministicSnapshot
+ */
+public class CompactMealySnapshot<I,O> extends CompactDeterministicSnapshot<I,CompactMealyTransition<O>,Void,O>
+		implements MealyMachine<Integer,I,CompactMealyTransition<O>,O> {
+	
+	CompactMealySnapshot(CompactMealy<I,O> automaton, int numStates, int initial, Object[][] transitionChunks,
+			Object[][] propertyChunks) {
+		super(automaton, numStates, initial, transitionChunks, propertyChunks);
+	}
+	
+	@Override
+	public O getTransitionOutput(CompactMealyTransition<O> transition) {
+		return transition.getOutput();
+	}
+}
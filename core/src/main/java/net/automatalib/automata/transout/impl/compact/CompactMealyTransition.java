@@ -1,12 +1,12 @@
 /* Copyright (C) 2013 TU Dortmund
  * This file is part of AutomataLib, http://www.automatalib.net/.
- * 
+ *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  *     http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -15,19 +15,50 @@
  */
 package net.automatalib.automata.transout.impl.compact;
 
+import java.util.Objects;
+
+/**
+ * Transition view of a {@link CompactMealy}.
+ * <p>
+ * A {@link CompactMealy} does not store transition objects, but only successor and output indices.
+ * Objects of this class are hence created on demand. If a transition object was obtained from
+ * (or has been stored in) an automaton, it remembers its position in the automaton's transition
+ * table, such that changing its output (via {@link #setOutput(Object)} or
+ * {@link CompactMealy#setTransitionOutput(CompactMealyTransition, Object)}) is reflected in the automaton.
+ * This only holds as long as that position still contains the transition the object was obtained for.
+ * Once the position is overwritten, the object is detached, i.e., it is no longer an
+ * {@link #isAutomatonTransition() automaton transition}, and changing its output does not affect the
+ * automaton.
+ * <p>
+ * Transition objects are compared by their successor and output, such that repeated lookups of
+ * the same transition yield equal objects.
+ *
+ * @param <O> output symbol type
+ */
 public class CompactMealyTransition<O> {
+	private CompactMealy<?,O> owner;
+	private int memoryIdx;
+	// the output index stored at the position in the owner's transition table, for detecting overwrites
+	private int outputIdx;
 	private final int succId;
 	private O output;
-	
+
 	public CompactMealyTransition(int succId) {
 		this(succId, null);
 	}
-	
+
 	public CompactMealyTransition(int succId, O output) {
+		this(null, -1, -1, succId, output);
+	}
+
+	CompactMealyTransition(CompactMealy<?,O> owner, int memoryIdx, int outputIdx, int succId, O output) {
+		this.owner = owner;
+		this.memoryIdx = memoryIdx;
+		this.outputIdx = outputIdx;
 		this.succId = succId;
 		this.output = output;
 	}
-	
+
 	public int getSuccId() {
 		return succId;
 	}
@@ -35,8 +66,47 @@ public class CompactMealyTransition<O> {
 	public O getOutput() {
 		return output;
 	}
-	
+
 	public void setOutput(O output) {
 		this.output = output;
+		if (isAutomatonTransition()) {
+			outputIdx = owner.setOutput(memoryIdx, output);
+		}
+		else {
+			owner = null;
+		}
+	}
+
+	/**
+	 * Checks whether this transition object is associated with a position in the transition
+	 * table of an automaton, which still contains this transition.
+	 *
+	 * @return {@code true} if this transition is part of an automaton, {@code false} otherwise
+	 */
+	public boolean isAutomatonTransition() {
+		return owner != null && owner.containsTransition(memoryIdx, succId, outputIdx);
+	}
+
+	void attach(CompactMealy<?,O> owner, int memoryIdx, int outputIdx) {
+		this.owner = owner;
+		this.memoryIdx = memoryIdx;
+		this.outputIdx = outputIdx;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * succId + Objects.hashCode(output);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompactMealyTransition)) {
+			return false;
+		}
+		CompactMealyTransition<?> other = (CompactMealyTransition<?>) obj;
+		return succId == other.succId && Objects.equals(output, other.output);
 	}
 }
@@ -0,0 +1,384 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.graphs.base.compact;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
+
+/**
+ * An immutable graph in <i>compressed sparse row</i> (CSR) representation.
+ * <p>
+ * Nodes are the integers {@code 0} to {@code size() - 1}, and edges are the integers {@code 0} to
+ * {@code numEdges() - 1}. The outgoing edges of node {@code n} are the edges in the range from
+ * {@code offsets[n]} (inclusive) to {@code offsets[n + 1]} (exclusive), and the target of edge
+ * {@code e} is {@code targets[e]}. Optionally, a weight can be stored for each edge.
+ * <p>
+ * The whole graph is thus stored in two (or three) primitive arrays, allowing algorithms to operate
+ * on it using tight index-based loops (see {@link #getOffsets()} and {@link #getTargets()}). The generic
+ * {@link Graph} view represents nodes and edges by {@link Integer}s, without creating any edge objects.
+ * <p>
+ * Instances can be obtained from arbitrary graphs ({@link #fromGraph(Graph, EdgeWeights)}) and
+ * deterministic automata ({@link #fromAutomaton(UniversalDeterministicAutomaton, Collection)}), or
+ * using a {@link Builder}.
+ * 
+ * @author agent
+ */
+public final class CSRGraph implements Graph<Integer,Integer>, NodeIDs<Integer>, EdgeWeights<Integer> {
+	
+	/**
+	 * Builder for {@link CSRGraph}s. Edges can be added in arbitrary order; the outgoing edges
+	 * of each node retain the order in which they were added.
+	 */
+	public static final class Builder {
+		private final int numNodes;
+		private int[] sources;
+		private int[] targets;
+		private float[] weights;
+		private int numEdges;
+		
+		public Builder(int numNodes) {
+			this(numNodes, 16);
+		}
+		
+		public Builder(int numNodes, int expectedEdges) {
+			this.numNodes = numNodes;
+			int cap = Math.max(expectedEdges, 1);
+			this.sources = new int[cap];
+			this.targets = new int[cap];
+		}
+		
+		public Builder addEdge(int source, int target) {
+			if (weights != null) {
+				return addEdge(source, target, 0.0f);
+			}
+			int e = allocateEdge(source, target);
+			sources[e] = source;
+			targets[e] = target;
+			return this;
+		}
+		
+		public Builder addEdge(int source, int target, float weight) {
+			if (weights == null) {
+				weights = new float[sources.length];
+			}
+			int e = allocateEdge(source, target);
+			sources[e] = source;
+			targets[e] = target;
+			weights[e] = weight;
+			return this;
+		}
+		
+		private int allocateEdge(int source, int target) {
+			if (source < 0 || source >= numNodes || target < 0 || target >= numNodes) {
+				throw new IllegalArgumentException("Invalid edge " + source + " -> " + target + " for graph with "
+						+ numNodes + " nodes");
+			}
+			int e = numEdges++;
+			if (e == sources.length) {
+				int newCap = e + (e >> 1) + 1;
+				sources = Arrays.copyOf(sources, newCap);
+				targets = Arrays.copyOf(targets, newCap);
+				if (weights != null) {
+					weights = Arrays.copyOf(weights, newCap);
+				}
+			}
+			return e;
+		}
+		
+		/**
+		 * Creates the graph, sorting the edges by their source nodes (counting sort).
+		 * 
+		 * @return the graph
+		 */
+		public CSRGraph build() {
+			int[] offsets = new int[numNodes + 1];
+			for (int e = 0; e < numEdges; e++) {
+				offsets[sources[e] + 1]++;
+			}
+			for (int n = 0; n < numNodes; n++) {
+				offsets[n + 1] += offsets[n];
+			}
+			
+			int[] pos = Arrays.copyOf(offsets, numNodes);
+			int[] sortedTargets = new int[numEdges];
+			float[] sortedWeights = (weights != null) ? new float[numEdges] : null;
+			for (int e = 0; e < numEdges; e++) {
+				int idx = pos[sources[e]]++;
+				sortedTargets[idx] = targets[e];
+				if (sortedWeights != null) {
+					sortedWeights[idx] = weights[e];
+				}
+			}
+			
+			return new CSRGraph(offsets, sortedTargets, sortedWeights);
+		}
+	}
+	
+	private final int[] offsets;
+	private final int[] targets;
+	@Nullable
+	private final float[] weights;
+	
+	/**
+	 * Constructor. The arrays are used directly, and must not be modified afterwards.
+	 * 
+	 * @param offsets the edge offsets, of length {@code size() + 1}
+	 * @param targets the edge targets
+	 * @param weights the edge weights, or {@code null}
+	 */
+	public CSRGraph(int[] offsets, int[] targets, @Nullable float[] weights) {
+		if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != targets.length) {
+			throw new IllegalArgumentException("Invalid offsets array");
+		}
+		if (weights != null && weights.length != targets.length) {
+			throw new IllegalArgumentException("Number of weights (" + weights.length
+					+ ") does not match number of edges (" + targets.length + ")");
+		}
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+	
+	/**
+	 * Creates a CSR representation of the given graph. Node {@code n} of the result corresponds to
+	 * the node with ID {@code n} in the given graph (see {@link Graph#nodeIDs()}), and its outgoing edges
+	 * correspond to the outgoing edges of that node, in the order of {@link Graph#getOutgoingEdges(Object)}.
+	 * 
+	 * @param graph the graph
+	 * @param edgeWeights the edge weights to store, or {@code null} if no weights should be stored
+	 * @return the CSR representation of the given graph
+	 */
+	public static <N,E> CSRGraph fromGraph(Graph<N,E> graph, @Nullable EdgeWeights<? super E> edgeWeights) {
+		int size = graph.size();
+		NodeIDs<N> nodeIds = graph.nodeIDs();
+		
+		int[] offsets = new int[size + 1];
+		int[] targets = new int[Math.max(size, 1)];
+		float[] weights = (edgeWeights != null) ? new float[targets.length] : null;
+		int numEdges = 0;
+		
+		for (int n = 0; n < size; n++) {
+			for (E edge : graph.getOutgoingEdges(nodeIds.getNode(n))) {
+				if (numEdges == targets.length) {
+					targets = Arrays.copyOf(targets, numEdges * 2);
+					if (weights != null) {
+						weights = Arrays.copyOf(weights, numEdges * 2);
+					}
+				}
+				targets[numEdges] = nodeIds.getNodeId(graph.getTarget(edge));
+				if (weights != null) {
+					weights[numEdges] = edgeWeights.getEdgeWeight(edge);
+				}
+				numEdges++;
+			}
+			offsets[n + 1] = numEdges;
+		}
+		
+		return new CSRGraph(offsets, Arrays.copyOf(targets, numEdges),
+				(weights != null) ? Arrays.copyOf(weights, numEdges) : null);
+	}
+	
+	public static <N,E> CSRGraph fromGraph(Graph<N,E> graph) {
+		return fromGraph(graph, null);
+	}
+	
+	/**
+	 * Creates a CSR representation of the transition graph of the given automaton. Node {@code n} of
+	 * the result corresponds to the state with ID {@code n} (see {@link UniversalDeterministicAutomaton#stateIDs()}),
+	 * and its outgoing edges correspond to its defined transitions, in the order of the given inputs.
+	 * 
+	 * @param automaton the automaton
+	 * @param inputs the inputs to consider
+	 * @return the CSR representation of the transition graph
+	 */
+	public static <S,I> CSRGraph fromAutomaton(UniversalDeterministicAutomaton<S,I,?,?,?> automaton,
+			Collection<? extends I> inputs) {
+		int size = automaton.size();
+		StateIDs<S> stateIds = automaton.stateIDs();
+		
+		long maxEdges = (long)size * inputs.size();
+		if (maxEdges > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Automaton with " + size + " states and " + inputs.size()
+					+ " inputs is too large for a CSR representation");
+		}
+		
+		int[] offsets = new int[size + 1];
+		int[] targets = new int[(int)maxEdges];
+		int numEdges = 0;
+		
+		for (int n = 0; n < size; n++) {
+			S state = stateIds.getState(n);
+			for (I input : inputs) {
+				S succ = automaton.getSuccessor(state, input);
+				if (succ != null) {
+					targets[numEdges++] = stateIds.getStateId(succ);
+				}
+			}
+			offsets[n + 1] = numEdges;
+		}
+		
+		if (numEdges < targets.length) {
+			targets = Arrays.copyOf(targets, numEdges);
+		}
+		return new CSRGraph(offsets, targets, null);
+	}
+	
+	/**
+	 * Creates the transpose of this graph, i.e., the graph with all edges reversed. Edge weights
+	 * are retained. The incoming edges of each node are ordered by their source nodes.
+	 * 
+	 * @return the transpose of this graph
+	 */
+	public CSRGraph transpose() {
+		int size = size();
+		int numEdges = targets.length;
+		
+		int[] tOffsets = new int[size + 1];
+		for (int e = 0; e < numEdges; e++) {
+			tOffsets[targets[e] + 1]++;
+		}
+		for (int n = 0; n < size; n++) {
+			tOffsets[n + 1] += tOffsets[n];
+		}
+		
+		int[] pos = Arrays.copyOf(tOffsets, size);
+		int[] tTargets = new int[numEdges];
+		float[] tWeights = (weights != null) ? new float[numEdges] : null;
+		for (int src = 0; src < size; src++) {
+			for (int e = offsets[src], end = offsets[src + 1]; e < end; e++) {
+				int idx = pos[targets[e]]++;
+				tTargets[idx] = src;
+				if (tWeights != null) {
+					tWeights[idx] = weights[e];
+				}
+			}
+		}
+		
+		return new CSRGraph(tOffsets, tTargets, tWeights);
+	}
+	
+	@Override
+	public int size() {
+		return offsets.length - 1;
+	}
+	
+	public int numEdges() {
+		return targets.length;
+	}
+	
+	public boolean hasWeights() {
+		return weights != null;
+	}
+	
+	/**
+	 * Retrieves the edge offsets array. The outgoing edges of node {@code n} are the edges from
+	 * {@code offsets[n]} (inclusive) to {@code offsets[n + 1]} (exclusive).
+	 * <p>
+	 * <b>Note:</b> the returned array is the internal storage of this graph, and must not be modified.
+	 * 
+	 * @return the edge offsets array
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+	
+	/**
+	 * Retrieves the edge targets array.
+	 * <p>
+	 * <b>Note:</b> the returned array is the internal storage of this graph, and must not be modified.
+	 * 
+	 * @return the edge targets array
+	 */
+	public int[] getTargets() {
+		return targets;
+	}
+	
+	/**
+	 * Retrieves the edge weights array.
+	 * <p>
+	 * <b>Note:</b> the returned array is the internal storage of this graph, and must not be modified.
+	 * 
+	 * @return the edge weights array, or {@code null} if this graph does not store edge weights
+	 */
+	@Nullable
+	public float[] getWeights() {
+		return weights;
+	}
+	
+	public int getOutDegree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+	
+	public int getIntTarget(int edge) {
+		return targets[edge];
+	}
+	
+	public float getEdgeWeight(int edge) {
+		if (weights == null) {
+			throw new IllegalStateException("Graph does not store edge weights");
+		}
+		return weights[edge];
+	}
+
+	@Override
+	public float getEdgeWeight(Integer edge) {
+		return getEdgeWeight(edge.intValue());
+	}
+
+	@Override
+	public Collection<Integer> getNodes() {
+		return CollectionsUtil.intRange(0, size());
+	}
+	
+	public List<Integer> getOutgoingEdges(int node) {
+		return CollectionsUtil.intRange(offsets[node], offsets[node + 1]);
+	}
+
+	@Override
+	public Collection<Integer> getOutgoingEdges(Integer node) {
+		return getOutgoingEdges(node.intValue());
+	}
+
+	@Override
+	public Integer getTarget(Integer edge) {
+		return Integer.valueOf(targets[edge.intValue()]);
+	}
+
+	@Override
+	public NodeIDs<Integer> nodeIDs() {
+		return this;
+	}
+
+	@Override
+	public int getNodeId(Integer node) {
+		return node.intValue();
+	}
+
+	@Override
+	public Integer getNode(int id) {
+		return Integer.valueOf(id);
+	}
+}
@@ -0,0 +1,196 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.fsa;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.base.compact.CompactSimpleDetSnapshot;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFASnapshot;
+import net.automatalib.automata.fsa.impl.compact.OffHeapCompactDFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompactDFATest {
+
+	// accepts all words over {a,b} containing "ab", "c" is undefined everywhere except in the initial state
+	private static CompactDFA<Character> constructDFA() {
+		Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+		CompactDFA<Character> dfa = new CompactDFA<>(alphabet);
+
+		int q0 = dfa.addIntInitialState(false);
+		int q1 = dfa.addIntState(false);
+		int q2 = dfa.addIntState(true);
+
+		dfa.setTransition(q0, (Character) 'a', q1);
+		dfa.setTransition(q0, (Character) 'b', q0);
+		dfa.setTransition(q0, (Character) 'c', q0);
+		dfa.setTransition(q1, (Character) 'a', q1);
+		dfa.setTransition(q1, (Character) 'b', q2);
+		dfa.setTransition(q2, (Character) 'a', q2);
+		dfa.setTransition(q2, (Character) 'b', q2);
+
+		return dfa;
+	}
+
+	@Test
+	public void testIndexEvaluation() {
+		CompactDFA<Character> dfa = constructDFA();
+
+		List<Word<Character>> words = Arrays.asList(Word.epsilon(), Word.fromString("ab"), Word.fromString("cbaab"),
+				Word.fromString("abc"), Word.fromString("bbba"));
+
+		int[][] indexWords = new int[words.size()][];
+		for (int i = 0; i < words.size(); i++) {
+			Word<Character> word = words.get(i);
+			indexWords[i] = dfa.toInputIndices(word);
+			Assert.assertEquals(indexWords[i].length, word.length());
+			Assert.assertEquals(dfa.accepts(indexWords[i]), dfa.accepts(word));
+			Assert.assertEquals(dfa.getIntState(indexWords[i]), dfa.getState(word) == null ? -1 : dfa.getState(word).intValue());
+		}
+
+		boolean[] result = dfa.acceptsAll(indexWords);
+		boolean[] expected = { false, true, true, false, false };
+		Assert.assertEquals(result, expected);
+
+		// non-Word iterables
+		Assert.assertEquals(dfa.toInputIndices(Arrays.asList('c', 'a', 'b')), new int[]{ 2, 0, 1 });
+	}
+
+	@Test
+	public void testSnapshots() {
+		Random random = new Random(42L);
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		CompactDFA<Integer> dfa = new CompactDFA<>(alphabet);
+		for (int i = 0; i < 1000; i++) {
+			dfa.addIntState(random.nextBoolean());
+		}
+		dfa.setInitialState(0);
+		for (int i = 0; i < 3000; i++) {
+			dfa.setTransition(random.nextInt(dfa.size()), random.nextInt(3), random.nextInt(dfa.size()));
+		}
+
+		CompactDFA<Integer> copy1 = new CompactDFA<>(dfa);
+		CompactDFASnapshot<Integer> snapshot1 = dfa.snapshot();
+		assertSameDFA(snapshot1, copy1);
+
+		// modify transitions, acceptance, and add states
+		for (int i = 0; i < 20; i++) {
+			dfa.setTransition(random.nextInt(dfa.size()), random.nextInt(3), random.nextInt(dfa.size()));
+			dfa.setAccepting(random.nextInt(dfa.size()), random.nextBoolean());
+		}
+		dfa.removeAllTransitions(Integer.valueOf(17));
+		int newState = dfa.addIntState(true);
+		dfa.setTransition(newState, 0, 0);
+		dfa.setTransition(0, 1, newState);
+
+		CompactDFA<Integer> copy2 = new CompactDFA<>(dfa);
+		CompactDFASnapshot<Integer> snapshot2 = dfa.snapshot();
+		assertSameDFA(snapshot1, copy1);
+		assertSameDFA(snapshot2, copy2);
+
+		dfa.flipAcceptance();
+		CompactDFASnapshot<Integer> snapshot3 = dfa.snapshot();
+		assertSameDFA(snapshot2, copy2);
+		assertSameDFA(snapshot3, dfa);
+
+		dfa.clear();
+		Assert.assertEquals(dfa.snapshot().size(), 0);
+		for (int i = 0; i < copy2.size(); i++) {
+			Assert.assertEquals(snapshot3.isAccepting(i), !copy2.isAccepting(i));
+		}
+	}
+
+	@Test
+	public void testSnapshotEvaluation() {
+		CompactDFA<Character> dfa = constructDFA();
+		CompactDFASnapshot<Character> snapshot = dfa.snapshot();
+
+		int[][] words = { dfa.toInputIndices(Word.fromString("ab")), dfa.toInputIndices(Word.fromString("abc")),
+				dfa.toInputIndices(Word.fromString("cbaab")) };
+		boolean[] result = new boolean[words.length];
+		snapshot.acceptsAll(words, result);
+		Assert.assertEquals(result, dfa.acceptsAll(words));
+		Assert.assertTrue(snapshot.accepts(Word.fromString("bab")));
+		Assert.assertEquals(snapshot.getState(Word.fromString("c")), Integer.valueOf(0));
+		Assert.assertNull(snapshot.getState(Word.fromString("abc")));
+	}
+
+	@Test
+	public void testOffHeapIndexEvaluation() throws Exception {
+		CompactDFA<Character> dfa = constructDFA();
+		try (OffHeapCompactDFA<Character> offHeap = new OffHeapCompactDFA<>(dfa.getInputAlphabet(), 1)) {
+			int[] succData = new int[dfa.size() * dfa.numInputs()];
+			dfa.copyTransitions(0, dfa.size(), succData, 0);
+			for (int i = 0; i < dfa.size(); i++) {
+				offHeap.addIntState(dfa.isAccepting(i));
+			}
+			offHeap.setTransitions(0, dfa.size(), succData, 0);
+			offHeap.setInitialState(dfa.getIntInitialState());
+
+			int[] copied = new int[succData.length];
+			offHeap.copyTransitions(0, offHeap.size(), copied, 0);
+			Assert.assertEquals(copied, succData);
+			CompactSimpleDetSnapshot<Character, Boolean> snapshot = offHeap.snapshot();
+			for (int i = 0; i < dfa.size(); i++) {
+				Assert.assertEquals(snapshot.getStateProperty(i), Boolean.valueOf(dfa.isAccepting(i)));
+				for (int j = 0; j < dfa.numInputs(); j++) {
+					Assert.assertEquals(snapshot.getIntTransition(i, j), dfa.getIntTransition(i, j));
+				}
+			}
+
+			for (String word : Arrays.asList("", "ab", "cbaab", "abc", "bbba")) {
+				int[] indices = dfa.toInputIndices(Word.fromString(word));
+				Assert.assertEquals(offHeap.getIntState(indices), dfa.getIntState(indices));
+			}
+
+			offHeap.removeAllTransitions(Integer.valueOf(0));
+			Assert.assertNull(offHeap.getTransition(0, (Character) 'a'));
+		}
+	}
+
+	@Test
+	public void testOffHeapEmptyAlphabet() throws Exception {
+		Alphabet<Integer> alphabet = Alphabets.fromList(Arrays.<Integer>asList());
+		try (OffHeapCompactDFA<Integer> dfa = new OffHeapCompactDFA<>(alphabet)) {
+			for (int i = 0; i < 100; i++) {
+				dfa.addIntState(i % 2 == 0);
+			}
+			Assert.assertEquals(dfa.size(), 100);
+			Assert.assertTrue(dfa.isAccepting(98));
+			Assert.assertFalse(dfa.isAccepting(99));
+		}
+	}
+
+	private static <I> void assertSameDFA(CompactDFASnapshot<I> snapshot, DFA<Integer,I> dfa) {
+		Assert.assertEquals(snapshot.size(), dfa.size());
+		Assert.assertEquals(snapshot.getInitialState(), dfa.getInitialState());
+		for (int i = 0; i < dfa.size(); i++) {
+			Integer state = Integer.valueOf(i);
+			Assert.assertEquals(snapshot.isAccepting(state), dfa.isAccepting(state));
+			for (I sym : snapshot.getInputAlphabet()) {
+				Assert.assertEquals(snapshot.getTransition(state, sym), dfa.getTransition(state, sym));
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.helpers;
+
+import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.automata.fsa.impl.FastDFAState;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class PrimitiveStateMappingTest {
+	
+	private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 1);
+	
+	public void testCompactDFA() {
+		CompactDFA<Integer> dfa = new CompactDFA<>(ALPHABET);
+		int q0 = dfa.addIntInitialState(false);
+		int q1 = dfa.addIntState(true);
+		
+		StateIDBooleanMapping<Integer> boolMapping = dfa.createStaticStateBooleanMapping();
+		Assert.assertFalse(boolMapping.getBoolean(q1));
+		boolMapping.setBoolean(q1, true);
+		Assert.assertTrue(boolMapping.get(q1));
+		Assert.assertFalse(boolMapping.put(q0, true));
+		Assert.assertTrue(boolMapping.getBoolean(q0));
+		
+		StateIDIntMapping<Integer> intMapping = dfa.createStaticStateIntMapping();
+		intMapping.setInt(q0, 42);
+		Assert.assertEquals(intMapping.get(q0).intValue(), 42);
+		Assert.assertEquals(intMapping.put(q1, 17).intValue(), 0);
+		Assert.assertEquals(intMapping.getInt(q1), 17);
+		
+		StateIDLongMapping<Integer> longMapping = dfa.createStaticStateLongMapping();
+		longMapping.setLong(q1, Long.MAX_VALUE);
+		Assert.assertEquals(longMapping.get(q1).longValue(), Long.MAX_VALUE);
+		Assert.assertEquals(longMapping.getLong(q0), 0L);
+	}
+	
+	public void testFastDFA() {
+		FastDFA<Integer> dfa = new FastDFA<>(ALPHABET);
+		FastDFAState q0 = dfa.addInitialState(false);
+		FastDFAState q1 = dfa.addState(true);
+		
+		StateIDIntMapping<FastDFAState> mapping = new StateIDIntMapping<>(dfa.stateIDs(), dfa.size(), -1);
+		Assert.assertEquals(mapping.get(q0).intValue(), -1);
+		mapping.put(q1, 3);
+		Assert.assertEquals(mapping.getInt(mapping.getStateIDs().getStateId(q1)), 3);
+		Assert.assertEquals(mapping.getInt(mapping.getStateIDs().getStateId(q0)), -1);
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNullState() {
+		CompactDFA<Integer> dfa = new CompactDFA<>(ALPHABET);
+		dfa.addIntInitialState(false);
+		dfa.createStaticStateIntMapping().put(null, 1);
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNullValue() {
+		CompactDFA<Integer> dfa = new CompactDFA<>(ALPHABET);
+		int q0 = dfa.addIntInitialState(false);
+		dfa.createStaticStateBooleanMapping().put(q0, null);
+	}
+}
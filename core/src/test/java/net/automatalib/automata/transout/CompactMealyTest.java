@@ -0,0 +1,195 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.transout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.automatalib.automata.graphs.TransitionEdge;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.automata.transout.impl.compact.CompactMealySnapshot;
+import net.automatalib.automata.transout.impl.compact.CompactMealyTransition;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompactMealyTest {
+
+	private static CompactMealy<Character, String> constructMachine() {
+		Alphabet<Character> alphabet = Alphabets.characters('a', 'b');
+		CompactMealy<Character, String> mealy = new CompactMealy<>(alphabet, 1);
+
+		int s0 = mealy.addIntInitialState();
+		int s1 = mealy.addIntState();
+		int s2 = mealy.addIntState();
+
+		mealy.setTransition(s0, (Character) 'a', s1, "ok");
+		mealy.setTransition(s0, (Character) 'b', s0, "error");
+		mealy.setTransition(s1, (Character) 'a', s2, "ok");
+		mealy.setTransition(s1, (Character) 'b', s0, "ok");
+		mealy.setTransition(s2, (Character) 'a', s2, new String("error"));
+
+		return mealy;
+	}
+
+	@Test
+	public void testTrace() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		List<String> output = new ArrayList<>();
+		Assert.assertTrue(mealy.trace(Arrays.asList('a', 'a', 'a'), output));
+		Assert.assertEquals(output, Arrays.asList("ok", "ok", "error"));
+
+		output.clear();
+		Assert.assertFalse(mealy.trace(Arrays.asList('a', 'a', 'b'), output));
+	}
+
+	@Test
+	public void testOutputInterning() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		// null, "ok", "error"
+		Assert.assertEquals(mealy.numOutputSymbols(), 3);
+		Assert.assertEquals(mealy.getOutputIndex(0, 1), mealy.getOutputIndex(2, 0));
+	}
+
+	@Test
+	public void testTransitionWriteThrough() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		CompactMealyTransition<String> trans = mealy.getTransition(mealy.getInitialState(), (Character) 'b');
+		Assert.assertTrue(trans.isAutomatonTransition());
+		trans.setOutput("ok");
+		Assert.assertEquals(mealy.getOutput(mealy.getInitialState(), (Character) 'b'), "ok");
+
+		CompactMealyTransition<String> newTrans = mealy.createTransition(2, "new");
+		Assert.assertFalse(newTrans.isAutomatonTransition());
+		mealy.setTransition(2, (Character) 'b', newTrans);
+		mealy.setTransitionOutput(newTrans, "newer");
+		Assert.assertEquals(mealy.getOutput(2, 1), "newer");
+
+		mealy.removeTransition(2, (Character) 'b', mealy.getTransition(2, (Character) 'b'));
+		Assert.assertNull(mealy.getTransition(2, (Character) 'b'));
+	}
+
+	@Test
+	public void testTransitionEquality() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		CompactMealyTransition<String> t1 = mealy.getTransition(0, (Character) 'a');
+		CompactMealyTransition<String> t2 = mealy.getTransition(0, (Character) 'a');
+		Assert.assertNotSame(t1, t2);
+		Assert.assertEquals(t1, t2);
+		Assert.assertEquals(t1.hashCode(), t2.hashCode());
+		Assert.assertEquals(t1, mealy.createTransition(1, "ok"));
+		Assert.assertNotEquals(t1, mealy.getTransition(1, (Character) 'a'));
+		Assert.assertNotEquals(t1, mealy.getTransition(0, (Character) 'b'));
+		Assert.assertEquals(new TransitionEdge<>('a', t1), new TransitionEdge<>('a', t2));
+
+		// the transition passed to removeTransition is a separate lookup
+		mealy.removeTransition(0, (Character) 'a', t2);
+		Assert.assertNull(mealy.getTransition(0, (Character) 'a'));
+	}
+
+	@Test
+	public void testStaleTransition() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		CompactMealyTransition<String> trans = mealy.getTransition(0, (Character) 'a');
+		mealy.setTransition(0, (Character) 'a', 2, "other");
+		Assert.assertFalse(trans.isAutomatonTransition());
+		trans.setOutput("stale");
+		mealy.setTransitionProperty(trans, "stale");
+		Assert.assertEquals(mealy.getOutput(0, (Character) 'a'), "other");
+		Assert.assertEquals(trans.getOutput(), "stale");
+
+		trans = mealy.getTransition(1, (Character) 'a');
+		mealy.setTransitionByOutputIndex(1, 0, 2, mealy.getOutputIndex(0, 1));
+		Assert.assertFalse(trans.isAutomatonTransition());
+		trans.setOutput("stale");
+		Assert.assertEquals(mealy.getOutput(1, (Character) 'a'), "error");
+	}
+
+	@Test
+	public void testTransitionInTwoPositions() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		CompactMealyTransition<String> trans = mealy.createTransition(0, "shared");
+		mealy.setTransition(2, (Character) 'b', trans);
+		mealy.setTransition(1, (Character) 'b', trans);
+		// the transition keeps tracking the position it was first stored at
+		mealy.setTransitionOutput(trans, "changed");
+		Assert.assertEquals(mealy.getOutput(2, (Character) 'b'), "changed");
+		Assert.assertEquals(mealy.getOutput(1, (Character) 'b'), "shared");
+	}
+
+	@Test
+	public void testIndexEvaluation() {
+		CompactMealy<Character, String> mealy = constructMachine();
+
+		Word<Character> defined = Word.fromString("aaa");
+		Word<Character> undefined = Word.fromString("aabb");
+		int[][] words = { mealy.toInputIndices(defined), mealy.toInputIndices(undefined) };
+		int[][] outputs = { new int[3], new int[4] };
+		int[] numRead = new int[2];
+
+		mealy.computeAllOutputIndices(words, outputs, numRead);
+
+		Assert.assertEquals(numRead[0], 3);
+		Assert.assertEquals(mealy.toOutputWord(outputs[0], 0, numRead[0]), mealy.computeOutput(defined));
+		// 'b' is undefined in state s2
+		Assert.assertEquals(numRead[1], 2);
+		Assert.assertEquals(mealy.toOutputWord(outputs[1], 0, numRead[1]), Word.fromSymbols("ok", "ok"));
+	}
+
+	@Test
+	public void testSnapshots() {
+		CompactMealy<Character, String> mealy = constructMachine();
+		CompactMealySnapshot<Character, String> snapshot1 = mealy.snapshot();
+
+		mealy.setTransition(2, (Character) 'b', 0, "ok");
+		mealy.getTransition(0, (Character) 'a').setOutput("changed");
+		mealy.removeAllTransitions(1);
+		int s3 = mealy.addIntState();
+		mealy.setTransition(s3, (Character) 'a', 0, "new");
+		CompactMealySnapshot<Character, String> snapshot2 = mealy.snapshot();
+
+		// the first snapshot is not affected by the modifications
+		Assert.assertEquals(snapshot1.size(), 3);
+		Assert.assertNull(snapshot1.getTransition(2, (Character) 'b'));
+		List<String> output = new ArrayList<>();
+		Assert.assertTrue(snapshot1.trace(Arrays.asList('a', 'a', 'a'), output));
+		Assert.assertEquals(output, Arrays.asList("ok", "ok", "error"));
+
+		Assert.assertEquals(snapshot2.size(), 4);
+		Assert.assertEquals(snapshot2.computeOutput(Word.fromString("a")), Word.fromLetter("changed"));
+		Assert.assertNull(snapshot2.getTransition(1, (Character) 'a'));
+		CompactMealyTransition<String> trans = snapshot2.getTransition(s3, (Character) 'a');
+		Assert.assertEquals(snapshot2.getIntSuccessor(trans), 0);
+		Assert.assertEquals(snapshot2.getTransitionOutput(trans), "new");
+		Assert.assertEquals(snapshot2.getIntSuccessor(snapshot2.getTransition(2, (Character) 'b')), 0);
+
+		// transitions of a snapshot are detached from the automaton
+		Assert.assertFalse(trans.isAutomatonTransition());
+		trans.setOutput("other");
+		Assert.assertEquals(mealy.getOutput(s3, (Character) 'a'), "new");
+	}
+}
@@ -0,0 +1,97 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.graphs.base.compact;
+
+import java.util.Arrays;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CSRGraphTest {
+
+	@Test
+	public void testBuilder() {
+		CSRGraph graph = new CSRGraph.Builder(3)
+				.addEdge(2, 0, 1.0f)
+				.addEdge(0, 1, 2.0f)
+				.addEdge(0, 2, 3.0f)
+				.build();
+		
+		Assert.assertEquals(graph.size(), 3);
+		Assert.assertEquals(graph.numEdges(), 3);
+		Assert.assertEquals(graph.getOffsets(), new int[]{ 0, 2, 2, 3 });
+		Assert.assertEquals(graph.getTargets(), new int[]{ 1, 2, 0 });
+		Assert.assertEquals(graph.getWeights(), new float[]{ 2.0f, 3.0f, 1.0f });
+		Assert.assertEquals(graph.getOutDegree(1), 0);
+		Assert.assertEquals(graph.getOutgoingEdges(Integer.valueOf(0)), Arrays.asList(0, 1));
+		Assert.assertEquals(graph.getTarget(Integer.valueOf(2)), Integer.valueOf(0));
+		
+		CSRGraph transpose = graph.transpose();
+		Assert.assertEquals(transpose.getOffsets(), new int[]{ 0, 1, 2, 3 });
+		Assert.assertEquals(transpose.getTargets(), new int[]{ 2, 0, 0 });
+		Assert.assertEquals(transpose.getWeights(), new float[]{ 1.0f, 2.0f, 3.0f });
+	}
+	
+	@Test
+	public void testFromGraph() {
+		CompactSimpleGraph<Float> graph = new CompactSimpleGraph<>();
+		int n0 = graph.addIntNode(), n1 = graph.addIntNode(), n2 = graph.addIntNode();
+		graph.connect(n0, n1, Float.valueOf(1.0f));
+		graph.connect(n1, n2, Float.valueOf(2.0f));
+		graph.connect(n1, n0, Float.valueOf(3.0f));
+		graph.connect(n2, n2, Float.valueOf(4.0f));
+		
+		CSRGraph csr = CSRGraph.fromGraph(graph, e -> e.getProperty());
+		
+		Assert.assertEquals(csr.size(), graph.size());
+		for (int n = 0; n < graph.size(); n++) {
+			int e = csr.getOffsets()[n];
+			for (CompactEdge<Float> edge : graph.getOutgoingEdges(n)) {
+				Assert.assertEquals(csr.getIntTarget(e), edge.getTarget());
+				Assert.assertEquals(csr.getEdgeWeight(e), edge.getProperty().floatValue());
+				e++;
+			}
+			Assert.assertEquals(e, csr.getOffsets()[n + 1]);
+		}
+		Assert.assertFalse(CSRGraph.fromGraph(graph).hasWeights());
+	}
+	
+	@Test
+	public void testFromAutomaton() {
+		Alphabet<Character> alphabet = Alphabets.characters('a', 'b');
+		CompactDFA<Character> dfa = new CompactDFA<>(alphabet);
+		int q0 = dfa.addIntInitialState(false), q1 = dfa.addIntState(true);
+		dfa.setTransition(q0, 0, q1);
+		dfa.setTransition(q0, 1, q0);
+		dfa.setTransition(q1, 1, q0);
+		
+		CSRGraph csr = CSRGraph.fromAutomaton(dfa, alphabet);
+		
+		Assert.assertEquals(csr.getOffsets(), new int[]{ 0, 2, 3 });
+		Assert.assertEquals(csr.getTargets(), new int[]{ q1, q0, q0 });
+		Assert.assertFalse(csr.hasWeights());
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidEdge() {
+		new CSRGraph.Builder(2).addEdge(0, 2);
+	}
+}
@@ -0,0 +1,822 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa.dag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.commons.util.UnionFind;
+import net.automatalib.graphs.dot.DelegateDOTHelper;
+import net.automatalib.graphs.dot.GraphDOTHelper;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Incrementally builds an (acyclic) DFA from a set of positive and negative words, using the same
+ * algorithm as {@link IncrementalDFADAGBuilder}, but storing all data in primitive arrays.
+ * <p>
+ * States are identified by integers, the initial state having id {@code 0}. The signature of a state,
+ * i.e., its successors and its acceptance value, is stored as a row of a single {@code int[]} table
+ * (indexed by {@code state * alphabetSize + inputIdx}) and an entry of a {@code byte[]}. The register of
+ * canonical states is an open-addressing hash table over state ids, which compares the rows directly and
+ * caches the hash of each row. Candidate signatures are assembled in the row of a not-yet-allocated
+ * state, such that looking up an existing state does not allocate any objects. The ids of states that
+ * become obsolete during an insertion are recycled.
+ * <p>
+ * The nodes of the {@link #asGraph() graph} and the states of the {@link #asTransitionSystem() transition
+ * system} views are the state ids. The edges of the graph view are the indices of the respective entry in
+ * the successor table.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ */
+public class CompactIncrementalDFADAGBuilder<I> extends AbstractIncrementalDFABuilder<I> {
+	
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	private static final byte ACC_DONT_KNOW = 0;
+	private static final byte ACC_FALSE = 1;
+	private static final byte ACC_TRUE = 2;
+	
+	// the initial state never is the successor of a state, and never is registered. Hence, 0 denotes an
+	// undefined successor in the successor table, and an empty slot in the register
+	protected static final int INIT = 0;
+	private static final int TOMBSTONE = -1;
+	
+	@ParametersAreNonnullByDefault
+	public class GraphView extends AbstractGraphView<I,Integer,Integer> {
+		@Override
+		public Collection<Integer> getNodes() {
+			List<Integer> result = new ArrayList<>(size());
+			for(int i = 0; i < numStates; i++) {
+				if(numIncoming[i] >= 0) {
+					result.add(i);
+				}
+			}
+			return result;
+		}
+		@Override
+		public int size() {
+			return CompactIncrementalDFADAGBuilder.this.size();
+		}
+		@Override
+		public Collection<Integer> getOutgoingEdges(Integer node) {
+			List<Integer> result = new ArrayList<>();
+			int base = node.intValue() * alphabetSize;
+			for(int i = 0; i < alphabetSize; i++) {
+				if(succs[base + i] != 0) {
+					result.add(base + i);
+				}
+			}
+			return result;
+		}
+		@Override
+		@Nonnull
+		public Integer getTarget(Integer edge) {
+			return succs[edge.intValue()];
+		}
+		@Override
+		@Nonnull
+		public Acceptance getAcceptance(Integer node) {
+			return toAcceptance(acceptance[node.intValue()]);
+		}
+		@Override
+		@Nullable
+		public I getInputSymbol(Integer edge) {
+			return inputAlphabet.getSymbol(edge.intValue() % alphabetSize);
+		}
+		
+		@Override
+		@Nonnull
+		public GraphDOTHelper<Integer, Integer> getGraphDOTHelper() {
+			return new DelegateDOTHelper<Integer,Integer>(super.getGraphDOTHelper()) {
+				@Override
+				public boolean getNodeProperties(Integer node,
+						Map<String, String> properties) {
+					if(!super.getNodeProperties(node, properties)) {
+						return false;
+					}
+					properties.put(NodeAttrs.LABEL, "n" + node);
+					if(isConfluence(node.intValue())) {
+						String shape = (acceptance[node.intValue()] == ACC_TRUE) ? NodeShapes.DOUBLEOCTAGON : NodeShapes.OCTAGON;
+						properties.put(NodeAttrs.SHAPE, shape);
+					}
+					return true;
+				}
+			};
+		}
+		@Override
+		@Nonnull
+		public Integer getInitialNode() {
+			return INIT;
+		}
+	}
+	
+	public class TransitionSystemView extends AbstractTransitionSystemView<Integer, I, Integer> {
+		@Override
+		public Integer getSuccessor(Integer transition) {
+			return transition;
+		}
+		@Override
+		public Integer getTransition(Integer state, I input) {
+			int succ = succs[state.intValue() * alphabetSize + inputAlphabet.getSymbolIndex(input)];
+			return (succ == 0) ? null : Integer.valueOf(succ);
+		}
+		@Override
+		public Integer getInitialState() {
+			return INIT;
+		}
+		@Override
+		@Nonnull
+		public Acceptance getAcceptance(Integer state) {
+			return toAcceptance(acceptance[state.intValue()]);
+		}
+	}
+	
+	// state data, indexed by state id (succs: by state id * alphabetSize + input index)
+	private int[] succs;
+	private byte[] acceptance;
+	// -1 for unused ids
+	private int[] numIncoming;
+	private int[] hashes;
+	// all ids below numStates are either used, or contained in freeIds
+	private int numStates;
+	
+	private int[] freeIds;
+	private int numFree;
+	// ids of states that became obsolete during the current insertion. These may still be referenced by
+	// their predecessors on the insertion path, and are only recycled after the insertion has finished
+	private int[] droppedIds;
+	private int numDropped;
+	
+	// open-addressing register over state ids (with linear probing)
+	private int[] register;
+	private int registerSize;
+	private int numTombstones;
+	
+	// the insertion path
+	private int[] pathStates;
+	private int[] pathInputs;
+	private int pathLen;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param inputAlphabet the input alphabet to use
+	 */
+	public CompactIncrementalDFADAGBuilder(Alphabet<I> inputAlphabet) {
+		this(inputAlphabet, DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param inputAlphabet the input alphabet to use
+	 * @param initialCapacity the number of states for which space should be reserved initially
+	 */
+	public CompactIncrementalDFADAGBuilder(Alphabet<I> inputAlphabet, int initialCapacity) {
+		super(inputAlphabet);
+		int capacity = Math.max(initialCapacity, 2);
+		this.succs = new int[capacity * alphabetSize];
+		this.acceptance = new byte[capacity];
+		this.numIncoming = new int[capacity];
+		this.hashes = new int[capacity];
+		this.numStates = 1;
+		this.freeIds = new int[DEFAULT_CAPACITY];
+		this.droppedIds = new int[DEFAULT_CAPACITY];
+		this.register = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+		this.pathStates = new int[DEFAULT_CAPACITY];
+		this.pathInputs = new int[DEFAULT_CAPACITY];
+	}
+	
+	/**
+	 * Retrieves the number of states.
+	 * 
+	 * @return the number of states
+	 */
+	public int size() {
+		return numStates - numFree - numDropped;
+	}
+	
+	@Override
+	public Acceptance lookup(Word<? extends I> word) {
+		int s = INIT;
+		
+		for(I sym : word) {
+			s = succs[s * alphabetSize + inputAlphabet.getSymbolIndex(sym)];
+			if(s == 0) {
+				return Acceptance.DONT_KNOW;
+			}
+		}
+		return toAcceptance(acceptance[s]);
+	}
+	
+	@Override
+	public void insert(Word<? extends I> word, boolean accepting) throws ConflictException {
+		try {
+			doInsert(word, accepting ? ACC_TRUE : ACC_FALSE);
+		}
+		finally {
+			pathLen = 0;
+			releaseDropped();
+		}
+	}
+	
+	private void doInsert(Word<? extends I> word, byte acc) {
+		int len = word.length();
+		
+		int curr = INIT;
+		int conf = -1;
+		
+		for(I sym : word) {
+			if(conf < 0 && isConfluence(curr)) {
+				conf = curr;
+			}
+			
+			int idx = inputAlphabet.getSymbolIndex(sym);
+			int succ = succs[curr * alphabetSize + idx];
+			if(succ == 0) {
+				break;
+			}
+			pushPath(curr, idx);
+			curr = succ;
+		}
+		
+		int prefixLen = pathLen;
+		
+		int last = curr;
+		
+		if(prefixLen == len) {
+			// structural skeleton for this word already present
+			byte currAcc = acceptance[curr];
+			if(currAcc == acc) {
+				// consistent with our existing knowledge, nothing changes
+				return;
+			}
+			
+			if(currAcc != ACC_DONT_KNOW) {
+				throw new ConflictException("Incompatible acceptances: " + toAcceptance(currAcc) + " vs " + toAcceptance(acc));
+			}
+			if(conf >= 0 || isConfluence(last)) {
+				// there is a confluence (maybe in the last state), so duplicate
+				// the last state (this will have to be propagated)
+				last = cloneWithAcceptance(last, acc);
+			}
+			else if(last == INIT) {
+				// we inserted the empty word, so update the acceptance of the initial
+				// state (nothing else changes)
+				acceptance[INIT] = acc;
+				return;
+			}
+			else {
+				// no confluence, so just update the signature
+				last = updateAcceptance(last, acc);
+			}
+		}
+		else {
+			// we had to abort after processing a prefix
+			if(conf >= 0) {
+				if(conf == last) {
+					// if the first confluence is the last state, this confluence gets resolved
+					// directly by cloning (so act as if there was no confluence)
+					conf = -1;
+				}
+				// confluence always requires cloning, to separate this path from other paths
+				last = hiddenClone(last);
+				if(conf < 0) {
+					int prev = pathStates[pathLen - 1];
+					int prevIdx = pathInputs[pathLen - 1];
+					if(prev != INIT) {
+						updateSuccessor(prev, prevIdx, last);
+					}
+					else {
+						updateInitSuccessor(prevIdx, last);
+					}
+				}
+			}
+			else if(last != INIT) {
+				registerRemove(last);
+			}
+			
+			int suffTransIdx = inputAlphabet.getSymbolIndex(word.getSymbol(prefixLen));
+			int suffixState = createSuffix(word, prefixLen + 1, acc);
+			
+			if(last != INIT) {
+				last = unhide(last, suffTransIdx, suffixState);
+			}
+			else {
+				updateInitSuccessor(suffTransIdx, suffixState);
+			}
+		}
+		
+		if(pathLen == 0) {
+			return;
+		}
+		
+		if(conf >= 0) {
+			int state;
+			do {
+				pathLen--;
+				state = pathStates[pathLen];
+				last = cloneWithSuccessor(state, pathInputs[pathLen], last);
+			} while(state != conf);
+		}
+		
+		while(pathLen > 1) {
+			pathLen--;
+			int state = pathStates[pathLen];
+			int updated = updateSuccessor(state, pathInputs[pathLen], last);
+			if(state == updated) {
+				return;
+			}
+			last = updated;
+		}
+		
+		updateInitSuccessor(pathInputs[0], last);
+	}
+	
+	/**
+	 * Creates a suffix state sequence, i.e., a linear sequence of states connected by transitions
+	 * labeled by the letters of the given suffix of a word.
+	 * 
+	 * @param word the word
+	 * @param fromIndex the start index of the suffix
+	 * @param acc the acceptance status of the final state
+	 * @return the first state in the sequence
+	 */
+	private int createSuffix(Word<? extends I> word, int fromIndex, byte acc) {
+		int candidate = allocateCandidate();
+		Arrays.fill(succs, candidate * alphabetSize, (candidate + 1) * alphabetSize, 0);
+		acceptance[candidate] = acc;
+		int last = replaceOrRegisterCandidate(candidate);
+		
+		for(int i = word.length() - 1; i >= fromIndex; i--) {
+			candidate = allocateCandidate();
+			Arrays.fill(succs, candidate * alphabetSize, (candidate + 1) * alphabetSize, 0);
+			acceptance[candidate] = ACC_DONT_KNOW;
+			succs[candidate * alphabetSize + inputAlphabet.getSymbolIndex(word.getSymbol(i))] = last;
+			last = replaceOrRegisterCandidate(candidate);
+		}
+		
+		return last;
+	}
+	
+	private void pushPath(int state, int inputIdx) {
+		if(pathLen == pathStates.length) {
+			pathStates = Arrays.copyOf(pathStates, pathLen * 2);
+			pathInputs = Arrays.copyOf(pathInputs, pathLen * 2);
+		}
+		pathStates[pathLen] = state;
+		pathInputs[pathLen] = inputIdx;
+		pathLen++;
+	}
+	
+	private boolean isConfluence(int state) {
+		return numIncoming[state] > 1;
+	}
+	
+	/*
+	 * Signature updates (cf. AbstractIncrementalDFADAGBuilder)
+	 */
+	
+	private int updateAcceptance(int state, byte acc) {
+		if(acceptance[state] == acc) {
+			return state;
+		}
+		registerRemove(state);
+		acceptance[state] = acc;
+		return replaceOrRegister(state);
+	}
+	
+	private int updateSuccessor(int state, int idx, int succ) {
+		int pos = state * alphabetSize + idx;
+		int oldSucc = succs[pos];
+		if(oldSucc == succ) {
+			return state;
+		}
+		registerRemove(state);
+		if(oldSucc != 0) {
+			numIncoming[oldSucc]--;
+		}
+		succs[pos] = succ;
+		numIncoming[succ]++;
+		return replaceOrRegister(state);
+	}
+	
+	private void updateInitSuccessor(int idx, int succ) {
+		int oldSucc = succs[idx];
+		if(oldSucc == succ) {
+			return;
+		}
+		if(oldSucc != 0) {
+			numIncoming[oldSucc]--;
+		}
+		succs[idx] = succ;
+		numIncoming[succ]++;
+	}
+	
+	private int unhide(int state, int idx, int succ) {
+		int pos = state * alphabetSize + idx;
+		int oldSucc = succs[pos];
+		if(oldSucc != 0) {
+			numIncoming[oldSucc]--;
+		}
+		succs[pos] = succ;
+		numIncoming[succ]++;
+		return replaceOrRegister(state);
+	}
+	
+	private int cloneWithAcceptance(int other, byte acc) {
+		if(acceptance[other] == acc) {
+			return other;
+		}
+		int candidate = allocateCandidate();
+		copySignature(other, candidate);
+		acceptance[candidate] = acc;
+		return replaceOrRegisterCandidate(candidate);
+	}
+	
+	private int cloneWithSuccessor(int other, int idx, int succ) {
+		if(succs[other * alphabetSize + idx] == succ) {
+			return other;
+		}
+		int candidate = allocateCandidate();
+		copySignature(other, candidate);
+		succs[candidate * alphabetSize + idx] = succ;
+		return replaceOrRegisterCandidate(candidate);
+	}
+	
+	private int hiddenClone(int other) {
+		int candidate = allocateCandidate();
+		copySignature(other, candidate);
+		commitCandidate(candidate);
+		return candidate;
+	}
+	
+	private void copySignature(int from, int to) {
+		System.arraycopy(succs, from * alphabetSize, succs, to * alphabetSize, alphabetSize);
+		acceptance[to] = acceptance[from];
+	}
+	
+	/*
+	 * State management
+	 */
+	
+	/**
+	 * Returns the canonical state for the given state's signature, or registers the state as canonical
+	 * if no state with that signature exists. In the former case, the given state is dropped.
+	 */
+	private int replaceOrRegister(int state) {
+		hashes[state] = computeHash(state);
+		int other = registerFind(state);
+		if(other != 0) {
+			int base = state * alphabetSize;
+			for(int i = 0; i < alphabetSize; i++) {
+				int succ = succs[base + i];
+				if(succ != 0) {
+					numIncoming[succ]--;
+				}
+			}
+			dropState(state);
+			return other;
+		}
+		registerAdd(state);
+		return state;
+	}
+	
+	/**
+	 * Returns the canonical state for the signature stored in the row of the given candidate id, which
+	 * becomes a new (registered) state if no state with that signature exists.
+	 */
+	private int replaceOrRegisterCandidate(int candidate) {
+		hashes[candidate] = computeHash(candidate);
+		int other = registerFind(candidate);
+		if(other != 0) {
+			return other;
+		}
+		commitCandidate(candidate);
+		registerAdd(candidate);
+		return candidate;
+	}
+	
+	/**
+	 * Retrieves the id that will be used for the next state, without actually allocating it.
+	 */
+	private int allocateCandidate() {
+		if(numFree > 0) {
+			return freeIds[numFree - 1];
+		}
+		ensureCapacity(numStates + 1);
+		return numStates;
+	}
+	
+	private void commitCandidate(int candidate) {
+		if(numFree > 0 && freeIds[numFree - 1] == candidate) {
+			numFree--;
+		}
+		else {
+			numStates++;
+		}
+		numIncoming[candidate] = 0;
+		int base = candidate * alphabetSize;
+		for(int i = 0; i < alphabetSize; i++) {
+			int succ = succs[base + i];
+			if(succ != 0) {
+				numIncoming[succ]++;
+			}
+		}
+	}
+	
+	private void dropState(int state) {
+		if(numDropped == droppedIds.length) {
+			droppedIds = Arrays.copyOf(droppedIds, numDropped * 2);
+		}
+		droppedIds[numDropped++] = state;
+	}
+	
+	private void releaseDropped() {
+		for(int i = 0; i < numDropped; i++) {
+			int state = droppedIds[i];
+			numIncoming[state] = -1;
+			if(numFree == freeIds.length) {
+				freeIds = Arrays.copyOf(freeIds, numFree * 2);
+			}
+			freeIds[numFree++] = state;
+		}
+		numDropped = 0;
+	}
+	
+	private void ensureCapacity(int capacity) {
+		int oldCapacity = acceptance.length;
+		if(capacity <= oldCapacity) {
+			return;
+		}
+		long newCapacity = Math.min(Math.max((long) oldCapacity + (oldCapacity >> 1), capacity),
+				Integer.MAX_VALUE / alphabetSize);
+		if(newCapacity < capacity) {
+			throw new IllegalStateException("Maximum number of states exceeded");
+		}
+		succs = Arrays.copyOf(succs, (int) newCapacity * alphabetSize);
+		acceptance = Arrays.copyOf(acceptance, (int) newCapacity);
+		numIncoming = Arrays.copyOf(numIncoming, (int) newCapacity);
+		hashes = Arrays.copyOf(hashes, (int) newCapacity);
+	}
+	
+	/*
+	 * Register
+	 */
+	
+	private int computeHash(int state) {
+		int h = acceptance[state];
+		int base = state * alphabetSize;
+		for(int i = 0; i < alphabetSize; i++) {
+			h = 31 * h + succs[base + i];
+		}
+		// spread the bits, as the register uses the lower bits only
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	private boolean signatureEquals(int state1, int state2) {
+		if(acceptance[state1] != acceptance[state2]) {
+			return false;
+		}
+		int base1 = state1 * alphabetSize, base2 = state2 * alphabetSize;
+		for(int i = 0; i < alphabetSize; i++) {
+			if(succs[base1 + i] != succs[base2 + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private int registerFind(int state) {
+		int h = hashes[state];
+		int mask = register.length - 1;
+		int pos = h & mask;
+		int entry;
+		while((entry = register[pos]) != 0) {
+			if(entry != TOMBSTONE && hashes[entry] == h && signatureEquals(entry, state)) {
+				return entry;
+			}
+			pos = (pos + 1) & mask;
+		}
+		return 0;
+	}
+	
+	private void registerAdd(int state) {
+		if((registerSize + numTombstones + 1) * 2 > register.length) {
+			rehash();
+		}
+		int mask = register.length - 1;
+		int pos = hashes[state] & mask;
+		while(register[pos] != 0 && register[pos] != TOMBSTONE) {
+			pos = (pos + 1) & mask;
+		}
+		if(register[pos] == TOMBSTONE) {
+			numTombstones--;
+		}
+		register[pos] = state;
+		registerSize++;
+	}
+	
+	private void registerRemove(int state) {
+		int mask = register.length - 1;
+		int pos = hashes[state] & mask;
+		int entry;
+		while((entry = register[pos]) != 0) {
+			if(entry == state) {
+				register[pos] = TOMBSTONE;
+				registerSize--;
+				numTombstones++;
+				return;
+			}
+			pos = (pos + 1) & mask;
+		}
+	}
+	
+	private void rehash() {
+		int[] oldRegister = register;
+		int newLength = (registerSize * 4 > oldRegister.length) ? oldRegister.length * 2 : oldRegister.length;
+		register = new int[newLength];
+		int mask = newLength - 1;
+		for(int entry : oldRegister) {
+			if(entry != 0 && entry != TOMBSTONE) {
+				int pos = hashes[entry] & mask;
+				while(register[pos] != 0) {
+					pos = (pos + 1) & mask;
+				}
+				register[pos] = entry;
+			}
+		}
+		numTombstones = 0;
+	}
+	
+	private static Acceptance toAcceptance(byte acc) {
+		switch(acc) {
+		case ACC_TRUE:
+			return Acceptance.TRUE;
+		case ACC_FALSE:
+			return Acceptance.FALSE;
+		default:
+			return Acceptance.DONT_KNOW;
+		}
+	}
+	
+	/*
+	 * Equivalence test
+	 */
+	
+	@Override
+	public Word<I> findSeparatingWord(DFA<?, I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+		return doFindSeparatingWord(target, inputs, omitUndefined);
+	}
+	
+	private static final class Record<S,I> {
+		public final int state1;
+		public final S state2;
+		public final I reachedVia;
+		public final Record<S,I> reachedFrom;
+		public final int depth;
+		
+		public Record(int state1, S state2) {
+			this.state1 = state1;
+			this.state2 = state2;
+			this.reachedVia = null;
+			this.reachedFrom = null;
+			this.depth = 0;
+		}
+		
+		public Record(int state1, S state2, I reachedVia, Record<S,I> reachedFrom) {
+			this.state1 = state1;
+			this.state2 = state2;
+			this.reachedVia = reachedVia;
+			this.reachedFrom = reachedFrom;
+			this.depth = reachedFrom.depth + 1;
+		}
+	}
+	
+	private <S> Word<I> doFindSeparatingWord(DFA<S,I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+		int thisStates = numStates;
+		int targetStates = target.size();
+		if(!omitUndefined)
+			targetStates++;
+		
+		IntDisjointSets uf = new UnionFind(thisStates + targetStates);
+
+		S init2 = target.getInitialState();
+		
+		if(init2 == null && omitUndefined)
+			return null;
+		
+		boolean acc = target.isAccepting(init2);
+		if(toAcceptance(acceptance[INIT]).conflicts(acc))
+			return Word.epsilon();
+		
+		StateIDs<S> tgtIds = target.stateIDs();
+		int id2 = ((init2 != null) ? tgtIds.getStateId(init2) : (targetStates - 1)) + thisStates;
+		
+		uf.link(INIT, id2);
+		
+		Queue<Record<S,I>> queue = new ArrayDeque<>();
+		
+		queue.add(new Record<S,I>(INIT, init2));
+		
+		I lastSym = null;
+		
+		Record<S,I> current;
+		
+explore:while((current = queue.poll()) != null) {
+			int state1 = current.state1;
+			S state2 = current.state2;
+			
+			for(I sym : inputs) {
+				S succ2 = (state2 != null) ? target.getSuccessor(state2, sym) : null;
+				if(succ2 == null && omitUndefined)
+					continue;
+				
+				int succ1 = succs[state1 * alphabetSize + inputAlphabet.getSymbolIndex(sym)];
+				if(succ1 == 0)
+					continue;
+				
+				id2 = ((succ2 != null) ? tgtIds.getStateId(succ2) : (targetStates-1)) + thisStates;
+				
+				int r1 = uf.find(succ1), r2 = uf.find(id2);
+				
+				if(r1 == r2)
+					continue;
+				
+				boolean succ2acc = (succ2 != null) ? target.isAccepting(succ2) : false;
+				if(toAcceptance(acceptance[succ1]).conflicts(succ2acc)) {
+					lastSym = sym;
+					break explore;
+				}
+				
+				uf.link(r1, r2);
+				
+				queue.add(new Record<>(succ1, succ2, sym, current));
+			}
+		}
+		
+		if(current == null)
+			return null;
+		
+		int ceLength = current.depth;
+		if(lastSym != null)
+			ceLength++;
+		
+		WordBuilder<I> wb = new WordBuilder<I>(null, ceLength);
+		
+		int index = ceLength;
+		
+		if(lastSym != null)
+			wb.setSymbol(--index, lastSym);
+		
+		while(current.reachedFrom != null) {
+			wb.setSymbol(--index, current.reachedVia);
+			current = current.reachedFrom;
+		}
+		
+		return wb.toWord();
+	}
+	
+	@Override
+	public GraphView asGraph() {
+		return new GraphView();
+	}
+	
+	@Override
+	public TransitionSystemView asTransitionSystem() {
+		return new TransitionSystemView();
+	}
+}
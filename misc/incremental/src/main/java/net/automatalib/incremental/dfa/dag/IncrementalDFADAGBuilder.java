@@ -16,7 +16,9 @@
 package net.automatalib.incremental.dfa.dag;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.Map;
 
 import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.dfa.Acceptance;
@@ -188,6 +190,154 @@ public class IncrementalDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuilde
 	
 	
 	
+	/**
+	 * Inserts a batch of words into the sets of accepted or rejected words.
+	 * <p>
+	 * If this builder does not store any information yet, the minimal DAG is constructed in a single
+	 * pass, using the algorithm for lexicographically sorted input by Daciuk et al.: words are processed
+	 * in lexicographical order (with respect to the input alphabet), and only the states on the path of
+	 * the previously processed word are kept out of the register. As soon as a word leaves this path, the
+	 * states beyond the common prefix can never change again, and are hence replaced by or registered as
+	 * canonical states. If the words are not already sorted, they are sorted first.
+	 * <p>
+	 * Otherwise, i.e., for incremental updates of a non-empty builder, the words are inserted one at a
+	 * time using {@link #insert(Word, boolean)}.
+	 * 
+	 * @param words a map from the words to insert to their acceptance status
+	 * @throws ConflictException if the given information conflicts with itself or with information
+	 * already stored. In the single-pass case, this is detected before any modification is made
+	 */
+	public void insertAll(Map<? extends Word<? extends I>, Boolean> words) {
+		if(register.size() > 1) {
+			for(Map.Entry<? extends Word<? extends I>, Boolean> entry : words.entrySet()) {
+				insert(entry.getKey(), entry.getValue().booleanValue());
+			}
+			return;
+		}
+		
+		int numWords = words.size();
+		int[][] indices = new int[numWords][];
+		Acceptance[] accs = new Acceptance[numWords];
+		boolean sorted = true;
+		
+		int i = 0;
+		for(Map.Entry<? extends Word<? extends I>, Boolean> entry : words.entrySet()) {
+			indices[i] = toIndices(entry.getKey());
+			accs[i] = Acceptance.fromBoolean(entry.getValue().booleanValue());
+			if(sorted && i > 0 && compareIndices(indices[i - 1], indices[i]) > 0)
+				sorted = false;
+			i++;
+		}
+		
+		if(!sorted) {
+			Integer[] order = new Integer[numWords];
+			for(i = 0; i < numWords; i++)
+				order[i] = i;
+			final int[][] unsorted = indices;
+			Arrays.sort(order, (a, b) -> compareIndices(unsorted[a], unsorted[b]));
+			int[][] sortedIndices = new int[numWords][];
+			Acceptance[] sortedAccs = new Acceptance[numWords];
+			for(i = 0; i < numWords; i++) {
+				sortedIndices[i] = indices[order[i]];
+				sortedAccs[i] = accs[order[i]];
+			}
+			indices = sortedIndices;
+			accs = sortedAccs;
+		}
+		
+		checkSortedConsistency(indices, accs);
+		insertSorted(indices, accs);
+	}
+	
+	private int[] toIndices(Word<? extends I> word) {
+		int[] indices = new int[word.length()];
+		int i = 0;
+		for(I sym : word) {
+			indices[i++] = inputAlphabet.getSymbolIndex(sym);
+		}
+		return indices;
+	}
+	
+	/**
+	 * Checks that a sorted batch of words is consistent with itself and with the acceptance of the
+	 * initial state. Since the builder is empty otherwise, conflicts can only arise between
+	 * duplicate words, which are adjacent in the sorted batch.
+	 */
+	private void checkSortedConsistency(int[][] indices, Acceptance[] accs) {
+		for(int i = 0; i < indices.length; i++) {
+			Acceptance acc = accs[i];
+			Acceptance other;
+			if(indices[i].length == 0)
+				other = init.getAcceptance();
+			else if(i > 0 && Arrays.equals(indices[i - 1], indices[i]))
+				other = accs[i - 1];
+			else
+				continue;
+			if(other != Acceptance.DONT_KNOW && other != acc)
+				throw new ConflictException("Incompatible acceptances: " + other + " vs " + acc);
+		}
+	}
+	
+	/**
+	 * Builds the minimal DAG for a consistent, lexicographically sorted batch of words, assuming
+	 * that the builder is empty.
+	 */
+	private void insertSorted(int[][] indices, Acceptance[] accs) {
+		int maxLen = 0;
+		for(int[] word : indices)
+			maxLen = Math.max(maxLen, word.length);
+		
+		State[] path = new State[maxLen + 1];
+		path[0] = init;
+		int[] prev = new int[0];
+		
+		for(int i = 0; i < indices.length; i++) {
+			int[] word = indices[i];
+			int prefixLen = commonPrefixLength(prev, word);
+			minimizePath(path, prev, prefixLen);
+			
+			for(int j = prefixLen; j < word.length; j++) {
+				State succ = new State(new StateSignature(alphabetSize, Acceptance.DONT_KNOW));
+				path[j].getSignature().successors[word[j]] = succ;
+				path[j + 1] = succ;
+			}
+			path[word.length].getSignature().acceptance = accs[i];
+			prev = word;
+		}
+		
+		minimizePath(path, prev, 0);
+	}
+	
+	/**
+	 * Replaces or registers the states on the path of the given word, from the deepest state up to
+	 * (but excluding) the state at the given depth.
+	 */
+	private void minimizePath(State[] path, int[] word, int depth) {
+		for(int j = word.length; j > depth; j--) {
+			State state = path[j];
+			state.getSignature().updateHashCode();
+			State canonical = replaceOrRegister(state);
+			path[j - 1].getSignature().successors[word[j - 1]] = canonical;
+			canonical.increaseIncoming();
+		}
+	}
+	
+	private static int commonPrefixLength(int[] a, int[] b) {
+		int len = Math.min(a.length, b.length);
+		int i = 0;
+		while(i < len && a[i] == b[i])
+			i++;
+		return i;
+	}
+	
+	private static int compareIndices(int[] a, int[] b) {
+		int prefixLen = commonPrefixLength(a, b);
+		if(prefixLen < a.length && prefixLen < b.length)
+			return Integer.compare(a[prefixLen], b[prefixLen]);
+		return Integer.compare(a.length, b.length);
+	}
+	
+	
 	/**
 	 * Retrieves the state reached by a given word.
 	 * @param word the word
@@ -0,0 +1,365 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.graphs.dot.DelegateDOTHelper;
+import net.automatalib.graphs.dot.GraphDOTHelper;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * An incremental tree builder for DFAs that stores its tree in primitive arrays.
+ * <p>
+ * In contrast to {@link IncrementalDFATreeBuilder}, which allocates a {@link Node} object and a children
+ * array per node, this builder identifies nodes by consecutive integers (the root having id {@code 0}),
+ * and stores the children of all nodes in a single {@code int[]} table, indexed by
+ * {@code node * alphabetSize + inputIdx}. The acceptance values of all nodes are stored in a single
+ * {@code byte[]}. This reduces the memory consumption per node to {@code 4 * alphabetSize + 1} bytes.
+ * <p>
+ * The nodes of the {@link #asGraph() graph} and the states of the {@link #asTransitionSystem() transition
+ * system} views are the node ids. The edges of the graph view are the indices of the respective entry in
+ * the children table.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ */
+public class CompactIncrementalDFATreeBuilder<I> extends AbstractIncrementalDFABuilder<I> {
+	
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	private static final byte ACC_DONT_KNOW = 0;
+	private static final byte ACC_FALSE = 1;
+	private static final byte ACC_TRUE = 2;
+	
+	protected static final int ROOT = 0;
+	
+	// child ids, indexed by node * alphabetSize + inputIdx. Since the root is never a child, 0 denotes
+	// an undefined child
+	private int[] children;
+	private byte[] acceptance;
+	private int numNodes;
+	
+	@ParametersAreNonnullByDefault
+	public class GraphView extends AbstractGraphView<I,Integer,Integer> {
+		@Override
+		public Collection<Integer> getNodes() {
+			return CollectionsUtil.intRange(0, numNodes);
+		}
+		
+		@Override
+		public Collection<Integer> getOutgoingEdges(Integer node) {
+			List<Integer> result = new ArrayList<>();
+			int base = node.intValue() * alphabetSize;
+			for(int i = 0; i < alphabetSize; i++) {
+				if(children[base + i] != 0) {
+					result.add(base + i);
+				}
+			}
+			return result;
+		}
+		
+		@Override
+		@Nonnull
+		public Integer getTarget(Integer edge) {
+			return children[edge.intValue()];
+		}
+		@Override
+		@Nullable
+		public I getInputSymbol(Integer edge) {
+			return inputAlphabet.getSymbol(edge.intValue() % alphabetSize);
+		}
+		@Override
+		@Nonnull
+		public Acceptance getAcceptance(Integer node) {
+			return getNodeAcceptance(node.intValue());
+		}
+		@Override
+		@Nonnull
+		public GraphDOTHelper<Integer, Integer> getGraphDOTHelper() {
+			return new DelegateDOTHelper<Integer,Integer>(super.getGraphDOTHelper()) {
+				@Override
+				public boolean getNodeProperties(Integer node,
+						Map<String, String> properties) {
+					if(!super.getNodeProperties(node, properties)) {
+						return false;
+					}
+					properties.put(NodeAttrs.LABEL, "n" + node);
+					return true;
+				}
+			};
+		}
+		@Override
+		@Nonnull
+		public Integer getInitialNode() {
+			return ROOT;
+		}
+	}
+	
+	@ParametersAreNonnullByDefault
+	public class TransitionSystemView extends AbstractTransitionSystemView<Integer, I, Integer> {
+		@Override
+		@Nonnull
+		public Integer getSuccessor(Integer transition) {
+			return transition;
+		}
+		@Override
+		@Nullable
+		public Integer getTransition(Integer state, I input) {
+			int child = getChild(state.intValue(), getSymbolIndex(input));
+			return (child == 0) ? null : Integer.valueOf(child);
+		}
+		@Nonnull
+		@Override
+		public Integer getInitialState() {
+			return ROOT;
+		}
+		@Override
+		@Nonnull
+		public Acceptance getAcceptance(Integer state) {
+			return getNodeAcceptance(state.intValue());
+		}
+	}
+	
+	public CompactIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet) {
+		this(inputAlphabet, DEFAULT_CAPACITY);
+	}
+	
+	public CompactIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet, int initialCapacity) {
+		super(inputAlphabet);
+		int capacity = Math.max(initialCapacity, 1);
+		this.children = new int[capacity * alphabetSize];
+		this.acceptance = new byte[capacity];
+		this.numNodes = 1;
+	}
+	
+	/**
+	 * Retrieves the number of nodes in the tree.
+	 * 
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return numNodes;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.IncrementalConstruction#findSeparatingWord(java.lang.Object, java.util.Collection, boolean)
+	 */
+	@Override
+	@Nullable
+	public Word<I> findSeparatingWord(DFA<?, I> target,
+			Collection<? extends I> inputs, boolean omitUndefined) {
+		return doFindSeparatingWord(target, inputs, omitUndefined);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.dfa.IncrementalDFABuilder#asGraph()
+	 */
+	@Override
+	public GraphView asGraph() {
+		return new GraphView();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.dfa.IncrementalDFABuilder#asTransitionSystem()
+	 */
+	@Override
+	public TransitionSystemView asTransitionSystem() {
+		return new TransitionSystemView();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.dfa.IncrementalDFABuilder#lookup(net.automatalib.words.Word)
+	 */
+	@Override
+	public Acceptance lookup(Word<? extends I> inputWord) {
+		int curr = ROOT;
+		
+		for(I sym : inputWord) {
+			int succ = children[curr * alphabetSize + getSymbolIndex(sym)];
+			if(succ == 0) {
+				return Acceptance.DONT_KNOW;
+			}
+			curr = succ;
+		}
+		return getNodeAcceptance(curr);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.dfa.IncrementalDFABuilder#insert(net.automatalib.words.Word, boolean)
+	 */
+	@Override
+	public void insert(Word<? extends I> word, boolean accepting) {
+		int curr = ROOT;
+		
+		for(I sym : word) {
+			int idx = curr * alphabetSize + getSymbolIndex(sym);
+			int succ = children[idx];
+			if(succ == 0) {
+				succ = createNode();
+				children[idx] = succ;
+			}
+			curr = succ;
+		}
+		
+		byte acc = acceptance[curr];
+		byte newWordAcc = accepting ? ACC_TRUE : ACC_FALSE;
+		if(acc == ACC_DONT_KNOW) {
+			acceptance[curr] = newWordAcc;
+		}
+		else if(acc != newWordAcc) {
+			throw new ConflictException("Conflicting acceptance values for word " + word + ": "
+					+ getNodeAcceptance(curr) + " vs " + Acceptance.fromBoolean(accepting));
+		}
+	}
+	
+	/**
+	 * Retrieves the child of a node for a given input.
+	 * 
+	 * @param node the node id
+	 * @param inputIdx the input index
+	 * @return the id of the child, or {@code 0} if there is no such child
+	 */
+	protected int getChild(int node, int inputIdx) {
+		return children[node * alphabetSize + inputIdx];
+	}
+	
+	/**
+	 * Retrieves the acceptance value of a node.
+	 * 
+	 * @param node the node id
+	 * @return the acceptance value of the node
+	 */
+	@Nonnull
+	protected Acceptance getNodeAcceptance(int node) {
+		switch(acceptance[node]) {
+		case ACC_TRUE:
+			return Acceptance.TRUE;
+		case ACC_FALSE:
+			return Acceptance.FALSE;
+		default:
+			return Acceptance.DONT_KNOW;
+		}
+	}
+	
+	private int getSymbolIndex(I sym) {
+		int idx = inputAlphabet.getSymbolIndex(sym);
+		if(idx < 0 || idx >= alphabetSize) {
+			throw new IllegalArgumentException("Symbol " + sym + " is not contained in the input alphabet");
+		}
+		return idx;
+	}
+	
+	private int createNode() {
+		int node = numNodes;
+		if(node == acceptance.length) {
+			long newCapacity = Math.min((long) node + (node >> 1) + 1, Integer.MAX_VALUE / alphabetSize);
+			if(newCapacity <= node) {
+				throw new IllegalStateException("Maximum number of nodes exceeded");
+			}
+			children = Arrays.copyOf(children, (int) newCapacity * alphabetSize);
+			acceptance = Arrays.copyOf(acceptance, (int) newCapacity);
+		}
+		numNodes++;
+		return node;
+	}
+	
+	private static final class Record<S,I> {
+		public final S automatonState;
+		public final int treeNode;
+		public final I incomingInput;
+		public final Iterator<? extends I> inputIt;
+		
+		public Record(S automatonState, int treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+			this.automatonState = automatonState;
+			this.treeNode = treeNode;
+			this.incomingInput = incomingInput;
+			this.inputIt = inputIt;
+		}
+	}
+	
+	protected <S> Word<I> doFindSeparatingWord(final DFA<S,I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+		Deque<Record<S,I>> dfsStack = new ArrayDeque<>();
+		
+		S automatonInit = target.getInitialState();
+		if(getNodeAcceptance(ROOT).conflicts(target.isAccepting(automatonInit))) {
+			return Word.epsilon();
+		}
+		
+		dfsStack.push(new Record<>(automatonInit, ROOT, null, inputs.iterator()));
+		
+		while(!dfsStack.isEmpty()) {
+			Record<S,I> rec = dfsStack.peek();
+			if(!rec.inputIt.hasNext()) {
+				dfsStack.pop();
+				continue;
+			}
+			I input = rec.inputIt.next();
+			int succ = getChild(rec.treeNode, getSymbolIndex(input));
+			if(succ == 0) {
+				continue;
+			}
+			
+			S automatonSucc = (rec.automatonState == null) ? null : target.getTransition(rec.automatonState, input);
+			if(automatonSucc == null && omitUndefined) {
+				continue;
+			}
+			
+			boolean succAcc = (automatonSucc == null) ? false : target.isAccepting(automatonSucc);
+			
+			if(getNodeAcceptance(succ).conflicts(succAcc)) {
+				WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+				wb.append(input);
+				
+				dfsStack.pop();
+				while(!dfsStack.isEmpty()) {
+					wb.append(rec.incomingInput);
+					rec = dfsStack.pop();
+				}
+				return wb.reverse().toWord();
+			}
+			
+			dfsStack.push(new Record<>(automatonSucc, succ, input, inputs.iterator()));
+		}
+		
+		return null;
+	}
+
+}
@@ -20,8 +20,9 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
 
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
-import net.automatalib.commons.util.mappings.MutableMapping;
+import net.automatalib.automata.helpers.StateIDBooleanMapping;
 import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.words.Alphabet;
@@ -156,13 +157,13 @@ public class IncrementalPCDFATreeBuilder<I> extends
 			return Word.epsilon();
 		}
 		if(rootAcc == Acceptance.FALSE) {
-			return findLive(target, automatonInit, inputs, target.<Boolean>createStaticStateMapping());
+			return findLive(target, automatonInit, inputs, target.createStaticStateBooleanMapping());
 		}
 		
 		Deque<Record<S,I>> dfsStack = new ArrayDeque<>();
 		dfsStack.push(new Record<>(automatonInit, root, null, inputs.iterator()));
 		
-		MutableMapping<S,Boolean> deadStates = null;
+		StateIDBooleanMapping<S> deadStates = null;
 		
 		while(!dfsStack.isEmpty()) {
 			Record<S,I> rec = dfsStack.peek();
@@ -190,7 +191,7 @@ public class IncrementalPCDFATreeBuilder<I> extends
 			Word<I> liveSuffix = null;
 			if(acc == Acceptance.FALSE) {
 				if(deadStates == null) {
-					deadStates = target.createStaticStateMapping();
+					deadStates = target.createStaticStateBooleanMapping();
 				}
 				liveSuffix = findLive(target, automatonSucc, inputs, deadStates);
 			}
@@ -229,18 +230,19 @@ public class IncrementalPCDFATreeBuilder<I> extends
 		}
 	}
 	
-	private static <S,I> Word<I> findLive(DFA<S,I> dfa, S state, Collection<? extends I> inputs, MutableMapping<S,Boolean> deadStates) {
+	private static <S,I> Word<I> findLive(DFA<S,I> dfa, S state, Collection<? extends I> inputs, StateIDBooleanMapping<S> deadStates) {
 		Deque<FindLiveRecord<S,I>> dfsStack = new ArrayDeque<>();
 		
 		if(dfa.isAccepting(state)) {
 			return Word.epsilon();
 		}
 		
-		Boolean dead = deadStates.get(state);
-		if(dead != null && dead) {
+		StateIDs<S> stateIds = deadStates.getStateIDs();
+		int stateId = stateIds.getStateId(state);
+		if(deadStates.getBoolean(stateId)) {
 			return null;
 		}
-		deadStates.put(state, true);
+		deadStates.setBoolean(stateId, true);
 		
 		dfsStack.push(new FindLiveRecord<>(state, null, inputs.iterator()));
 		
@@ -268,13 +270,10 @@ public class IncrementalPCDFATreeBuilder<I> extends
 				return wb.reverse().toWord();
 			}
 			
-			dead = deadStates.get(succ);
-			if(dead == null) {
+			int succId = stateIds.getStateId(succ);
+			if(!deadStates.getBoolean(succId)) {
 				dfsStack.push(new FindLiveRecord<>(succ, input, inputs.iterator()));
-				deadStates.put(succ, true);
-			}
-			else {
-				assert(dead);
+				deadStates.setBoolean(succId, true);
 			}
 		}
 		
@@ -0,0 +1,582 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.dag;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.ts.transout.MealyTransitionSystem;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Thread-safe variant of {@link IncrementalMealyDAGBuilder}, suitable for use as a query cache that is
+ * shared by many threads.
+ * <p>
+ * In contrast to {@link IncrementalMealyDAGBuilder}, the states of the DAG are immutable. An insertion
+ * does not modify any existing state, but creates new versions of all states on the path of the inserted
+ * word (sharing all other states), and then atomically publishes the new initial state. Every published
+ * initial state hence represents a consistent snapshot of the stored information:
+ * <ul>
+ * <li>{@link #lookup(Word, List) lookups} simply read the current snapshot, and are wait-free (their
+ * running time depends only on the length of the word);</li>
+ * <li>{@link #insert(Word, Word) insertions} are lock-free: the new path is built against the current
+ * snapshot, and published by a compare-and-set operation. If another insertion has been published in the
+ * meantime, the insertion is retried against the new snapshot (and in particular, checked for
+ * conflicts again).</li>
+ * </ul>
+ * The register for detecting equivalent states is a {@link ConcurrentHashMap}, which only
+ * <i>weakly</i> references the states. States which are no longer reachable from any snapshot are thus
+ * reclaimed by the garbage collector, and their register entries are expunged during subsequent
+ * insertions.
+ * <p>
+ * The {@link #asGraph() graph} and {@link #asTransitionSystem() transition system} views always refer to
+ * the most recent snapshot. As states are immutable, navigating from a state obtained from an
+ * earlier snapshot remains consistent.
+ *
+ * @author agent
+ *
+ * @param <I> input symbol class
+ * @param <O> output symbol class
+ */
+public class ConcurrentIncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O> {
+
+	/**
+	 * An (immutable) state of the DAG.
+	 */
+	public static final class Node {
+		private final Signature signature;
+
+		private Node(Signature signature) {
+			this.signature = signature;
+		}
+
+		@Nullable
+		public Node getSuccessor(int idx) {
+			return signature.successors[idx];
+		}
+
+		@Nullable
+		public Object getOutput(int idx) {
+			return signature.outputs[idx];
+		}
+	}
+
+	/**
+	 * A transition of the DAG, identified by its source state and input index.
+	 */
+	public static final class Edge {
+		public final Node source;
+		public final int transIdx;
+
+		public Edge(Node source, int transIdx) {
+			this.source = source;
+			this.transIdx = transIdx;
+		}
+	}
+
+	private static final class Signature {
+		private final Node[] successors;
+		private final Object[] outputs;
+		private final int hashCode;
+
+		public Signature(Node[] successors, Object[] outputs) {
+			this.successors = successors;
+			this.outputs = outputs;
+			this.hashCode = 31 * (31 + Arrays.hashCode(outputs)) + Arrays.hashCode(successors);
+		}
+
+		public Signature with(int idx, Node succ, Object output) {
+			Node[] newSuccs = successors.clone();
+			Object[] newOuts = outputs.clone();
+			newSuccs[idx] = succ;
+			newOuts[idx] = output;
+			return new Signature(newSuccs, newOuts);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Signature))
+				return false;
+			Signature other = (Signature) obj;
+			if (hashCode != other.hashCode)
+				return false;
+			for (int i = 0; i < successors.length; i++) {
+				if (successors[i] != other.successors[i])
+					return false;
+			}
+			for (int i = 0; i < outputs.length; i++) {
+				if (!Objects.equals(outputs[i], other.outputs[i]))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Register entry, weakly referencing a state. Remembers its key such that it can be removed
+	 * from the register once the state has been reclaimed.
+	 */
+	private static final class NodeRef extends WeakReference<Node> {
+		private final Signature key;
+
+		public NodeRef(Node node, ReferenceQueue<? super Node> queue) {
+			super(node, queue);
+			this.key = node.signature;
+		}
+	}
+
+	public class GraphView extends AbstractGraphView<I, O, Node, Edge> {
+		@Override
+		public Collection<Edge> getOutgoingEdges(Node node) {
+			List<Edge> edges = new ArrayList<>();
+			for (int i = 0; i < alphabetSize; i++) {
+				if (node.getSuccessor(i) != null)
+					edges.add(new Edge(node, i));
+			}
+			return edges;
+		}
+		@Override
+		public Node getTarget(Edge edge) {
+			return edge.source.getSuccessor(edge.transIdx);
+		}
+		@Override
+		public Collection<Node> getNodes() {
+			return Collections.unmodifiableCollection(collectNodes(root.get()).keySet());
+		}
+		@Override
+		@Nullable
+		public I getInputSymbol(Edge edge) {
+			return inputAlphabet.getSymbol(edge.transIdx);
+		}
+		@Override
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public O getOutputSymbol(Edge edge) {
+			return (O)edge.source.getOutput(edge.transIdx);
+		}
+		@Override
+		@Nonnull
+		public Node getInitialNode() {
+			return root.get();
+		}
+	}
+
+	public class AutomatonView implements MealyTransitionSystem<Node, I, Edge, O> {
+		@Override
+		public Node getSuccessor(Edge transition) {
+			return transition.source.getSuccessor(transition.transIdx);
+		}
+		@Override
+		public Node getInitialState() {
+			return root.get();
+		}
+		@Override
+		public Edge getTransition(Node state, I input) {
+			int inputIdx = inputAlphabet.getSymbolIndex(input);
+			if (state.getSuccessor(inputIdx) == null) {
+				return null;
+			}
+			return new Edge(state, inputIdx);
+		}
+		@Override
+		@SuppressWarnings("unchecked")
+		public O getTransitionOutput(Edge transition) {
+			return (O)transition.source.getOutput(transition.transIdx);
+		}
+	}
+
+
+	private final ConcurrentMap<Signature, NodeRef> register = new ConcurrentHashMap<>();
+	private final ReferenceQueue<Node> staleRefs = new ReferenceQueue<>();
+
+	private final int alphabetSize;
+	private final Node sink;
+	private final AtomicReference<Node> root;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param inputAlphabet
+	 *            the input alphabet to use
+	 */
+	public ConcurrentIncrementalMealyDAGBuilder(Alphabet<I> inputAlphabet) {
+		super(inputAlphabet);
+		this.alphabetSize = inputAlphabet.size();
+		// the sink is strongly referenced, hence never reclaimed
+		this.sink = intern(new Signature(new Node[alphabetSize], new Object[alphabetSize]));
+		this.root = new AtomicReference<>(sink);
+	}
+
+	private Node getState(Word<? extends I> word) {
+		Node s = root.get();
+
+		for (I sym : word) {
+			int idx = inputAlphabet.getSymbolIndex(sym);
+			s = s.getSuccessor(idx);
+			if (s == null) {
+				break;
+			}
+		}
+		return s;
+	}
+
+	@Override
+	public boolean hasDefinitiveInformation(Word<? extends I> word) {
+		return getState(word) != null;
+	}
+
+	/**
+	 * Retrieves the output word for the given input word. If no definitive
+	 * information for the input word exists, the output for the longest known
+	 * prefix will be returned.
+	 * <p>
+	 * This method is wait-free, and operates on the most recently published
+	 * snapshot.
+	 *
+	 * @param word
+	 *            the input word
+	 * @param output
+	 *            a {@link List} for storing the output word
+	 * @return <tt>true</tt> if the information contained was complete (in this
+	 *         case, <code>word.length() == output.size()</code> will hold),
+	 *         <tt>false</tt> otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean lookup(Word<? extends I> word, List<? super O> output) {
+		Node curr = root.get();
+		for (I sym : word) {
+			int idx = inputAlphabet.getSymbolIndex(sym);
+			Node succ = curr.getSuccessor(idx);
+			if (succ == null) {
+				return false;
+			}
+			output.add((O) curr.getOutput(idx));
+			curr = succ;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Incorporates a pair of input/output words into the stored information.
+	 * <p>
+	 * This method may be called concurrently from several threads. It is lock-free,
+	 * i.e., it is retried only if a concurrent insertion has been published in
+	 * the meantime.
+	 *
+	 * @param word
+	 *            the input word
+	 * @param outputWord
+	 *            the corresponding output word
+	 * @throws ConflictException
+	 *             if this information conflicts with information already stored
+	 */
+	@Override
+	public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+		int len = word.length();
+
+		int[] inputIdxs = new int[len];
+		for (int i = 0; i < len; i++) {
+			inputIdxs[i] = inputAlphabet.getSymbolIndex(word.getSymbol(i));
+		}
+
+		Node[] path = new Node[len + 1];
+
+		for (;;) {
+			Node snapshot = root.get();
+
+			// Find the state in the DAG that can be reached by a maximal prefix of the word,
+			// checking for conflicts on the way
+			Node curr = snapshot;
+			int prefixLen = 0;
+			while (prefixLen < len) {
+				path[prefixLen] = curr;
+				int idx = inputIdxs[prefixLen];
+				Node succ = curr.getSuccessor(idx);
+				if (succ == null)
+					break;
+
+				O outSym = outputWord.getSymbol(prefixLen);
+				if (!Objects.equals(outSym, curr.getOutput(idx))) {
+					throw new ConflictException("Error inserting "
+							+ word.prefix(prefixLen + 1) + " / "
+							+ outputWord.prefix(prefixLen + 1)
+							+ ": Incompatible output symbols: " + outSym + " vs "
+							+ curr.getOutput(idx));
+				}
+				curr = succ;
+				prefixLen++;
+			}
+
+			// The information was already present - we do not need to continue
+			if (prefixLen == len) {
+				return;
+			}
+
+			// Create the suffix path (minus its first transition) bottom-up ...
+			Node last = sink;
+			for (int i = len - 1; i > prefixLen; i--) {
+				Signature sig = sink.signature.with(inputIdxs[i], last, outputWord.getSymbol(i));
+				last = intern(sig);
+			}
+
+			// ... glue it to the last state of the existing prefix ...
+			last = intern(curr.signature.with(inputIdxs[prefixLen], last, outputWord.getSymbol(prefixLen)));
+
+			// ... and create new versions of all states on the prefix path
+			for (int i = prefixLen - 1; i >= 0; i--) {
+				Node state = path[i];
+				int idx = inputIdxs[i];
+				last = intern(state.signature.with(idx, last, state.getOutput(idx)));
+			}
+
+			if (root.compareAndSet(snapshot, last)) {
+				expungeStaleEntries();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the canonical state for the given signature, creating and registering
+	 * it if necessary.
+	 *
+	 * @param sig
+	 *            the signature
+	 * @return the canonical state with this signature
+	 */
+	private Node intern(Signature sig) {
+		for (;;) {
+			NodeRef ref = register.get(sig);
+			if (ref != null) {
+				Node node = ref.get();
+				if (node != null) {
+					return node;
+				}
+				Node fresh = new Node(sig);
+				if (register.replace(sig, ref, new NodeRef(fresh, staleRefs))) {
+					return fresh;
+				}
+			}
+			else {
+				Node fresh = new Node(sig);
+				if (register.putIfAbsent(sig, new NodeRef(fresh, staleRefs)) == null) {
+					return fresh;
+				}
+			}
+		}
+	}
+
+	private void expungeStaleEntries() {
+		Reference<? extends Node> ref;
+		while ((ref = staleRefs.poll()) != null) {
+			NodeRef nodeRef = (NodeRef) ref;
+			register.remove(nodeRef.key, nodeRef);
+		}
+	}
+
+	/**
+	 * Collects all states reachable from the given state, and assigns them consecutive IDs.
+	 */
+	private Map<Node, Integer> collectNodes(Node init) {
+		Map<Node, Integer> ids = new HashMap<>();
+		Deque<Node> stack = new ArrayDeque<>();
+		ids.put(init, 0);
+		stack.push(init);
+
+		Node curr;
+		while ((curr = stack.poll()) != null) {
+			for (int i = 0; i < alphabetSize; i++) {
+				Node succ = curr.getSuccessor(i);
+				if (succ != null && !ids.containsKey(succ)) {
+					ids.put(succ, ids.size());
+					stack.push(succ);
+				}
+			}
+		}
+
+		return ids;
+	}
+
+	@Override
+	public GraphView asGraph() {
+		return new GraphView();
+	}
+
+	@Override
+	public AutomatonView asTransitionSystem() {
+		return new AutomatonView();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.IncrementalConstruction#findSeparatingWord(java.lang.Object, java.util.Collection, boolean)
+	 */
+	@Override
+	public Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+			Collection<? extends I> inputs, boolean omitUndefined) {
+		return doFindSeparatingWord(target, inputs, omitUndefined);
+	}
+
+	// /////////////////////////////////////////////////////////////////////
+	// Equivalence test //
+	// /////////////////////////////////////////////////////////////////////
+
+	private static final class Record<S, I> {
+		private final Node state1;
+		private final S state2;
+		private final I reachedVia;
+		private final Record<S, I> reachedFrom;
+		private final int depth;
+
+		public Record(Node state1, S state2, Record<S, I> reachedFrom,
+				I reachedVia) {
+			this.state1 = state1;
+			this.state2 = state2;
+			this.reachedFrom = reachedFrom;
+			this.reachedVia = reachedVia;
+			this.depth = (reachedFrom != null) ? reachedFrom.depth + 1 : 0;
+		}
+
+		public Record(Node state1, S state2) {
+			this(state1, state2, null, null);
+		}
+	}
+
+	private <S, T> Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> mealy,
+			Collection<? extends I> inputs, boolean omitUndefined) {
+		Node init1 = root.get();
+		S init2 = mealy.getInitialState();
+
+		if (init2 == null)
+			return omitUndefined ? null : Word.<I> epsilon();
+
+		Map<Node, Integer> ids = collectNodes(init1);
+		int thisStates = ids.size();
+
+		IntDisjointSets uf = new UnionFind(thisStates + mealy.size());
+
+		StateIDs<S> mealyIds = mealy.stateIDs();
+
+		int id1 = ids.get(init1), id2 = mealyIds.getStateId(init2) + thisStates;
+
+		uf.link(id1, id2);
+
+		Queue<Record<S, I>> queue = new ArrayDeque<>();
+
+		queue.offer(new Record<S, I>(init1, init2));
+
+		I lastSym = null;
+
+		Record<S, I> current;
+
+		explore: while ((current = queue.poll()) != null) {
+			Node state1 = current.state1;
+			S state2 = current.state2;
+
+			for (I sym : inputs) {
+				int idx = inputAlphabet.getSymbolIndex(sym);
+				Node succ1 = state1.getSuccessor(idx);
+				if (succ1 == null)
+					continue;
+
+				T trans2 = mealy.getTransition(state2, sym);
+				if (trans2 == null) {
+					if (omitUndefined)
+						continue;
+					lastSym = sym;
+					break explore;
+				}
+
+				Object out1 = state1.getOutput(idx);
+				Object out2 = mealy.getTransitionOutput(trans2);
+				if (!Objects.equals(out1, out2)) {
+					lastSym = sym;
+					break explore;
+				}
+
+				S succ2 = mealy.getSuccessor(trans2);
+
+				id1 = ids.get(succ1);
+				id2 = mealyIds.getStateId(succ2) + thisStates;
+
+				int r1 = uf.find(id1), r2 = uf.find(id2);
+
+				if (r1 == r2)
+					continue;
+
+				uf.link(r1, r2);
+
+				queue.offer(new Record<>(succ1, succ2, current, sym));
+			}
+		}
+
+		if (current == null)
+			return null;
+
+		int ceLength = current.depth;
+		if (lastSym != null)
+			ceLength++;
+
+		WordBuilder<I> wb = new WordBuilder<I>(null, ceLength);
+
+		int index = ceLength;
+
+		if (lastSym != null)
+			wb.setSymbol(--index, lastSym);
+
+		while (current.reachedFrom != null) {
+			wb.setSymbol(--index, current.reachedVia);
+			current = current.reachedFrom;
+		}
+
+		return wb.toWord();
+	}
+}
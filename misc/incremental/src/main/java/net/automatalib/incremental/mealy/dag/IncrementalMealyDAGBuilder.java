@@ -17,6 +17,7 @@ package net.automatalib.incremental.mealy.dag;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -250,6 +251,7 @@ public class IncrementalMealyDAGBuilder<I, O> extends
 	 */
 	@Override
 	public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+		checkOutputLength(word, outputWord);
 		int len = word.length();
 
 		State curr = init;
@@ -546,6 +548,191 @@ public class IncrementalMealyDAGBuilder<I, O> extends
 		return last;
 	}
 	
+	/**
+	 * Incorporates a batch of pairs of input/output words into the stored
+	 * information.
+	 * <p>
+	 * If this builder does not store any information yet, the minimal DAG is
+	 * constructed in a single pass, using the algorithm for lexicographically
+	 * sorted input by Daciuk et al.: input words are processed in
+	 * lexicographical order (with respect to the input alphabet), and only the
+	 * states on the path of the previously processed word are kept out of the
+	 * register. As soon as a word leaves this path, the states beyond the
+	 * common prefix can never change again, and are hence replaced by or
+	 * registered as canonical states. If the input words are not already
+	 * sorted, they are sorted first.
+	 * <p>
+	 * Otherwise, i.e., for incremental updates of a non-empty builder, the
+	 * words are inserted one at a time using {@link #insert(Word, Word)}.
+	 * 
+	 * @param words
+	 *            a map from input words to their corresponding output words
+	 * @throws ConflictException
+	 *             if the given information conflicts with itself or with
+	 *             information already stored. In the single-pass case, this
+	 *             is detected before any modification is made
+	 * @throws IllegalArgumentException
+	 *             if an output word is shorter than its input word. This is
+	 *             checked for all words before any modification is made
+	 */
+	public void insertAll(Map<? extends Word<? extends I>, ? extends Word<? extends O>> words) {
+		// validate all words up front, such that a malformed entry does not leave the batch half-inserted
+		for (Map.Entry<? extends Word<? extends I>, ? extends Word<? extends O>> entry : words.entrySet()) {
+			checkOutputLength(entry.getKey(), entry.getValue());
+		}
+		if (register.size() > 1) {
+			for (Map.Entry<? extends Word<? extends I>, ? extends Word<? extends O>> entry : words.entrySet()) {
+				insert(entry.getKey(), entry.getValue());
+			}
+			return;
+		}
+
+		int numWords = words.size();
+		Word<?>[] inputs = new Word<?>[numWords];
+		Word<?>[] outputs = new Word<?>[numWords];
+		int[][] indices = new int[numWords][];
+		boolean sorted = true;
+
+		int i = 0;
+		for (Map.Entry<? extends Word<? extends I>, ? extends Word<? extends O>> entry : words.entrySet()) {
+			inputs[i] = entry.getKey();
+			outputs[i] = entry.getValue();
+			indices[i] = toIndices(entry.getKey());
+			if (sorted && i > 0 && compareIndices(indices[i - 1], indices[i]) > 0) {
+				sorted = false;
+			}
+			i++;
+		}
+
+		if (!sorted) {
+			Integer[] order = new Integer[numWords];
+			for (i = 0; i < numWords; i++) {
+				order[i] = i;
+			}
+			final int[][] unsorted = indices;
+			Arrays.sort(order, (a, b) -> compareIndices(unsorted[a], unsorted[b]));
+			Word<?>[] sortedInputs = new Word<?>[numWords];
+			Word<?>[] sortedOutputs = new Word<?>[numWords];
+			int[][] sortedIndices = new int[numWords][];
+			for (i = 0; i < numWords; i++) {
+				sortedInputs[i] = inputs[order[i]];
+				sortedOutputs[i] = outputs[order[i]];
+				sortedIndices[i] = indices[order[i]];
+			}
+			inputs = sortedInputs;
+			outputs = sortedOutputs;
+			indices = sortedIndices;
+		}
+
+		checkSortedConsistency(inputs, outputs, indices);
+		insertSorted(outputs, indices);
+	}
+
+	private static void checkOutputLength(Word<?> word, Word<?> outputWord) {
+		if (outputWord.length() < word.length()) {
+			throw new IllegalArgumentException("Output word " + outputWord
+					+ " is shorter than input word " + word);
+		}
+	}
+
+	private int[] toIndices(Word<? extends I> word) {
+		int[] indices = new int[word.length()];
+		int i = 0;
+		for (I sym : word) {
+			indices[i++] = inputAlphabet.getSymbolIndex(sym);
+		}
+		return indices;
+	}
+
+	/**
+	 * Checks that a sorted batch of input/output words is consistent with
+	 * itself. Since the input words are sorted, the longest common prefix of
+	 * an input word with any of its predecessors is the one shared with its
+	 * immediate predecessor, hence it suffices to compare adjacent words.
+	 */
+	private static void checkSortedConsistency(Word<?>[] inputs, Word<?>[] outputs, int[][] indices) {
+		for (int i = 1; i < indices.length; i++) {
+			int prefixLen = commonPrefixLength(indices[i - 1], indices[i]);
+			Word<?> prevOut = outputs[i - 1];
+			Word<?> out = outputs[i];
+			for (int j = 0; j < prefixLen; j++) {
+				Object prevSym = prevOut.getSymbol(j);
+				Object outSym = out.getSymbol(j);
+				if (!Objects.equals(outSym, prevSym)) {
+					throw new ConflictException("Error inserting "
+							+ inputs[i].prefix(j + 1) + " / "
+							+ out.prefix(j + 1)
+							+ ": Incompatible output symbols: " + outSym + " vs "
+							+ prevSym);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the minimal DAG for a consistent, lexicographically sorted batch
+	 * of input/output words, assuming that the builder is empty.
+	 */
+	private void insertSorted(Word<?>[] outputs, int[][] indices) {
+		int maxLen = 0;
+		for (int[] word : indices) {
+			maxLen = Math.max(maxLen, word.length);
+		}
+
+		State[] path = new State[maxLen + 1];
+		path[0] = init;
+		int[] prev = new int[0];
+
+		for (int i = 0; i < indices.length; i++) {
+			int[] word = indices[i];
+			Word<?> out = outputs[i];
+			int prefixLen = commonPrefixLength(prev, word);
+			minimizePath(path, prev, prefixLen);
+
+			for (int j = prefixLen; j < word.length; j++) {
+				State succ = new State(new StateSignature(alphabetSize));
+				StateSignature sig = path[j].getSignature();
+				sig.successors[word[j]] = succ;
+				sig.outputs[word[j]] = out.getSymbol(j);
+				path[j + 1] = succ;
+			}
+			prev = word;
+		}
+
+		minimizePath(path, prev, 0);
+	}
+
+	/**
+	 * Replaces or registers the states on the path of the given word, from
+	 * the deepest state up to (but excluding) the state at the given depth.
+	 */
+	private void minimizePath(State[] path, int[] word, int depth) {
+		for (int j = word.length; j > depth; j--) {
+			State state = path[j];
+			state.getSignature().updateHashCode();
+			State canonical = replaceOrRegister(state);
+			path[j - 1].getSignature().successors[word[j - 1]] = canonical;
+			canonical.increaseIncoming();
+		}
+	}
+
+	private static int commonPrefixLength(int[] a, int[] b) {
+		int len = Math.min(a.length, b.length);
+		int i = 0;
+		while (i < len && a[i] == b[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int compareIndices(int[] a, int[] b) {
+		int prefixLen = commonPrefixLength(a, b);
+		if (prefixLen < a.length && prefixLen < b.length) {
+			return Integer.compare(a[prefixLen], b[prefixLen]);
+		}
+		return Integer.compare(a.length, b.length);
+	}
+	
 	@Override
 	public GraphView asGraph() {
 		return new GraphView();
@@ -0,0 +1,347 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.automatalib.automata.transout.MealyMachine;
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.graphs.dot.DelegateDOTHelper;
+import net.automatalib.graphs.dot.GraphDOTHelper;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.ts.transout.MealyTransitionSystem;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+import com.google.common.base.Objects;
+
+/**
+ * An incremental tree builder for Mealy machines that stores its tree in primitive arrays.
+ * <p>
+ * In contrast to {@link IncrementalMealyTreeBuilder}, which allocates a node object, an edge array and an
+ * edge object per node, this builder identifies nodes by consecutive integers (the root having id
+ * {@code 0}), and stores the children of all nodes in a single {@code int[]} table, indexed by
+ * {@code node * alphabetSize + inputIdx}. Output symbols are interned, and the output of each edge is
+ * stored as an index in a second {@code int[]} table, parallel to the children table.
+ * <p>
+ * The nodes of the {@link #asGraph() graph} and the states of the {@link #asTransitionSystem() transition
+ * system} views are the node ids. Edges and transitions are the indices of the respective entry in the
+ * children table.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ * @param <O> output symbol class
+ */
+public class CompactIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyBuilder<I,O> {
+	
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	protected static final int ROOT = 0;
+	
+	private static final class Record<S,I> {
+		private final S automatonState;
+		private final int treeNode;
+		private final I incomingInput;
+		private final Iterator<? extends I> inputIt;
+		
+		public Record(S automatonState, int treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+			this.automatonState = automatonState;
+			this.treeNode = treeNode;
+			this.inputIt = inputIt;
+			this.incomingInput = incomingInput;
+		}
+	}
+	
+	
+	public class GraphView extends AbstractGraphView<I,O,Integer,Integer> {
+		@Override
+		public Collection<Integer> getNodes() {
+			return CollectionsUtil.intRange(0, numNodes);
+		}
+		@Override
+		public Collection<Integer> getOutgoingEdges(Integer node) {
+			List<Integer> result = new ArrayList<>();
+			int base = node.intValue() * alphabetSize;
+			for(int i = 0; i < alphabetSize; i++) {
+				if(children[base + i] != 0) {
+					result.add(base + i);
+				}
+			}
+			return result;
+		}
+		@Override
+		public Integer getTarget(Integer edge) {
+			return children[edge.intValue()];
+		}
+		@Override
+		@Nonnull
+		public Integer getInitialNode() {
+			return ROOT;
+		}
+		@Override
+		@Nullable
+		public I getInputSymbol(Integer edge) {
+			return inputAlphabet.getSymbol(edge.intValue() % alphabetSize);
+		}
+		@Override
+		@Nullable
+		public O getOutputSymbol(Integer edge) {
+			return outputSymbols.get(outputs[edge.intValue()]);
+		}
+		@Override
+		public GraphDOTHelper<Integer, Integer> getGraphDOTHelper() {
+			return new DelegateDOTHelper<Integer,Integer>(super.getGraphDOTHelper()) {
+				@Override
+				public boolean getNodeProperties(Integer node,
+						Map<String, String> properties) {
+					if(!super.getNodeProperties(node, properties)) {
+						return false;
+					}
+					properties.put(NodeAttrs.LABEL, "n" + node);
+					return true;
+				}
+			};
+		}
+		
+	}
+	
+	public class TransitionSystemView implements MealyTransitionSystem<Integer, I, Integer, O> {
+		@Override
+		public Integer getTransition(Integer state, I input) {
+			int idx = state.intValue() * alphabetSize + getSymbolIndex(input);
+			return (children[idx] == 0) ? null : Integer.valueOf(idx);
+		}
+		@Override
+		public Integer getSuccessor(Integer transition) {
+			return children[transition.intValue()];
+		}
+		@Override
+		public Integer getInitialState() {
+			return ROOT;
+		}
+		@Override
+		public O getTransitionOutput(Integer transition) {
+			return outputSymbols.get(outputs[transition.intValue()]);
+		}
+	}
+	
+	
+	private final int alphabetSize;
+	// child ids and output indices, indexed by node * alphabetSize + inputIdx. Since the root is never a
+	// child, a child id of 0 denotes an undefined transition
+	private int[] children;
+	private int[] outputs;
+	private int numNodes;
+	
+	private final List<O> outputSymbols = new ArrayList<>();
+	private final Map<O,Integer> outputIndices = new HashMap<>();
+	
+	public CompactIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet) {
+		this(inputAlphabet, DEFAULT_CAPACITY);
+	}
+	
+	public CompactIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet, int initialCapacity) {
+		super(inputAlphabet);
+		this.alphabetSize = inputAlphabet.size();
+		int capacity = Math.max(initialCapacity, 1);
+		this.children = new int[capacity * alphabetSize];
+		this.outputs = new int[capacity * alphabetSize];
+		this.numNodes = 1;
+	}
+	
+	/**
+	 * Retrieves the number of nodes in the tree.
+	 * 
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return numNodes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.mealy.IncrementalMealyBuilder#insert(net.automatalib.words.Word, net.automatalib.words.Word)
+	 */
+	@Override
+	public void insert(Word<? extends I> input, Word<? extends O> outputWord) throws ConflictException {
+		int curr = ROOT;
+		
+		Iterator<? extends O> outputIt = outputWord.iterator();
+		for(I sym : input) {
+			int idx = curr * alphabetSize + getSymbolIndex(sym);
+			O out = outputIt.next();
+			int succ = children[idx];
+			if(succ == 0) {
+				int outIdx = getOutputIndex(out);
+				succ = createNode();
+				children[idx] = succ;
+				outputs[idx] = outIdx;
+			}
+			else if(!Objects.equal(out, outputSymbols.get(outputs[idx]))) {
+				throw new ConflictException("Output mismatch: '" + out + "' vs '"
+						+ outputSymbols.get(outputs[idx]) + "'");
+			}
+			curr = succ;
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.mealy.IncrementalMealyBuilder#lookup(net.automatalib.words.Word, java.util.List)
+	 */
+	@Override
+	public boolean lookup(Word<? extends I> word, List<? super O> output) {
+		int curr = ROOT;
+		
+		for(I sym : word) {
+			int idx = curr * alphabetSize + getSymbolIndex(sym);
+			int succ = children[idx];
+			if(succ == 0) {
+				return false;
+			}
+			output.add(outputSymbols.get(outputs[idx]));
+			curr = succ;
+		}
+		
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.IncrementalConstruction#findSeparatingWord(java.lang.Object, java.util.Collection, boolean)
+	 */
+	@Override
+	public Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+			Collection<? extends I> inputs, boolean omitUndefined) {
+		return doFindSeparatingWord(target, inputs, omitUndefined);
+	}
+
+
+	/*
+	 * (non-Javadoc)
+	 * @see net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder#hasDefinitiveInformation(net.automatalib.words.Word)
+	 */
+	@Override
+	public boolean hasDefinitiveInformation(Word<? extends I> word) {
+		int curr = ROOT;
+		
+		Iterator<? extends I> symIt = word.iterator();
+		while(symIt.hasNext() && curr >= 0) {
+			int succ = children[curr * alphabetSize + getSymbolIndex(symIt.next())];
+			curr = (succ == 0) ? -1 : succ;
+		}
+		return (curr >= 0);
+	}
+	
+	
+	private <S,T> Word<I> doFindSeparatingWord(MealyMachine<S,I,T,O> target, Collection<? extends I> inputs, boolean omitUndefined) {
+		Deque<Record<S,I>> dfsStack = new ArrayDeque<>();
+		
+		dfsStack.push(new Record<>(target.getInitialState(), ROOT, null, inputs.iterator()));
+		
+		while(!dfsStack.isEmpty()) {
+			Record<S,I> rec = dfsStack.peek();
+			if(!rec.inputIt.hasNext()) {
+				dfsStack.pop();
+				continue;
+			}
+			I input = rec.inputIt.next();
+			int idx = rec.treeNode * alphabetSize + getSymbolIndex(input);
+			
+			int succ = children[idx];
+			if(succ == 0) {
+				continue;
+			}
+			
+			T trans = target.getTransition(rec.automatonState, input);
+			if(omitUndefined && trans == null) {
+				continue;
+			}
+			if(trans == null || !Objects.equal(target.getTransitionOutput(trans), outputSymbols.get(outputs[idx]))) {
+				
+				WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+				wb.append(input);
+				
+				dfsStack.pop();
+				while(!dfsStack.isEmpty()) {
+					wb.append(rec.incomingInput);
+					rec = dfsStack.pop();
+				}
+				return wb.reverse().toWord();
+			}
+			
+			dfsStack.push(new Record<>(target.getSuccessor(trans), succ, input, inputs.iterator()));
+		}
+		
+		return null;
+	}
+	
+	private int getOutputIndex(O output) {
+		Integer idx = outputIndices.get(output);
+		if(idx == null) {
+			idx = outputSymbols.size();
+			outputSymbols.add(output);
+			outputIndices.put(output, idx);
+		}
+		return idx.intValue();
+	}
+	
+	private int getSymbolIndex(I sym) {
+		int idx = inputAlphabet.getSymbolIndex(sym);
+		if(idx < 0 || idx >= alphabetSize) {
+			throw new IllegalArgumentException("Symbol " + sym + " is not contained in the input alphabet");
+		}
+		return idx;
+	}
+	
+	private int createNode() {
+		int node = numNodes;
+		int capacity = children.length / alphabetSize;
+		if(node == capacity) {
+			long newCapacity = Math.min((long) node + (node >> 1) + 1, Integer.MAX_VALUE / alphabetSize);
+			if(newCapacity <= node) {
+				throw new IllegalStateException("Maximum number of nodes exceeded");
+			}
+			children = Arrays.copyOf(children, (int) newCapacity * alphabetSize);
+			outputs = Arrays.copyOf(outputs, (int) newCapacity * alphabetSize);
+		}
+		numNodes++;
+		return node;
+	}
+
+	@Override
+	public TransitionSystemView asTransitionSystem() {
+		return new TransitionSystemView();
+	}
+	@Override
+	public GraphView asGraph() {
+		return new GraphView();
+	}
+}
@@ -0,0 +1,92 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa;
+
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.tree.CompactIncrementalDFATreeBuilder;
+import net.automatalib.incremental.dfa.tree.IncrementalDFATreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompactIncrementalDFATreeBuilderTest extends
+		AbstractIncrementalDFABuilderTest {
+
+	@Override
+	protected <I> IncrementalDFABuilder<I> createIncrementalDFABuilder(
+			Alphabet<I> alphabet) {
+		return new CompactIncrementalDFATreeBuilder<>(alphabet);
+	}
+	
+	@Test
+	public void testRandomInsertions() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		CompactIncrementalDFATreeBuilder<Integer> compact = new CompactIncrementalDFATreeBuilder<>(alphabet, 1);
+		IncrementalDFATreeBuilder<Integer> reference = new IncrementalDFATreeBuilder<>(alphabet);
+		Random random = new Random(42L);
+		
+		for (int i = 0; i < 2000; i++) {
+			Word<Integer> word = randomWord(random, alphabet);
+			boolean accepting = random.nextBoolean();
+			Assert.assertEquals(compact.lookup(word), reference.lookup(word));
+			boolean conflict = false;
+			try {
+				reference.insert(word, accepting);
+			}
+			catch (ConflictException ex) {
+				conflict = true;
+			}
+			try {
+				compact.insert(word, accepting);
+				Assert.assertFalse(conflict);
+			}
+			catch (ConflictException ex) {
+				Assert.assertTrue(conflict);
+			}
+		}
+		
+		Assert.assertEquals(compact.size(), reference.asGraph().size());
+		for (int i = 0; i < 2000; i++) {
+			Word<Integer> word = randomWord(random, alphabet);
+			Assert.assertEquals(compact.lookup(word), reference.lookup(word));
+		}
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnknownSymbol() {
+		CompactIncrementalDFATreeBuilder<Character> builder =
+				new CompactIncrementalDFATreeBuilder<>(Alphabets.fromArray('a', 'b'));
+		builder.insert(Word.fromString("ab"), true);
+		builder.lookup(Word.fromString("ac"));
+	}
+	
+	private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet) {
+		int len = random.nextInt(10);
+		WordBuilder<Integer> wb = new WordBuilder<>(len);
+		for (int j = 0; j < len; j++) {
+			wb.add(alphabet.getSymbol(random.nextInt(alphabet.size())));
+		}
+		return wb.toWord();
+	}
+
+}
@@ -15,9 +15,19 @@
  */
 package net.automatalib.incremental.dfa;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.dfa.dag.IncrementalDFADAGBuilder;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 @Test
@@ -29,5 +39,82 @@ public class IncrementalDFADAGBuilderTest extends
 			Alphabet<I> alphabet) {
 		return new IncrementalDFADAGBuilder<>(alphabet);
 	}
+	
+	@Test
+	public void testInsertAll() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		Random random = new Random(42L);
+		
+		for (int round = 0; round < 20; round++) {
+			Map<Word<Integer>, Boolean> batch = randomBatch(random, alphabet, 200);
+			IncrementalDFADAGBuilder<Integer> bulk = new IncrementalDFADAGBuilder<>(alphabet);
+			IncrementalDFADAGBuilder<Integer> reference = new IncrementalDFADAGBuilder<>(alphabet);
+			
+			bulk.insertAll(batch);
+			for (Map.Entry<Word<Integer>, Boolean> entry : batch.entrySet()) {
+				reference.insert(entry.getKey(), entry.getValue());
+			}
+			assertSameContents(bulk, reference, alphabet, random);
+			
+			// incremental update of a non-empty builder
+			Map<Word<Integer>, Boolean> update = randomBatch(random, alphabet, 50);
+			update.keySet().removeAll(batch.keySet());
+			bulk.insertAll(update);
+			for (Map.Entry<Word<Integer>, Boolean> entry : update.entrySet()) {
+				reference.insert(entry.getKey(), entry.getValue());
+			}
+			assertSameContents(bulk, reference, alphabet, random);
+		}
+	}
+	
+	@Test
+	public void testInsertAllConflict() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+		IncrementalDFADAGBuilder<Integer> builder = new IncrementalDFADAGBuilder<>(alphabet);
+		builder.insert(Word.<Integer>epsilon(), true);
+		
+		Map<Word<Integer>, Boolean> batch = new HashMap<>();
+		batch.put(Word.fromSymbols(0, 1), true);
+		batch.put(Word.<Integer>epsilon(), false);
+		try {
+			builder.insertAll(batch);
+			Assert.fail("Expected conflict");
+		}
+		catch (ConflictException ex) {
+			// conflicts are detected before any modification
+			Assert.assertEquals(builder.lookup(Word.fromSymbols(0, 1)), Acceptance.DONT_KNOW);
+		}
+		
+		builder.insertAll(Collections.singletonMap(Word.fromSymbols(0, 1), false));
+		Assert.assertEquals(builder.lookup(Word.fromSymbols(0, 1)), Acceptance.FALSE);
+		Assert.assertEquals(builder.lookup(Word.<Integer>epsilon()), Acceptance.TRUE);
+	}
+	
+	private static void assertSameContents(IncrementalDFADAGBuilder<Integer> bulk,
+			IncrementalDFADAGBuilder<Integer> reference, Alphabet<Integer> alphabet, Random random) {
+		// both builders maintain the minimal DAG
+		Assert.assertEquals(bulk.asGraph().size(), reference.asGraph().size());
+		for (int i = 0; i < 500; i++) {
+			Word<Integer> word = randomWord(random, alphabet);
+			Assert.assertEquals(bulk.lookup(word), reference.lookup(word));
+		}
+	}
+	
+	private static Map<Word<Integer>, Boolean> randomBatch(Random random, Alphabet<Integer> alphabet, int size) {
+		Map<Word<Integer>, Boolean> batch = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			batch.put(randomWord(random, alphabet), random.nextBoolean());
+		}
+		return batch;
+	}
+	
+	private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet) {
+		int len = random.nextInt(8);
+		WordBuilder<Integer> wb = new WordBuilder<>(len);
+		for (int j = 0; j < len; j++) {
+			wb.add(alphabet.getSymbol(random.nextInt(alphabet.size())));
+		}
+		return wb.toWord();
+	}
 
 }
@@ -0,0 +1,85 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.tree.CompactIncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompactIncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+	
+	@Override
+	protected <I,O> IncrementalMealyBuilder<I,O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+		return new CompactIncrementalMealyTreeBuilder<>(alphabet);
+	}
+	
+	@Test
+	public void testRandomInsertions() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		CompactIncrementalMealyTreeBuilder<Integer,String> compact = new CompactIncrementalMealyTreeBuilder<>(alphabet, 1);
+		IncrementalMealyTreeBuilder<Integer,String> reference = new IncrementalMealyTreeBuilder<>(alphabet);
+		Random random = new Random(42L);
+		
+		for (int i = 0; i < 2000; i++) {
+			int len = random.nextInt(10);
+			WordBuilder<Integer> inputs = new WordBuilder<>(len);
+			WordBuilder<String> outputs = new WordBuilder<>(len);
+			for (int j = 0; j < len; j++) {
+				int sym = random.nextInt(alphabet.size());
+				inputs.add(sym);
+				// mostly consistent outputs, with occasional conflicts
+				outputs.add((random.nextInt(50) == 0) ? "x" : "o" + (sym + j) % 2);
+			}
+			Word<Integer> input = inputs.toWord();
+			Word<String> output = outputs.toWord();
+			
+			Assert.assertEquals(compact.hasDefinitiveInformation(input), reference.hasDefinitiveInformation(input));
+			Assert.assertEquals(compact.lookup(input), reference.lookup(input));
+			boolean conflict = false;
+			try {
+				reference.insert(input, output);
+			}
+			catch (ConflictException ex) {
+				conflict = true;
+			}
+			try {
+				compact.insert(input, output);
+				Assert.assertFalse(conflict);
+			}
+			catch (ConflictException ex) {
+				Assert.assertTrue(conflict);
+			}
+		}
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testUnknownSymbol() {
+		CompactIncrementalMealyTreeBuilder<Character,String> builder =
+				new CompactIncrementalMealyTreeBuilder<>(Alphabets.fromArray('a', 'b'));
+		builder.insert(Word.fromString("ab"), Word.fromSymbols("x", "y"));
+		builder.lookup(Word.fromString("ac"));
+	}
+}
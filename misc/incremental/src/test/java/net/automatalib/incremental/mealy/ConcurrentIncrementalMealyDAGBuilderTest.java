@@ -0,0 +1,106 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.dag.ConcurrentIncrementalMealyDAGBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ConcurrentIncrementalMealyDAGBuilderTest extends AbstractIncrementalMealyBuilderTest {
+	
+	@Override
+	protected <I,O> IncrementalMealyBuilder<I,O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+		return new ConcurrentIncrementalMealyDAGBuilder<>(alphabet);
+	}
+	
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		final CompactMealy<Integer,Integer> target = RandomAutomata.randomMealy(new Random(42L), 20, alphabet,
+				Arrays.asList(0, 1, 2));
+		final ConcurrentIncrementalMealyDAGBuilder<Integer,Integer> builder
+			= new ConcurrentIncrementalMealyDAGBuilder<>(alphabet);
+		
+		int numThreads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<List<Word<Integer>>>> futures = new ArrayList<>();
+			for (int t = 0; t < numThreads; t++) {
+				final long seed = t;
+				futures.add(executor.submit(() -> {
+					Random rand = new Random(seed);
+					List<Word<Integer>> inserted = new ArrayList<>();
+					WordBuilder<Integer> wb = new WordBuilder<>();
+					for (int i = 0; i < 500; i++) {
+						int len = rand.nextInt(12);
+						for (int j = 0; j < len; j++) {
+							wb.append(rand.nextInt(alphabet.size()));
+						}
+						Word<Integer> word = wb.toWord();
+						wb.clear();
+						
+						builder.insert(word, target.computeOutput(word));
+						inserted.add(word);
+						
+						// everything inserted by this thread must be visible to it
+						Word<Integer> previous = inserted.get(rand.nextInt(inserted.size()));
+						List<Integer> output = new ArrayList<>();
+						Assert.assertTrue(builder.lookup(previous, output));
+						Assert.assertEquals(output, target.computeOutput(previous).asList());
+					}
+					return inserted;
+				}));
+			}
+			
+			for (Future<List<Word<Integer>>> future : futures) {
+				for (Word<Integer> word : future.get()) {
+					Assert.assertEquals(builder.lookup(word), target.computeOutput(word));
+				}
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		
+		Assert.assertNull(builder.findSeparatingWord(target, alphabet, true));
+	}
+	
+	@Test(expectedExceptions = ConflictException.class)
+	public void testConcurrentConflict() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+		ConcurrentIncrementalMealyDAGBuilder<Integer,Integer> builder = new ConcurrentIncrementalMealyDAGBuilder<>(alphabet);
+		builder.insert(Word.fromSymbols(0, 1, 0), Word.fromSymbols(1, 1, 1));
+		builder.insert(Word.fromSymbols(1, 1), Word.fromSymbols(1, 1));
+		builder.insert(Word.fromSymbols(0, 1, 1), Word.fromSymbols(1, 0, 0));
+	}
+}
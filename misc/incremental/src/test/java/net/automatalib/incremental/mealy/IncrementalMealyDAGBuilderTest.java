@@ -15,9 +15,21 @@
  */
 package net.automatalib.incremental.mealy;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 @Test
@@ -27,5 +39,116 @@ public class IncrementalMealyDAGBuilderTest extends AbstractIncrementalMealyBuil
 	protected <I,O> IncrementalMealyBuilder<I,O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
 		return new IncrementalMealyDAGBuilder<>(alphabet);
 	}
+	
+	@Test
+	public void testInsertAll() {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		Random random = new Random(42L);
+		
+		for (int round = 0; round < 20; round++) {
+			Map<Word<Integer>, Word<Integer>> batch = randomBatch(random, alphabet, 200);
+			IncrementalMealyDAGBuilder<Integer, Integer> bulk = new IncrementalMealyDAGBuilder<>(alphabet);
+			IncrementalMealyDAGBuilder<Integer, Integer> reference = new IncrementalMealyDAGBuilder<>(alphabet);
+			
+			bulk.insertAll(batch);
+			for (Map.Entry<Word<Integer>, Word<Integer>> entry : batch.entrySet()) {
+				reference.insert(entry.getKey(), entry.getValue());
+			}
+			assertSameContents(bulk, reference, alphabet, random);
+			
+			// incremental update of a non-empty builder
+			Map<Word<Integer>, Word<Integer>> update = randomBatch(random, alphabet, 50);
+			bulk.insertAll(update);
+			for (Map.Entry<Word<Integer>, Word<Integer>> entry : update.entrySet()) {
+				reference.insert(entry.getKey(), entry.getValue());
+			}
+			assertSameContents(bulk, reference, alphabet, random);
+		}
+	}
+	
+	@Test
+	public void testInsertAllConflict() {
+		Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+		IncrementalMealyDAGBuilder<Character, Character> builder = new IncrementalMealyDAGBuilder<>(alphabet);
+		
+		Map<Word<Character>, Word<Character>> batch = new HashMap<>();
+		batch.put(Word.fromString("ab"), Word.fromString("xy"));
+		batch.put(Word.fromString("bc"), Word.fromString("yz"));
+		batch.put(Word.fromString("abc"), Word.fromString("xzz"));
+		try {
+			builder.insertAll(batch);
+			Assert.fail("Expected conflict");
+		}
+		catch (ConflictException ex) {
+			// conflicts are detected before any modification
+			Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("b")));
+		}
+	}
+	
+	@Test
+	public void testInsertAllShortOutput() {
+		Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+		IncrementalMealyDAGBuilder<Character, Character> builder = new IncrementalMealyDAGBuilder<>(alphabet);
+		
+		Map<Word<Character>, Word<Character>> batch = new LinkedHashMap<>();
+		batch.put(Word.fromString("ab"), Word.fromString("xy"));
+		batch.put(Word.fromString("bc"), Word.fromString("y"));
+		for (int round = 0; round < 2; round++) {
+			try {
+				builder.insertAll(batch);
+				Assert.fail("Expected IllegalArgumentException");
+			}
+			catch (IllegalArgumentException ex) {
+				// the batch is validated before any modification
+				Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("ab")));
+			}
+			// the second round checks the incremental case of a non-empty builder
+			builder.insert(Word.fromString("c"), Word.fromString("z"));
+		}
+	}
+	
+	private static void assertSameContents(IncrementalMealyDAGBuilder<Integer, Integer> bulk,
+			IncrementalMealyDAGBuilder<Integer, Integer> reference, Alphabet<Integer> alphabet, Random random) {
+		// both builders maintain the minimal DAG
+		Assert.assertEquals(bulk.asGraph().size(), reference.asGraph().size());
+		for (int i = 0; i < 500; i++) {
+			Word<Integer> word = randomWord(random, alphabet);
+			List<Integer> bulkOut = new ArrayList<>();
+			List<Integer> refOut = new ArrayList<>();
+			Assert.assertEquals(bulk.lookup(word, bulkOut), reference.lookup(word, refOut));
+			Assert.assertEquals(bulkOut, refOut);
+		}
+	}
+	
+	private static Map<Word<Integer>, Word<Integer>> randomBatch(Random random, Alphabet<Integer> alphabet, int size) {
+		Map<Word<Integer>, Word<Integer>> batch = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			Word<Integer> word = randomWord(random, alphabet);
+			batch.put(word, output(word));
+		}
+		return batch;
+	}
+	
+	/**
+	 * A consistent output function: the output of each transition is the number of
+	 * occurrences of the current input symbol so far, modulo 2.
+	 */
+	private static Word<Integer> output(Word<Integer> word) {
+		int[] counts = new int[3];
+		WordBuilder<Integer> wb = new WordBuilder<>(word.length());
+		for (Integer sym : word) {
+			wb.add(++counts[sym] % 2);
+		}
+		return wb.toWord();
+	}
+	
+	private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet) {
+		int len = random.nextInt(8);
+		WordBuilder<Integer> wb = new WordBuilder<>(len);
+		for (int j = 0; j < len; j++) {
+			wb.add(alphabet.getSymbol(random.nextInt(alphabet.size())));
+		}
+		return wb.toWord();
+	}
 
 }
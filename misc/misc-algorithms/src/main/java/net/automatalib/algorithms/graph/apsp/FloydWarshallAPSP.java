@@ -16,21 +16,36 @@
 package net.automatalib.algorithms.graph.apsp;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import net.automatalib.algorithms.graph.GraphAlgorithms;
 import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.base.compact.CSRGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
 import net.automatalib.graphs.concepts.NodeIDs;
 
 /**
  * Implementation of the Floyd-Warshall dynamic programming algorithm for the
  * all pairs shortest paths problem.
+ * <p>
+ * Nodes are identified by their {@link Graph#nodeIDs() IDs}, and the distances and
+ * path information are stored in two primitive {@code n * n} matrices (a {@code float[]}
+ * and an {@code int[]}, in row-major order). For every pair of nodes, the path matrix either
+ * stores the intermediate node via which the shortest path leads, or the (index of the)
+ * edge if the shortest path consists of a single edge.
+ * <p>
+ * The matrices are processed in square tiles (blocked Floyd-Warshall): in each round, the
+ * diagonal tile is updated first, then the remaining tiles in its row and column, and finally
+ * all other tiles. Within each of the latter two phases, the tiles are independent of each
+ * other, and are processed in parallel in the common fork/join pool if the graph is large
+ * enough.
  * 
  * @author Malte Isberner
  *
@@ -40,28 +55,11 @@ import net.automatalib.graphs.concepts.NodeIDs;
 @ParametersAreNonnullByDefault
 public class FloydWarshallAPSP<N,E> implements APSPResult<N,E> {
 	
-	@ParametersAreNonnullByDefault
-	private static final class APSPRecord<N,E> {
-		@Nullable
-		public final E edge;
-		public float distance;
-		public int middle;
-		public int numEdges;
-		
-		public APSPRecord(E edge, float distance) {
-			this.edge = edge;
-			this.distance = distance;
-			this.middle = -1;
-			this.numEdges = 1;
-		}
-		
-		public APSPRecord(float distance, int middle, int numEdges) {
-			this.edge = null;
-			this.distance = distance;
-			this.middle = middle;
-		}
-	}
+	private static final int BLOCK_SIZE = 64;
+	private static final int PARALLEL_THRESHOLD = 4 * BLOCK_SIZE;
 	
+	private static final int NO_PATH = -1;
+	private static final int EDGE_OFFSET = -2;
 	
 	@Nonnull
 	public static <N,E> APSPResult<N,E> findAPSP(Graph<N,E> graph, EdgeWeights<E> edgeWeights) {
@@ -72,67 +70,143 @@ public class FloydWarshallAPSP<N,E> implements APSPResult<N,E> {
 	
 	private final int size;
 	@Nonnull
-	private final NodeIDs<N> ids;
+	private final Graph<N,E> graph;
 	@Nonnull
-	private final APSPRecord<N,E>[][] table;
+	private final NodeIDs<N> ids;
+	private final float[] dists;
+	/*
+	 * For each pair of nodes, either NO_PATH, the ID of the intermediate node,
+	 * or EDGE_OFFSET - idx if the shortest path is the edge with index idx
+	 */
+	private final int[] paths;
+	private final List<E> edges;
+	private final int[] csrOffsets;
 	
-	@SuppressWarnings("unchecked")
 	public FloydWarshallAPSP(Graph<N,E> graph, EdgeWeights<E> ew) {
 		this.size = graph.size();
+		this.graph = graph;
 		this.ids = graph.nodeIDs();
-		this.table = new APSPRecord[size][size];
+		long numPairs = (long)size * size;
+		if(numPairs > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Graph with " + size + " nodes is too large");
+		this.dists = new float[(int)numPairs];
+		Arrays.fill(dists, Float.POSITIVE_INFINITY);
+		this.paths = new int[(int)numPairs];
+		Arrays.fill(paths, NO_PATH);
+		for(int i = 0; i < size; i++)
+			dists[i * size + i] = 0.0f;
 		
-		initialize(graph, ew);
+		if(graph instanceof CSRGraph) {
+			CSRGraph csrGraph = (CSRGraph)graph;
+			this.edges = null;
+			this.csrOffsets = csrGraph.getOffsets();
+			initializeCSR(csrGraph, ew);
+		}
+		else {
+			this.edges = new ArrayList<>();
+			this.csrOffsets = null;
+			initialize(graph, ew);
+		}
 	}
 	
 	private void initialize(Graph<N,E> graph, EdgeWeights<E> ew) {
 		for(int i = 0; i < size; i++) {
 			N src = ids.getNode(i);
 			
-			Collection<? extends E> edges = graph.getOutgoingEdges(src);
-			
-			for(E edge : edges) {
-				N tgt = graph.getTarget(edge);
-				if(tgt.equals(src))
+			for(E edge : graph.getOutgoingEdges(src)) {
+				int j = ids.getNodeId(graph.getTarget(edge));
+				if(j == i)
 					continue;
 				
-				int j = ids.getNodeId(tgt);
 				float w = ew.getEdgeWeight(edge);
-				APSPRecord<N, E> prev = table[i][j];
-				if(prev == null || prev.distance > w)
-					table[i][j] = new APSPRecord<>(edge, w);
+				int idx = i * size + j;
+				if(w < dists[idx]) {
+					dists[idx] = w;
+					paths[idx] = EDGE_OFFSET - edges.size();
+					edges.add(edge);
+				}
 			}
 		}
 	}
-
-	public void findAPSP() {
+	
+	private void initializeCSR(CSRGraph csrGraph, EdgeWeights<E> ew) {
+		int[] offsets = csrGraph.getOffsets();
+		int[] targets = csrGraph.getTargets();
+		float[] weights = (ew == csrGraph) ? csrGraph.getWeights() : null;
+		
 		for(int i = 0; i < size; i++) {
-			for(int j = 0; j < size; j++) {
+			int start = offsets[i];
+			List<? extends E> outEdges = (weights == null) ? getCSROutgoingEdges(i) : null;
+			for(int e = start, end = offsets[i + 1]; e < end; e++) {
+				int j = targets[e];
 				if(j == i)
 					continue;
 				
-				APSPRecord<N,E> currRec = table[i][j];
-				
-				for(int k = 0; k < size; k++) {
-					if(k == i || k == j)
-						continue;
-					
-					APSPRecord<N,E> part1 = table[i][k], part2 = table[k][j];
-					
-					if(part1 == null || part2 == null)
-						continue;
-					
-					float dist1 = part1.distance, dist2 = part2.distance;
-					float total = dist1 + dist2;
-					
-					if(currRec == null) {
-						currRec = new APSPRecord<>(total, k, part1.numEdges + part2.numEdges);
-						table[i][j] = currRec;
-					}
-					else if(currRec.distance > total) {
-						currRec.distance = total;
-						currRec.middle = k;
-						currRec.numEdges = part1.numEdges + part2.numEdges;
+				float w = (weights != null) ? weights[e] : ew.getEdgeWeight(outEdges.get(e - start));
+				int idx = i * size + j;
+				if(w < dists[idx]) {
+					dists[idx] = w;
+					paths[idx] = EDGE_OFFSET - e;
+				}
+			}
+		}
+	}
+
+	public void findAPSP() {
+		int numBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		boolean parallel = (size >= PARALLEL_THRESHOLD);
+		
+		for(int kb = 0; kb < numBlocks; kb++) {
+			final int k = kb;
+			// phase 1: diagonal tile
+			updateTile(k, k, k);
+			
+			// phase 2: tiles in the same row or column as the diagonal tile
+			IntStream phase2 = IntStream.range(0, 2 * numBlocks);
+			if(parallel)
+				phase2 = phase2.parallel();
+			phase2.forEach(t -> {
+				int b = t >> 1;
+				if(b == k)
+					return;
+				if((t & 1) == 0)
+					updateTile(k, b, k);
+				else
+					updateTile(b, k, k);
+			});
+			
+			// phase 3: all remaining tiles
+			IntStream phase3 = IntStream.range(0, numBlocks * numBlocks);
+			if(parallel)
+				phase3 = phase3.parallel();
+			phase3.forEach(t -> {
+				int ib = t / numBlocks, jb = t % numBlocks;
+				if(ib != k && jb != k)
+					updateTile(ib, jb, k);
+			});
+		}
+	}
+	
+	/**
+	 * Relaxes all paths in tile {@code (ib, jb)} using the intermediate nodes of block {@code kb}.
+	 */
+	private void updateTile(int ib, int jb, int kb) {
+		int iLow = ib * BLOCK_SIZE, iHigh = Math.min(iLow + BLOCK_SIZE, size);
+		int jLow = jb * BLOCK_SIZE, jHigh = Math.min(jLow + BLOCK_SIZE, size);
+		int kLow = kb * BLOCK_SIZE, kHigh = Math.min(kLow + BLOCK_SIZE, size);
+		
+		for(int k = kLow; k < kHigh; k++) {
+			int kRow = k * size;
+			for(int i = iLow; i < iHigh; i++) {
+				int iRow = i * size;
+				float distIK = dists[iRow + k];
+				if(distIK == Float.POSITIVE_INFINITY)
+					continue;
+				for(int j = jLow; j < jHigh; j++) {
+					float total = distIK + dists[kRow + j];
+					if(total < dists[iRow + j]) {
+						dists[iRow + j] = total;
+						paths[iRow + j] = k;
 					}
 				}
 			}
@@ -141,39 +215,67 @@ public class FloydWarshallAPSP<N,E> implements APSPResult<N,E> {
 	
 	@Override
 	public float getShortestPathDistance(N src, N tgt) {
-		int srcId = ids.getNodeId(src), tgtId = ids.getNodeId(tgt);
+		int idx = ids.getNodeId(src) * size + ids.getNodeId(tgt);
 		
-		APSPRecord<N, E> rec = table[srcId][tgtId];
-		if(rec == null)
+		float dist = dists[idx];
+		if(dist == Float.POSITIVE_INFINITY)
 			return GraphAlgorithms.INVALID_DISTANCE;
 		
-		return rec.distance;
+		return dist;
 	}
 
 	@Override
 	public List<E> getShortestPath(N src, N tgt) {
 		int srcId = ids.getNodeId(src), tgtId = ids.getNodeId(tgt);
 		
-		APSPRecord<N,E> rec = table[srcId][tgtId];
-		
-		if(rec == null)
+		if(srcId == tgtId)
+			return Collections.emptyList();
+		if(paths[srcId * size + tgtId] == NO_PATH)
 			return null;
 		
-		List<E> result = new ArrayList<>(rec.numEdges);
+		List<E> result = new ArrayList<>();
 		
-		buildPath(result, srcId, tgtId, rec);
+		// iterative in-order expansion of the (src, tgt) pair
+		int[] stack = new int[16];
+		int sp = 0;
+		int i = srcId, j = tgtId;
+		while(true) {
+			int path = paths[i * size + j];
+			if(path >= 0) {
+				if(sp + 2 > stack.length)
+					stack = Arrays.copyOf(stack, stack.length * 2);
+				// remember the second half, continue with the first
+				stack[sp++] = path;
+				stack[sp++] = j;
+				j = path;
+				continue;
+			}
+			
+			result.add(getEdge(i, EDGE_OFFSET - path));
+			if(sp == 0)
+				break;
+			j = stack[--sp];
+			i = stack[--sp];
+		}
 		
 		return result;
 	}
 	
-	private void buildPath(List<E> path, int srcId, int tgtId, APSPRecord<N,E> rec) {
-		if(rec.middle == -1) {
-			path.add(rec.edge);
-			return;
-		}
-		
-		int middle = rec.middle;
-		buildPath(path, srcId, middle, table[srcId][middle]);
-		buildPath(path, middle, tgtId, table[middle][tgtId]);
+	/**
+	 * Retrieves the outgoing edges of a node of the {@link CSRGraph} through the generic {@link Graph} view,
+	 * such that they are of the edge type {@code E}. The {@code k}-th element of the returned list is the edge
+	 * with index {@code offsets[nodeId] + k}.
+	 */
+	private List<? extends E> getCSROutgoingEdges(int nodeId) {
+		Collection<? extends E> outEdges = graph.getOutgoingEdges(ids.getNode(nodeId));
+		if(outEdges instanceof List)
+			return (List<? extends E>)outEdges;
+		return new ArrayList<>(outEdges);
+	}
+	
+	private E getEdge(int srcId, int edgeIdx) {
+		if(edges == null)
+			return getCSROutgoingEdges(srcId).get(edgeIdx - csrOffsets[srcId]);
+		return edges.get(edgeIdx);
 	}
 }
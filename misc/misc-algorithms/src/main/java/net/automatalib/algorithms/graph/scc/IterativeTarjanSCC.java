@@ -0,0 +1,168 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.algorithms.graph.scc;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.automatalib.graphs.base.compact.CSRGraph;
+
+/**
+ * Iterative, int-indexed implementation of Tarjan's algorithm for finding strongly-connected
+ * components.
+ * <p>
+ * The graph is given in {@link CSRGraph CSR representation}. All per-node data is stored in
+ * {@code int} arrays, and the depth-first search uses explicit {@code int} stacks (nodes and
+ * edge positions) instead of recursion or per-node record objects.
+ * <p>
+ * The search can be restricted to a subset of nodes, identified by a common <i>partition label</i>.
+ * This allows {@link ParallelSCC} to use this class for processing small partitions. Since
+ * different partitions consist of disjoint node sets, a single instance may be used concurrently
+ * for different partitions.
+ * 
+ * @author agent
+ */
+final class IterativeTarjanSCC {
+	
+	static final int UNASSIGNED = -1;
+	
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] index;
+	private final int[] lowLink;
+	private final int[] components;
+	private final AtomicInteger numComponents;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param graph the graph
+	 * @param components the component ID array, in which every node must initially be mapped to
+	 * {@link #UNASSIGNED}
+	 * @param numComponents the counter from which component IDs are drawn
+	 */
+	public IterativeTarjanSCC(CSRGraph graph, int[] components, AtomicInteger numComponents) {
+		this.offsets = graph.getOffsets();
+		this.targets = graph.getTargets();
+		int size = graph.size();
+		this.index = new int[size];
+		Arrays.fill(index, -1);
+		this.lowLink = new int[size];
+		this.components = components;
+		this.numComponents = numComponents;
+	}
+	
+	/**
+	 * Computes the strongly-connected components of the given graph.
+	 * <p>
+	 * Component IDs are assigned in the order in which the components are found, which is a reverse
+	 * topological order of the component graph.
+	 * 
+	 * @param graph the graph
+	 * @return an array mapping each node to the ID of its component
+	 */
+	public static int[] computeComponents(CSRGraph graph) {
+		int size = graph.size();
+		int[] components = new int[size];
+		Arrays.fill(components, UNASSIGNED);
+		IterativeTarjanSCC tarjan = new IterativeTarjanSCC(graph, components, new AtomicInteger());
+		
+		int[] sccStack = new int[size];
+		int[] callStack = new int[size];
+		int[] edgeStack = new int[size];
+		int counter = 0;
+		for (int n = 0; n < size; n++) {
+			if (tarjan.index[n] < 0) {
+				counter = tarjan.search(n, null, 0, counter, sccStack, callStack, edgeStack);
+			}
+		}
+		return components;
+	}
+	
+	/**
+	 * Computes the strongly-connected components of the subgraph induced by the given nodes. All
+	 * of these nodes must be labeled with the given partition label.
+	 * 
+	 * @param nodes the nodes of the subgraph
+	 * @param partition the partition labels of all nodes
+	 * @param label the partition label of the subgraph
+	 */
+	public void computeComponents(int[] nodes, int[] partition, int label) {
+		int num = nodes.length;
+		int[] sccStack = new int[num];
+		int[] callStack = new int[num];
+		int[] edgeStack = new int[num];
+		int counter = 0;
+		for (int n : nodes) {
+			if (index[n] < 0) {
+				counter = search(n, partition, label, counter, sccStack, callStack, edgeStack);
+			}
+		}
+	}
+	
+	private int search(int root, int[] partition, int label, int counter,
+			int[] sccStack, int[] callStack, int[] edgeStack) {
+		int sp = 0, csp = 0;
+		
+		index[root] = lowLink[root] = counter++;
+		sccStack[sp++] = root;
+		callStack[csp] = root;
+		edgeStack[csp++] = offsets[root];
+		
+		while (csp > 0) {
+			int v = callStack[csp - 1];
+			int e = edgeStack[csp - 1];
+			
+			if (e < offsets[v + 1]) {
+				edgeStack[csp - 1] = e + 1;
+				int w = targets[e];
+				if (partition != null && partition[w] != label) {
+					continue;
+				}
+				if (index[w] < 0) {
+					index[w] = lowLink[w] = counter++;
+					sccStack[sp++] = w;
+					callStack[csp] = w;
+					edgeStack[csp++] = offsets[w];
+				}
+				else if (components[w] == UNASSIGNED && index[w] < lowLink[v]) {
+					// w is on the SCC stack
+					lowLink[v] = index[w];
+				}
+				continue;
+			}
+			
+			csp--;
+			if (lowLink[v] == index[v]) {
+				int id = numComponents.getAndIncrement();
+				int w;
+				do {
+					w = sccStack[--sp];
+					components[w] = id;
+				} while (w != v);
+			}
+			if (csp > 0) {
+				int u = callStack[csp - 1];
+				if (lowLink[v] < lowLink[u]) {
+					lowLink[u] = lowLink[v];
+				}
+			}
+		}
+		
+		return counter;
+	}
+
+}
@@ -0,0 +1,258 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.algorithms.graph.scc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.automatalib.graphs.base.compact.CSRGraph;
+
+/**
+ * Parallel computation of strongly-connected components using the <i>forward-backward</i>
+ * algorithm, executed in the {@link ForkJoinPool#commonPool() common fork/join pool}.
+ * <p>
+ * Every node carries a partition label, and every partition is processed by a separate task. A task
+ * first <i>trims</i> its partition, i.e., repeatedly removes nodes without incoming or outgoing edges
+ * inside the partition, each of which forms a trivial SCC on its own. It then picks a pivot node and
+ * computes the set {@code F} of nodes reachable from the pivot and the set {@code B} of nodes
+ * from which the pivot is reachable (both restricted to the partition). {@code F} &cap; {@code B} is the
+ * SCC of the pivot, and every other SCC is completely contained in one of {@code F \ B}, {@code B \ F},
+ * or the remainder of the partition. These three partitions are then processed in parallel.
+ * <p>
+ * Partitions smaller than a threshold are handed to {@link IterativeTarjanSCC}. Since tasks operate on
+ * disjoint sets of nodes, and labels are never reused, all per-node data can be stored in shared
+ * arrays without synchronization.
+ * 
+ * @author agent
+ */
+final class ParallelSCC {
+	
+	private static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+	
+	private static final int DONE = -1;
+	
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] revOffsets;
+	private final int[] revTargets;
+	
+	private final int[] partition;
+	private final int[] inDegrees;
+	private final int[] outDegrees;
+	private final int[] components;
+	private final AtomicInteger numComponents = new AtomicInteger();
+	private final AtomicInteger nextLabel = new AtomicInteger(1);
+	private final IterativeTarjanSCC tarjan;
+	
+	private ParallelSCC(CSRGraph graph) {
+		int size = graph.size();
+		this.offsets = graph.getOffsets();
+		this.targets = graph.getTargets();
+		CSRGraph reverse = graph.transpose();
+		this.revOffsets = reverse.getOffsets();
+		this.revTargets = reverse.getTargets();
+		this.partition = new int[size];
+		this.inDegrees = new int[size];
+		this.outDegrees = new int[size];
+		this.components = new int[size];
+		Arrays.fill(components, IterativeTarjanSCC.UNASSIGNED);
+		this.tarjan = new IterativeTarjanSCC(graph, components, numComponents);
+	}
+	
+	/**
+	 * Computes the strongly-connected components of the given graph in parallel.
+	 * <p>
+	 * Component IDs are contiguous, but their order is unspecified.
+	 * 
+	 * @param graph the graph
+	 * @return an array mapping each node to the ID of its component
+	 */
+	public static int[] computeComponents(CSRGraph graph) {
+		if (graph.size() < SEQUENTIAL_THRESHOLD) {
+			return IterativeTarjanSCC.computeComponents(graph);
+		}
+		
+		ParallelSCC scc = new ParallelSCC(graph);
+		int[] nodes = new int[graph.size()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = i;
+		}
+		scc.new PartitionTask(nodes, 0).invoke();
+		return scc.components;
+	}
+	
+	private final class PartitionTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final int[] nodes;
+		private final int label;
+		
+		public PartitionTask(int[] nodes, int label) {
+			this.nodes = nodes;
+			this.label = label;
+		}
+		
+		@Override
+		protected void compute() {
+			int[] remaining = trim(nodes, label);
+			if (remaining.length == 0) {
+				return;
+			}
+			if (remaining.length < SEQUENTIAL_THRESHOLD) {
+				tarjan.computeComponents(remaining, partition, label);
+				return;
+			}
+			
+			int fwdLabel = nextLabel.getAndIncrement();
+			int bwdLabel = nextLabel.getAndIncrement();
+			int pivot = remaining[0];
+			int[] queue = new int[remaining.length];
+			
+			// forward reachability: relabel to fwdLabel
+			partition[pivot] = fwdLabel;
+			queue[0] = pivot;
+			for (int head = 0, tail = 1; head < tail;) {
+				int v = queue[head++];
+				for (int e = offsets[v], end = offsets[v + 1]; e < end; e++) {
+					int w = targets[e];
+					if (partition[w] == label) {
+						partition[w] = fwdLabel;
+						queue[tail++] = w;
+					}
+				}
+			}
+			
+			// backward reachability: forward-reachable nodes form the SCC of the pivot,
+			// all others are relabeled to bwdLabel
+			int id = numComponents.getAndIncrement();
+			partition[pivot] = DONE;
+			components[pivot] = id;
+			queue[0] = pivot;
+			for (int head = 0, tail = 1; head < tail;) {
+				int v = queue[head++];
+				for (int e = revOffsets[v], end = revOffsets[v + 1]; e < end; e++) {
+					int w = revTargets[e];
+					int p = partition[w];
+					if (p == fwdLabel) {
+						partition[w] = DONE;
+						components[w] = id;
+						queue[tail++] = w;
+					}
+					else if (p == label) {
+						partition[w] = bwdLabel;
+						queue[tail++] = w;
+					}
+				}
+			}
+			
+			List<PartitionTask> subtasks = new ArrayList<>(3);
+			addSubtask(subtasks, remaining, label);
+			addSubtask(subtasks, remaining, fwdLabel);
+			addSubtask(subtasks, remaining, bwdLabel);
+			invokeAll(subtasks);
+		}
+	}
+	
+	private void addSubtask(List<PartitionTask> subtasks, int[] nodes, int label) {
+		int count = 0;
+		for (int v : nodes) {
+			if (partition[v] == label) {
+				count++;
+			}
+		}
+		if (count == 0) {
+			return;
+		}
+		int[] subNodes = new int[count];
+		int i = 0;
+		for (int v : nodes) {
+			if (partition[v] == label) {
+				subNodes[i++] = v;
+			}
+		}
+		subtasks.add(new PartitionTask(subNodes, label));
+	}
+	
+	/**
+	 * Repeatedly removes all nodes without incoming or without outgoing edges inside the given
+	 * partition, assigning each of them its own component.
+	 * 
+	 * @return the nodes remaining in the partition
+	 */
+	private int[] trim(int[] nodes, int label) {
+		int[] queue = new int[nodes.length];
+		int tail = 0;
+		
+		for (int v : nodes) {
+			int in = 0, out = 0;
+			for (int e = offsets[v], end = offsets[v + 1]; e < end; e++) {
+				if (partition[targets[e]] == label) {
+					out++;
+				}
+			}
+			for (int e = revOffsets[v], end = revOffsets[v + 1]; e < end; e++) {
+				if (partition[revTargets[e]] == label) {
+					in++;
+				}
+			}
+			inDegrees[v] = in;
+			outDegrees[v] = out;
+		}
+		
+		for (int v : nodes) {
+			if (inDegrees[v] == 0 || outDegrees[v] == 0) {
+				partition[v] = DONE;
+				queue[tail++] = v;
+			}
+		}
+		
+		for (int head = 0; head < tail;) {
+			int v = queue[head++];
+			components[v] = numComponents.getAndIncrement();
+			for (int e = offsets[v], end = offsets[v + 1]; e < end; e++) {
+				int w = targets[e];
+				if (partition[w] == label && --inDegrees[w] == 0) {
+					partition[w] = DONE;
+					queue[tail++] = w;
+				}
+			}
+			for (int e = revOffsets[v], end = revOffsets[v + 1]; e < end; e++) {
+				int w = revTargets[e];
+				if (partition[w] == label && --outDegrees[w] == 0) {
+					partition[w] = DONE;
+					queue[tail++] = w;
+				}
+			}
+		}
+		
+		if (tail == 0) {
+			return nodes;
+		}
+		int[] remaining = new int[nodes.length - tail];
+		int i = 0;
+		for (int v : nodes) {
+			if (partition[v] == label) {
+				remaining[i++] = v;
+			}
+		}
+		return remaining;
+	}
+
+}
@@ -16,13 +16,15 @@
  */
 package net.automatalib.algorithms.graph.scc;
 
+import java.util.AbstractList;
 import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import net.automatalib.graphs.Graph;
-import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.graphs.base.compact.CSRGraph;
+import net.automatalib.graphs.concepts.NodeIDs;
 
 /**
  * Algorithms for finding strongly-connected components (SCCs) in a graph.
@@ -40,21 +42,115 @@ public abstract class SCCs {
 	 * found, the {@link SCCListener#foundSCC(java.util.Collection)} method is
 	 * invoked. The listener object may hence not be null.
 	 * <p>
-	 * Tarjan's algorithm is used for realizing the SCC search.
+	 * Tarjan's algorithm is used for realizing the SCC search. The SCCs are
+	 * reported in the order in which they are found, which is a reverse
+	 * topological order. The collection passed to the listener is only valid
+	 * during the invocation.
 	 * 
 	 * @param graph
 	 *            the graph
 	 * @param listener
 	 *            the SCC listener
 	 * 
-	 * @see TarjanSCCVisitor
+	 * @see #findSCCIds(Graph)
 	 */
 	public static <N, E> void findSCCs(Graph<N, E> graph,
 			SCCListener<N> listener) {
-		TarjanSCCVisitor<N, E> vis = new TarjanSCCVisitor<>(graph, listener);
-		for (N node : graph) {
-			if (!vis.hasVisited(node))
-				GraphTraversal.depthFirst(graph, node, vis);
+		reportSCCs(graph.nodeIDs(), findSCCIds(graph), listener);
+	}
+
+	/**
+	 * Computes the strongly-connected components of a graph, identifying
+	 * nodes by their {@link Graph#nodeIDs() IDs}.
+	 * <p>
+	 * An iterative, int-indexed variant of Tarjan's algorithm is used, which
+	 * operates on a {@link CSRGraph CSR representation} of the graph (unless
+	 * the graph already is a {@link CSRGraph}, a temporary one is created).
+	 * Component IDs are assigned in the order in which the components are
+	 * found, which is a reverse topological order of the component graph.
+	 * 
+	 * @param graph
+	 *            the graph
+	 * @return an array mapping each node ID to the ID of its component. The
+	 *         component IDs are {@code 0} to {@code k - 1}, where {@code k}
+	 *         is the number of SCCs
+	 */
+	@Nonnull
+	public static <N, E> int[] findSCCIds(Graph<N, E> graph) {
+		return IterativeTarjanSCC.computeComponents(toCSR(graph));
+	}
+
+	/**
+	 * Computes the strongly-connected components of a graph in parallel,
+	 * identifying nodes by their {@link Graph#nodeIDs() IDs}.
+	 * <p>
+	 * The forward-backward algorithm is used, executed in the common
+	 * fork/join pool. Small graphs are processed sequentially, as in
+	 * {@link #findSCCIds(Graph)}.
+	 * 
+	 * @param graph
+	 *            the graph
+	 * @return an array mapping each node ID to the ID of its component. The
+	 *         component IDs are {@code 0} to {@code k - 1}, where {@code k}
+	 *         is the number of SCCs, but their order is unspecified
+	 */
+	@Nonnull
+	public static <N, E> int[] findSCCIdsParallel(Graph<N, E> graph) {
+		return ParallelSCC.computeComponents(toCSR(graph));
+	}
+
+	/**
+	 * Determines the number of SCCs from the result of
+	 * {@link #findSCCIds(Graph)} or {@link #findSCCIdsParallel(Graph)}.
+	 * 
+	 * @param sccIds
+	 *            the component IDs
+	 * @return the number of SCCs
+	 */
+	public static int countSCCs(int[] sccIds) {
+		int max = -1;
+		for (int id : sccIds) {
+			if (id > max)
+				max = id;
+		}
+		return max + 1;
+	}
+
+	private static CSRGraph toCSR(Graph<?, ?> graph) {
+		if (graph instanceof CSRGraph)
+			return (CSRGraph) graph;
+		return CSRGraph.fromGraph(graph);
+	}
+
+	private static <N> void reportSCCs(NodeIDs<N> nodeIds, int[] sccIds,
+			SCCListener<N> listener) {
+		int numSCCs = countSCCs(sccIds);
+		int[] offsets = new int[numSCCs + 1];
+		for (int id : sccIds) {
+			offsets[id + 1]++;
+		}
+		for (int i = 0; i < numSCCs; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+		int[] members = new int[sccIds.length];
+		int[] pos = offsets.clone();
+		for (int n = 0; n < sccIds.length; n++) {
+			members[pos[sccIds[n]]++] = n;
+		}
+
+		for (int i = 0; i < numSCCs; i++) {
+			final int low = offsets[i], size = offsets[i + 1] - low;
+			listener.foundSCC(new AbstractList<N>() {
+				@Override
+				public N get(int index) {
+					return nodeIds.getNode(members[low + index]);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			});
 		}
 	}
 
@@ -68,7 +164,7 @@ public abstract class SCCs {
 	 *            the graph
 	 * @return a list of all SCCs, each represented as a list of its nodes
 	 * 
-	 * @see TarjanSCCVisitor
+	 * @see #findSCCs(Graph, SCCListener)
 	 */
 	@Nonnull
 	public static <N, E> List<List<N>> collectSCCs(Graph<N, E> graph) {
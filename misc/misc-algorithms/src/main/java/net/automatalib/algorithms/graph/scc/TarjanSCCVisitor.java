@@ -86,6 +86,8 @@ public class TarjanSCCVisitor<N, E> implements
 	@Override
 	public boolean startExploration(N node, TarjanSCCRecord data) {
 		records.put(node, data);
+		currentScc.add(data);
+		currentSccNodes.add(node);
 		return true;
 	}
 
@@ -98,15 +100,19 @@ public class TarjanSCCVisitor<N, E> implements
 	 */
 	@Override
 	public void finishExploration(N node, TarjanSCCRecord data) {
-		currentScc.add(data);
-		currentSccNodes.add(node);
 		if (data.lowLink == data.number) {
-			for (TarjanSCCRecord tr : currentScc) {
+			// the SCC consists of all nodes above (and including) this node on the stack
+			int start = currentScc.size();
+			TarjanSCCRecord tr;
+			do {
+				tr = currentScc.get(--start);
 				tr.lowLink = NODE_FINISHED;
-			}
-			listener.foundSCC(currentSccNodes);
-			currentScc.clear();
-			currentSccNodes.clear();
+			} while (tr != data);
+			List<TarjanSCCRecord> sccRecords = currentScc.subList(start, currentScc.size());
+			List<N> sccNodes = currentSccNodes.subList(start, currentSccNodes.size());
+			listener.foundSCC(sccNodes);
+			sccRecords.clear();
+			sccNodes.clear();
 		}
 	}
 
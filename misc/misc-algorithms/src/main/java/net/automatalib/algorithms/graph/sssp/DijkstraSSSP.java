@@ -16,25 +16,33 @@
 package net.automatalib.algorithms.graph.sssp;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import net.automatalib.algorithms.graph.GraphAlgorithms;
-import net.automatalib.commons.smartcollections.BinaryHeap;
-import net.automatalib.commons.smartcollections.ElementReference;
-import net.automatalib.commons.smartcollections.SmartDynamicPriorityQueue;
-import net.automatalib.commons.util.mappings.MutableMapping;
+import net.automatalib.commons.smartcollections.IntFloatBinaryHeap;
 import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.base.compact.CSRGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
 
 
 /**
  * Implementation of Dijkstras algorithm for the single-source shortest path
  * problem.
+ * <p>
+ * Nodes are identified by their {@link Graph#nodeIDs() IDs}, such that all per-node data (distance,
+ * predecessor, reaching edge) is stored in arrays, and the priority queue is an {@link IntFloatBinaryHeap}
+ * operating on node IDs. No objects are allocated per node.
+ * <p>
+ * If the graph is a {@link CSRGraph}, edges are scanned using index-based loops over its
+ * offset and target arrays, and reaching edges are stored as edge indices. If additionally the
+ * graph itself is passed as the edge weights, weights are read directly from its weight array.
  * 
  * @author Malte Isberner
  *
@@ -44,42 +52,8 @@ import net.automatalib.graphs.concepts.EdgeWeights;
 @ParametersAreNonnullByDefault
 public class DijkstraSSSP<N,E> implements SSSPResult<N,E> {
 	
-	/*
-	 * Internal data record
-	 */
-	@ParametersAreNonnullByDefault
-	private static final class Record<N,E> implements Comparable<Record<N,E>> {
-		@Nonnull
-		public final N node;
-		public float dist;
-		@Nullable
-		public ElementReference ref;
-		@Nullable
-		public E reach;
-		@Nullable
-		public Record<N,E> parent;
-		int depth;
-		
-		
-		public Record(N node, float dist) {
-			this(node, dist, null, null);
-		}
-		
-		public Record(N node, float dist, @Nullable E reach, @Nullable Record<N,E> parent) {
-			this.node = node;
-			this.dist = dist;
-			this.reach = reach;
-			this.parent = parent;
-			this.depth = (parent != null) ? parent.depth + 1 : 0;
-		}
-
-		@Override
-		public int compareTo(Record<N, E> o) {
-			if(dist < o.dist)
-				return -1;
-			return (dist == o.dist) ? 0 : 1;
-		}
-	}
+	private static final int NO_PREDECESSOR = -1;
+	private static final int UNREACHED = -2;
 	
 	/**
 	 * Search for the shortest paths from a single source node in a graph.
@@ -99,7 +73,15 @@ public class DijkstraSSSP<N,E> implements SSSPResult<N,E> {
 	private final Graph<N,E> graph;
 	private final N init;
 	private final EdgeWeights<E> edgeWeights;
-	private final MutableMapping<N,Record<N,E>> records;
+	private final NodeIDs<N> nodeIds;
+	
+	private final float[] dists;
+	private final int[] preds;
+	private final int[] depths;
+	private final Object[] reachEdges;
+	
+	private final CSRGraph csrGraph;
+	private final int[] reachEdgeIds;
 	
 	/**
 	 * Constructor.
@@ -111,7 +93,22 @@ public class DijkstraSSSP<N,E> implements SSSPResult<N,E> {
 		this.graph = graph;
 		this.init = init;
 		this.edgeWeights = edgeWeights;
-		this.records = graph.createStaticNodeMapping();
+		this.nodeIds = graph.nodeIDs();
+		int size = graph.size();
+		this.dists = new float[size];
+		this.preds = new int[size];
+		Arrays.fill(preds, UNREACHED);
+		this.depths = new int[size];
+		if(graph instanceof CSRGraph) {
+			this.csrGraph = (CSRGraph)graph;
+			this.reachEdges = null;
+			this.reachEdgeIds = new int[size];
+		}
+		else {
+			this.csrGraph = null;
+			this.reachEdges = new Object[size];
+			this.reachEdgeIds = null;
+		}
 	}
 	
 	
@@ -119,57 +116,105 @@ public class DijkstraSSSP<N,E> implements SSSPResult<N,E> {
 	 * Start the search. This method may only be invoked once.
 	 */
 	public void findSSSP() {
-		Record<N,E> initRec = new Record<>(init, 0.0f);
-		if(records.put(init, initRec) != null)
+		int initId = nodeIds.getNodeId(init);
+		if(preds[initId] != UNREACHED)
 			throw new IllegalStateException("Search has already been performed!");
 		
-		SmartDynamicPriorityQueue<Record<N,E>> pq = BinaryHeap.create(graph.size());
-		initRec.ref = pq.referencedAdd(initRec);
+		preds[initId] = NO_PREDECESSOR;
+		dists[initId] = 0.0f;
+		
+		IntFloatBinaryHeap pq = new IntFloatBinaryHeap(dists.length);
+		pq.insert(initId, 0.0f);
+		
+		if(csrGraph != null) {
+			findSSSPCSR(pq);
+			return;
+		}
 		
 		while(!pq.isEmpty()) {
 			// Remove node with minimum distance
-			Record<N,E> rec = pq.extractMin();
-			float dist = rec.dist;
+			int nodeId = pq.extractMin();
+			float dist = dists[nodeId];
 			
-			N node = rec.node;
+			N node = nodeIds.getNode(nodeId);
 			
 			// edge scanning
 			for(E edge : graph.getOutgoingEdges(node)) {
 				float w = edgeWeights.getEdgeWeight(edge);
 				float newDist = dist + w;
 				
-				N tgt = graph.getTarget(edge);
-				Record<N,E> tgtRec = records.get(tgt);
-				if(tgtRec == null) {
-					// node has not been visited before, add a record
-					// and add it to the queue
-					tgtRec = new Record<>(tgt, newDist, edge, rec);
-					tgtRec.ref = pq.referencedAdd(tgtRec);
-					records.put(tgt, tgtRec);
+				int tgtId = nodeIds.getNodeId(graph.getTarget(edge));
+				if(preds[tgtId] == UNREACHED || newDist < dists[tgtId]) {
+					// node has not been visited before, or using currently considered
+					// edge decreases current distance
+					dists[tgtId] = newDist;
+					preds[tgtId] = nodeId;
+					depths[tgtId] = depths[nodeId] + 1;
+					reachEdges[tgtId] = edge;
+					pq.insertOrDecreaseKey(tgtId, newDist);
 				}
-				else if(newDist < tgtRec.dist) {
-					// using currently considered edge decreases current distance
-					tgtRec.dist = newDist;
-					tgtRec.reach = edge;
-					tgtRec.depth = rec.depth + 1;
-					tgtRec.parent = rec;
-					// update it's position in the queue
-					pq.keyChanged(tgtRec.ref);
+			}
+		}
+	}
+	
+	private void findSSSPCSR(IntFloatBinaryHeap pq) {
+		int[] offsets = csrGraph.getOffsets();
+		int[] targets = csrGraph.getTargets();
+		float[] weights = (edgeWeights == csrGraph) ? csrGraph.getWeights() : null;
+		
+		while(!pq.isEmpty()) {
+			int nodeId = pq.extractMin();
+			float dist = dists[nodeId];
+			
+			int start = offsets[nodeId];
+			List<? extends E> outEdges = (weights == null) ? getCSROutgoingEdges(nodeId) : null;
+			for(int e = start, end = offsets[nodeId + 1]; e < end; e++) {
+				float w = (weights != null) ? weights[e] : edgeWeights.getEdgeWeight(outEdges.get(e - start));
+				float newDist = dist + w;
+				
+				int tgtId = targets[e];
+				if(preds[tgtId] == UNREACHED || newDist < dists[tgtId]) {
+					dists[tgtId] = newDist;
+					preds[tgtId] = nodeId;
+					depths[tgtId] = depths[nodeId] + 1;
+					reachEdgeIds[tgtId] = e;
+					pq.insertOrDecreaseKey(tgtId, newDist);
 				}
 			}
 		}
 	}
 	
+	/**
+	 * Retrieves the outgoing edges of a node of the {@link CSRGraph} through the generic {@link Graph} view,
+	 * such that they are of the edge type {@code E}. The {@code k}-th element of the returned list is the edge
+	 * with index {@code offsets[nodeId] + k}.
+	 */
+	private List<? extends E> getCSROutgoingEdges(int nodeId) {
+		Collection<? extends E> outEdges = graph.getOutgoingEdges(nodeIds.getNode(nodeId));
+		if(outEdges instanceof List)
+			return (List<? extends E>)outEdges;
+		return new ArrayList<>(outEdges);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private E getReachEdge(int id) {
+		if(reachEdgeIds != null) {
+			int pred = preds[id];
+			return getCSROutgoingEdges(pred).get(reachEdgeIds[id] - csrGraph.getOffsets()[pred]);
+		}
+		return (E)reachEdges[id];
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see net.automatalib.algorithms.graph.sssp.SSSPResult#getShortestPathDistance(java.lang.Object)
 	 */
 	@Override
 	public float getShortestPathDistance(N target) {
-		Record<N,E> rec = records.get(target);
-		if(rec == null)
+		int id = nodeIds.getNodeId(target);
+		if(preds[id] == UNREACHED)
 			return GraphAlgorithms.INVALID_DISTANCE;
-		return rec.dist;
+		return dists[id];
 	}
 	
 	/*
@@ -178,19 +223,18 @@ public class DijkstraSSSP<N,E> implements SSSPResult<N,E> {
 	 */
 	@Override
 	public List<E> getShortestPath(N target) {
-		Record<N,E> rec = records.get(target);
-		if(rec == null)
+		int id = nodeIds.getNodeId(target);
+		if(preds[id] == UNREACHED)
 			return null;
 		
-		if(rec.depth == 0)
+		if(depths[id] == 0)
 			return Collections.emptyList();
 		
-		List<E> result = new ArrayList<>(rec.depth);
+		List<E> result = new ArrayList<>(depths[id]);
 		
-		E edge;
-		while((edge = rec.reach) != null) {
-			result.add(edge);
-			rec = rec.parent;
+		while(preds[id] != NO_PREDECESSOR) {
+			result.add(getReachEdge(id));
+			id = preds[id];
 		}
 		
 		Collections.reverse(result);
@@ -212,9 +256,9 @@ public class DijkstraSSSP<N,E> implements SSSPResult<N,E> {
 	 */
 	@Override
 	public E getShortestPathEdge(N target) {
-		Record<N,E> rec = records.get(target);
-		if(rec == null)
+		int id = nodeIds.getNodeId(target);
+		if(preds[id] == UNREACHED)
 			return null;
-		return rec.reach;
+		return getReachEdge(id);
 	}
 }
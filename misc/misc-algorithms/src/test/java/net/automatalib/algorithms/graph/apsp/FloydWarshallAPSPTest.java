@@ -17,8 +17,12 @@ package net.automatalib.algorithms.graph.apsp;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import net.automatalib.algorithms.graph.GraphAlgorithms;
+import net.automatalib.algorithms.graph.sssp.DijkstraSSSP;
+import net.automatalib.algorithms.graph.sssp.SSSPResult;
+import net.automatalib.graphs.base.compact.CSRGraph;
 import net.automatalib.graphs.base.compact.CompactEdge;
 import net.automatalib.graphs.base.compact.CompactSimpleGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
@@ -106,6 +110,40 @@ public class FloydWarshallAPSPTest {
 		assertSPNodes(apsp, n4, n3, n4, n1, n3);
 	}
 	
+	@Test
+	public void testBlockedAgainstDijkstra() {
+		// spans several tiles, including a partial one
+		int size = 300;
+		Random r = new Random(42);
+		CSRGraph.Builder builder = new CSRGraph.Builder(size);
+		for(int i = 0; i < 3 * size; i++)
+			builder.addEdge(r.nextInt(size), r.nextInt(size), 1.0f + r.nextInt(100));
+		CSRGraph csr = builder.build();
+		
+		APSPResult<Integer, Integer> apsp = FloydWarshallAPSP.findAPSP(csr, csr);
+		
+		for(int src = 0; src < size; src++) {
+			SSSPResult<Integer, Integer> sssp = DijkstraSSSP.findSSSP(csr, src, csr);
+			for(int tgt = 0; tgt < size; tgt++) {
+				float expected = sssp.getShortestPathDistance(tgt);
+				float actual = apsp.getShortestPathDistance(src, tgt);
+				Assert.assertEquals(actual, expected, 1e-3f);
+				
+				List<Integer> path = apsp.getShortestPath(src, tgt);
+				if(expected == GraphAlgorithms.INVALID_DISTANCE) {
+					Assert.assertNull(path);
+					continue;
+				}
+				List<Integer> nodes = GraphAlgorithms.toNodeList(path, csr, src);
+				Assert.assertEquals(nodes.get(nodes.size() - 1), Integer.valueOf(tgt));
+				float pathWeight = 0.0f;
+				for(Integer e : path)
+					pathWeight += csr.getEdgeWeight(e);
+				Assert.assertEquals(pathWeight, expected, 1e-3f);
+			}
+		}
+	}
+	
 	private static <N> void assertSPDist(APSPResult<N, ?> res, N src, N tgt, float dist) {
 		Assert.assertEquals(res.getShortestPathDistance(src, tgt), dist);
 	}
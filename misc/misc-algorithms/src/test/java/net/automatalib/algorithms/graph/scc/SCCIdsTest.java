@@ -0,0 +1,147 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.algorithms.graph.scc;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+import net.automatalib.graphs.base.compact.CSRGraph;
+import net.automatalib.graphs.base.compact.CompactSimpleGraph;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class SCCIdsTest {
+
+	@Test
+	public void testSequential() {
+		CSRGraph graph = randomGraph(new Random(42), 300, 1.2);
+		int[] expected = bruteForceSCCIds(graph);
+		assertSamePartition(SCCs.findSCCIds(graph), expected);
+		assertSamePartition(visitorSCCIds(graph), expected);
+	}
+	
+	@Test
+	public void testParallel() {
+		Random r = new Random(4711);
+		// sparse (many trivial SCCs) and dense (a giant SCC plus small ones)
+		for (double degree : new double[]{ 0.9, 1.1, 3.0 }) {
+			CSRGraph graph = randomGraph(r, 50000, degree);
+			int[] expected = SCCs.findSCCIds(graph);
+			int[] actual = SCCs.findSCCIdsParallel(graph);
+			assertSamePartition(actual, expected);
+			Assert.assertEquals(SCCs.countSCCs(actual), SCCs.countSCCs(expected));
+		}
+	}
+	
+	@Test
+	public void testGenericGraph() {
+		CompactSimpleGraph<Void> graph = new CompactSimpleGraph<>();
+		int n0 = graph.addIntNode(), n1 = graph.addIntNode(), n2 = graph.addIntNode();
+		graph.connect(n0, n1);
+		graph.connect(n1, n0);
+		graph.connect(n1, n2);
+		
+		int[] ids = SCCs.findSCCIds(graph);
+		Assert.assertEquals(SCCs.countSCCs(ids), 2);
+		Assert.assertEquals(ids[n0], ids[n1]);
+		// reverse topological order
+		Assert.assertEquals(ids[n2], 0);
+	}
+	
+	private static CSRGraph randomGraph(Random r, int size, double avgDegree) {
+		int numEdges = (int)(size * avgDegree);
+		CSRGraph.Builder builder = new CSRGraph.Builder(size, numEdges);
+		for (int i = 0; i < numEdges; i++) {
+			builder.addEdge(r.nextInt(size), r.nextInt(size));
+		}
+		return builder.build();
+	}
+	
+	private static int[] bruteForceSCCIds(CSRGraph graph) {
+		int size = graph.size();
+		boolean[][] reach = new boolean[size][];
+		for (int n = 0; n < size; n++) {
+			boolean[] r = new boolean[size];
+			Deque<Integer> stack = new ArrayDeque<>();
+			r[n] = true;
+			stack.push(n);
+			while (!stack.isEmpty()) {
+				for (Integer e : graph.getOutgoingEdges(stack.pop())) {
+					int t = graph.getIntTarget(e);
+					if (!r[t]) {
+						r[t] = true;
+						stack.push(t);
+					}
+				}
+			}
+			reach[n] = r;
+		}
+		
+		int[] ids = new int[size];
+		Arrays.fill(ids, -1);
+		int counter = 0;
+		for (int n = 0; n < size; n++) {
+			if (ids[n] < 0) {
+				for (int m = n; m < size; m++) {
+					if (reach[n][m] && reach[m][n]) {
+						ids[m] = counter;
+					}
+				}
+				counter++;
+			}
+		}
+		return ids;
+	}
+	
+	private static int[] visitorSCCIds(CSRGraph graph) {
+		int[] ids = new int[graph.size()];
+		int[] counter = { 0 };
+		TarjanSCCVisitor<Integer, Integer> vis = new TarjanSCCVisitor<>(graph, scc -> {
+			for (Integer n : scc) {
+				ids[n] = counter[0];
+			}
+			counter[0]++;
+		});
+		for (Integer n : graph) {
+			if (!vis.hasVisited(n)) {
+				GraphTraversal.depthFirst(graph, n, vis);
+			}
+		}
+		return ids;
+	}
+	
+	private static void assertSamePartition(int[] actual, int[] expected) {
+		Assert.assertEquals(actual.length, expected.length);
+		int numSCCs = SCCs.countSCCs(expected);
+		int[] mapping = new int[numSCCs];
+		Arrays.fill(mapping, -1);
+		boolean[] used = new boolean[SCCs.countSCCs(actual)];
+		for (int n = 0; n < actual.length; n++) {
+			int exp = expected[n], act = actual[n];
+			if (mapping[exp] < 0) {
+				Assert.assertFalse(used[act], "Component " + act + " spans several SCCs");
+				mapping[exp] = act;
+				used[act] = true;
+			}
+			Assert.assertEquals(act, mapping[exp]);
+		}
+	}
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import net.automatalib.algorithms.graph.GraphAlgorithms;
 import net.automatalib.algorithms.graph.sssp.DijkstraSSSP;
 import net.automatalib.algorithms.graph.sssp.SSSPResult;
+import net.automatalib.graphs.base.compact.CSRGraph;
 import net.automatalib.graphs.base.compact.CompactEdge;
 import net.automatalib.graphs.base.compact.CompactSimpleGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
@@ -78,6 +79,28 @@ public class DijkstraSSSPTest {
 		assertSPDist(sssp, n5, GraphAlgorithms.INVALID_DISTANCE);
 	}
 	
+	@Test
+	public void testSSSPCSR() {
+		CSRGraph csr = CSRGraph.fromGraph(graph, weights);
+		SSSPResult<Integer, CompactEdge<Float>> expected = DijkstraSSSP.findSSSP(graph, n0, weights);
+		
+		// weights stored in the graph, and weights provided externally
+		EdgeWeights<Integer> externalWeights = csr::getEdgeWeight;
+		for(EdgeWeights<Integer> ew : Arrays.asList(csr, externalWeights)) {
+			DijkstraSSSP<Integer, Integer> sssp = new DijkstraSSSP<>(csr, n0, ew);
+			sssp.findSSSP();
+			
+			for(Integer n : graph.getNodes()) {
+				Assert.assertEquals(sssp.getShortestPathDistance(n), expected.getShortestPathDistance(n));
+				List<Integer> expNodes = (expected.getShortestPath(n) == null) ? null
+						: GraphAlgorithms.toNodeList(expected.getShortestPath(n), graph, n0);
+				List<Integer> nodes = (sssp.getShortestPath(n) == null) ? null
+						: GraphAlgorithms.toNodeList(sssp.getShortestPath(n), csr, n0);
+				Assert.assertEquals(nodes, expNodes);
+			}
+		}
+	}
+	
 	private static <N> void assertSPDist(SSSPResult<N, ?> res, N tgt, float dist) {
 		Assert.assertEquals(res.getShortestPathDistance(tgt), dist);
 	}
@@ -0,0 +1,224 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.serialization.saf;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A {@link DataInput} (and {@link InputStream}) reading from a {@link ByteBuffer}, e.g., a memory-mapped file.
+ * <p>
+ * In addition to the methods of the {@link DataInput} interface, this class allows reading {@code int}s in bulk
+ * (see {@link #readInts(int[], int, int)}), bypassing any per-element overhead.
+ * 
+ * @author agent
+ */
+final class ByteBufferDataInput extends InputStream implements DataInput {
+	
+	private final ByteBuffer buffer;
+	// int view of the buffer, and the position in the buffer that corresponds to the start of the view
+	private IntBuffer intView;
+	private int intViewBase;
+	
+	public ByteBufferDataInput(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+	}
+	
+	/**
+	 * Reads {@code len} {@code int}s in bulk.
+	 * 
+	 * @param dst the array to store the {@code int}s in
+	 * @param ofs the offset in the {@code dst} array
+	 * @param len the number of {@code int}s to read
+	 * @throws EOFException if the buffer contains less than {@code len} {@code int}s
+	 */
+	public void readInts(int[] dst, int ofs, int len) throws EOFException {
+		ensureRemaining(4L * len);
+		int pos = buffer.position();
+		// the view can only be reused if the current position is int-aligned relative to its start
+		if (intView == null || ((pos - intViewBase) & 3) != 0) {
+			intView = buffer.asIntBuffer();
+			intViewBase = pos;
+		}
+		intView.position((pos - intViewBase) >> 2);
+		intView.get(dst, ofs, len);
+		buffer.position(pos + 4 * len);
+	}
+	
+	private void ensureRemaining(long numBytes) throws EOFException {
+		if (buffer.remaining() < numBytes) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public int read() {
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+		return buffer.get() & 0xff;
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		int remaining = buffer.remaining();
+		if (remaining == 0) {
+			return -1;
+		}
+		int n = Math.min(len, remaining);
+		buffer.get(b, off, n);
+		return n;
+	}
+	
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+
+	@Override
+	public void readFully(byte[] b) throws IOException {
+		readFully(b, 0, b.length);
+	}
+
+	@Override
+	public void readFully(byte[] b, int off, int len) throws IOException {
+		ensureRemaining(len);
+		buffer.get(b, off, len);
+	}
+
+	@Override
+	public int skipBytes(int n) {
+		int skipped = Math.min(n, buffer.remaining());
+		buffer.position(buffer.position() + skipped);
+		return skipped;
+	}
+
+	@Override
+	public boolean readBoolean() throws IOException {
+		return readByte() != 0;
+	}
+
+	@Override
+	public byte readByte() throws IOException {
+		try {
+			return buffer.get();
+		}
+		catch (BufferUnderflowException ex) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public int readUnsignedByte() throws IOException {
+		return readByte() & 0xff;
+	}
+
+	@Override
+	public short readShort() throws IOException {
+		try {
+			return buffer.getShort();
+		}
+		catch (BufferUnderflowException ex) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public int readUnsignedShort() throws IOException {
+		return readShort() & 0xffff;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		try {
+			return buffer.getChar();
+		}
+		catch (BufferUnderflowException ex) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public int readInt() throws IOException {
+		try {
+			return buffer.getInt();
+		}
+		catch (BufferUnderflowException ex) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public long readLong() throws IOException {
+		try {
+			return buffer.getLong();
+		}
+		catch (BufferUnderflowException ex) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public float readFloat() throws IOException {
+		return Float.intBitsToFloat(readInt());
+	}
+
+	@Override
+	public double readDouble() throws IOException {
+		return Double.longBitsToDouble(readLong());
+	}
+
+	/**
+	 * Reads a line of text, as specified by {@link DataInput#readLine()}. Like
+	 * {@link DataInputStream#readLine()}, this method does not properly convert bytes to characters.
+	 */
+	@Override
+	public String readLine() {
+		if (!buffer.hasRemaining()) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder();
+		while (buffer.hasRemaining()) {
+			int c = buffer.get() & 0xff;
+			if (c == '\n') {
+				break;
+			}
+			if (c == '\r') {
+				if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+					buffer.get();
+				}
+				break;
+			}
+			sb.append((char) c);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String readUTF() throws IOException {
+		return DataInputStream.readUTF(this);
+	}
+}
@@ -24,13 +24,19 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import net.automatalib.automata.AutomatonCreator;
 import net.automatalib.automata.MutableAutomaton;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.serialization.AutomatonSerializationException;
 import net.automatalib.serialization.saf.SAFSerialization.AutomatonType;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
@@ -39,12 +45,22 @@ class SAFInput {
 	
 	private static final AutomatonType[] types = SAFSerialization.AutomatonType.values();
 	
-	private final DataInput in;
+	private static final int BUFFER_SIZE = 65536;
+	
+	private DataInput in;
+	private Inflater inflater;
+	private byte[] byteBuffer;
+	private IntBuffer byteBufferView;
+	private int[] intBuffer;
 	
 	public SAFInput(DataInput in) {
 		this.in = in;
 	}
 	
+	public SAFInput(ByteBuffer buffer) {
+		this((DataInput) new ByteBufferDataInput(buffer));
+	}
+	
 	public SAFInput(InputStream is) {
 		this((DataInput)new DataInputStream(is));
 	}
@@ -64,13 +80,110 @@ class SAFInput {
 		if (header[0] != 'S' || header[1] != 'A' || header[2] != 'F') {
 			throw new RuntimeException();
 		}
-		byte type = header[3];
+		int type = (header[3] & 0xff) & ~SAFSerialization.COMPRESSED_FLAG;
 		if (type < 0 || type >= types.length) {
 			throw new RuntimeException();
 		}
+		if ((header[3] & SAFSerialization.COMPRESSED_FLAG) != 0) {
+			startDecompression();
+		}
 		return types[type];
 	}
 	
+	/**
+	 * Switches to reading the remainder of the input (i.e., everything after the header) from a DEFLATE
+	 * compressed stream.
+	 */
+	private void startDecompression() {
+		if (!(in instanceof InputStream)) {
+			throw new AutomatonSerializationException("Compressed SAF data can only be read from an InputStream");
+		}
+		this.inflater = new Inflater();
+		this.in = new DataInputStream(new InflaterInputStream((InputStream) in, inflater, BUFFER_SIZE));
+	}
+	
+	private void finish() {
+		if (inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+	}
+	
+	/**
+	 * Reads {@code len} {@code int}s in bulk. Unlike repeated calls to {@link DataInput#readInt()}, this
+	 * reads the data in large blocks, and converts it via an {@link IntBuffer} view.
+	 */
+	private void readInts(int[] dst, int ofs, int len) throws IOException {
+		if (in instanceof ByteBufferDataInput) {
+			((ByteBufferDataInput) in).readInts(dst, ofs, len);
+			return;
+		}
+		if (byteBuffer == null) {
+			byteBuffer = new byte[BUFFER_SIZE];
+			byteBufferView = ByteBuffer.wrap(byteBuffer).asIntBuffer();
+		}
+		IntBuffer ib = byteBufferView;
+		while (len > 0) {
+			int n = Math.min(len, ib.capacity());
+			in.readFully(byteBuffer, 0, n * 4);
+			ib.clear();
+			ib.get(dst, ofs, n);
+			ofs += n;
+			len -= n;
+		}
+	}
+	
+	private int[] intBuffer(int minSize) {
+		if (intBuffer == null || intBuffer.length < minSize) {
+			intBuffer = new int[Math.max(minSize, BUFFER_SIZE / 4)];
+		}
+		return intBuffer;
+	}
+	
+	private static void checkStateId(int id, int numStates) {
+		if (id < -1 || id >= numStates) {
+			throw new AutomatonSerializationException("Invalid state ID " + id + " for automaton with "
+					+ numStates + " states");
+		}
+	}
+	
+	/**
+	 * Reads a size or count field, which must not be negative.
+	 * 
+	 * @param what the description of the field, for the error message
+	 * @return the value of the field
+	 * @throws IOException if the field could not be read, or is negative
+	 */
+	private int readCount(String what) throws IOException {
+		int count = in.readInt();
+		if (count < 0) {
+			throw new IOException("Invalid SAF data: negative " + what + " (" + count + ")");
+		}
+		return count;
+	}
+	
+	private Alphabet<Integer> readNativeAlphabet() throws IOException {
+		int alphabetSize = readCount("alphabet size");
+		if (alphabetSize == 0) {
+			throw new IOException("Invalid SAF data: empty alphabet");
+		}
+		return Alphabets.integers(0, alphabetSize - 1);
+	}
+	
+	private BitSet readAcceptance(int numStates) throws IOException {
+		// the acceptance block always consists of at least one int
+		int numInts = Math.max(1, (numStates + 31) / 32);
+		int[] accData = intBuffer(numInts);
+		readInts(accData, 0, numInts);
+		BitSet acceptance = new BitSet(numStates);
+		for (int i = 0; i < numStates; i++) {
+			if ((accData[i >>> 5] & (1 << (i & 31))) != 0) {
+				acceptance.set(i);
+			}
+		}
+		return acceptance;
+	}
+	
 	private <S,I,TP> void decodeTransitionsDet(
 			MutableAutomaton<S, I, ?, ?, TP> result,
 			List<S> stateList,
@@ -106,7 +219,7 @@ class SAFInput {
 		
 		for (S state : stateList) {
 			for (int j = 0; j < numInputs; j++) {
-				int numTgts = in.readInt();
+				int numTgts = readCount("number of transitions");
 				I sym = alphabet.getSymbol(j);
 				for (int k = 0; k < numTgts; k++) {
 					int tgt = in.readInt();
@@ -154,7 +267,7 @@ class SAFInput {
 			MutableAutomaton<S,?,?,SP,?> result,
 			int numStates,
 			BlockPropertyDecoder<? extends SP> decoder) throws IOException {
-		int[] initStates = readInts(in);
+		int[] initStates = readInitialStates();
 		
 		List<S> stateList = decodeStateProperties(result, numStates, decoder);
 		
@@ -192,8 +305,8 @@ class SAFInput {
 		return stateList;
 	}
 	
-	private static int[] readInts(DataInput in) throws IOException {
-		int n = in.readInt();
+	private int[] readInitialStates() throws IOException {
+		int n = readCount("number of initial states");
 		int[] result = new int[n];
 		for (int i = 0; i < n; i++) {
 			result[i] = in.readInt();
@@ -207,7 +320,7 @@ class SAFInput {
 			AutomatonCreator<? extends A, I> creator,
 			BlockPropertyDecoder<? extends SP> spDecoder,
 			SinglePropertyDecoder<? extends TP> tpDecoder) throws IOException {
-		int numStates = in.readInt();
+		int numStates = readCount("number of states");
 		A result = creator.createAutomaton(alphabet, numStates);
 		
 		// this cast is required ..
@@ -228,15 +341,20 @@ class SAFInput {
 			AutomatonCreator<? extends A, I> creator,
 			BlockPropertyDecoder<? extends SP> spDecoder,
 			SinglePropertyDecoder<? extends TP> tpDecoder) throws IOException {
-		AutomatonType type = readHeader();
-		if (type != expectedType) {
-			throw new RuntimeException();
+		try {
+			AutomatonType type = readHeader();
+			if (type != expectedType) {
+				throw new RuntimeException();
+			}
+			int alphabetSize = in.readInt();
+			if (alphabetSize != alphabet.size()) {
+				throw new RuntimeException();
+			}
+			return readAutomatonBody(alphabet, type.isDeterministic(), creator, spDecoder, tpDecoder);
 		}
-		int alphabetSize = in.readInt();
-		if (alphabetSize != alphabet.size()) {
-			throw new RuntimeException();
+		finally {
+			finish();
 		}
-		return readAutomatonBody(alphabet, type.isDeterministic(), creator, spDecoder, tpDecoder);
 	}
 	
 	public <SP,TP,A extends MutableAutomaton<?, Integer, ?, SP, TP>> A readNativeAutomaton(
@@ -244,16 +362,17 @@ class SAFInput {
 			AutomatonCreator<? extends A, Integer> creator,
 			BlockPropertyDecoder<? extends SP> spDecoder,
 			SinglePropertyDecoder<? extends TP> tpDecoder) throws IOException {
-		AutomatonType type = readHeader();
-		if (type != expectedType) {
-			throw new RuntimeException();
+		try {
+			AutomatonType type = readHeader();
+			if (type != expectedType) {
+				throw new RuntimeException();
+			}
+			Alphabet<Integer> alphabet = readNativeAlphabet();
+			return readAutomatonBody(alphabet, type.isDeterministic(), creator, spDecoder, tpDecoder);
 		}
-		int alphabetSize = in.readInt();
-		if (alphabetSize <= 0) {
-			throw new RuntimeException();
+		finally {
+			finish();
 		}
-		Alphabet<Integer> alphabet = Alphabets.integers(0, alphabetSize - 1);
-		return readAutomatonBody(alphabet, type.isDeterministic(), creator, spDecoder, tpDecoder);
 	}
 	
 	public <I> CompactDFA<I> readDFA(Alphabet<I> alphabet) throws IOException {
@@ -266,11 +385,42 @@ class SAFInput {
 	}
 	
 	public CompactDFA<Integer> readNativeDFA() throws IOException {
-		return readNativeAutomaton(
-				AutomatonType.DFA,
-				new CompactDFA.Creator<>(),
-				new AcceptanceDecoder(),
-				in -> null);
+		try {
+			AutomatonType type = readHeader();
+			if (type != AutomatonType.DFA) {
+				throw new RuntimeException();
+			}
+			Alphabet<Integer> alphabet = readNativeAlphabet();
+			int numInputs = alphabet.size();
+			int numStates = readCount("number of states");
+			int init = in.readInt();
+			checkStateId(init, numStates);
+			
+			CompactDFA<Integer> result = new CompactDFA<>(alphabet, numStates);
+			BitSet acceptance = readAcceptance(numStates);
+			for (int i = 0; i < numStates; i++) {
+				result.addIntState(acceptance.get(i));
+			}
+			result.setInitialState(init);
+			
+			// read the transition table in blocks of whole states
+			int statesPerBlock = Math.max(1, (BUFFER_SIZE / 4) / numInputs);
+			int[] succData = intBuffer(statesPerBlock * numInputs);
+			for (int low = 0; low < numStates; low += statesPerBlock) {
+				int high = Math.min(low + statesPerBlock, numStates);
+				int len = (high - low) * numInputs;
+				readInts(succData, 0, len);
+				for (int i = 0; i < len; i++) {
+					checkStateId(succData[i], numStates);
+				}
+				result.setTransitions(low, high, succData, 0);
+			}
+			
+			return result;
+		}
+		finally {
+			finish();
+		}
 	}
 	
 	public <I> CompactNFA<I> readNFA(Alphabet<I> alphabet) throws IOException {
@@ -283,10 +433,47 @@ class SAFInput {
 	}
 	
 	public CompactNFA<Integer> readNativeNFA() throws IOException {
-		return readNativeAutomaton(
-				AutomatonType.NFA,
-				new CompactNFA.Creator<>(),
-				new AcceptanceDecoder(),
-				in -> null);
+		try {
+			AutomatonType type = readHeader();
+			if (type != AutomatonType.NFA) {
+				throw new RuntimeException();
+			}
+			Alphabet<Integer> alphabet = readNativeAlphabet();
+			int numInputs = alphabet.size();
+			int numStates = readCount("number of states");
+			int numInit = readCount("number of initial states");
+			int[] initStates = new int[numInit];
+			readInts(initStates, 0, numInit);
+			
+			CompactNFA<Integer> result = new CompactNFA<>(alphabet, numStates);
+			BitSet acceptance = readAcceptance(numStates);
+			for (int i = 0; i < numStates; i++) {
+				result.addIntState(acceptance.get(i));
+			}
+			for (int init : initStates) {
+				checkStateId(init, numStates);
+				result.setInitial(init, true);
+			}
+			
+			for (int i = 0; i < numStates; i++) {
+				for (int j = 0; j < numInputs; j++) {
+					int numTgts = readCount("number of transitions");
+					if (numTgts > 0) {
+						int[] tgts = intBuffer(numTgts);
+						readInts(tgts, 0, numTgts);
+						for (int k = 0; k < numTgts; k++) {
+							int tgt = tgts[k];
+							checkStateId(tgt, numStates);
+							result.addTransition(i, j, tgt);
+						}
+					}
+				}
+			}
+			
+			return result;
+		}
+		finally {
+			finish();
+		}
 	}
 }
@@ -0,0 +1,194 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.serialization.saf;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Collection;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.base.compact.AbstractCompactSimpleDet;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.commons.util.IOUtil;
+import net.automatalib.serialization.saf.SAFSerialization.AutomatonType;
+import net.automatalib.words.Alphabet;
+
+/**
+ * Writes automata in the SAF format.
+ * <p>
+ * {@code int} data is buffered and written in large blocks. If the automaton to write is a compact automaton
+ * (e.g., a {@link net.automatalib.automata.fsa.impl.compact.CompactDFA}) over the given alphabet, its transition
+ * table is transferred directly.
+ * <p>
+ * If compression is requested, everything following the header is compressed using the DEFLATE algorithm,
+ * and the {@link SAFSerialization#COMPRESSED_FLAG} is set in the type byte of the header.
+ * 
+ * @author agent
+ */
+class SAFOutput {
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	private final OutputStream os;
+	private DataOutput out;
+	private OutputStream dataStream;
+	private Deflater deflater;
+	
+	private final byte[] byteBuffer = new byte[BUFFER_SIZE];
+	private final IntBuffer intView = ByteBuffer.wrap(byteBuffer).asIntBuffer();
+	private final int[] intBuffer = new int[BUFFER_SIZE / 4];
+	private int intBufferPos;
+	
+	public SAFOutput(OutputStream os) {
+		this.os = IOUtil.asBufferedOutputStream(os);
+	}
+	
+	private void writeHeader(AutomatonType type, boolean compressed) throws IOException {
+		int typeByte = type.ordinal();
+		if (compressed) {
+			typeByte |= SAFSerialization.COMPRESSED_FLAG;
+		}
+		os.write(new byte[]{'S', 'A', 'F', (byte) typeByte});
+		if (compressed) {
+			this.deflater = new Deflater();
+			this.dataStream = new DeflaterOutputStream(os, deflater, BUFFER_SIZE);
+		}
+		else {
+			this.dataStream = os;
+		}
+		this.out = new DataOutputStream(dataStream);
+	}
+	
+	private void finish() throws IOException {
+		flushInts();
+		if (deflater != null) {
+			((DeflaterOutputStream) dataStream).finish();
+			deflater.end();
+			deflater = null;
+		}
+		os.flush();
+	}
+	
+	private void writeInt(int value) throws IOException {
+		if (intBufferPos == intBuffer.length) {
+			flushInts();
+		}
+		intBuffer[intBufferPos++] = value;
+	}
+	
+	private void flushInts() throws IOException {
+		if (intBufferPos > 0) {
+			writeInts(intBuffer, 0, intBufferPos);
+			intBufferPos = 0;
+		}
+	}
+	
+	private void writeInts(int[] src, int ofs, int len) throws IOException {
+		while (len > 0) {
+			int n = Math.min(len, intView.capacity());
+			intView.clear();
+			intView.put(src, ofs, n);
+			out.write(byteBuffer, 0, n * 4);
+			ofs += n;
+			len -= n;
+		}
+	}
+	
+	public <S,I> void writeDFA(DFA<S,I> dfa, Alphabet<I> alphabet, boolean compressed) throws IOException {
+		UniversalDeterministicAutomaton.FullIntAbstraction<?,Boolean,?> abs = dfa.fullIntAbstraction(alphabet);
+		int numStates = abs.size();
+		int numInputs = abs.numInputs();
+		
+		writeHeader(AutomatonType.DFA, compressed);
+		writeInt(numInputs);
+		writeInt(numStates);
+		writeInt(abs.getIntInitialState());
+		
+		AcceptanceEncoder accEncoder = new AcceptanceEncoder();
+		flushInts();
+		accEncoder.start(out);
+		for (int i = 0; i < numStates; i++) {
+			accEncoder.encodeProperty(out, abs.getStateProperty(i));
+		}
+		accEncoder.finish(out);
+		
+		if (abs instanceof AbstractCompactSimpleDet) {
+			AbstractCompactSimpleDet<?,?> compact = (AbstractCompactSimpleDet<?,?>) abs;
+			int statesPerBlock = Math.max(1, intBuffer.length / numInputs);
+			int[] succData = (statesPerBlock * numInputs <= intBuffer.length)
+					? intBuffer : new int[numInputs];
+			for (int low = 0; low < numStates; low += statesPerBlock) {
+				int high = Math.min(low + statesPerBlock, numStates);
+				compact.copyTransitions(low, high, succData, 0);
+				writeInts(succData, 0, (high - low) * numInputs);
+			}
+		}
+		else {
+			for (int i = 0; i < numStates; i++) {
+				for (int j = 0; j < numInputs; j++) {
+					writeInt(abs.getSuccessor(i, j));
+				}
+			}
+		}
+		
+		finish();
+	}
+	
+	public <S,I> void writeNFA(NFA<S,I> nfa, Alphabet<I> alphabet, boolean compressed) throws IOException {
+		StateIDs<S> stateIds = nfa.stateIDs();
+		int numStates = nfa.size();
+		
+		writeHeader(AutomatonType.NFA, compressed);
+		writeInt(alphabet.size());
+		writeInt(numStates);
+		
+		Set<? extends S> initStates = nfa.getInitialStates();
+		writeInt(initStates.size());
+		for (S init : initStates) {
+			writeInt(stateIds.getStateId(init));
+		}
+		
+		AcceptanceEncoder accEncoder = new AcceptanceEncoder();
+		flushInts();
+		accEncoder.start(out);
+		for (int i = 0; i < numStates; i++) {
+			accEncoder.encodeProperty(out, nfa.isAccepting(stateIds.getState(i)));
+		}
+		accEncoder.finish(out);
+		
+		for (int i = 0; i < numStates; i++) {
+			S state = stateIds.getState(i);
+			for (I sym : alphabet) {
+				Collection<? extends S> succs = nfa.getSuccessors(state, sym);
+				writeInt(succs.size());
+				for (S succ : succs) {
+					writeInt(stateIds.getStateId(succ));
+				}
+			}
+		}
+		
+		finish();
+	}
+}
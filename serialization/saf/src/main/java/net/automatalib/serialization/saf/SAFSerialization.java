@@ -14,9 +14,15 @@
  * limitations under the License.
  */
 package net.automatalib.serialization.saf;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
 
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.NFA;
@@ -44,6 +50,12 @@ public class SAFSerialization implements SerializationProvider {
 		}
 	}
 	
+	/**
+	 * Flag in the type byte of the header, indicating that everything following the header is
+	 * compressed using the DEFLATE algorithm.
+	 */
+	static final int COMPRESSED_FLAG = 0x80;
+	
 	private static final SAFSerialization INSTANCE = new SAFSerialization();
 	
 	public static SAFSerialization getInstance() {
@@ -62,10 +74,38 @@ public class SAFSerialization implements SerializationProvider {
 		return in.readNativeDFA();
 	}
 
+	/**
+	 * Reads a DFA from the given file. Unless the file is GZip-compressed, it is memory-mapped, and the
+	 * transition table is transferred in bulk.
+	 */
+	@Override
+	public CompactDFA<Integer> readGenericDFA(File f) throws IOException {
+		ByteBuffer buf = mapUncompressed(f);
+		if (buf == null) {
+			return SerializationProvider.super.readGenericDFA(f);
+		}
+		return new SAFInput(buf).readNativeDFA();
+	}
+
 	@Override
 	public <I> void writeDFA(DFA<?, I> dfa, Alphabet<I> alphabet,
 			OutputStream os) throws IOException {
-		throw new UnsupportedOperationException();
+		writeDFA(dfa, alphabet, os, false);
+	}
+	
+	/**
+	 * Writes a DFA in the SAF format, optionally compressing everything following the header. Note that
+	 * compressed SAF files cannot be read by versions of AutomataLib prior to 0.6.1.
+	 * 
+	 * @param dfa the DFA to write
+	 * @param alphabet the input alphabet
+	 * @param os the output stream to write to
+	 * @param compressed whether or not to compress the data
+	 * @throws IOException if writing to the output stream fails
+	 */
+	public <I> void writeDFA(DFA<?, I> dfa, Alphabet<I> alphabet,
+			OutputStream os, boolean compressed) throws IOException {
+		new SAFOutput(os).writeDFA(dfa, alphabet, compressed);
 	}
 
 	@Override
@@ -76,10 +116,60 @@ public class SAFSerialization implements SerializationProvider {
 		return in.readNativeNFA();
 	}
 
+	/**
+	 * Reads an NFA from the given file. Unless the file is GZip-compressed, it is memory-mapped.
+	 */
+	@Override
+	public CompactNFA<Integer> readGenericNFA(File f) throws IOException {
+		ByteBuffer buf = mapUncompressed(f);
+		if (buf == null) {
+			return SerializationProvider.super.readGenericNFA(f);
+		}
+		return new SAFInput(buf).readNativeNFA();
+	}
+
 	@Override
 	public <I> void writeNFA(NFA<?, I> nfa, Alphabet<I> alphabet,
 			OutputStream os) throws IOException {
-		throw new UnsupportedOperationException();
+		writeNFA(nfa, alphabet, os, false);
+	}
+	
+	/**
+	 * Writes an NFA in the SAF format, optionally compressing everything following the header. Note that
+	 * compressed SAF files cannot be read by versions of AutomataLib prior to 0.6.1.
+	 * 
+	 * @param nfa the NFA to write
+	 * @param alphabet the input alphabet
+	 * @param os the output stream to write to
+	 * @param compressed whether or not to compress the data
+	 * @throws IOException if writing to the output stream fails
+	 */
+	public <I> void writeNFA(NFA<?, I> nfa, Alphabet<I> alphabet,
+			OutputStream os, boolean compressed) throws IOException {
+		new SAFOutput(os).writeNFA(nfa, alphabet, compressed);
+	}
+	
+	/**
+	 * Maps the given file into memory, unless it is GZip-compressed or too large to be mapped
+	 * into a single buffer.
+	 * 
+	 * @param f the file to map
+	 * @return the buffer containing the file's contents, or {@code null} if the file was not mapped
+	 * @throws IOException if accessing the file fails
+	 */
+	private static ByteBuffer mapUncompressed(File f) throws IOException {
+		try (FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+			long size = fc.size();
+			if (size > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer magicBuf = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN);
+			fc.read(magicBuf, 0L);
+			if (magicBuf.position() == 2 && (magicBuf.getShort(0) & 0xffff) == GZIPInputStream.GZIP_MAGIC) {
+				return null;
+			}
+			return fc.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+		}
 	}
 
 }
@@ -0,0 +1,141 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.serialization.saf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class SAFSerializationTest {
+	
+	private static final SAFSerialization SERIALIZATION = SAFSerialization.getInstance();
+	
+	private static byte[] encodeDFA(CompactDFA<Integer> dfa, boolean compressed) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		SERIALIZATION.writeDFA(dfa, dfa.getInputAlphabet(), baos, compressed);
+		return baos.toByteArray();
+	}
+	
+	@Test
+	public void testDFA() throws IOException {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 4);
+		CompactDFA<Integer> dfa = RandomAutomata.randomDFA(new Random(42L), 100, alphabet, false);
+		// make the DFA partial
+		dfa.removeAllTransitions(3);
+		
+		byte[] uncompressed = encodeDFA(dfa, false);
+		byte[] compressed = encodeDFA(dfa, true);
+		Assert.assertTrue(compressed.length < uncompressed.length);
+		
+		CompactDFA<Integer> dfa1 = SERIALIZATION.readGenericDFA(uncompressed);
+		CompactDFA<Integer> dfa2 = SERIALIZATION.readGenericDFA(compressed);
+		
+		for (CompactDFA<Integer> result : new CompactDFA[]{dfa1, dfa2}) {
+			Assert.assertEquals(result.size(), dfa.size());
+			Assert.assertTrue(Automata.testEquivalence(dfa, result, alphabet));
+		}
+	}
+	
+	@Test
+	public void testDFAFile() throws IOException {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 9);
+		CompactDFA<Integer> dfa = RandomAutomata.randomDFA(new Random(42L), 5000, alphabet, false);
+		
+		File f = File.createTempFile("dfa", ".saf");
+		try {
+			for (boolean compressed : new boolean[]{false, true}) {
+				try (FileOutputStream os = new FileOutputStream(f)) {
+					SERIALIZATION.writeDFA(dfa, alphabet, os, compressed);
+				}
+				CompactDFA<Integer> result = SERIALIZATION.readGenericDFA(f);
+				Assert.assertEquals(result.size(), dfa.size());
+				Assert.assertTrue(Automata.testEquivalence(dfa, result, alphabet));
+			}
+		}
+		finally {
+			f.delete();
+		}
+	}
+	
+	@Test
+	public void testNFA() throws IOException {
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		Random rand = new Random(42L);
+		CompactNFA<Integer> nfa = new CompactNFA<>(alphabet);
+		for (int i = 0; i < 20; i++) {
+			nfa.addIntState(rand.nextBoolean());
+		}
+		nfa.setInitial(0, true);
+		nfa.setInitial(5, true);
+		for (int i = 0; i < 50; i++) {
+			nfa.addTransition(rand.nextInt(20), rand.nextInt(3), rand.nextInt(20));
+		}
+		
+		for (boolean compressed : new boolean[]{false, true}) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			SERIALIZATION.writeNFA(nfa, alphabet, baos, compressed);
+			CompactNFA<Integer> result = SERIALIZATION.readGenericNFA(baos.toByteArray());
+			
+			Assert.assertEquals(result.size(), nfa.size());
+			Assert.assertEquals(result.getInitialStates(), nfa.getInitialStates());
+			for (int i = 0; i < nfa.size(); i++) {
+				Assert.assertEquals(result.isAccepting(i), nfa.isAccepting(i));
+				for (int j = 0; j < alphabet.size(); j++) {
+					Assert.assertEquals(result.getTransitions(i, j), nfa.getTransitions(i, j));
+				}
+			}
+		}
+	}
+	
+	@Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = ".*negative number of states.*")
+	public void testNegativeNumStates() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(baos)) {
+			out.write(new byte[]{'S', 'A', 'F', (byte) SAFSerialization.AutomatonType.DFA.ordinal()});
+			out.writeInt(2);
+			out.writeInt(-1);
+		}
+		SERIALIZATION.readGenericDFA(baos.toByteArray());
+	}
+	
+	@Test
+	public void testByteBufferReadLine() {
+		byte[] data = "ab\r\ncd\re\n\nf".getBytes(StandardCharsets.US_ASCII);
+		ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.wrap(data));
+		Assert.assertEquals(in.readLine(), "ab");
+		Assert.assertEquals(in.readLine(), "cd");
+		Assert.assertEquals(in.readLine(), "e");
+		Assert.assertEquals(in.readLine(), "");
+		Assert.assertEquals(in.readLine(), "f");
+		Assert.assertNull(in.readLine());
+	}
+}
@@ -22,8 +22,11 @@ import java.util.Queue;
 import java.util.Set;
 
 import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.helpers.StateIDStaticMapping;
 import net.automatalib.commons.util.mappings.MutableMapping;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordTrie;
 
 class Covers {
 	
@@ -46,37 +49,44 @@ class Covers {
 	public static <S,I,T> void cover(DeterministicAutomaton<S, I, T> automaton,
 			Collection<? extends I> inputs, Collection<? super Word<I>> states, Collection<? super Word<I>> transitions) {
 		
-		MutableMapping<S,Word<I>> reach = automaton.createStaticStateMapping();
+		StateIDs<S> stateIds = automaton.stateIDs();
+		StateIDStaticMapping<S,Word<I>> reach = new StateIDStaticMapping<>(stateIds, automaton.size());
 		
-		Queue<S> bfsQueue = new ArrayDeque<S>();
+		// every state is enqueued at most once
+		int[] bfsQueue = new int[automaton.size()];
+		int qHead = 0, qTail = 0;
 		
 		S init = automaton.getInitialState();
+		int initId = stateIds.getStateId(init);
 		
-		reach.put(init, Word.<I>epsilon());
-		bfsQueue.add(init);
+		// access sequences share their prefixes, and are extended in constant time
+		WordTrie<I> trie = new WordTrie<>();
+		reach.setValue(initId, trie.epsilon());
+		bfsQueue[qTail++] = initId;
 		if(states != null)
 			states.add(Word.<I>epsilon());
 		
-		S curr;
-		
-		while((curr = bfsQueue.poll()) != null) {
-			Word<I> as = reach.get(curr);
+		while(qHead < qTail) {
+			int currId = bfsQueue[qHead++];
+			S curr = stateIds.getState(currId);
+			Word<I> as = reach.getValue(currId);
 			
 			for(I in : inputs) {
 				S succ = automaton.getSuccessor(curr, in);
 				if(succ == null)
 					continue;
 				
-				if(reach.get(succ) == null) {
-					Word<I> succAs = as.append(in);
-					reach.put(succ, succAs);
+				int succId = stateIds.getStateId(succ);
+				if(reach.getValue(succId) == null) {
+					Word<I> succAs = trie.append(as, in);
+					reach.setValue(succId, succAs);
 					if(states != null) {
 						states.add(succAs);
 					}
-					bfsQueue.add(succ);
+					bfsQueue[qTail++] = succId;
 				}
 				else if(transitions != null)
-					transitions.add(as.append(in));
+					transitions.add(trie.append(as, in));
 			}
 		}
 	}
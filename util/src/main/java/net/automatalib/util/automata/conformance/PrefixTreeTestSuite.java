@@ -0,0 +1,169 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import net.automatalib.util.tries.IntPrefixTrie;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * A conformance test suite that is represented as a prefix tree.
+ * <p>
+ * Only the leaves of the prefix tree need to be executed as tests, as all other words in the
+ * tree are prefixes of these. When executing the suite against a system, the number of resets hence
+ * equals the number of leaves ({@link #getNumTests()}) rather than the number of generated words. Using
+ * {@link #execute(Executor)}, the execution of a test can furthermore be aborted early, in which
+ * case all other tests sharing the failed prefix are skipped as well.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol type
+ */
+public class PrefixTreeTestSuite<I> implements Iterable<Word<I>> {
+	
+	/**
+	 * A system under test, which test words can be executed on by means of input indices.
+	 */
+	public static interface Executor {
+		/**
+		 * Resets the system to its initial state.
+		 */
+		void reset();
+		
+		/**
+		 * Executes a single input.
+		 * 
+		 * @param inputIdx the index of the input to execute
+		 * @return {@code true} if the execution of the current test should be continued,
+		 * {@code false} if it should be aborted
+		 */
+		boolean step(int inputIdx);
+	}
+	
+	private final Alphabet<I> alphabet;
+	private final IntPrefixTrie prefixTree;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param alphabet the input alphabet
+	 * @param prefixTree the prefix tree, containing words over the indices of the input alphabet
+	 */
+	public PrefixTreeTestSuite(Alphabet<I> alphabet, IntPrefixTrie prefixTree) {
+		this.alphabet = alphabet;
+		this.prefixTree = prefixTree;
+	}
+	
+	public Alphabet<I> getAlphabet() {
+		return alphabet;
+	}
+	
+	public IntPrefixTrie getPrefixTree() {
+		return prefixTree;
+	}
+	
+	/**
+	 * Retrieves the number of tests, i.e., of leaves of the prefix tree.
+	 * 
+	 * @return the number of tests
+	 */
+	public int getNumTests() {
+		return prefixTree.getNumLeaves();
+	}
+	
+	/**
+	 * Retrieves the total length of all tests, i.e., the number of inputs executed when executing all
+	 * tests of this suite (without aborting).
+	 * 
+	 * @return the total length of all tests
+	 */
+	public long getNumSymbols() {
+		long result = 0L;
+		for (int leaf = prefixTree.getFirstLeaf(IntPrefixTrie.ROOT); leaf != IntPrefixTrie.NO_NODE;
+				leaf = prefixTree.getNextLeaf(leaf)) {
+			result += prefixTree.getDepth(leaf);
+		}
+		return result;
+	}
+	
+	/**
+	 * Executes all tests of this suite, in depth-first order. Before each test, the executor is
+	 * {@link Executor#reset() reset}. If the execution of a test is aborted after some prefix, all
+	 * subsequent tests sharing this prefix are skipped.
+	 * 
+	 * @param executor the executor
+	 * @return the number of (possibly aborted) tests executed, which equals the number of resets
+	 */
+	public int execute(Executor executor) {
+		int numExecuted = 0;
+		int[] buffer = new int[16];
+		
+		int leaf = prefixTree.getFirstLeaf(IntPrefixTrie.ROOT);
+		while (leaf != IntPrefixTrie.NO_NODE) {
+			int length = prefixTree.getDepth(leaf);
+			if (buffer.length < length) {
+				buffer = new int[Math.max(length, buffer.length * 2)];
+			}
+			for (int n = leaf, i = length - 1; i >= 0; n = prefixTree.getParent(n), i--) {
+				buffer[i] = prefixTree.getSymbol(n);
+			}
+			
+			executor.reset();
+			numExecuted++;
+			int i = 0;
+			while (i < length && executor.step(buffer[i])) {
+				i++;
+			}
+			
+			// continue after the subtree of the node at which the test was aborted
+			int last = leaf;
+			for (int j = length - 1; j > i; j--) {
+				last = prefixTree.getParent(last);
+			}
+			leaf = prefixTree.getNextLeaf(last);
+		}
+		
+		return numExecuted;
+	}
+
+	/**
+	 * Returns an iterator over the tests of this suite, in depth-first order.
+	 */
+	@Override
+	public Iterator<Word<I>> iterator() {
+		return new Iterator<Word<I>>() {
+			private int next = prefixTree.getFirstLeaf(IntPrefixTrie.ROOT);
+
+			@Override
+			public boolean hasNext() {
+				return next != IntPrefixTrie.NO_NODE;
+			}
+
+			@Override
+			public Word<I> next() {
+				if (next == IntPrefixTrie.NO_NODE) {
+					throw new NoSuchElementException();
+				}
+				Word<I> result = prefixTree.getWord(next, alphabet);
+				next = prefixTree.getNextLeaf(next);
+				return result;
+			}
+		};
+	}
+}
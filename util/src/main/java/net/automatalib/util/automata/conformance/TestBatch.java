@@ -0,0 +1,130 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Arrays;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A batch of test words, represented as sequences of input indices.
+ * <p>
+ * The input indices of all tests are stored consecutively in a single {@code int} array (see
+ * {@link #getSymbols()}), test {@code i} occupying the range from {@link #getOffset(int) getOffset(i)}
+ * (inclusive) to {@code getOffset(i + 1)} (exclusive). Batches may be reused, i.e., refilled
+ * after they have been processed, in which case they do not allocate any memory once they have grown
+ * to their final size.
+ * 
+ * @author agent
+ */
+public final class TestBatch {
+	
+	private static final int DEFAULT_SYMBOLS_CAPACITY = 256;
+	private static final int DEFAULT_TESTS_CAPACITY = 16;
+	
+	private int[] symbols;
+	private int[] offsets;
+	private int size;
+	
+	public TestBatch() {
+		this(DEFAULT_TESTS_CAPACITY, DEFAULT_SYMBOLS_CAPACITY);
+	}
+	
+	public TestBatch(int testsCapacity, int symbolsCapacity) {
+		this.symbols = new int[Math.max(symbolsCapacity, 1)];
+		this.offsets = new int[Math.max(testsCapacity, 1) + 1];
+	}
+	
+	/**
+	 * Retrieves the number of tests in this batch.
+	 * 
+	 * @return the number of tests
+	 */
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Retrieves the array containing the input indices of all tests in this batch. The array may be
+	 * larger than required; only the first {@code getOffset(size())} entries are valid.
+	 * <p>
+	 * <b>Note:</b> the returned array is the internal storage of this batch, and must not be modified.
+	 * 
+	 * @return the array containing the input indices of all tests
+	 */
+	public int[] getSymbols() {
+		return symbols;
+	}
+	
+	/**
+	 * Retrieves the offset of the first input index of the given test in the array returned by
+	 * {@link #getSymbols()}.
+	 * 
+	 * @param index the index of the test, or {@link #size()} for the end of the last test
+	 * @return the offset of the test
+	 */
+	public int getOffset(int index) {
+		return offsets[index];
+	}
+	
+	public int getLength(int index) {
+		return offsets[index + 1] - offsets[index];
+	}
+	
+	public int[] getTest(int index) {
+		return Arrays.copyOfRange(symbols, offsets[index], offsets[index + 1]);
+	}
+	
+	public <I> Word<I> getTest(int index, Alphabet<I> alphabet) {
+		int ofs = offsets[index];
+		int length = offsets[index + 1] - ofs;
+		WordBuilder<I> wb = new WordBuilder<>(length);
+		for (int i = 0; i < length; i++) {
+			wb.append(alphabet.getSymbol(symbols[ofs + i]));
+		}
+		return wb.toWord();
+	}
+	
+	public void clear() {
+		size = 0;
+	}
+	
+	/**
+	 * Reserves space for a test of the given length at the end of this batch.
+	 * 
+	 * @param length the length of the test
+	 * @return the offset at which the input indices of the test need to be stored in the array
+	 * returned by {@link #getSymbols()} (which may have changed as a result of this call)
+	 */
+	int appendTest(int length) {
+		int ofs = offsets[size];
+		int end = ofs + length;
+		if (end > symbols.length) {
+			symbols = Arrays.copyOf(symbols, Math.max(end, symbols.length + (symbols.length >> 1)));
+		}
+		if (size + 2 > offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length + (offsets.length >> 1) + 1);
+		}
+		offsets[++size] = end;
+		return ofs;
+	}
+}
@@ -0,0 +1,372 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.tries.IntPrefixTrie;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A {@link Spliterator} over the test words of a <i>W method</i> conformance test, represented as
+ * sequences of input indices.
+ * <p>
+ * The tests are the same, and are enumerated in the same order, as by {@link WMethodTestsIterator}:
+ * each test is the concatenation of a word from the transition cover, a middle part of length
+ * {@code 1} to {@code maxDepth}, and a word from the characterizing set. Since every test is
+ * identified by its position in this enumeration, a spliterator can be split into two halves in
+ * constant time, allowing test suites to be generated in parallel (e.g., via {@link #stream(boolean)}).
+ * <p>
+ * Apart from individual {@code int[]} arrays, tests can be obtained in {@link TestBatch batches}, which
+ * avoids allocating an object per test (see {@link #forEachBatch(int, Consumer)} and
+ * {@link #batchSpliterator(int)}). Redundant tests (duplicates and proper prefixes of other tests) can be
+ * eliminated by collecting the tests in a prefix trie (see {@link #collectToTrie()}).
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol type
+ */
+public class WMethodTestsSpliterator<I> implements Spliterator<int[]> {
+	
+	private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	
+	private final Alphabet<I> alphabet;
+	private final int[][] prefixes;
+	private final int[][] suffixes;
+	private final int alphabetSize;
+	private final int maxDepth;
+	
+	private long position;
+	private final long end;
+	
+	// the cursor, i.e., the components of the test at the current position
+	private final int[] middle;
+	private int middleLength;
+	private int prefixIdx;
+	private int suffixIdx;
+
+	/**
+	 * Constructor. Uses the transition cover and the characterizing set of the given automaton as the
+	 * prefixes and suffixes, respectively.
+	 * 
+	 * @param alphabet the input alphabet
+	 * @param automaton the automaton to generate tests for
+	 * @param maxDepth the maximum length of the middle part
+	 */
+	public WMethodTestsSpliterator(Alphabet<I> alphabet, UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+			int maxDepth) {
+		this(alphabet, Automata.transitionCover(automaton, alphabet), Automata.characterizingSet(automaton, alphabet),
+				maxDepth);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param alphabet the input alphabet
+	 * @param prefixes the prefixes of the tests
+	 * @param suffixes the suffixes of the tests
+	 * @param maxDepth the maximum length of the middle part
+	 * @throws ArithmeticException if the number of tests exceeds {@link Long#MAX_VALUE}
+	 */
+	public WMethodTestsSpliterator(Alphabet<I> alphabet, Collection<? extends Word<I>> prefixes,
+			Collection<? extends Word<I>> suffixes, int maxDepth) {
+		this.alphabet = alphabet;
+		this.prefixes = toIndices(alphabet, prefixes);
+		this.suffixes = toIndices(alphabet, suffixes);
+		this.alphabetSize = alphabet.size();
+		this.maxDepth = maxDepth;
+		this.middle = new int[maxDepth];
+		
+		long numMiddles = 0L;
+		long numOfLength = 1L;
+		for (int len = 1; len <= maxDepth && alphabetSize > 0; len++) {
+			numOfLength = Math.multiplyExact(numOfLength, alphabetSize);
+			numMiddles = Math.addExact(numMiddles, numOfLength);
+		}
+		this.end = Math.multiplyExact(numMiddles, (long)this.prefixes.length * this.suffixes.length);
+		seek(0L);
+	}
+	
+	private WMethodTestsSpliterator(WMethodTestsSpliterator<I> other, long end) {
+		this.alphabet = other.alphabet;
+		this.prefixes = other.prefixes;
+		this.suffixes = other.suffixes;
+		this.alphabetSize = other.alphabetSize;
+		this.maxDepth = other.maxDepth;
+		this.position = other.position;
+		this.end = end;
+		this.middle = other.middle.clone();
+		this.middleLength = other.middleLength;
+		this.prefixIdx = other.prefixIdx;
+		this.suffixIdx = other.suffixIdx;
+	}
+	
+	private static <I> int[][] toIndices(Alphabet<I> alphabet, Collection<? extends Word<I>> words) {
+		int[][] result = new int[words.size()][];
+		int i = 0;
+		for (Word<I> word : words) {
+			result[i++] = alphabet.getSymbolIndices(word);
+		}
+		return result;
+	}
+	
+	/**
+	 * Retrieves the exact number of remaining tests.
+	 * 
+	 * @return the number of remaining tests
+	 */
+	@Override
+	public long estimateSize() {
+		return end - position;
+	}
+	
+	@Override
+	public int characteristics() {
+		return CHARACTERISTICS;
+	}
+	
+	@Override
+	public boolean tryAdvance(Consumer<? super int[]> action) {
+		if (position >= end) {
+			return false;
+		}
+		int[] test = new int[currentLength()];
+		writeCurrent(test, 0);
+		advance();
+		action.accept(test);
+		return true;
+	}
+	
+	@Override
+	public void forEachRemaining(Consumer<? super int[]> action) {
+		while (position < end) {
+			int[] test = new int[currentLength()];
+			writeCurrent(test, 0);
+			advance();
+			action.accept(test);
+		}
+	}
+	
+	@Override
+	public WMethodTestsSpliterator<I> trySplit() {
+		long remaining = end - position;
+		if (remaining < 2L) {
+			return null;
+		}
+		long mid = position + remaining / 2L;
+		WMethodTestsSpliterator<I> prefix = new WMethodTestsSpliterator<>(this, mid);
+		seek(mid);
+		return prefix;
+	}
+	
+	/**
+	 * Fills the given batch with up to {@code maxTests} of the remaining tests. The batch is cleared
+	 * beforehand.
+	 * 
+	 * @param maxTests the maximum number of tests to add to the batch
+	 * @param batch the batch to fill
+	 * @return {@code true} if at least one test was added to the batch, {@code false} if there are no
+	 * remaining tests
+	 */
+	public boolean tryAdvanceBatch(int maxTests, TestBatch batch) {
+		batch.clear();
+		long batchEnd = Math.min(end, position + maxTests);
+		while (position < batchEnd) {
+			int ofs = batch.appendTest(currentLength());
+			writeCurrent(batch.getSymbols(), ofs);
+			advance();
+		}
+		return !batch.isEmpty();
+	}
+	
+	/**
+	 * Passes all remaining tests to the given consumer, in batches of (at most) the given size.
+	 * The same {@link TestBatch} object is reused for all batches, hence the consumer must not
+	 * retain a reference to it.
+	 * 
+	 * @param batchSize the maximum number of tests per batch
+	 * @param sink the consumer
+	 */
+	public void forEachBatch(int batchSize, Consumer<? super TestBatch> sink) {
+		TestBatch batch = new TestBatch(batchSize, batchSize * (maxDepth + 1));
+		while (tryAdvanceBatch(batchSize, batch)) {
+			sink.accept(batch);
+		}
+	}
+	
+	/**
+	 * Creates a spliterator over the remaining tests, grouped into batches of (at most) the given size.
+	 * A fresh {@link TestBatch} is created for every batch, hence batches can be processed concurrently.
+	 * <p>
+	 * After calling this method, this spliterator should no longer be used.
+	 * 
+	 * @param batchSize the maximum number of tests per batch
+	 * @return a spliterator over batches of the remaining tests
+	 */
+	public Spliterator<TestBatch> batchSpliterator(int batchSize) {
+		return new BatchSpliterator(this, batchSize);
+	}
+	
+	/**
+	 * Inserts all remaining tests into a prefix trie. The {@link IntPrefixTrie#forEachLeafWord(Consumer)
+	 * leaves} of the trie correspond to the tests that are neither duplicates nor proper prefixes of other
+	 * tests, and hence constitute a test suite of the same strength.
+	 * 
+	 * @return the prefix trie containing all remaining tests
+	 */
+	public IntPrefixTrie collectToTrie() {
+		IntPrefixTrie trie = new IntPrefixTrie();
+		TestBatch batch = new TestBatch();
+		while (tryAdvanceBatch(1024, batch)) {
+			int[] symbols = batch.getSymbols();
+			for (int i = 0; i < batch.size(); i++) {
+				trie.add(symbols, batch.getOffset(i), batch.getLength(i));
+			}
+		}
+		return trie;
+	}
+	
+	/**
+	 * Creates a stream of the remaining tests.
+	 * 
+	 * @param parallel whether the stream should be parallel
+	 * @return a stream of the remaining tests
+	 */
+	public Stream<int[]> stream(boolean parallel) {
+		return StreamSupport.stream(this, parallel);
+	}
+	
+	public Stream<Word<I>> wordStream(boolean parallel) {
+		return stream(parallel).map(this::toWord);
+	}
+	
+	public Word<I> toWord(int[] test) {
+		WordBuilder<I> wb = new WordBuilder<>(test.length);
+		for (int symIdx : test) {
+			wb.append(alphabet.getSymbol(symIdx));
+		}
+		return wb.toWord();
+	}
+	
+	private int currentLength() {
+		return prefixes[prefixIdx].length + middleLength + suffixes[suffixIdx].length;
+	}
+	
+	private void writeCurrent(int[] dst, int ofs) {
+		int[] prefix = prefixes[prefixIdx];
+		int[] suffix = suffixes[suffixIdx];
+		System.arraycopy(prefix, 0, dst, ofs, prefix.length);
+		ofs += prefix.length;
+		System.arraycopy(middle, 0, dst, ofs, middleLength);
+		ofs += middleLength;
+		System.arraycopy(suffix, 0, dst, ofs, suffix.length);
+	}
+	
+	private void advance() {
+		position++;
+		if (++suffixIdx < suffixes.length) {
+			return;
+		}
+		suffixIdx = 0;
+		if (++prefixIdx < prefixes.length) {
+			return;
+		}
+		prefixIdx = 0;
+		// increment the middle part, the first symbol changing fastest (as in CollectionsUtil#allTuples)
+		for (int i = 0; i < middleLength; i++) {
+			if (++middle[i] < alphabetSize) {
+				return;
+			}
+			middle[i] = 0;
+		}
+		if (middleLength < maxDepth) {
+			middle[middleLength++] = 0;
+		}
+	}
+	
+	private void seek(long pos) {
+		this.position = pos;
+		if (pos >= end) {
+			return;
+		}
+		long rem = pos;
+		suffixIdx = (int)(rem % suffixes.length);
+		rem /= suffixes.length;
+		prefixIdx = (int)(rem % prefixes.length);
+		rem /= prefixes.length;
+		
+		int len = 1;
+		long numOfLength = alphabetSize;
+		while (rem >= numOfLength) {
+			rem -= numOfLength;
+			numOfLength *= alphabetSize;
+			len++;
+		}
+		middleLength = len;
+		for (int i = 0; i < len; i++) {
+			middle[i] = (int)(rem % alphabetSize);
+			rem /= alphabetSize;
+		}
+	}
+	
+	private static final class BatchSpliterator implements Spliterator<TestBatch> {
+		
+		private final WMethodTestsSpliterator<?> delegate;
+		private final int batchSize;
+		
+		public BatchSpliterator(WMethodTestsSpliterator<?> delegate, int batchSize) {
+			this.delegate = delegate;
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super TestBatch> action) {
+			TestBatch batch = new TestBatch(batchSize, batchSize * (delegate.maxDepth + 1));
+			if (!delegate.tryAdvanceBatch(batchSize, batch)) {
+				return false;
+			}
+			action.accept(batch);
+			return true;
+		}
+
+		@Override
+		public Spliterator<TestBatch> trySplit() {
+			if (delegate.estimateSize() <= batchSize) {
+				return null;
+			}
+			WMethodTestsSpliterator<?> prefix = delegate.trySplit();
+			return (prefix != null) ? new BatchSpliterator(prefix, batchSize) : null;
+		}
+
+		@Override
+		public long estimateSize() {
+			return (delegate.estimateSize() + batchSize - 1) / batchSize;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.tries.IntPrefixTrie;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * Generates conformance test suites according to the <i>Wp method</i> (partial W method, see
+ * S. Fujiwara et al., "Test Selection Based on Finite State Models", IEEE TSE 17(6), 1991).
+ * <p>
+ * The test suite consists of two parts:
+ * <ol>
+ * <li>the words of the state cover, followed by all middle parts of length up to {@code maxDepth}, followed
+ * by all words of the characterizing set,</li>
+ * <li>the remaining words of the transition cover, followed by all middle parts of length up to {@code maxDepth},
+ * followed by the words of the state characterizing set (see {@link Automata#stateCharacterizingSet(
+ * UniversalDeterministicAutomaton, java.util.Collection, Object)}) of the respective state reached.</li>
+ * </ol>
+ * Compared to the W method, the second part usually contains much fewer tests. The tests are directly
+ * inserted into a prefix tree, which eliminates duplicates and tests that are prefixes of other tests.
+ * 
+ * @author agent
+ */
+public final class WpMethodTestsGenerator {
+	
+	private WpMethodTestsGenerator() {
+		throw new IllegalStateException("Constructor should never be invoked");
+	}
+	
+	/**
+	 * Generates a Wp method test suite for the given automaton.
+	 * 
+	 * @param automaton the automaton to generate tests for
+	 * @param alphabet the input alphabet
+	 * @param maxDepth the maximum length of the middle parts
+	 * @return the test suite, in prefix tree representation
+	 */
+	public static <S,I> PrefixTreeTestSuite<I> generate(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
+			Alphabet<I> alphabet, int maxDepth) {
+		IntPrefixTrie prefixTree = new IntPrefixTrie();
+		new Generator<>(automaton, alphabet, prefixTree).generate(maxDepth);
+		return new PrefixTreeTestSuite<>(alphabet, prefixTree);
+	}
+	
+	private static final class Generator<S,I> {
+		
+		private static final int[][] EMPTY_SUFFIXES = { new int[0] };
+		
+		private final UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton;
+		private final Alphabet<I> alphabet;
+		private final IntPrefixTrie prefixTree;
+		private final StateIDs<S> stateIds;
+		
+		private final int[][][] stateSuffixes;
+		private int[] buffer = new int[16];
+		
+		public Generator(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton, Alphabet<I> alphabet,
+				IntPrefixTrie prefixTree) {
+			this.automaton = automaton;
+			this.alphabet = alphabet;
+			this.prefixTree = prefixTree;
+			this.stateIds = automaton.stateIDs();
+			this.stateSuffixes = new int[automaton.size()][][];
+		}
+		
+		public void generate(int maxDepth) {
+			List<Word<I>> stateCover = new ArrayList<>(automaton.size());
+			List<Word<I>> remainingTransCover = new ArrayList<>();
+			Automata.cover(automaton, alphabet, stateCover, remainingTransCover);
+			
+			int[][] globalSuffixes = toIndices(Automata.characterizingSet(automaton, alphabet));
+			
+			for (Word<I> prefix : stateCover) {
+				int length = writePrefix(prefix);
+				expand(length, maxDepth, null, globalSuffixes);
+			}
+			
+			for (Word<I> prefix : remainingTransCover) {
+				int length = writePrefix(prefix);
+				expand(length, maxDepth, automaton.getState(prefix), null);
+			}
+		}
+		
+		/**
+		 * Adds the tests for the word currently stored in the buffer, and recursively for all its
+		 * extensions by up to {@code depth} symbols.
+		 * 
+		 * @param length the length of the word in the buffer
+		 * @param depth the maximum number of symbols to extend the word by
+		 * @param state the state reached by the word, only relevant if {@code suffixes} is {@code null}
+		 * @param suffixes the suffixes to append to the word, or {@code null} if the state characterizing
+		 * set of {@code state} should be used
+		 */
+		private void expand(int length, int depth, S state, int[][] suffixes) {
+			int[][] suffs = (suffixes != null) ? suffixes : getStateSuffixes(state);
+			for (int[] suffix : suffs) {
+				ensureCapacity(length + suffix.length);
+				System.arraycopy(suffix, 0, buffer, length, suffix.length);
+				prefixTree.add(buffer, 0, length + suffix.length);
+			}
+			
+			if (depth == 0) {
+				return;
+			}
+			
+			for (int i = 0; i < alphabet.size(); i++) {
+				S succ = null;
+				if (suffixes == null && state != null) {
+					succ = automaton.getSuccessor(state, alphabet.getSymbol(i));
+				}
+				ensureCapacity(length + 1);
+				buffer[length] = i;
+				expand(length + 1, depth - 1, succ, suffixes);
+			}
+		}
+		
+		private int[][] getStateSuffixes(S state) {
+			if (state == null) {
+				return EMPTY_SUFFIXES;
+			}
+			int id = stateIds.getStateId(state);
+			int[][] result = stateSuffixes[id];
+			if (result == null) {
+				result = toIndices(Automata.stateCharacterizingSet(automaton, alphabet, state));
+				stateSuffixes[id] = result;
+			}
+			return result;
+		}
+		
+		private int writePrefix(Word<I> prefix) {
+			int length = prefix.length();
+			ensureCapacity(length);
+			for (int i = 0; i < length; i++) {
+				buffer[i] = alphabet.getSymbolIndex(prefix.getSymbol(i));
+			}
+			return length;
+		}
+		
+		private int[][] toIndices(List<Word<I>> words) {
+			if (words.isEmpty()) {
+				return EMPTY_SUFFIXES;
+			}
+			int[][] result = new int[words.size()][];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = alphabet.getSymbolIndices(words.get(i));
+			}
+			return result;
+		}
+		
+		private void ensureCapacity(int capacity) {
+			if (buffer.length < capacity) {
+				buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+			}
+		}
+	}
+}
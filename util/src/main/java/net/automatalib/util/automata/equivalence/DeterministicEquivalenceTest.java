@@ -16,14 +16,17 @@
 package net.automatalib.util.automata.equivalence;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
 
@@ -33,6 +36,21 @@ public class DeterministicEquivalenceTest<I> {
 	
 	public static int mapThreshold = 10000;
 	
+	/**
+	 * The minimum number of product states in a BFS level for this level to be explored in parallel
+	 * by {@link #findSeparatingWordParallel(UniversalDeterministicAutomaton, UniversalDeterministicAutomaton,
+	 * Collection)}. Smaller levels are explored sequentially.
+	 */
+	public static int parallelThreshold = 4096;
+	
+	/**
+	 * The maximum size of the (full) product for which {@link #findSeparatingWordParallel(UniversalDeterministicAutomaton,
+	 * UniversalDeterministicAutomaton, Collection)} allocates a visited bitmap (requiring one bit per product state).
+	 * Larger products are explored sequentially, using
+	 * {@link #findSeparatingWordLarge(UniversalDeterministicAutomaton, UniversalDeterministicAutomaton, Collection)}.
+	 */
+	public static long parallelBitmapLimit = 1L << 31;
+	
 	private static final class StatePair<S,S2> {
 		public final S ref;
 		public final S2 other;
@@ -62,15 +80,20 @@ public class DeterministicEquivalenceTest<I> {
 		return findSeparatingWord(reference, other, inputs);
 	}
 	
+	public Word<I> findSeparatingWordParallel(UniversalDeterministicAutomaton<?,I,?,?,?> other,
+			Collection<? extends I> inputs) {
+		return findSeparatingWordParallel(reference, other, inputs);
+	}
+	
 	@SuppressWarnings("unchecked")
 	public static <I,S,T,S2,T2>
 	Word<I> findSeparatingWord(UniversalDeterministicAutomaton<S,I,T,?,?> reference,
 			UniversalDeterministicAutomaton<S2,I,T2,?,?> other,
 			Collection<? extends I> inputs) {
 		int refSize = reference.size();
-		int totalStates = refSize * other.size();
+		long totalStates = (long)refSize * other.size();
 		
-		if (totalStates < 0 || totalStates > mapThreshold) {
+		if (totalStates > mapThreshold) {
 			return findSeparatingWordLarge(reference, other, inputs);
 		}
 		
@@ -94,7 +117,7 @@ public class DeterministicEquivalenceTest<I> {
 		StatePair<S,S2> currPair = null;
 		int lastId = otherStateIds.getStateId(otherInit) * refSize + refStateIds.getStateId(refInit);
 		
-		Pred<I>[] preds = new Pred[totalStates];
+		Pred<I>[] preds = new Pred[(int)totalStates];
 		preds[lastId] = new Pred<I>(-1, null);
 		
 		int currDepth = 0;
@@ -174,109 +197,136 @@ bfs:	while((currPair = bfsQueue.poll()) != null) {
 		return sep.toWord();
 	} 
 	
-	public static <I,S,T,S2,T2>
-	Word<I> findSeparatingWordLarge(UniversalDeterministicAutomaton<S,I,T,?,?> reference,
-			UniversalDeterministicAutomaton<S2,I,T2,?,?> other,
+	/**
+	 * Finds a shortest separating word for two deterministic automata, without any restriction on their
+	 * size.
+	 * <p>
+	 * The synchronous product of both automata is explored lazily in breadth-first order, on the level
+	 * of their {@link UniversalDeterministicAutomaton.FullIntAbstraction full integer abstractions}.
+	 * Product states are stored as packed {@code long}s in a {@link ProductStateTable}, such that
+	 * only the reachable part of the product is ever stored, and no objects are allocated per
+	 * explored state or transition. The exploration stops as soon as a difference is found.
+	 *
+	 * @param reference the reference automaton
+	 * @param other the other automaton
+	 * @param inputs the inputs to consider
+	 * @return a shortest separating word, or {@code null} if no such word exists
+	 */
+	public static <I>
+	Word<I> findSeparatingWordLarge(UniversalDeterministicAutomaton<?,I,?,?,?> reference,
+			UniversalDeterministicAutomaton<?,I,?,?,?> other,
 			Collection<? extends I> inputs) {
-		Queue<StatePair<S,S2>> bfsQueue = new ArrayDeque<>();
+		IntFunction<? extends I> symbols = symbolMapping(inputs);
+		int numInputs = inputs.size();
 		
-		S refInit = reference.getInitialState();
-		S2 otherInit = other.getInitialState();
+		UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?> refAbs
+			= fullIntAbstraction(reference, inputs, numInputs, symbols);
+		UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?> otherAbs
+			= fullIntAbstraction(other, inputs, numInputs, symbols);
 		
-		Object refStateProp = reference.getStateProperty(refInit),
-				otherStateProp = other.getStateProperty(otherInit);
+		int refInit = refAbs.getIntInitialState();
+		int otherInit = otherAbs.getIntInitialState();
 		
-		if(!Objects.equals(refStateProp, otherStateProp))
+		if (refInit < 0 || otherInit < 0) {
+			return (refInit == otherInit) ? null : Word.<I>epsilon();
+		}
+		if (!Objects.equals(refAbs.getStateProperty(refInit), otherAbs.getStateProperty(otherInit))) {
 			return Word.epsilon();
+		}
 		
-		bfsQueue.add(new StatePair<>(refInit, otherInit));
-		
-		int refSize = reference.size();
-		
-		StateIDs<S> refStateIds = reference.stateIDs();
-		StateIDs<S2> otherStateIds = other.stateIDs();
-		
-		StatePair<S,S2> currPair = null;
-		int lastId = otherStateIds.getStateId(otherInit) * refSize + refStateIds.getStateId(refInit);
-		
-//		TIntObjectMap<Pred<I>> preds = new TIntObjectHashMap<>();
-		Map<Integer,Pred<I>> preds = new HashMap<>(); // TODO: replace by primitive specialization
-		preds.put(lastId, new Pred<I>(-1, null));
-		
-		int currDepth = 0;
-		int inCurrDepth = 1;
-		int inNextDepth = 0;
-		
-		I lastSym = null;
+		ProductStateTable states = new ProductStateTable(Math.max(refAbs.size(), otherAbs.size()));
+		states.add(ProductStateTable.pack(refInit, otherInit), -1, -1);
 		
-bfs:	while((currPair = bfsQueue.poll()) != null) {
-			S refState = currPair.ref;
-			S2 otherState = currPair.other;
-			
-			
-			int currId = otherStateIds.getStateId(otherState) * refSize + refStateIds.getStateId(refState);
-			lastId = currId;
-			
+		// the table is filled in BFS order, hence it doubles as the BFS queue
+		for (int currId = 0; currId < states.size(); currId++) {
+			long pair = states.getPair(currId);
+			int refState = ProductStateTable.first(pair);
+			int otherState = ProductStateTable.second(pair);
 			
-			for(I in : inputs) {
-				lastSym = in;
-				T refTrans = reference.getTransition(refState, in);
-				T2 otherTrans = other.getTransition(otherState, in);
-				
-				if((refTrans == null || otherTrans == null) && refTrans != otherTrans)
-					break bfs;
-				
-				Object refProp = reference.getTransitionProperty(refTrans);
-				Object otherProp = other.getTransitionProperty(otherTrans);
-				if(!Objects.equals(refProp, otherProp))
-					break bfs;
+			for (int i = 0; i < numInputs; i++) {
+				int refSucc = refAbs.getSuccessor(refState, i);
+				int otherSucc = otherAbs.getSuccessor(otherState, i);
 				
+				if (refSucc < 0 || otherSucc < 0) {
+					if (refSucc != otherSucc) {
+						return states.buildWord(currId, i, symbols);
+					}
+					continue;
+				}
 				
-				S refSucc = reference.getSuccessor(refTrans);
-				S2 otherSucc = other.getSuccessor(otherTrans);
-				
-				int succId = otherStateIds.getStateId(otherSucc) * refSize + refStateIds.getStateId(refSucc);
+				if (!Objects.equals(refAbs.getTransitionProperty(refState, i),
+						otherAbs.getTransitionProperty(otherState, i))) {
+					return states.buildWord(currId, i, symbols);
+				}
 				
-				if(preds.get(succId) == null) {
-					refStateProp = reference.getStateProperty(refSucc);
-					otherStateProp = other.getStateProperty(otherSucc);
-					
-					if(!Objects.equals(refStateProp, otherStateProp))
-						break bfs;
-					
-					preds.put(succId, new Pred<>(currId, in));
-					bfsQueue.add(new StatePair<>(refSucc, otherSucc));
-					inNextDepth++;
+				if (states.add(ProductStateTable.pack(refSucc, otherSucc), currId, i) >= 0) {
+					if (!Objects.equals(refAbs.getStateProperty(refSucc), otherAbs.getStateProperty(otherSucc))) {
+						return states.buildWord(currId, i, symbols);
+					}
 				}
 			}
-			
-			lastSym = null;
-			
-			
-			// Next level in BFS reached
-			if(--inCurrDepth == 0) {
-				inCurrDepth = inNextDepth;
-				inNextDepth = 0;
-				currDepth++;
-			}
 		}
 		
-		if(lastSym == null)
-			return null;
-		
-		WordBuilder<I> sep = new WordBuilder<I>(null, currDepth+1);
-		int index = currDepth;
-		sep.setSymbol(index--, lastSym);
-		
-		Pred<I> pred = preds.get(lastId);
-		I sym = pred.symbol;
-		while(sym != null) {
-			sep.setSymbol(index--, sym);
-			pred = preds.get(pred.id);
-			sym = pred.symbol;
+		return null;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <I> IntFunction<? extends I> symbolMapping(Collection<? extends I> inputs) {
+		if (inputs instanceof Alphabet) {
+			return (Alphabet<? extends I>)inputs;
+		}
+		if (inputs instanceof List && inputs instanceof RandomAccess) {
+			return ((List<? extends I>)inputs)::get;
+		}
+		return new ArrayList<>(inputs)::get;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <I> UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?>
+	fullIntAbstraction(UniversalDeterministicAutomaton<?,I,?,?,?> automaton, Collection<? extends I> inputs,
+			int numInputs, IntFunction<? extends I> symbols) {
+		if (inputs instanceof Alphabet) {
+			// allows automata to return themselves if they are defined over this alphabet
+			return automaton.fullIntAbstraction((Alphabet<I>)inputs);
+		}
+		return automaton.fullIntAbstraction(numInputs, symbols);
+	}
+	/**
+	 * Finds a shortest separating word for two deterministic automata, exploring their synchronous product
+	 * in a level-synchronous, parallel breadth-first search.
+	 * <p>
+	 * Each BFS level containing at least {@link #parallelThreshold} product states is split across the
+	 * {@link java.util.concurrent.ForkJoinPool#commonPool() common fork/join pool}; visited product states
+	 * are recorded in a concurrent bitmap. Products larger than {@link #parallelBitmapLimit} are explored
+	 * sequentially instead.
+	 * <p>
+	 * Both automata are accessed concurrently from several threads, hence they must not be modified while
+	 * this method runs. The result is a shortest separating word, but if there are several of them,
+	 * which one is returned may vary between invocations.
+	 *
+	 * @param reference the reference automaton
+	 * @param other the other automaton
+	 * @param inputs the inputs to consider
+	 * @return a shortest separating word, or {@code null} if no such word exists
+	 */
+	public static <I>
+	Word<I> findSeparatingWordParallel(UniversalDeterministicAutomaton<?,I,?,?,?> reference,
+			UniversalDeterministicAutomaton<?,I,?,?,?> other,
+			Collection<? extends I> inputs) {
+		long totalStates = (long)reference.size() * other.size();
+		// the bitmap is backed by a single array of longs
+		if (totalStates > Math.min(parallelBitmapLimit, (long)Integer.MAX_VALUE << 6)) {
+			return findSeparatingWordLarge(reference, other, inputs);
 		}
 		
+		IntFunction<? extends I> symbols = symbolMapping(inputs);
+		int numInputs = inputs.size();
 		
-		return sep.toWord();
-	} 
+		ParallelProductBFS bfs = new ParallelProductBFS(
+				fullIntAbstraction(reference, inputs, numInputs, symbols),
+				fullIntAbstraction(other, inputs, numInputs, symbols),
+				numInputs, parallelThreshold);
+		
+		return bfs.findSeparatingWord(symbols);
+	}
 }
@@ -0,0 +1,271 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Level-synchronous, parallel breadth-first search on the synchronous product of two deterministic
+ * automata.
+ * <p>
+ * The product states of each BFS level (the <i>frontier</i>) are split into chunks, which are expanded
+ * in parallel in the {@link ForkJoinPool#commonPool() common fork/join pool}. Visited product states are
+ * recorded in a concurrent bitmap indexed by {@code otherId * refSize + refId}, such that each product
+ * state is claimed by exactly one thread. Since a level is only started after the previous level has been
+ * completely expanded, every separating word found is a shortest one, regardless of the interleaving.
+ * <p>
+ * Frontiers smaller than a given threshold are expanded sequentially by the calling thread, as splitting
+ * them would cost more than it saves.
+ * <p>
+ * The automata are only read, but they are read concurrently. Their integer abstractions hence must
+ * support concurrent read access.
+ *
+ * @author agent
+ */
+final class ParallelProductBFS {
+
+	private static final int MIN_CHUNK_SIZE = 256;
+
+	private final UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?> refAbs;
+	private final UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?> otherAbs;
+	private final int numInputs;
+	private final long refSize;
+	private final int parallelThreshold;
+
+	private final AtomicLongArray visited;
+	private final AtomicBoolean found = new AtomicBoolean();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param refAbs the integer abstraction of the reference automaton
+	 * @param otherAbs the integer abstraction of the other automaton
+	 * @param numInputs the number of inputs
+	 * @param parallelThreshold the minimum size of a frontier for it to be expanded in parallel
+	 */
+	public ParallelProductBFS(UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?> refAbs,
+			UniversalDeterministicAutomaton.FullIntAbstraction<?,?,?> otherAbs,
+			int numInputs, int parallelThreshold) {
+		this.refAbs = refAbs;
+		this.otherAbs = otherAbs;
+		this.numInputs = numInputs;
+		this.refSize = refAbs.size();
+		this.parallelThreshold = parallelThreshold;
+		long totalStates = refSize * otherAbs.size();
+		this.visited = new AtomicLongArray((int)((totalStates + 63L) >>> 6));
+	}
+
+	/**
+	 * Searches for a shortest separating word.
+	 *
+	 * @param symbols the mapping from input indices to input symbols
+	 * @return a shortest separating word, or {@code null} if no such word exists
+	 */
+	public <I> Word<I> findSeparatingWord(IntFunction<? extends I> symbols) {
+		int refInit = refAbs.getIntInitialState();
+		int otherInit = otherAbs.getIntInitialState();
+
+		if (refInit < 0 || otherInit < 0) {
+			return (refInit == otherInit) ? null : Word.<I>epsilon();
+		}
+		if (!Objects.equals(refAbs.getStateProperty(refInit), otherAbs.getStateProperty(otherInit))) {
+			return Word.epsilon();
+		}
+
+		markVisited(refInit, otherInit);
+
+		long[] frontier = { ProductStateTable.pack(refInit, otherInit) };
+		List<int[]> levelPreds = new ArrayList<>();
+		List<int[]> levelInputs = new ArrayList<>();
+		levelPreds.add(new int[]{ -1 });
+		levelInputs.add(new int[]{ -1 });
+
+		while (frontier.length > 0) {
+			Successors[] chunks = expand(frontier);
+
+			for (Successors chunk : chunks) {
+				if (chunk.sepPred >= 0) {
+					return buildWord(levelPreds, levelInputs, chunk.sepPred, chunk.sepInput, symbols);
+				}
+			}
+
+			int total = 0;
+			for (Successors chunk : chunks) {
+				total += chunk.size;
+			}
+
+			long[] nextFrontier = new long[total];
+			int[] preds = new int[total];
+			int[] inputs = new int[total];
+			int pos = 0;
+			for (Successors chunk : chunks) {
+				System.arraycopy(chunk.pairs, 0, nextFrontier, pos, chunk.size);
+				System.arraycopy(chunk.preds, 0, preds, pos, chunk.size);
+				System.arraycopy(chunk.inputs, 0, inputs, pos, chunk.size);
+				pos += chunk.size;
+			}
+
+			frontier = nextFrontier;
+			levelPreds.add(preds);
+			levelInputs.add(inputs);
+		}
+
+		return null;
+	}
+
+	private Successors[] expand(long[] frontier) {
+		int size = frontier.length;
+		if (size < parallelThreshold) {
+			return new Successors[]{ expandChunk(frontier, 0, size) };
+		}
+
+		int maxChunks = 4 * ForkJoinPool.getCommonPoolParallelism();
+		int numChunks = Math.max(1, Math.min(maxChunks, size / MIN_CHUNK_SIZE));
+
+		return IntStream.range(0, numChunks).parallel()
+				.mapToObj(c -> expandChunk(frontier,
+						(int)((long)c * size / numChunks),
+						(int)((long)(c + 1) * size / numChunks)))
+				.toArray(Successors[]::new);
+	}
+
+	private Successors expandChunk(long[] frontier, int low, int high) {
+		Successors succs = new Successors(high - low);
+
+		for (int idx = low; idx < high && !found.get(); idx++) {
+			long pair = frontier[idx];
+			int refState = ProductStateTable.first(pair);
+			int otherState = ProductStateTable.second(pair);
+
+			for (int i = 0; i < numInputs; i++) {
+				int refSucc = refAbs.getSuccessor(refState, i);
+				int otherSucc = otherAbs.getSuccessor(otherState, i);
+
+				if (refSucc < 0 || otherSucc < 0) {
+					if (refSucc != otherSucc) {
+						return separate(succs, idx, i);
+					}
+					continue;
+				}
+
+				if (!Objects.equals(refAbs.getTransitionProperty(refState, i),
+						otherAbs.getTransitionProperty(otherState, i))) {
+					return separate(succs, idx, i);
+				}
+
+				if (markVisited(refSucc, otherSucc)) {
+					if (!Objects.equals(refAbs.getStateProperty(refSucc), otherAbs.getStateProperty(otherSucc))) {
+						return separate(succs, idx, i);
+					}
+					succs.add(ProductStateTable.pack(refSucc, otherSucc), idx, i);
+				}
+			}
+		}
+
+		return succs;
+	}
+
+	private Successors separate(Successors succs, int pred, int input) {
+		succs.sepPred = pred;
+		succs.sepInput = input;
+		found.set(true);
+		return succs;
+	}
+
+	/**
+	 * Atomically marks a product state as visited.
+	 *
+	 * @return {@code true} if the state was marked by this call, {@code false} if it already was marked
+	 * before
+	 */
+	private boolean markVisited(int refState, int otherState) {
+		long id = otherState * refSize + refState;
+		int wordIdx = (int)(id >>> 6);
+		long bit = 1L << id;
+
+		long old;
+		do {
+			old = visited.get(wordIdx);
+			if ((old & bit) != 0L) {
+				return false;
+			}
+		} while (!visited.compareAndSet(wordIdx, old, old | bit));
+
+		return true;
+	}
+
+	private static <I> Word<I> buildWord(List<int[]> levelPreds, List<int[]> levelInputs,
+			int pred, int lastInput, IntFunction<? extends I> symbols) {
+		int depth = levelPreds.size() - 1;
+
+		WordBuilder<I> wb = new WordBuilder<>(null, depth + 1);
+		wb.setSymbol(depth, symbols.apply(lastInput));
+
+		int idx = pred;
+		for (int d = depth; d > 0; d--) {
+			wb.setSymbol(d - 1, symbols.apply(levelInputs.get(d)[idx]));
+			idx = levelPreds.get(d)[idx];
+		}
+
+		return wb.toWord();
+	}
+
+	/**
+	 * The product states discovered while expanding a chunk of the frontier, along with the
+	 * (frontier) index and input via which they were discovered.
+	 */
+	private static final class Successors {
+		private long[] pairs;
+		private int[] preds;
+		private int[] inputs;
+		private int size;
+
+		private int sepPred = -1;
+		private int sepInput;
+
+		public Successors(int initialCapacity) {
+			int cap = Math.max(initialCapacity, 16);
+			this.pairs = new long[cap];
+			this.preds = new int[cap];
+			this.inputs = new int[cap];
+		}
+
+		public void add(long pair, int pred, int input) {
+			if (size == pairs.length) {
+				int newCap = size + (size >> 1);
+				pairs = Arrays.copyOf(pairs, newCap);
+				preds = Arrays.copyOf(preds, newCap);
+				inputs = Arrays.copyOf(inputs, newCap);
+			}
+			pairs[size] = pair;
+			preds[size] = pred;
+			inputs[size] = input;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Storage for the reachable part of the synchronous product of two deterministic automata.
+ * <p>
+ * A product state is a pair of (abstracted) integer states, which is packed into a single
+ * {@code long}. Product states are numbered consecutively in the order of their insertion, and
+ * each of them remembers the product state and the input (index) via which it was discovered.
+ * If states are inserted in breadth-first order, the table hence doubles as the BFS queue,
+ * and shortest access sequences can be reconstructed without any further bookkeeping.
+ * <p>
+ * Membership is tested using an open-addressing hash table over the packed pairs. Memory consumption
+ * is thus proportional to the number of <i>reachable</i> product states rather than to the size of
+ * the full product, and no objects are allocated per product state.
+ *
+ * @author agent
+ */
+final class ProductStateTable {
+
+	private static final int DEFAULT_INIT_CAPACITY = 16;
+
+	private static final long EMPTY = -1L;
+
+	private long[] pairs;
+	private int[] preds;
+	private int[] inputs;
+	private int size;
+
+	private long[] table;
+	private int mask;
+
+	public ProductStateTable() {
+		this(DEFAULT_INIT_CAPACITY);
+	}
+
+	public ProductStateTable(int expectedSize) {
+		int cap = Math.max(expectedSize, DEFAULT_INIT_CAPACITY);
+		this.pairs = new long[cap];
+		this.preds = new int[cap];
+		this.inputs = new int[cap];
+		int tableSize = Integer.highestOneBit(cap - 1) << 2;
+		this.table = new long[tableSize];
+		Arrays.fill(table, EMPTY);
+		this.mask = tableSize - 1;
+	}
+
+	/**
+	 * Packs a pair of non-negative state IDs into a single {@code long}.
+	 *
+	 * @param first the first state ID
+	 * @param second the second state ID
+	 * @return the packed pair
+	 */
+	public static long pack(int first, int second) {
+		return ((long)second << 32) | (first & 0xffffffffL);
+	}
+
+	public static int first(long pair) {
+		return (int)pair;
+	}
+
+	public static int second(long pair) {
+		return (int)(pair >>> 32);
+	}
+
+	/**
+	 * Adds a product state, unless it is already contained in this table.
+	 *
+	 * @param pair the packed product state
+	 * @param pred the ID of the product state via which this state was discovered, or {@code -1}
+	 * for the initial state
+	 * @param input the index of the input via which this state was discovered
+	 * @return the ID of the newly added state, or {@code -1} if the state was already contained
+	 */
+	public int add(long pair, int pred, int input) {
+		int pos = (int)mix(pair) & mask;
+		long curr;
+		while ((curr = table[pos]) != EMPTY) {
+			if (curr == pair) {
+				return -1;
+			}
+			pos = (pos + 1) & mask;
+		}
+		table[pos] = pair;
+
+		int id = size++;
+		if (id == pairs.length) {
+			int newCap = pairs.length + (pairs.length >> 1);
+			pairs = Arrays.copyOf(pairs, newCap);
+			preds = Arrays.copyOf(preds, newCap);
+			inputs = Arrays.copyOf(inputs, newCap);
+		}
+		pairs[id] = pair;
+		preds[id] = pred;
+		inputs[id] = input;
+
+		if (2 * size > table.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getPair(int id) {
+		return pairs[id];
+	}
+
+	public int getPred(int id) {
+		return preds[id];
+	}
+
+	public int getInput(int id) {
+		return inputs[id];
+	}
+
+	/**
+	 * Reconstructs the access sequence of the given product state, extended by the given
+	 * input.
+	 *
+	 * @param id the ID of the product state
+	 * @param lastInput the index of the input to append
+	 * @param symbols the mapping from input indices to input symbols
+	 * @return the access sequence of the product state, followed by the given input
+	 */
+	public <I> Word<I> buildWord(int id, int lastInput, IntFunction<? extends I> symbols) {
+		int length = 1;
+		for (int curr = id; preds[curr] >= 0; curr = preds[curr]) {
+			length++;
+		}
+
+		WordBuilder<I> wb = new WordBuilder<>(null, length);
+		int index = length - 1;
+		wb.setSymbol(index--, symbols.apply(lastInput));
+		for (int curr = id; preds[curr] >= 0; curr = preds[curr]) {
+			wb.setSymbol(index--, symbols.apply(inputs[curr]));
+		}
+		return wb.toWord();
+	}
+
+	private void rehash() {
+		int newSize = table.length << 1;
+		long[] newTable = new long[newSize];
+		Arrays.fill(newTable, EMPTY);
+		int newMask = newSize - 1;
+		for (int i = 0; i < size; i++) {
+			long pair = pairs[i];
+			int pos = (int)mix(pair) & newMask;
+			while (newTable[pos] != EMPTY) {
+				pos = (pos + 1) & newMask;
+			}
+			newTable[pos] = pair;
+		}
+		this.table = newTable;
+		this.mask = newMask;
+	}
+
+	private static long mix(long key) {
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -15,17 +15,9 @@
  */
 package net.automatalib.util.automata.fsa;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.Collection;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 import net.automatalib.automata.concepts.InputAlphabetHolder;
-import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.MutableDFA;
 import net.automatalib.automata.fsa.NFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
@@ -77,71 +69,12 @@ public abstract class NFAs {
 		determinize(nfa, inputs, out, false, true);
 	}
 	
-	private static final class DeterminizeRecord<SI,SO> {
-		private final List<SI> inputStates;
-		private final SO outputState;
-		
-		public DeterminizeRecord(List<SI> inputStates, SO outputState) {
-			this.inputStates = inputStates;
-			this.outputState = outputState;
-		}
-	}
-	
 	private static <I,SI,SO> void doDeterminize(NFA<SI,I> nfa,
 			Collection<? extends I> inputs,
 			MutableDFA<SO,I> out,
 			boolean partial) {
-		
-		Map<BitSet,SO> outStateMap = new HashMap<>();
-		StateIDs<SI> stateIds = nfa.stateIDs();
-		
-		Deque<DeterminizeRecord<SI,SO>> stack = new ArrayDeque<>();
-		
-		List<SI> initList = new ArrayList<>(nfa.getInitialStates());
-		BitSet initBs = new BitSet();
-		for(SI init : initList) {
-			initBs.set(stateIds.getStateId(init));
-		}
-		
-		boolean initAcc = nfa.isAccepting(initList);
-		SO initOut = out.addInitialState(initAcc);
-		
-		outStateMap.put(initBs, initOut);
-		
-		stack.push(new DeterminizeRecord<>(initList, initOut));
-		
-		while(!stack.isEmpty()) {
-			DeterminizeRecord<SI, SO> curr = stack.pop();
-			
-			List<SI> inStates = curr.inputStates;
-			SO outState = curr.outputState;
-			
-			for(I sym : inputs) {
-				BitSet succBs = new BitSet();
-				List<SI> succList = new ArrayList<>();
-				
-				for(SI inState : inStates) {
-					for(SI succState : nfa.getSuccessors(inState, sym)) {
-						int succId = stateIds.getStateId(succState);
-						if(!succBs.get(succId)) {
-							succBs.set(succId);
-							succList.add(succState);
-						}
-					}
-				}
-				
-				if(!partial || !succList.isEmpty()) {
-					SO outSucc = outStateMap.get(succBs);
-					if(outSucc == null) {
-						outSucc = out.addState(nfa.isAccepting(succList));
-						outStateMap.put(succBs, outSucc);
-						stack.push(new DeterminizeRecord<>(succList, outSucc));
-					}
-					out.setTransition(outState, sym, outSucc);
-				}
-			}
-		}
-		
-	}	
+		new SubsetConstruction<>(nfa, inputs).determinize(out, partial);
+	}
+	
 	private NFAs() {}
 }
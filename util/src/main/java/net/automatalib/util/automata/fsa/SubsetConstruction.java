@@ -0,0 +1,283 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.MutableDFA;
+import net.automatalib.automata.fsa.NFA;
+
+/**
+ * Subset construction engine operating on integer state IDs.
+ * <p>
+ * The successor sets of the NFA are materialized lazily (and only once) as {@code int} arrays, indexed by
+ * state ID and input index. Subsets are represented as sorted {@code int} arrays, which are stored consecutively
+ * in a single array, and interned in an open-addressing hash table. Computing a successor subset only uses
+ * preallocated scratch buffers, hence the only allocations that take place during the construction are those
+ * required for storing newly discovered subsets (and, of course, those performed by the output automaton).
+ * <p>
+ * For {@link net.automatalib.automata.fsa.impl.compact.CompactNFA}s, state IDs coincide with the
+ * states themselves, and no additional state mapping overhead is incurred.
+ *
+ * @author agent
+ *
+ * @param <S> NFA state type
+ * @param <I> input symbol type
+ */
+final class SubsetConstruction<S,I> {
+
+	private static final int[] EMPTY = new int[0];
+	private static final int INITIAL_TABLE_SIZE = 64;
+	private static final int INITIAL_STORAGE_SIZE = 1024;
+
+	private final NFA<S,I> nfa;
+	private final StateIDs<S> stateIds;
+	private final List<I> inputs;
+	private final int numInputs;
+
+	// NFA data (lazily materialized)
+	private final boolean[] accepting;
+	private final int[][] successors;
+
+	// scratch buffers
+	private final int[] marks;
+	private int currentMark;
+	private final int[] scratch;
+	private boolean scratchAccepting;
+
+	// subset storage
+	private int[] subsetData = new int[INITIAL_STORAGE_SIZE];
+	private int[] subsetStarts = new int[INITIAL_TABLE_SIZE + 1];
+	private int[] subsetHashes = new int[INITIAL_TABLE_SIZE];
+	private int numSubsets;
+
+	// intern table, storing subset IDs plus one (zero denotes an empty slot)
+	private int[] table = new int[INITIAL_TABLE_SIZE];
+
+	SubsetConstruction(NFA<S,I> nfa, Collection<? extends I> inputs) {
+		this.nfa = nfa;
+		this.stateIds = nfa.stateIDs();
+		this.inputs = new ArrayList<>(inputs);
+		this.numInputs = this.inputs.size();
+
+		int numStates = nfa.size();
+		this.accepting = new boolean[numStates];
+		for (int i = 0; i < numStates; i++) {
+			accepting[i] = nfa.isAccepting(stateIds.getState(i));
+		}
+		this.successors = new int[numStates * numInputs][];
+		this.marks = new int[numStates];
+		this.scratch = new int[numStates];
+	}
+
+	/**
+	 * Performs the subset construction, storing the result in the given output DFA. States are explored in
+	 * depth-first order.
+	 *
+	 * @param out the output DFA
+	 * @param partial whether the empty subset should be omitted (resulting in a partial DFA)
+	 */
+	<SO> void determinize(MutableDFA<SO,I> out, boolean partial) {
+		List<SO> outStates = new ArrayList<>();
+
+		int len = computeInitialSubset();
+		intern(len);
+		outStates.add(out.addInitialState(scratchAccepting));
+
+		int[] stack = new int[16];
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+
+		while (stackSize > 0) {
+			int subsetId = stack[--stackSize];
+			SO outState = outStates.get(subsetId);
+
+			for (int i = 0; i < numInputs; i++) {
+				len = computeSuccessorSubset(subsetId, i);
+				if (partial && len == 0) {
+					continue;
+				}
+				int oldNumSubsets = numSubsets;
+				int succId = intern(len);
+				if (succId == oldNumSubsets) {
+					outStates.add(out.addState(scratchAccepting));
+					if (stackSize == stack.length) {
+						stack = Arrays.copyOf(stack, stackSize * 2);
+					}
+					stack[stackSize++] = succId;
+				}
+				out.setTransition(outState, inputs.get(i), outStates.get(succId));
+			}
+		}
+	}
+
+	private int computeInitialSubset() {
+		int mark = nextMark();
+		int len = 0;
+		boolean acc = false;
+		for (S init : nfa.getInitialStates()) {
+			int id = stateIds.getStateId(init);
+			if (marks[id] != mark) {
+				marks[id] = mark;
+				scratch[len++] = id;
+				acc |= accepting[id];
+			}
+		}
+		Arrays.sort(scratch, 0, len);
+		scratchAccepting = acc;
+		return len;
+	}
+
+	private int computeSuccessorSubset(int subsetId, int inputIdx) {
+		int mark = nextMark();
+		int len = 0;
+		boolean acc = false;
+		int end = subsetStarts[subsetId + 1];
+		for (int i = subsetStarts[subsetId]; i < end; i++) {
+			int[] succs = getSuccessors(subsetData[i], inputIdx);
+			for (int succ : succs) {
+				if (marks[succ] != mark) {
+					marks[succ] = mark;
+					scratch[len++] = succ;
+					acc |= accepting[succ];
+				}
+			}
+		}
+		Arrays.sort(scratch, 0, len);
+		scratchAccepting = acc;
+		return len;
+	}
+
+	private int[] getSuccessors(int stateId, int inputIdx) {
+		int idx = stateId * numInputs + inputIdx;
+		int[] succs = successors[idx];
+		if (succs == null) {
+			Collection<? extends S> succStates = nfa.getSuccessors(stateIds.getState(stateId), inputs.get(inputIdx));
+			if (succStates.isEmpty()) {
+				succs = EMPTY;
+			}
+			else {
+				succs = new int[succStates.size()];
+				int i = 0;
+				for (S succ : succStates) {
+					succs[i++] = stateIds.getStateId(succ);
+				}
+			}
+			successors[idx] = succs;
+		}
+		return succs;
+	}
+
+	private int nextMark() {
+		if (++currentMark == 0) {
+			Arrays.fill(marks, 0);
+			currentMark = 1;
+		}
+		return currentMark;
+	}
+
+	/**
+	 * Interns the subset stored in the first {@code len} elements of the scratch buffer. If the subset was not
+	 * encountered before, it is assigned the next free subset ID.
+	 *
+	 * @param len the size of the subset
+	 * @return the ID of the subset
+	 */
+	private int intern(int len) {
+		int hash = hash(scratch, len);
+		int mask = table.length - 1;
+		int pos = hash & mask;
+		int entry;
+		while ((entry = table[pos]) != 0) {
+			int id = entry - 1;
+			if (subsetHashes[id] == hash && subsetEquals(id, len)) {
+				return id;
+			}
+			pos = (pos + 1) & mask;
+		}
+
+		int id = numSubsets++;
+		ensureSubsetCapacity(numSubsets, len);
+		int start = subsetStarts[id];
+		System.arraycopy(scratch, 0, subsetData, start, len);
+		subsetStarts[id + 1] = start + len;
+		subsetHashes[id] = hash;
+		table[pos] = id + 1;
+
+		if (numSubsets * 2 > table.length) {
+			rehash();
+		}
+		return id;
+	}
+
+	private boolean subsetEquals(int id, int len) {
+		int start = subsetStarts[id];
+		if (subsetStarts[id + 1] - start != len) {
+			return false;
+		}
+		for (int i = 0; i < len; i++) {
+			if (subsetData[start + i] != scratch[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void ensureSubsetCapacity(int newNumSubsets, int len) {
+		if (newNumSubsets >= subsetStarts.length) {
+			int newCap = subsetStarts.length * 2;
+			subsetStarts = Arrays.copyOf(subsetStarts, newCap);
+			subsetHashes = Arrays.copyOf(subsetHashes, newCap);
+		}
+		int required = subsetStarts[newNumSubsets - 1] + len;
+		if (required > subsetData.length) {
+			int newCap = subsetData.length * 2;
+			if (newCap < required) {
+				newCap = required;
+			}
+			subsetData = Arrays.copyOf(subsetData, newCap);
+		}
+	}
+
+	private void rehash() {
+		int[] newTable = new int[table.length * 2];
+		int mask = newTable.length - 1;
+		for (int id = 0; id < numSubsets; id++) {
+			int pos = subsetHashes[id] & mask;
+			while (newTable[pos] != 0) {
+				pos = (pos + 1) & mask;
+			}
+			newTable[pos] = id + 1;
+		}
+		this.table = newTable;
+	}
+
+	private static int hash(int[] data, int len) {
+		int h = 1;
+		for (int i = 0; i < len; i++) {
+			h = 31 * h + data[i];
+		}
+		// spread bits, as the table size is a power of two
+		h ^= (h >>> 16);
+		h *= 0x85ebca6b;
+		h ^= (h >>> 13);
+		return h;
+	}
+}
@@ -54,6 +54,11 @@ import net.automatalib.words.Alphabet;
  * the automaton to be minimized ({@link PruningMode#PRUNE_BEFORE}), or on the calculated
  * state partition ({@link PruningMode#PRUNE_AFTER}). For methods that do not provide a
  * {@code pruningMode} parameter, the default is {@link PruningMode#PRUNE_AFTER}.
+ * <p>
+ * For large automata, the partition refinement can be performed in parallel, by specifying
+ * {@code true} for the {@code parallel} parameter of the respective methods (see
+ * {@link PaigeTarjan#computeCoarsestStablePartitionParallel()} for details). The resulting automata
+ * are equivalent to the ones computed sequentially, but their states may be numbered differently.
  * 
  * @author Malte Isberner
  */
@@ -102,7 +107,25 @@ public class HopcroftMinimization {
 			MealyMachine<?, I, ?, O> mealy,
 			Alphabet<I> alphabet,
 			PruningMode pruningMode) {
-		return doMinimizeMealy(mealy, alphabet, new CompactMealy.Creator<I,O>(), pruningMode);
+		return minimizeMealy(mealy, alphabet, pruningMode, false);
+	}
+	
+	/**
+	 * Minimizes the given Mealy machine, optionally performing the partition refinement in parallel.
+	 * The result is returned in the form of a {@link CompactMealy}.
+	 * 
+	 * @param mealy the Mealy machine to minimize
+	 * @param alphabet the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+	 * @param pruningMode the pruning mode (see above)
+	 * @param parallel whether the partition refinement should be performed in parallel
+	 * @return a minimized version of the specified Mealy machine
+	 */
+	public static <I,O> CompactMealy<I, O> minimizeMealy(
+			MealyMachine<?, I, ?, O> mealy,
+			Alphabet<I> alphabet,
+			PruningMode pruningMode,
+			boolean parallel) {
+		return doMinimizeMealy(mealy, alphabet, new CompactMealy.Creator<I,O>(), pruningMode, parallel);
 	}
 	
 	/**
@@ -129,7 +152,7 @@ public class HopcroftMinimization {
 	 */
 	public static <I,O,A extends MealyMachine<?,I,?,O> & InputAlphabetHolder<I>>
 	CompactMealy<I,O> minimizeMealy(A mealy, PruningMode pruningMode) {
-		return doMinimizeMealy((MealyMachine<?,I,?,O>) mealy, mealy.getInputAlphabet(), new CompactMealy.Creator<I,O>(), pruningMode);
+		return doMinimizeMealy((MealyMachine<?,I,?,O>) mealy, mealy.getInputAlphabet(), new CompactMealy.Creator<I,O>(), pruningMode, false);
 	}
 	
 	
@@ -155,7 +178,22 @@ public class HopcroftMinimization {
 	 * @return a minimized version of the specified DFA
 	 */
 	public static <I> CompactDFA<I> minimizeDFA(DFA<?,I> dfa, Alphabet<I> alphabet, PruningMode pruningMode) {
-		return doMinimizeDFA(dfa, alphabet, new CompactDFA.Creator<I>(), pruningMode);
+		return minimizeDFA(dfa, alphabet, pruningMode, false);
+	}
+	
+	/**
+	 * Minimizes the given DFA, optionally performing the partition refinement in parallel. The result is
+	 * returned in the form of a {@link CompactDFA}.
+	 * 
+	 * @param dfa the DFA to minimize
+	 * @param alphabet the input alphabet (this will be the input alphabet of the returned DFA)
+	 * @param pruningMode the pruning mode (see above)
+	 * @param parallel whether the partition refinement should be performed in parallel
+	 * @return a minimized version of the specified DFA
+	 */
+	public static <I> CompactDFA<I> minimizeDFA(DFA<?,I> dfa, Alphabet<I> alphabet, PruningMode pruningMode,
+			boolean parallel) {
+		return doMinimizeDFA(dfa, alphabet, new CompactDFA.Creator<I>(), pruningMode, parallel);
 	}
 	
 	/**
@@ -181,7 +219,7 @@ public class HopcroftMinimization {
 	 */
 	public static <I,A extends DFA<?,I> & InputAlphabetHolder<I>>
 	CompactDFA<I> minimizeDFA(A dfa, PruningMode pruningMode) {
-		return doMinimizeDFA((DFA<?,I>) dfa, dfa.getInputAlphabet(), new CompactDFA.Creator<I>(), pruningMode);
+		return doMinimizeDFA((DFA<?,I>) dfa, dfa.getInputAlphabet(), new CompactDFA.Creator<I>(), pruningMode, false);
 	}
 	
 	/**
@@ -202,7 +240,7 @@ public class HopcroftMinimization {
 	
 	private static <S,I,A extends MutableDeterministic<?, I, ?, Boolean, Void>>
 	A doMinimizeDFA(DFA<S,I> dfa, Alphabet<I> alphabet, AutomatonCreator<A, I> creator,
-			PruningMode pruning) {
+			PruningMode pruning, boolean parallel) {
 		
 		PaigeTarjan pt = new PaigeTarjan();
 		UniversalDeterministicAutomaton.FullIntAbstraction<?, Boolean, Void> absDfa
@@ -212,8 +250,13 @@ public class HopcroftMinimization {
 				AutomatonInitialPartitioning.BY_STATE_PROPERTY,
 				pruning == PruningMode.PRUNE_BEFORE);
 		
-		pt.initWorklist(false);
-		pt.computeCoarsestStablePartition();
+		if (parallel) {
+			pt.computeCoarsestStablePartitionParallel();
+		}
+		else {
+			pt.initWorklist(false);
+			pt.computeCoarsestStablePartition();
+		}
 		
 		return PaigeTarjanExtractors.toDeterministic(
 				pt,
@@ -227,7 +270,7 @@ public class HopcroftMinimization {
 	
 	private static <S,I,T,O,A extends MutableDeterministic<?, I, ?, Void, O>>
 	A doMinimizeMealy(MealyMachine<S,I,T,O> mealy, Alphabet<I> alphabet, AutomatonCreator<? extends A, I> creator,
-			PruningMode pruning) {
+			PruningMode pruning, boolean parallel) {
 		
 		PaigeTarjan pt = new PaigeTarjan();
 		
@@ -239,8 +282,13 @@ public class HopcroftMinimization {
 				AutomatonInitialPartitioning.BY_TRANSITION_PROPERTIES,
 				pruning == PruningMode.PRUNE_BEFORE);
 		
-		pt.initWorklist(false);
-		pt.computeCoarsestStablePartition();
+		if (parallel) {
+			pt.computeCoarsestStablePartitionParallel();
+		}
+		else {
+			pt.initWorklist(false);
+			pt.computeCoarsestStablePartition();
+		}
 		
 		return PaigeTarjanExtractors.toDeterministic(
 				pt,
@@ -0,0 +1,1313 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.hopcroft;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton;
+import net.automatalib.util.partitionrefinement.Block;
+import net.automatalib.util.partitionrefinement.PaigeTarjan;
+import net.automatalib.util.partitionrefinement.PaigeTarjanInitializers;
+import net.automatalib.words.Alphabet;
+
+/**
+ * Maintains the state equivalence (Myhill/Nerode) classes of a {@link CompactDFA} under modifications,
+ * allowing to extract a minimal DFA at any time.
+ * <p>
+ * The initial partition is computed using the {@link PaigeTarjan Paige/Tarjan} algorithm. Afterwards,
+ * all modifications of the DFA (adding states, changing acceptance, and setting, re-targeting or removing
+ * transitions) have to be performed through this class. They are recorded, and the partition is updated
+ * lazily upon the next query (or an explicit call to {@link #update()}), in two phases:
+ * <ol>
+ * <li>In the <i>split</i> phase, only the blocks containing modified states are split, such that the
+ * changed transitions are consistent with the partition again. The resulting blocks are then used as the
+ * initial worklist of Hopcroft's algorithm, which propagates the splits backwards. The cost of this phase
+ * is proportional to the number of transitions into blocks that are actually split.</li>
+ * <li>In the <i>merge</i> phase, blocks that have become equivalent are merged. For this purpose, every
+ * state carries a hash value of its behavior up to a fixed depth (its <i>signature</i>), which is updated
+ * by propagating changes backwards from the modified states up to that depth. Equivalent states always
+ * have the same signature, hence only blocks with the same signature need to be checked for equivalence,
+ * which is done using a union/find-based (Hopcroft/Karp) equivalence test on the quotient. Only blocks
+ * affected by the modifications are checked: if two blocks become equivalent, a word that distinguished
+ * them before leads to a pair of equivalent blocks one of which contains a modified state (or was created
+ * in the split phase). Starting from these blocks, merges are propagated backwards, by checking the
+ * predecessor blocks of merged blocks.</li>
+ * </ol>
+ * Undefined transitions are treated as transitions into an implicit, rejecting sink, i.e., a state with
+ * an empty language is equivalent to an undefined successor.
+ * <p>
+ * Note that the cost of the merge phase also depends on the number of inequivalent blocks sharing the
+ * signature of an affected block. A larger signature depth reduces the number of such blocks, at the cost
+ * of a more expensive propagation of signature changes. If the equivalence tests of a single update exceed
+ * a work limit proportional to the size of the quotient (e.g., for long chains of states with identical
+ * signatures), the equivalence of the remaining blocks is instead computed on the quotient using the
+ * Paige/Tarjan algorithm. Hence, an update never costs asymptotically more than minimizing the quotient.
+ * 
+ * @author agent
+ *
+ * @param <I> input symbol class
+ */
+public class IncrementalHopcroftMinimizer<I> {
+	
+	public static final int DEFAULT_SIGNATURE_DEPTH = 4;
+	
+	private static final int MERGE_WORK_FACTOR = 4;
+	
+	private static final int SINK = 0;
+	private static final int NONE = -1;
+	
+	private final CompactDFA<I> dfa;
+	private final int numInputs;
+	private final int sigDepth;
+	
+	private int capacity;
+	// number of internal states, i.e., states of the DFA plus the sink. State s of
+	// the DFA is represented by the internal state s + 1
+	private int numStates;
+	
+	// successors and predecessor lists, indexed by transition (state * numInputs + input)
+	private int[] succ;
+	private int[] predHead;
+	private int[] predNext;
+	private int[] predPrev;
+	private final BitSet accepting = new BitSet();
+	
+	// signatures, indexed by depth and state
+	private final int[][] sigs;
+	
+	// partition: block membership is stored as a doubly-linked list per block
+	private int[] blockOf;
+	private int[] memberNext;
+	private int[] memberPrev;
+	private int[] blockHead;
+	private int[] blockSize;
+	private int[] freeBlocks;
+	private int numFreeBlocks;
+	private int nextBlockId;
+	private int numBlocks;
+	
+	// worklist of Hopcroft's algorithm
+	private int[] worklist;
+	private int worklistSize;
+	private final BitSet inWorklist = new BitSet();
+	
+	// signature table: hash chains of blocks, keyed by the signature of their states
+	private int[] blockSig;
+	private final BitSet registered = new BitSet();
+	private int[] bucketNext;
+	private int[] bucketPrev;
+	private int[] bucketHeads;
+	private int numRegistered;
+	
+	// merge phase: blocks to check for equivalence with blocks of the same signature, and merged blocks
+	// whose predecessors need to be checked
+	private int[] mergeCandidates = new int[16];
+	private int[] mergedBlocks = new int[16];
+	private int numMergedBlocks;
+	private final BitSet inMergedBlocks = new BitSet();
+	// work spent on equivalence tests in the current merge phase, and the limit beyond which the
+	// equivalence is computed on the quotient instead
+	private long mergeWork;
+	private long mergeWorkLimit;
+	
+	// pending modifications
+	private int[] dirtyStates = new int[16];
+	private int numDirtyStates;
+	private final BitSet dirtyStateSet = new BitSet();
+	private int[] pendingTransitions = new int[16];
+	private int numPendingTransitions;
+	private final BitSet pendingTransitionSet = new BitSet();
+	private int[] newBlocks = new int[16];
+	private int numNewBlocks;
+	
+	// scratch space
+	private int[] stateStamps;
+	private int[] blockStamps;
+	private int[] blockScratch;
+	private int[] blockScratch2;
+	private int currStamp;
+	private int[] buffer = new int[16];
+	private int[] buffer2 = new int[16];
+	private int[] splitterStates = new int[16];
+	private long[] predKeys = new long[16];
+	
+	/**
+	 * Constructor. Uses the {@link #DEFAULT_SIGNATURE_DEPTH default signature depth}.
+	 * 
+	 * @param dfa the DFA, which may from now on only be modified through this object
+	 */
+	public IncrementalHopcroftMinimizer(CompactDFA<I> dfa) {
+		this(dfa, DEFAULT_SIGNATURE_DEPTH);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param dfa the DFA, which may from now on only be modified through this object
+	 * @param sigDepth the depth up to which the behavior of states is hashed for detecting
+	 * equivalent blocks
+	 */
+	public IncrementalHopcroftMinimizer(CompactDFA<I> dfa, int sigDepth) {
+		if (sigDepth < 0) {
+			throw new IllegalArgumentException("Signature depth must not be negative");
+		}
+		this.dfa = dfa;
+		this.numInputs = dfa.getInputAlphabet().size();
+		this.sigDepth = sigDepth;
+		this.sigs = new int[sigDepth + 1][];
+		
+		int size = dfa.size();
+		this.numStates = size + 1;
+		allocate(Math.max(numStates, 16));
+		
+		Arrays.fill(predHead, 0, numStates * numInputs, NONE);
+		for (int i = 0; i < numInputs; i++) {
+			linkTransition(SINK * numInputs + i, SINK);
+		}
+		for (int s = 0; s < size; s++) {
+			int state = s + 1;
+			if (dfa.isAccepting(s)) {
+				accepting.set(state);
+			}
+			int base = state * numInputs;
+			for (int i = 0; i < numInputs; i++) {
+				int dfaSucc = dfa.getIntTransition(s, i);
+				linkTransition(base + i, (dfaSucc < 0) ? SINK : dfaSucc + 1);
+			}
+		}
+		
+		initPartition();
+		initSignatures();
+	}
+	
+	private void allocate(int cap) {
+		this.capacity = cap;
+		int transCap = cap * numInputs;
+		this.succ = new int[transCap];
+		this.predHead = new int[transCap];
+		this.predNext = new int[transCap];
+		this.predPrev = new int[transCap];
+		for (int d = 0; d <= sigDepth; d++) {
+			sigs[d] = new int[cap];
+		}
+		this.blockOf = new int[cap];
+		this.memberNext = new int[cap];
+		this.memberPrev = new int[cap];
+		this.blockHead = new int[cap];
+		this.blockSize = new int[cap];
+		this.freeBlocks = new int[cap];
+		this.worklist = new int[cap];
+		this.blockSig = new int[cap];
+		this.bucketNext = new int[cap];
+		this.bucketPrev = new int[cap];
+		this.stateStamps = new int[cap];
+		this.blockStamps = new int[cap];
+		this.blockScratch = new int[cap];
+		this.blockScratch2 = new int[cap];
+		this.bucketHeads = new int[Integer.highestOneBit(cap - 1) << 1];
+		Arrays.fill(bucketHeads, NONE);
+	}
+	
+	private void ensureCapacity(int cap) {
+		if (cap <= capacity) {
+			return;
+		}
+		int newCap = Math.max(cap, capacity + (capacity >> 1));
+		int transCap = newCap * numInputs;
+		int oldTransCap = capacity * numInputs;
+		this.succ = Arrays.copyOf(succ, transCap);
+		this.predHead = Arrays.copyOf(predHead, transCap);
+		Arrays.fill(predHead, oldTransCap, transCap, NONE);
+		this.predNext = Arrays.copyOf(predNext, transCap);
+		this.predPrev = Arrays.copyOf(predPrev, transCap);
+		for (int d = 0; d <= sigDepth; d++) {
+			sigs[d] = Arrays.copyOf(sigs[d], newCap);
+		}
+		this.blockOf = Arrays.copyOf(blockOf, newCap);
+		this.memberNext = Arrays.copyOf(memberNext, newCap);
+		this.memberPrev = Arrays.copyOf(memberPrev, newCap);
+		this.blockHead = Arrays.copyOf(blockHead, newCap);
+		this.blockSize = Arrays.copyOf(blockSize, newCap);
+		this.freeBlocks = Arrays.copyOf(freeBlocks, newCap);
+		this.worklist = Arrays.copyOf(worklist, newCap);
+		this.blockSig = Arrays.copyOf(blockSig, newCap);
+		this.bucketNext = Arrays.copyOf(bucketNext, newCap);
+		this.bucketPrev = Arrays.copyOf(bucketPrev, newCap);
+		this.stateStamps = Arrays.copyOf(stateStamps, newCap);
+		this.blockStamps = Arrays.copyOf(blockStamps, newCap);
+		this.blockScratch = Arrays.copyOf(blockScratch, newCap);
+		this.blockScratch2 = Arrays.copyOf(blockScratch2, newCap);
+		this.capacity = newCap;
+	}
+	
+	private void initPartition() {
+		PaigeTarjan pt = new PaigeTarjan();
+		PaigeTarjanInitializers.initCompleteDeterministic(pt, new InternalAbstraction(),
+				state -> accepting.get(state), false);
+		pt.initWorklist(false);
+		pt.computeCoarsestStablePartition();
+		
+		for (Block b : pt.blockList()) {
+			if (b.isEmpty()) {
+				continue;
+			}
+			int block = allocBlock();
+			for (int i = b.low; i < b.high; i++) {
+				addToBlock(pt.blockData[i], block);
+			}
+		}
+	}
+	
+	private void initSignatures() {
+		for (int d = 0; d <= sigDepth; d++) {
+			for (int state = 0; state < numStates; state++) {
+				sigs[d][state] = computeSignature(d, state);
+			}
+		}
+		for (int b = 0; b < nextBlockId; b++) {
+			if (blockSize[b] > 0) {
+				register(b);
+			}
+		}
+	}
+	
+	/**
+	 * Retrieves the DFA whose states are partitioned by this object. The returned DFA must not be
+	 * modified directly.
+	 * 
+	 * @return the DFA
+	 */
+	public CompactDFA<I> getDFA() {
+		return dfa;
+	}
+	
+	/**
+	 * Adds a state to the DFA. All transitions of this state are initially undefined.
+	 * 
+	 * @param accepting whether the new state is accepting
+	 * @return the ID of the new state
+	 */
+	public int addState(boolean accepting) {
+		int s = dfa.addIntState(accepting);
+		int state = numStates++;
+		ensureCapacity(numStates);
+		if (accepting) {
+			this.accepting.set(state);
+		}
+		int base = state * numInputs;
+		for (int i = 0; i < numInputs; i++) {
+			predHead[base + i] = NONE;
+			linkTransition(base + i, SINK);
+		}
+		for (int d = 0; d <= sigDepth; d++) {
+			sigs[d][state] = 0;
+		}
+		
+		// a state without incoming transitions can form a block of its own without violating stability
+		int block = allocBlock();
+		addToBlock(state, block);
+		addNewBlock(block);
+		markDirty(state);
+		return s;
+	}
+	
+	/**
+	 * Changes the acceptance of a state.
+	 * 
+	 * @param s the ID of the state
+	 * @param accepting whether the state should be accepting
+	 */
+	public void setAccepting(int s, boolean accepting) {
+		int state = s + 1;
+		if (this.accepting.get(state) == accepting) {
+			return;
+		}
+		dfa.setAccepting(s, accepting);
+		this.accepting.set(state, accepting);
+		
+		int block = blockOf[state];
+		if (blockSize[block] > 1) {
+			removeFromBlock(state, block);
+			int single = allocBlock();
+			addToBlock(state, single);
+			// stability w.r.t. the old block is retained, so the singleton suffices as a splitter
+			addToWorklist(single);
+			addNewBlock(single);
+		}
+		markDirty(state);
+	}
+	
+	/**
+	 * Sets the successor of a transition.
+	 * 
+	 * @param s the ID of the source state
+	 * @param input the input symbol
+	 * @param succ the ID of the successor state, or a negative value for removing the transition
+	 */
+	public void setTransition(int s, I input, int succ) {
+		setTransition(s, dfa.getInputAlphabet().getSymbolIndex(input), succ);
+	}
+	
+	/**
+	 * Sets the successor of a transition.
+	 * 
+	 * @param s the ID of the source state
+	 * @param inputIdx the index of the input symbol
+	 * @param succ the ID of the successor state, or a negative value for removing the transition
+	 */
+	public void setTransition(int s, int inputIdx, int succ) {
+		int newSucc = (succ < 0) ? SINK : succ + 1;
+		int trans = (s + 1) * numInputs + inputIdx;
+		int oldSucc = this.succ[trans];
+		if (oldSucc == newSucc) {
+			return;
+		}
+		dfa.setTransition(s, inputIdx, (succ < 0) ? -1 : succ);
+		unlinkTransition(trans, oldSucc);
+		linkTransition(trans, newSucc);
+		
+		if (!pendingTransitionSet.get(trans)) {
+			pendingTransitionSet.set(trans);
+			pendingTransitions = append(pendingTransitions, numPendingTransitions++, trans);
+		}
+		markDirty(s + 1);
+	}
+	
+	/**
+	 * Sets the initial state of the DFA. This does not affect the partition.
+	 * 
+	 * @param s the ID of the new initial state, or a negative value for none
+	 */
+	public void setInitialState(int s) {
+		dfa.setInitialState((s < 0) ? -1 : s);
+	}
+	
+	/**
+	 * Checks whether two states of the DFA are equivalent.
+	 * 
+	 * @param s1 the ID of the first state
+	 * @param s2 the ID of the second state
+	 * @return {@code true} if the states accept the same language, {@code false} otherwise
+	 */
+	public boolean isEquivalent(int s1, int s2) {
+		update();
+		return blockOf[s1 + 1] == blockOf[s2 + 1];
+	}
+	
+	/**
+	 * Retrieves the number of equivalence classes of the DFA, including the class of
+	 * states with an empty language and classes of unreachable states.
+	 * 
+	 * @return the number of equivalence classes
+	 */
+	public int getNumClasses() {
+		update();
+		return numBlocks;
+	}
+	
+	/**
+	 * Creates a minimal DFA equivalent to the current DFA. States with an empty language are not
+	 * represented in the result (i.e., transitions into such states are undefined), unless the initial
+	 * state has an empty language.
+	 * 
+	 * @return a minimal DFA equivalent to the current DFA
+	 */
+	public CompactDFA<I> toMinimalDFA() {
+		update();
+		
+		Alphabet<I> alphabet = dfa.getInputAlphabet();
+		int init = dfa.getIntInitialState();
+		if (init < 0) {
+			return new CompactDFA<>(alphabet, 1);
+		}
+		int sinkBlock = blockOf[SINK];
+		int initBlock = blockOf[init + 1];
+		if (initBlock == sinkBlock) {
+			CompactDFA<I> result = new CompactDFA<>(alphabet, 1);
+			result.addIntInitialState(false);
+			return result;
+		}
+		
+		CompactDFA<I> result = new CompactDFA<>(alphabet, numBlocks);
+		int[] stateForBlock = blockScratch;
+		int stamp = nextStamp();
+		int[] queue = blockScratch2;
+		
+		blockStamps[initBlock] = stamp;
+		stateForBlock[initBlock] = result.addIntInitialState(accepting.get(blockHead[initBlock]));
+		queue[0] = initBlock;
+		for (int head = 0, tail = 1; head < tail;) {
+			int block = queue[head++];
+			int rep = blockHead[block];
+			int resState = stateForBlock[block];
+			int base = rep * numInputs;
+			for (int i = 0; i < numInputs; i++) {
+				int succBlock = blockOf[succ[base + i]];
+				if (succBlock == sinkBlock) {
+					continue;
+				}
+				if (blockStamps[succBlock] != stamp) {
+					blockStamps[succBlock] = stamp;
+					stateForBlock[succBlock] = result.addIntState(accepting.get(blockHead[succBlock]));
+					queue[tail++] = succBlock;
+				}
+				result.setTransition(resState, i, stateForBlock[succBlock]);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Updates the partition according to all modifications since the last update. This method
+	 * is called implicitly by all query methods.
+	 */
+	public void update() {
+		if (numDirtyStates == 0 && worklistSize == 0) {
+			return;
+		}
+		
+		splitPendingTransitions();
+		refine();
+		propagateSignatures();
+		for (int i = 0; i < numNewBlocks; i++) {
+			int block = newBlocks[i];
+			if (blockSize[block] > 0) {
+				register(block);
+			}
+		}
+		mergeEquivalentBlocks();
+		numNewBlocks = 0;
+		
+		for (int i = 0; i < numDirtyStates; i++) {
+			dirtyStateSet.clear(dirtyStates[i]);
+		}
+		numDirtyStates = 0;
+	}
+	
+	/*
+	 * Split phase
+	 */
+	
+	/**
+	 * Splits the blocks containing sources of modified transitions, such that for every block and
+	 * input, the successors of all states in that block are contained in the same block again.
+	 */
+	private void splitPendingTransitions() {
+		if (numPendingTransitions == 0) {
+			return;
+		}
+		
+		long[] keys = new long[numPendingTransitions];
+		for (int i = 0; i < numInputs; i++) {
+			int numKeys = 0;
+			for (int j = 0; j < numPendingTransitions; j++) {
+				int trans = pendingTransitions[j];
+				if (trans % numInputs == i) {
+					int state = trans / numInputs;
+					keys[numKeys++] = ((long) blockOf[state] << 32) | state;
+				}
+			}
+			if (numKeys == 0) {
+				continue;
+			}
+			Arrays.sort(keys, 0, numKeys);
+			
+			int low = 0;
+			while (low < numKeys) {
+				int block = (int) (keys[low] >>> 32);
+				int high = low + 1;
+				while (high < numKeys && (int) (keys[high] >>> 32) == block) {
+					high++;
+				}
+				buffer = ensureBuffer(buffer, high - low);
+				for (int j = low; j < high; j++) {
+					buffer[j - low] = (int) keys[j];
+				}
+				splitByInput(block, i, buffer, high - low);
+				low = high;
+			}
+		}
+		
+		for (int j = 0; j < numPendingTransitions; j++) {
+			pendingTransitionSet.clear(pendingTransitions[j]);
+		}
+		numPendingTransitions = 0;
+	}
+	
+	/**
+	 * Splits a block such that the given (modified) states are separated from the other states if their
+	 * successors for the given input are in a different block. All other states of the block are assumed
+	 * to have their successors in the same block.
+	 */
+	private void splitByInput(int block, int input, int[] states, int count) {
+		if (blockSize[block] == 1) {
+			return;
+		}
+		
+		int stamp = nextStamp();
+		for (int j = 0; j < count; j++) {
+			stateStamps[states[j]] = stamp;
+		}
+		// find an unmodified state
+		int ref = blockHead[block];
+		while (ref != NONE && stateStamps[ref] == stamp) {
+			ref = memberNext[ref];
+		}
+		if (ref == NONE) {
+			ref = states[0];
+		}
+		int refSuccBlock = blockOf[succ[ref * numInputs + input]];
+		
+		// blockStamps/blockScratch: successor block -> new block for states with successors in it
+		int numSplit = 0;
+		int[] splits = buffer2 = ensureBuffer(buffer2, count);
+		for (int j = 0; j < count; j++) {
+			int state = states[j];
+			int succBlock = blockOf[succ[state * numInputs + input]];
+			if (succBlock == refSuccBlock) {
+				continue;
+			}
+			int target;
+			if (blockStamps[succBlock] != stamp) {
+				blockStamps[succBlock] = stamp;
+				target = allocBlock();
+				blockScratch[succBlock] = target;
+				splits[numSplit++] = target;
+			}
+			else {
+				target = blockScratch[succBlock];
+			}
+			removeFromBlock(state, block);
+			addToBlock(state, target);
+		}
+		
+		if (numSplit == 0) {
+			return;
+		}
+		
+		if (inWorklist.get(block)) {
+			for (int j = 0; j < numSplit; j++) {
+				addToWorklist(splits[j]);
+			}
+		}
+		else {
+			int largest = block;
+			for (int j = 0; j < numSplit; j++) {
+				if (blockSize[splits[j]] > blockSize[largest]) {
+					largest = splits[j];
+				}
+			}
+			if (largest != block) {
+				addToWorklist(block);
+			}
+			for (int j = 0; j < numSplit; j++) {
+				if (splits[j] != largest) {
+					addToWorklist(splits[j]);
+				}
+			}
+		}
+		for (int j = 0; j < numSplit; j++) {
+			addNewBlock(splits[j]);
+		}
+	}
+	
+	/**
+	 * Hopcroft's algorithm, starting from the current worklist.
+	 */
+	private void refine() {
+		int[] touched = blockScratch2;
+		int[] splitOf = blockScratch;
+		
+		while (worklistSize > 0) {
+			int splitter = worklist[--worklistSize];
+			inWorklist.clear(splitter);
+			
+			// the splitter may itself be split while processing it
+			int splitterSize = 0;
+			for (int state = blockHead[splitter]; state != NONE; state = memberNext[state]) {
+				splitterStates = append(splitterStates, splitterSize++, state);
+			}
+			
+			for (int i = 0; i < numInputs; i++) {
+				int stamp = nextStamp();
+				int numPreds = 0;
+				int numTouched = 0;
+				
+				for (int k = 0; k < splitterSize; k++) {
+					for (int t = predHead[splitterStates[k] * numInputs + i]; t != NONE; t = predNext[t]) {
+						int pred = t / numInputs;
+						if (stateStamps[pred] == stamp) {
+							continue;
+						}
+						stateStamps[pred] = stamp;
+						buffer = append(buffer, numPreds++, pred);
+						int block = blockOf[pred];
+						if (blockStamps[block] != stamp) {
+							blockStamps[block] = stamp;
+							splitOf[block] = 0;
+							touched[numTouched++] = block;
+						}
+						splitOf[block]++;
+					}
+				}
+				
+				if (numTouched == 0) {
+					continue;
+				}
+				
+				// splitOf: number of touched states -> new block (or NONE)
+				for (int j = 0; j < numTouched; j++) {
+					int block = touched[j];
+					splitOf[block] = (splitOf[block] < blockSize[block]) ? allocBlock() : NONE;
+				}
+				for (int j = 0; j < numPreds; j++) {
+					int pred = buffer[j];
+					int block = blockOf[pred];
+					if (blockStamps[block] != stamp) {
+						// pred has already been moved to a new block
+						continue;
+					}
+					int newBlock = splitOf[block];
+					if (newBlock != NONE) {
+						removeFromBlock(pred, block);
+						addToBlock(pred, newBlock);
+					}
+				}
+				for (int j = 0; j < numTouched; j++) {
+					int block = touched[j];
+					int newBlock = splitOf[block];
+					if (newBlock == NONE) {
+						continue;
+					}
+					if (inWorklist.get(block) || blockSize[newBlock] <= blockSize[block]) {
+						addToWorklist(newBlock);
+					}
+					else {
+						addToWorklist(block);
+					}
+					addNewBlock(newBlock);
+				}
+			}
+		}
+	}
+	
+	/*
+	 * Merge phase
+	 */
+	
+	private int computeSignature(int depth, int state) {
+		int h = accepting.get(state) ? 0x7a3f5c1d : 0x1b873593;
+		if (depth > 0) {
+			int[] succSigs = sigs[depth - 1];
+			int base = state * numInputs;
+			for (int i = 0; i < numInputs; i++) {
+				h = h * 0x9e3779b9 + succSigs[succ[base + i]];
+			}
+		}
+		// final mixing step of MurmurHash3
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+	
+	/**
+	 * Updates the signatures of the modified states and their predecessors (up to the signature depth),
+	 * and re-registers the blocks of states whose signature has changed.
+	 */
+	private void propagateSignatures() {
+		int[] curr = ensureBuffer(buffer, numDirtyStates);
+		System.arraycopy(dirtyStates, 0, curr, 0, numDirtyStates);
+		int numCurr = numDirtyStates;
+		int[] changed = buffer2;
+		int numChanged = 0;
+		
+		for (int d = 0; d <= sigDepth; d++) {
+			numChanged = 0;
+			int[] levelSigs = sigs[d];
+			for (int j = 0; j < numCurr; j++) {
+				int state = curr[j];
+				int sig = computeSignature(d, state);
+				if (sig != levelSigs[state]) {
+					levelSigs[state] = sig;
+					changed = append(changed, numChanged++, state);
+				}
+			}
+			if (d == sigDepth) {
+				break;
+			}
+			
+			int stamp = nextStamp();
+			numCurr = 0;
+			for (int j = 0; j < numDirtyStates; j++) {
+				int state = dirtyStates[j];
+				stateStamps[state] = stamp;
+				curr = append(curr, numCurr++, state);
+			}
+			for (int j = 0; j < numChanged; j++) {
+				int base = changed[j] * numInputs;
+				for (int i = 0; i < numInputs; i++) {
+					for (int t = predHead[base + i]; t != NONE; t = predNext[t]) {
+						int pred = t / numInputs;
+						if (stateStamps[pred] != stamp) {
+							stateStamps[pred] = stamp;
+							curr = append(curr, numCurr++, pred);
+						}
+					}
+				}
+			}
+		}
+		buffer = curr;
+		buffer2 = changed;
+		
+		for (int j = 0; j < numChanged; j++) {
+			int block = blockOf[changed[j]];
+			if (blockSig[block] != sigs[sigDepth][changed[j]] || !registered.get(block)) {
+				register(block);
+			}
+		}
+	}
+	
+	private void register(int block) {
+		int sig = sigs[sigDepth][blockHead[block]];
+		if (registered.get(block)) {
+			if (blockSig[block] == sig) {
+				return;
+			}
+			unregister(block);
+		}
+		
+		if (2 * (numRegistered + 1) > bucketHeads.length) {
+			rehash(bucketHeads.length * 2);
+		}
+		
+		blockSig[block] = sig;
+		int bucket = sig & (bucketHeads.length - 1);
+		int head = bucketHeads[bucket];
+		bucketNext[block] = head;
+		bucketPrev[block] = NONE;
+		if (head != NONE) {
+			bucketPrev[head] = block;
+		}
+		bucketHeads[bucket] = block;
+		registered.set(block);
+		numRegistered++;
+	}
+	
+	private void unregister(int block) {
+		int next = bucketNext[block], prev = bucketPrev[block];
+		if (prev != NONE) {
+			bucketNext[prev] = next;
+		}
+		else {
+			bucketHeads[blockSig[block] & (bucketHeads.length - 1)] = next;
+		}
+		if (next != NONE) {
+			bucketPrev[next] = prev;
+		}
+		registered.clear(block);
+		numRegistered--;
+	}
+	
+	private void rehash(int newSize) {
+		this.bucketHeads = new int[newSize];
+		Arrays.fill(bucketHeads, NONE);
+		int mask = newSize - 1;
+		for (int block = registered.nextSetBit(0); block >= 0; block = registered.nextSetBit(block + 1)) {
+			int bucket = blockSig[block] & mask;
+			int head = bucketHeads[bucket];
+			bucketNext[block] = head;
+			bucketPrev[block] = NONE;
+			if (head != NONE) {
+				bucketPrev[head] = block;
+			}
+			bucketHeads[bucket] = block;
+		}
+	}
+	
+	/**
+	 * Checks the blocks affected by the modifications (i.e., the blocks containing modified states, and the
+	 * blocks created in the split phase) for equivalence with blocks of the same signature, and merges
+	 * equivalent blocks. Afterwards, merges are propagated backwards. If this exceeds the work limit, the
+	 * equivalence is computed on the quotient instead.
+	 */
+	private void mergeEquivalentBlocks() {
+		mergeWork = 0L;
+		mergeWorkLimit = MERGE_WORK_FACTOR * (long) numBlocks * numInputs;
+		
+		int numCandidates = 0;
+		int stamp = nextStamp();
+		for (int i = 0; i < numDirtyStates; i++) {
+			int block = blockOf[dirtyStates[i]];
+			if (blockStamps[block] != stamp) {
+				blockStamps[block] = stamp;
+				mergeCandidates = append(mergeCandidates, numCandidates++, block);
+			}
+		}
+		for (int i = 0; i < numNewBlocks; i++) {
+			int block = newBlocks[i];
+			if (blockSize[block] > 0 && blockStamps[block] != stamp) {
+				blockStamps[block] = stamp;
+				mergeCandidates = append(mergeCandidates, numCandidates++, block);
+			}
+		}
+		
+		// blocks that have been merged away in the meantime are recognized by their size
+		for (int j = 0; j < numCandidates && !mergeLimitExceeded(); j++) {
+			int block = mergeCandidates[j];
+			if (blockSize[block] > 0) {
+				mergeWithBucket(block);
+			}
+		}
+		
+		while (numMergedBlocks > 0) {
+			int block = mergedBlocks[--numMergedBlocks];
+			inMergedBlocks.clear(block);
+			if (blockSize[block] > 0 && !mergeLimitExceeded()) {
+				mergePredecessors(block);
+			}
+		}
+		
+		if (mergeLimitExceeded()) {
+			mergeQuotient();
+		}
+	}
+	
+	private boolean mergeLimitExceeded() {
+		return mergeWork > mergeWorkLimit;
+	}
+	
+	/**
+	 * Checks the given block for equivalence with all other blocks of the same signature.
+	 */
+	private void mergeWithBucket(int block) {
+		int sig = blockSig[block];
+		int numOthers = 0;
+		int[] others = buffer2;
+		for (int b = bucketHeads[sig & (bucketHeads.length - 1)]; b != NONE; b = bucketNext[b]) {
+			if (b != block && blockSig[b] == sig) {
+				others = append(others, numOthers++, b);
+			}
+		}
+		buffer2 = others;
+		mergeWork += numOthers;
+		
+		int rep = blockHead[block];
+		for (int k = 0; k < numOthers && !mergeLimitExceeded(); k++) {
+			int other = others[k];
+			if (blockSize[other] > 0 && blockOf[rep] != other) {
+				mergeIfEquivalent(blockOf[rep], other);
+			}
+		}
+	}
+	
+	/**
+	 * Checks the predecessor blocks of a block into which other blocks have been merged. Predecessors
+	 * of the merged blocks (for the same input) may have become equivalent, hence all such predecessor
+	 * blocks with the same signature are checked for equivalence.
+	 */
+	private void mergePredecessors(int block) {
+		for (int i = 0; i < numInputs; i++) {
+			int stamp = nextStamp();
+			int numPreds = 0;
+			long[] keys = predKeys;
+			for (int state = blockHead[block]; state != NONE; state = memberNext[state]) {
+				for (int t = predHead[state * numInputs + i]; t != NONE; t = predNext[t]) {
+					int predBlock = blockOf[t / numInputs];
+					if (blockStamps[predBlock] != stamp) {
+						blockStamps[predBlock] = stamp;
+						if (numPreds == keys.length) {
+							keys = Arrays.copyOf(keys, numPreds + (numPreds >> 1) + 1);
+						}
+						keys[numPreds++] = ((long) blockSig[predBlock] << 32) | predBlock;
+					}
+				}
+			}
+			predKeys = keys;
+			mergeWork += numPreds;
+			if (numPreds < 2) {
+				continue;
+			}
+			
+			// group the predecessor blocks by their signature
+			Arrays.sort(keys, 0, numPreds);
+			int low = 0;
+			while (low < numPreds) {
+				int sig = (int) (keys[low] >>> 32);
+				int high = low + 1;
+				while (high < numPreds && (int) (keys[high] >>> 32) == sig) {
+					high++;
+				}
+				for (int k = low; k < high && !mergeLimitExceeded(); k++) {
+					int b1 = (int) keys[k];
+					if (blockSize[b1] == 0) {
+						continue;
+					}
+					int rep = blockHead[b1];
+					for (int l = k + 1; l < high; l++) {
+						int b2 = (int) keys[l];
+						if (blockSize[b2] > 0 && blockOf[rep] != b2) {
+							mergeIfEquivalent(blockOf[rep], b2);
+						}
+					}
+				}
+				low = high;
+			}
+			if (blockSize[block] == 0) {
+				// the block itself has been merged into another one, which has been scheduled instead
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Tests two blocks for equivalence using a union/find-based exploration of pairs of blocks
+	 * (Hopcroft/Karp). If they are equivalent, all pairs of blocks identified during the exploration
+	 * are equivalent as well, and are merged.
+	 * 
+	 * @return {@code true} if the blocks were equivalent (and have been merged), {@code false} otherwise
+	 */
+	private boolean mergeIfEquivalent(int block1, int block2) {
+		int[] ufParent = blockScratch;
+		int stamp = nextStamp();
+		
+		// pairs to explore, which are also the unions performed
+		int[] pairs = buffer;
+		int numPairs = 0;
+		if (accepting.get(blockHead[block1]) != accepting.get(blockHead[block2])) {
+			return false;
+		}
+		ufInit(ufParent, stamp, block1);
+		ufInit(ufParent, stamp, block2);
+		ufParent[block2] = block1;
+		pairs = append(pairs, numPairs++, block1);
+		pairs = append(pairs, numPairs++, block2);
+		
+		boolean equivalent = true;
+		for (int p = 0; p < numPairs && equivalent; p += 2) {
+			int base1 = blockHead[pairs[p]] * numInputs;
+			int base2 = blockHead[pairs[p + 1]] * numInputs;
+			for (int i = 0; i < numInputs; i++) {
+				int succ1 = blockOf[succ[base1 + i]];
+				int succ2 = blockOf[succ[base2 + i]];
+				ufInit(ufParent, stamp, succ1);
+				ufInit(ufParent, stamp, succ2);
+				int root1 = ufFind(ufParent, succ1);
+				int root2 = ufFind(ufParent, succ2);
+				if (root1 == root2) {
+					continue;
+				}
+				if (blockSig[succ1] != blockSig[succ2]
+						|| accepting.get(blockHead[succ1]) != accepting.get(blockHead[succ2])) {
+					equivalent = false;
+					break;
+				}
+				ufParent[root2] = root1;
+				pairs = append(pairs, numPairs++, succ1);
+				pairs = append(pairs, numPairs++, succ2);
+			}
+		}
+		buffer = pairs;
+		mergeWork += (long) (numPairs >> 1) * numInputs;
+		
+		if (!equivalent) {
+			return false;
+		}
+		
+		// merge along the identified pairs; merged-away blocks are forwarded via blockStamps/blockScratch2
+		int mergeStamp = nextStamp();
+		int[] forward = blockScratch2;
+		for (int p = 0; p < numPairs; p += 2) {
+			int b1 = resolve(forward, mergeStamp, pairs[p]);
+			int b2 = resolve(forward, mergeStamp, pairs[p + 1]);
+			if (b1 == b2) {
+				continue;
+			}
+			if (blockSize[b1] < blockSize[b2]) {
+				int tmp = b1;
+				b1 = b2;
+				b2 = tmp;
+			}
+			mergeBlocks(b1, b2);
+			blockStamps[b2] = mergeStamp;
+			forward[b2] = b1;
+			if (!inMergedBlocks.get(b1)) {
+				inMergedBlocks.set(b1);
+				mergedBlocks = append(mergedBlocks, numMergedBlocks++, b1);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Computes the equivalence of all blocks on the quotient using the Paige/Tarjan algorithm, and merges
+	 * equivalent blocks. As the partition is stable, equivalent blocks of the quotient contain equivalent
+	 * states.
+	 */
+	private void mergeQuotient() {
+		final int[] quotientBlocks = blockScratch2;
+		final int[] quotientIndex = blockScratch;
+		int numQuotientStates = 0;
+		for (int b = 0; b < nextBlockId; b++) {
+			if (blockSize[b] > 0) {
+				quotientIndex[b] = numQuotientStates;
+				quotientBlocks[numQuotientStates++] = b;
+			}
+		}
+		
+		PaigeTarjan pt = new PaigeTarjan();
+		PaigeTarjanInitializers.initCompleteDeterministic(pt,
+				new QuotientAbstraction(quotientBlocks, quotientIndex, numQuotientStates),
+				q -> accepting.get(blockHead[quotientBlocks[q]]), false);
+		pt.initWorklist(false);
+		pt.computeCoarsestStablePartition();
+		
+		for (Block b : pt.blockList()) {
+			if (b.size() < 2) {
+				continue;
+			}
+			int target = quotientBlocks[pt.blockData[b.low]];
+			for (int i = b.low + 1; i < b.high; i++) {
+				int other = quotientBlocks[pt.blockData[i]];
+				if (blockSize[other] > blockSize[target]) {
+					int tmp = target;
+					target = other;
+					other = tmp;
+				}
+				mergeBlocks(target, other);
+			}
+		}
+	}
+	
+	private void ufInit(int[] ufParent, int stamp, int block) {
+		if (blockStamps[block] != stamp) {
+			blockStamps[block] = stamp;
+			ufParent[block] = block;
+		}
+	}
+	
+	private static int ufFind(int[] ufParent, int block) {
+		int curr = block;
+		while (ufParent[curr] != curr) {
+			int parent = ufParent[curr];
+			ufParent[curr] = ufParent[parent];
+			curr = parent;
+		}
+		return curr;
+	}
+	
+	private int resolve(int[] forward, int stamp, int block) {
+		int curr = block;
+		while (blockStamps[curr] == stamp) {
+			curr = forward[curr];
+		}
+		return curr;
+	}
+	
+	/**
+	 * Merges the second block into the first one.
+	 */
+	private void mergeBlocks(int block, int other) {
+		int last = NONE;
+		for (int state = blockHead[other]; state != NONE; state = memberNext[state]) {
+			blockOf[state] = block;
+			last = state;
+		}
+		int head = blockHead[block];
+		memberNext[last] = head;
+		memberPrev[head] = last;
+		blockHead[block] = blockHead[other];
+		blockSize[block] += blockSize[other];
+		
+		if (registered.get(other)) {
+			unregister(other);
+		}
+		freeBlock(other);
+	}
+	
+	/*
+	 * Low-level data structure operations
+	 */
+	
+	private void linkTransition(int trans, int target) {
+		succ[trans] = target;
+		int headIdx = target * numInputs + trans % numInputs;
+		int head = predHead[headIdx];
+		predNext[trans] = head;
+		predPrev[trans] = NONE;
+		if (head != NONE) {
+			predPrev[head] = trans;
+		}
+		predHead[headIdx] = trans;
+	}
+	
+	private void unlinkTransition(int trans, int target) {
+		int next = predNext[trans], prev = predPrev[trans];
+		if (prev != NONE) {
+			predNext[prev] = next;
+		}
+		else {
+			predHead[target * numInputs + trans % numInputs] = next;
+		}
+		if (next != NONE) {
+			predPrev[next] = prev;
+		}
+	}
+	
+	private int allocBlock() {
+		int block = (numFreeBlocks > 0) ? freeBlocks[--numFreeBlocks] : nextBlockId++;
+		blockHead[block] = NONE;
+		blockSize[block] = 0;
+		numBlocks++;
+		return block;
+	}
+	
+	private void freeBlock(int block) {
+		blockHead[block] = NONE;
+		blockSize[block] = 0;
+		freeBlocks[numFreeBlocks++] = block;
+		numBlocks--;
+	}
+	
+	private void addToBlock(int state, int block) {
+		int head = blockHead[block];
+		memberNext[state] = head;
+		memberPrev[state] = NONE;
+		if (head != NONE) {
+			memberPrev[head] = state;
+		}
+		blockHead[block] = state;
+		blockSize[block]++;
+		blockOf[state] = block;
+	}
+	
+	private void removeFromBlock(int state, int block) {
+		int next = memberNext[state], prev = memberPrev[state];
+		if (prev != NONE) {
+			memberNext[prev] = next;
+		}
+		else {
+			blockHead[block] = next;
+		}
+		if (next != NONE) {
+			memberPrev[next] = prev;
+		}
+		blockSize[block]--;
+	}
+	
+	private void addToWorklist(int block) {
+		if (!inWorklist.get(block)) {
+			inWorklist.set(block);
+			worklist[worklistSize++] = block;
+		}
+	}
+	
+	private void addNewBlock(int block) {
+		newBlocks = append(newBlocks, numNewBlocks++, block);
+	}
+	
+	private void markDirty(int state) {
+		if (!dirtyStateSet.get(state)) {
+			dirtyStateSet.set(state);
+			dirtyStates = append(dirtyStates, numDirtyStates++, state);
+		}
+	}
+	
+	private int nextStamp() {
+		if (++currStamp == 0) {
+			// overflow: reset all stamps
+			Arrays.fill(stateStamps, 0);
+			Arrays.fill(blockStamps, 0);
+			currStamp = 1;
+		}
+		return currStamp;
+	}
+	
+	private static int[] append(int[] array, int idx, int value) {
+		int[] result = array;
+		if (idx == result.length) {
+			result = Arrays.copyOf(result, idx + (idx >> 1) + 1);
+		}
+		result[idx] = value;
+		return result;
+	}
+	
+	private static int[] ensureBuffer(int[] array, int size) {
+		if (array.length >= size) {
+			return array;
+		}
+		return new int[Math.max(size, array.length + (array.length >> 1))];
+	}
+	
+	/**
+	 * View of the (completed) internal transition structure, used for computing the initial partition.
+	 */
+	private final class InternalAbstraction implements SimpleDeterministicAutomaton.FullIntAbstraction {
+		@Override
+		public int size() {
+			return numStates;
+		}
+		@Override
+		public int getIntInitialState() {
+			return SINK;
+		}
+		@Override
+		public int numInputs() {
+			return numInputs;
+		}
+		@Override
+		public int getSuccessor(int state, int input) {
+			return succ[state * numInputs + input];
+		}
+	}
+	
+	/**
+	 * View of the quotient of the internal transition structure w.r.t. the current partition, where
+	 * the (non-empty) blocks are numbered consecutively.
+	 */
+	private final class QuotientAbstraction implements SimpleDeterministicAutomaton.FullIntAbstraction {
+		private final int[] blocks;
+		private final int[] index;
+		private final int size;
+		
+		public QuotientAbstraction(int[] blocks, int[] index, int size) {
+			this.blocks = blocks;
+			this.index = index;
+			this.size = size;
+		}
+		@Override
+		public int size() {
+			return size;
+		}
+		@Override
+		public int getIntInitialState() {
+			return index[blockOf[SINK]];
+		}
+		@Override
+		public int numInputs() {
+			return numInputs;
+		}
+		@Override
+		public int getSuccessor(int state, int input) {
+			return index[blockOf[succ[blockHead[blocks[state]] * numInputs + input]]];
+		}
+	}
+}
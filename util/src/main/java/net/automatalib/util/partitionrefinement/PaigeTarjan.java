@@ -21,6 +21,7 @@ import java.util.Objects;
 import java.util.PrimitiveIterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -302,13 +303,17 @@ public class PaigeTarjan {
 	 * Refines the partition until it stabilizes.
 	 */
 	public void computeCoarsestStablePartition() {
+		// moving predecessors may reorder the contents of the splitter itself (if it contains
+		// some of its own predecessors), hence the splitter is copied before processing it
+		int[] splitter = new int[numStates];
 		Block curr;
 		while ((curr = poll()) != null) {
-			int currLow = curr.low, currHigh = curr.high;
+			int splitterSize = curr.high - curr.low;
+			System.arraycopy(blockData, curr.low, splitter, 0, splitterSize);
 			int predOfsBase = predOfsDataLow;
 			for (int i = 0; i < numInputs; i++) {
-				for (int j = currLow; j < currHigh; j++) {
-					int state = blockData[j];
+				for (int j = 0; j < splitterSize; j++) {
+					int state = splitter[j];
 					int predOfsIdx = predOfsBase + state;
 					int predLow = predOfsData[predOfsIdx], predHigh = predOfsData[predOfsIdx + 1];
 					for (int k = predLow; k < predHigh; k++) {
@@ -322,6 +327,247 @@ public class PaigeTarjan {
 		}
 	}
 	
+	/**
+	 * Refines the partition until it stabilizes, using a parallel, level-synchronous refinement
+	 * (as in Moore's algorithm) instead of the worklist.
+	 * <p>
+	 * In each round, the signature of every state (i.e., its current block, and the blocks of its
+	 * successors) is computed in parallel, and the states are regrouped according to their signatures
+	 * by means of a parallel sort. This is repeated until no block is split any more. The resulting
+	 * partition is the same as the one computed by {@link #computeCoarsestStablePartition()}, but the
+	 * blocks are laid out (and numbered) differently.
+	 * <p>
+	 * Each round requires {@code O(nk + n log n)} work, where {@code n} is the number of states and {@code k}
+	 * the number of inputs. The number of rounds is bounded by the depth of the distinguishing suffixes, which
+	 * for most automata is small (e.g., logarithmic in {@code n} for random automata), but can be linear in
+	 * {@code n} in the worst case (e.g., for long chains). In the latter case, the sequential version
+	 * is preferable.
+	 * <p>
+	 * This method only applies to <i>complete, deterministic</i> transition structures (i.e., every state
+	 * in a block has exactly one successor per input symbol), as initialized by
+	 * {@link PaigeTarjanInitializers#initCompleteDeterministic initCompleteDeterministic} or
+	 * {@link PaigeTarjanInitializers#initDeterministic initDeterministic}. For all other structures,
+	 * this method falls back to
+	 * {@link #computeCoarsestStablePartition()}, initializing the worklist via {@link #initWorklist(boolean)
+	 * initWorklist(false)} if it has not been initialized before.
+	 * <p>
+	 * The work is performed in the {@link java.util.concurrent.ForkJoinPool#commonPool() common fork/join pool},
+	 * unless this method is invoked from within a task of another fork/join pool.
+	 */
+	public void computeCoarsestStablePartitionParallel() {
+		// determine the range of blockData that is covered by blocks
+		int low = Integer.MAX_VALUE;
+		int high = Integer.MIN_VALUE;
+		int numStatesInBlocks = 0;
+		int numNonEmptyBlocks = 0;
+		for (Block b = blocklistHead; b != null; b = b.nextBlock) {
+			if (b.isEmpty()) {
+				continue;
+			}
+			low = Math.min(low, b.low);
+			high = Math.max(high, b.high);
+			numStatesInBlocks += b.size();
+			numNonEmptyBlocks++;
+		}
+		if (numStatesInBlocks == 0) {
+			return;
+		}
+		
+		int[] succData = computeSuccessorData();
+		if (succData == null || high - low != numStatesInBlocks) {
+			if (worklistHead == null) {
+				initWorklist(false);
+			}
+			computeCoarsestStablePartition();
+			return;
+		}
+		
+		final int dataLow = low;
+		final int size = numStatesInBlocks;
+		final int[] states = Arrays.copyOfRange(blockData, low, high);
+		final int[] blockIds = new int[numStates];
+		for (Block b = blocklistHead; b != null; b = b.nextBlock) {
+			for (int i = b.low; i < b.high; i++) {
+				blockIds[blockData[i]] = b.id;
+			}
+		}
+		
+		final long[] keys = new long[size];
+		final int[] groups = new int[size];
+		
+		int numGroups = numNonEmptyBlocks;
+		while (true) {
+			IntStream.range(0, size).parallel().forEach(i -> {
+				int state = states[i];
+				long hash = signatureHash(state, blockIds, succData);
+				keys[i] = (hash << 32) | state;
+			});
+			Arrays.parallelSort(keys);
+			IntStream.range(0, size).parallel().forEach(i -> {
+				states[i] = (int) keys[i];
+			});
+			
+			boolean collision = IntStream.range(0, size).parallel().map(i -> {
+				if (i == 0 || (keys[i] >>> 32) != (keys[i - 1] >>> 32)) {
+					groups[i] = 1;
+					return 0;
+				}
+				if (sameSignature(states[i - 1], states[i], blockIds, succData)) {
+					groups[i] = 0;
+					return 0;
+				}
+				groups[i] = 1;
+				return 1;
+			}).max().getAsInt() > 0;
+			if (collision) {
+				resolveCollisions(keys, states, groups, blockIds, succData);
+			}
+			
+			Arrays.parallelPrefix(groups, Integer::sum);
+			int newNumGroups = groups[size - 1];
+			if (newNumGroups == numGroups) {
+				break;
+			}
+			numGroups = newNumGroups;
+			IntStream.range(0, size).parallel().forEach(i -> {
+				blockIds[states[i]] = groups[i] - 1;
+			});
+		}
+		
+		// transfer the result to the blocks
+		Block[] blocks = new Block[numGroups];
+		int blockLow = 0;
+		for (int i = 1; i <= size; i++) {
+			if (i == size || groups[i] != groups[i - 1]) {
+				int id = groups[i - 1] - 1;
+				blocks[id] = new Block(dataLow + blockLow, dataLow + i, id, null);
+				blockLow = i;
+			}
+		}
+		for (int i = 1; i < numGroups; i++) {
+			blocks[i - 1].nextBlock = blocks[i];
+		}
+		IntStream.range(0, size).parallel().forEach(i -> {
+			int state = states[i];
+			int pos = dataLow + i;
+			blockData[pos] = state;
+			posData[posDataLow + state] = pos;
+			blockForState[state] = blocks[groups[i] - 1];
+		});
+		
+		this.blocklistHead = blocks[0];
+		this.numBlocks = numGroups;
+		this.worklistHead = null;
+		this.worklistTail = null;
+		this.touchedHead = null;
+	}
+	
+	/**
+	 * Computes the successor data for a complete, deterministic transition structure from the predecessor
+	 * data. For the state {@code i} and input {@code j}, the successor is stored at index
+	 * <code>j*{@link #numStates} + i</code> of the returned array.
+	 * 
+	 * @return the successor data, or {@code null} if the transition structure (restricted to states
+	 * contained in blocks) is not complete and deterministic
+	 */
+	@Nullable
+	private int[] computeSuccessorData() {
+		int[] succData = new int[numInputs * numStates];
+		Arrays.fill(succData, -1);
+		
+		for (Block b = blocklistHead; b != null; b = b.nextBlock) {
+			for (int i = b.low; i < b.high; i++) {
+				int state = blockData[i];
+				int predOfsIdx = predOfsDataLow + state;
+				int succBase = 0;
+				for (int j = 0; j < numInputs; j++) {
+					int predLow = predOfsData[predOfsIdx], predHigh = predOfsData[predOfsIdx + 1];
+					for (int k = predLow; k < predHigh; k++) {
+						int pred = predData[k];
+						if (blockForState[pred] == null || succData[succBase + pred] != -1) {
+							return null;
+						}
+						succData[succBase + pred] = state;
+					}
+					predOfsIdx += numStates;
+					succBase += numStates;
+				}
+			}
+		}
+		
+		for (Block b = blocklistHead; b != null; b = b.nextBlock) {
+			for (int i = b.low; i < b.high; i++) {
+				int state = blockData[i];
+				for (int idx = state; idx < succData.length; idx += numStates) {
+					if (succData[idx] == -1) {
+						return null;
+					}
+				}
+			}
+		}
+		
+		return succData;
+	}
+	
+	private static long signatureHash(int state, int[] blockIds, int[] succData) {
+		int numStates = blockIds.length;
+		int h = blockIds[state];
+		for (int idx = state; idx < succData.length; idx += numStates) {
+			h = h * 0x9e3779b9 + blockIds[succData[idx]];
+		}
+		// final mixing step of MurmurHash3
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h & 0xffffffffL;
+	}
+	
+	private static int compareSignatures(int state1, int state2, int[] blockIds, int[] succData) {
+		int cmp = Integer.compare(blockIds[state1], blockIds[state2]);
+		int numStates = blockIds.length;
+		for (int idx1 = state1, idx2 = state2; cmp == 0 && idx1 < succData.length; idx1 += numStates, idx2 += numStates) {
+			cmp = Integer.compare(blockIds[succData[idx1]], blockIds[succData[idx2]]);
+		}
+		return cmp;
+	}
+	
+	private static boolean sameSignature(int state1, int state2, int[] blockIds, int[] succData) {
+		return compareSignatures(state1, state2, blockIds, succData) == 0;
+	}
+	
+	/**
+	 * Handles hash collisions, i.e., ranges of states with identical signature hashes but different
+	 * signatures, by sorting these ranges according to the actual signatures.
+	 */
+	private static void resolveCollisions(long[] keys, int[] states, int[] groups, int[] blockIds, int[] succData) {
+		int size = states.length;
+		int runLow = 0;
+		while (runLow < size) {
+			long hash = keys[runLow] >>> 32;
+			int runHigh = runLow + 1;
+			boolean mixed = false;
+			while (runHigh < size && (keys[runHigh] >>> 32) == hash) {
+				mixed |= (groups[runHigh] != 0);
+				runHigh++;
+			}
+			if (mixed) {
+				Integer[] run = new Integer[runHigh - runLow];
+				for (int i = 0; i < run.length; i++) {
+					run[i] = states[runLow + i];
+				}
+				Arrays.sort(run, (s1, s2) -> compareSignatures(s1, s2, blockIds, succData));
+				for (int i = 0; i < run.length; i++) {
+					int state = run[i];
+					states[runLow + i] = state;
+					groups[runLow + i] = (i == 0 || !sameSignature(run[i - 1], state, blockIds, succData)) ? 1 : 0;
+				}
+			}
+			runLow = runHigh;
+		}
+	}
+	
 	private Block split(Block b) {
 		Block splt = b.split(numBlocks);
 		if (splt == null) {
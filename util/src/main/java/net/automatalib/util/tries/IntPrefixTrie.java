@@ -0,0 +1,302 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.tries;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * A prefix trie over words of input indices (i.e., symbols represented by their index in some
+ * {@link Alphabet}).
+ * <p>
+ * Nodes are identified by consecutive integers, the root being node {@code 0}. All node data
+ * (parent, symbol, depth, first child and next sibling) is stored in parallel {@code int} arrays, such
+ * that no objects are allocated per node. The children of a node are kept in a linked list in the
+ * order of their insertion; looking up a child hence takes time linear in the number of children,
+ * which is bounded by the alphabet size.
+ * <p>
+ * Besides the tree structure, the trie remembers which nodes correspond to inserted words. Inserting
+ * a word that is a prefix of a previously inserted word (or that was inserted before) does not add any
+ * nodes. The <i>leaves</i> of the trie hence represent the maximal inserted words, i.e., the
+ * inserted words with all duplicates and proper prefixes removed.
+ * 
+ * @author agent
+ */
+public class IntPrefixTrie {
+	
+	public static final int ROOT = 0;
+	public static final int NO_NODE = -1;
+	
+	private static final int DEFAULT_INIT_CAPACITY = 16;
+	
+	private int[] parents;
+	private int[] symbols;
+	private int[] depths;
+	private int[] firstChildren;
+	private int[] lastChildren;
+	private int[] nextSiblings;
+	private int size;
+	
+	private final BitSet terminal = new BitSet();
+	private int numLeaves;
+	
+	public IntPrefixTrie() {
+		this(DEFAULT_INIT_CAPACITY);
+	}
+	
+	public IntPrefixTrie(int initialCapacity) {
+		int cap = Math.max(initialCapacity, 1);
+		this.parents = new int[cap];
+		this.symbols = new int[cap];
+		this.depths = new int[cap];
+		this.firstChildren = new int[cap];
+		this.lastChildren = new int[cap];
+		this.nextSiblings = new int[cap];
+		createNode(NO_NODE, -1, 0);
+	}
+	
+	/**
+	 * Inserts a word into the trie.
+	 * 
+	 * @param word the array containing the input indices of the word
+	 * @param offset the offset of the first input index
+	 * @param length the length of the word
+	 * @return the node corresponding to the inserted word
+	 */
+	public int add(int[] word, int offset, int length) {
+		int node = ROOT;
+		for (int i = offset; i < offset + length; i++) {
+			int sym = word[i];
+			int child = getChild(node, sym);
+			if (child == NO_NODE) {
+				child = addChild(node, sym);
+			}
+			node = child;
+		}
+		
+		if (!terminal.get(node)) {
+			terminal.set(node);
+			if (firstChildren[node] == NO_NODE) {
+				numLeaves++;
+			}
+		}
+		
+		return node;
+	}
+	
+	public int add(int[] word) {
+		return add(word, 0, word.length);
+	}
+	
+	/**
+	 * Retrieves the node corresponding to the given word.
+	 * 
+	 * @param word the array containing the input indices of the word
+	 * @param offset the offset of the first input index
+	 * @param length the length of the word
+	 * @return the node corresponding to the given word, or {@link #NO_NODE} if the word is not
+	 * a prefix of any word in this trie
+	 */
+	public int find(int[] word, int offset, int length) {
+		int node = ROOT;
+		for (int i = offset; node != NO_NODE && i < offset + length; i++) {
+			node = getChild(node, word[i]);
+		}
+		return node;
+	}
+	
+	public int find(int[] word) {
+		return find(word, 0, word.length);
+	}
+	
+	/**
+	 * Retrieves the child of a node for the given input index.
+	 * 
+	 * @param node the node
+	 * @param symbol the input index
+	 * @return the child, or {@link #NO_NODE} if there is no such child
+	 */
+	public int getChild(int node, int symbol) {
+		int child = firstChildren[node];
+		while (child != NO_NODE && symbols[child] != symbol) {
+			child = nextSiblings[child];
+		}
+		return child;
+	}
+	
+	public int getFirstChild(int node) {
+		return firstChildren[node];
+	}
+	
+	public int getNextSibling(int node) {
+		return nextSiblings[node];
+	}
+	
+	public int getParent(int node) {
+		return parents[node];
+	}
+	
+	public int getSymbol(int node) {
+		return symbols[node];
+	}
+	
+	public int getDepth(int node) {
+		return depths[node];
+	}
+	
+	public boolean isLeaf(int node) {
+		return firstChildren[node] == NO_NODE && terminal.get(node);
+	}
+	
+	/**
+	 * Checks whether the word represented by the given node has been inserted into this trie, as
+	 * opposed to only being a prefix of an inserted word.
+	 * 
+	 * @param node the node
+	 * @return {@code true} if the word was inserted, {@code false} otherwise
+	 */
+	public boolean isTerminal(int node) {
+		return terminal.get(node);
+	}
+	
+	/**
+	 * Retrieves the number of nodes in this trie (including the root).
+	 * 
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Retrieves the number of leaves in this trie, i.e., the number of maximal inserted words.
+	 * 
+	 * @return the number of leaves
+	 */
+	public int getNumLeaves() {
+		return numLeaves;
+	}
+	
+	/**
+	 * Retrieves the word represented by the given node.
+	 * 
+	 * @param node the node
+	 * @return the input indices of the word
+	 */
+	public int[] getWord(int node) {
+		int[] word = new int[depths[node]];
+		for (int n = node, i = word.length - 1; i >= 0; n = parents[n], i--) {
+			word[i] = symbols[n];
+		}
+		return word;
+	}
+	
+	public <I> Word<I> getWord(int node, Alphabet<I> alphabet) {
+		int length = depths[node];
+		WordBuilder<I> wb = new WordBuilder<>(null, length);
+		for (int n = node, i = length - 1; i >= 0; n = parents[n], i--) {
+			wb.setSymbol(i, alphabet.getSymbol(symbols[n]));
+		}
+		return wb.toWord();
+	}
+	
+	/**
+	 * Retrieves the first leaf (in depth-first order) of the subtree rooted at the given node.
+	 * 
+	 * @param node the root of the subtree
+	 * @return the first leaf of the subtree, or {@link #NO_NODE} if the subtree contains no leaves
+	 * (which is only the case for the root of an empty trie)
+	 */
+	public int getFirstLeaf(int node) {
+		int curr = node;
+		int child;
+		while ((child = firstChildren[curr]) != NO_NODE) {
+			curr = child;
+		}
+		return terminal.get(curr) ? curr : NO_NODE;
+	}
+	
+	/**
+	 * Retrieves the first leaf (in depth-first order) after the subtree rooted at the given node.
+	 * For a leaf, this is the leaf following it.
+	 * 
+	 * @param node the root of the subtree
+	 * @return the first leaf after the subtree, or {@link #NO_NODE} if there is no such leaf
+	 */
+	public int getNextLeaf(int node) {
+		int curr = node;
+		while (curr != ROOT && nextSiblings[curr] == NO_NODE) {
+			curr = parents[curr];
+		}
+		if (curr == ROOT) {
+			return NO_NODE;
+		}
+		return getFirstLeaf(nextSiblings[curr]);
+	}
+	
+	/**
+	 * Passes the words represented by all leaves of this trie (i.e., all maximal inserted words)
+	 * to the given consumer, in depth-first order.
+	 * 
+	 * @param consumer the consumer
+	 */
+	public void forEachLeafWord(Consumer<? super int[]> consumer) {
+		for (int leaf = getFirstLeaf(ROOT); leaf != NO_NODE; leaf = getNextLeaf(leaf)) {
+			consumer.accept(getWord(leaf));
+		}
+	}
+	
+	private int addChild(int parent, int symbol) {
+		if (firstChildren[parent] == NO_NODE && terminal.get(parent)) {
+			numLeaves--;
+		}
+		int child = createNode(parent, symbol, depths[parent] + 1);
+		int last = lastChildren[parent];
+		if (last == NO_NODE) {
+			firstChildren[parent] = child;
+		}
+		else {
+			nextSiblings[last] = child;
+		}
+		lastChildren[parent] = child;
+		return child;
+	}
+	
+	private int createNode(int parent, int symbol, int depth) {
+		int node = size++;
+		if (node == parents.length) {
+			int newCap = node + (node >> 1) + 1;
+			parents = Arrays.copyOf(parents, newCap);
+			symbols = Arrays.copyOf(symbols, newCap);
+			depths = Arrays.copyOf(depths, newCap);
+			firstChildren = Arrays.copyOf(firstChildren, newCap);
+			lastChildren = Arrays.copyOf(lastChildren, newCap);
+			nextSiblings = Arrays.copyOf(nextSiblings, newCap);
+		}
+		parents[node] = parent;
+		symbols[node] = symbol;
+		depths[node] = depth;
+		firstChildren[node] = NO_NODE;
+		lastChildren[node] = NO_NODE;
+		nextSiblings[node] = NO_NODE;
+		return node;
+	}
+}
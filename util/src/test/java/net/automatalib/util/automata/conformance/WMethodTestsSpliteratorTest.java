@@ -0,0 +1,130 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.tries.IntPrefixTrie;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test
+public class WMethodTestsSpliteratorTest {
+	
+	private static final int MAX_DEPTH = 3;
+	
+	private Alphabet<Integer> alphabet;
+	private CompactDFA<Integer> dfa;
+	private List<Word<Integer>> expected;
+	
+	@BeforeClass
+	public void setUp() {
+		this.alphabet = Alphabets.integers(0, 2);
+		this.dfa = RandomAutomata.randomDFA(new Random(42L), 10, alphabet);
+		this.expected = new ArrayList<>();
+		new WMethodTestsIterator<>(alphabet, dfa, MAX_DEPTH).forEachRemaining(expected::add);
+	}
+	
+	private WMethodTestsSpliterator<Integer> createSpliterator() {
+		return new WMethodTestsSpliterator<>(alphabet, dfa, MAX_DEPTH);
+	}
+	
+	@Test
+	public void testSequential() {
+		WMethodTestsSpliterator<Integer> spliterator = createSpliterator();
+		Assert.assertEquals(spliterator.estimateSize(), expected.size());
+		
+		List<Word<Integer>> tests = spliterator.wordStream(false).collect(Collectors.toList());
+		Assert.assertEquals(tests, expected);
+	}
+	
+	@Test
+	public void testSplit() {
+		WMethodTestsSpliterator<Integer> suffix = createSpliterator();
+		Spliterator<int[]> prefix = suffix.trySplit();
+		Assert.assertNotNull(prefix);
+		Assert.assertEquals(prefix.estimateSize() + suffix.estimateSize(), expected.size());
+		
+		List<Word<Integer>> tests = new ArrayList<>();
+		prefix.forEachRemaining(t -> tests.add(suffix.toWord(t)));
+		suffix.forEachRemaining(t -> tests.add(suffix.toWord(t)));
+		Assert.assertEquals(tests, expected);
+		
+		List<Word<Integer>> parallel = createSpliterator().wordStream(true).collect(Collectors.toList());
+		Assert.assertEquals(parallel, expected);
+	}
+	
+	@Test
+	public void testBatches() {
+		List<Word<Integer>> tests = new ArrayList<>();
+		createSpliterator().forEachBatch(100, batch -> {
+			Assert.assertTrue(batch.size() <= 100);
+			for (int i = 0; i < batch.size(); i++) {
+				tests.add(batch.getTest(i, alphabet));
+			}
+		});
+		Assert.assertEquals(tests, expected);
+		
+		List<Word<Integer>> parallel = StreamSupport.stream(createSpliterator().batchSpliterator(100), true)
+				.flatMap(batch -> {
+					List<Word<Integer>> words = new ArrayList<>(batch.size());
+					for (int i = 0; i < batch.size(); i++) {
+						words.add(batch.getTest(i, alphabet));
+					}
+					return words.stream();
+				})
+				.collect(Collectors.toList());
+		Assert.assertEquals(parallel, expected);
+	}
+	
+	@Test
+	public void testTrie() {
+		IntPrefixTrie trie = createSpliterator().collectToTrie();
+		
+		Set<Word<Integer>> leaves = new HashSet<>();
+		trie.forEachLeafWord(t -> leaves.add(trie.getWord(trie.find(t), alphabet)));
+		Assert.assertEquals(leaves.size(), trie.getNumLeaves());
+		
+		Set<Word<Integer>> maximal = new HashSet<>();
+		for (Word<Integer> test : expected) {
+			boolean isPrefix = false;
+			for (Word<Integer> other : expected) {
+				if (other.length() > test.length() && test.isPrefixOf(other)) {
+					isPrefix = true;
+					break;
+				}
+			}
+			if (!isPrefix) {
+				maximal.add(test);
+			}
+		}
+		Assert.assertEquals(leaves, maximal);
+	}
+}
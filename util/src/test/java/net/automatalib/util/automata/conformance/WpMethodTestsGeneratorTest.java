@@ -0,0 +1,121 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test
+public class WpMethodTestsGeneratorTest {
+	
+	private Alphabet<Integer> alphabet;
+	private CompactDFA<Integer> dfa;
+	private PrefixTreeTestSuite<Integer> suite;
+	
+	@BeforeClass
+	public void setUp() {
+		this.alphabet = Alphabets.integers(0, 2);
+		this.dfa = RandomAutomata.randomDFA(new Random(42L), 20, alphabet);
+		this.suite = WpMethodTestsGenerator.generate(dfa, alphabet, 0);
+	}
+	
+	@Test
+	public void testDetectsMutants() {
+		Random rand = new Random(42L);
+		int numDetected = 0;
+		for (int i = 0; i < 50; i++) {
+			CompactDFA<Integer> mutant = new CompactDFA<>(dfa);
+			int state = rand.nextInt(dfa.size());
+			if (rand.nextBoolean()) {
+				mutant.setAccepting(state, !mutant.isAccepting(state));
+			}
+			else {
+				mutant.setTransition(state, rand.nextInt(alphabet.size()), rand.nextInt(dfa.size()));
+			}
+			
+			if (Automata.testEquivalence(dfa, mutant, alphabet)) {
+				continue;
+			}
+			
+			boolean detected = false;
+			for (Word<Integer> test : suite) {
+				for (Word<Integer> prefix : test.prefixes(false)) {
+					if (dfa.accepts(prefix) != mutant.accepts(prefix)) {
+						detected = true;
+						break;
+					}
+				}
+				if (detected) {
+					break;
+				}
+			}
+			Assert.assertTrue(detected, "Mutant " + i + " not detected");
+			numDetected++;
+		}
+		Assert.assertTrue(numDetected > 0);
+	}
+	
+	@Test
+	public void testExecute() {
+		List<Word<Integer>> executed = new ArrayList<>();
+		int numResets = suite.execute(new PrefixTreeTestSuite.Executor() {
+			private final List<Integer> current = new ArrayList<>();
+			@Override
+			public void reset() {
+				if (!current.isEmpty()) {
+					executed.add(Word.fromList(current));
+				}
+				current.clear();
+			}
+			@Override
+			public boolean step(int inputIdx) {
+				current.add(alphabet.getSymbol(inputIdx));
+				return true;
+			}
+		});
+		Assert.assertEquals(numResets, suite.getNumTests());
+		
+		List<Word<Integer>> tests = new ArrayList<>();
+		suite.forEach(tests::add);
+		Assert.assertEquals(tests.size(), suite.getNumTests());
+		// the last test is still pending in the executor
+		Assert.assertEquals(executed, tests.subList(0, tests.size() - 1));
+		
+		// aborting after the first symbol skips all tests with the same first symbol
+		int numAborted = suite.execute(new PrefixTreeTestSuite.Executor() {
+			@Override
+			public void reset() {
+			}
+			@Override
+			public boolean step(int inputIdx) {
+				return false;
+			}
+		});
+		Assert.assertEquals(numAborted, alphabet.size());
+	}
+}
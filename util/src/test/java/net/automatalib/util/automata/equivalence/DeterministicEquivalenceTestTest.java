@@ -0,0 +1,141 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transout.impl.compact.CompactMealy;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class DeterministicEquivalenceTestTest {
+	
+	private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 2);
+	
+	private static CompactMealy<Integer,Integer> copy(CompactMealy<Integer,Integer> mealy) {
+		CompactMealy<Integer,Integer> result = new CompactMealy<>(ALPHABET, mealy.size());
+		for (int i = 0; i < mealy.size(); i++) {
+			result.addIntState();
+		}
+		result.setInitialState(mealy.getIntInitialState());
+		for (int i = 0; i < mealy.size(); i++) {
+			for (int j = 0; j < ALPHABET.size(); j++) {
+				result.setTransition(i, j, mealy.getSuccessor(i, j), mealy.getOutput(i, j));
+			}
+		}
+		return result;
+	}
+	
+	public void testEquivalentMealy() {
+		Random rand = new Random(42L);
+		CompactMealy<Integer,Integer> mealy = RandomAutomata.randomMealy(rand, 300, ALPHABET, Arrays.asList(0, 1, 2), false);
+		CompactMealy<Integer,Integer> minimal = HopcroftMinimization.minimizeMealy(mealy, ALPHABET);
+		
+		Assert.assertNull(DeterministicEquivalenceTest.findSeparatingWordLarge(mealy, minimal, ALPHABET));
+		Assert.assertNull(DeterministicEquivalenceTest.findSeparatingWordLarge(mealy, copy(mealy), new ArrayList<>(ALPHABET)));
+	}
+	
+	public void testShortestSeparatingWord() {
+		Random rand = new Random(42L);
+		int oldThreshold = DeterministicEquivalenceTest.mapThreshold;
+		DeterministicEquivalenceTest.mapThreshold = Integer.MAX_VALUE;
+		try {
+			for (int i = 0; i < 20; i++) {
+				CompactMealy<Integer,Integer> mealy = RandomAutomata.randomMealy(rand, 100, ALPHABET, Arrays.asList(0, 1, 2), true);
+				CompactMealy<Integer,Integer> mutated = copy(mealy);
+				int state = rand.nextInt(mutated.size());
+				int input = rand.nextInt(ALPHABET.size());
+				mutated.setTransition(state, input, mutated.getSuccessor(state, input), (Integer) 3);
+				
+				Word<Integer> sepWord = DeterministicEquivalenceTest.findSeparatingWordLarge(mealy, mutated, ALPHABET);
+				Assert.assertNotNull(sepWord);
+				Assert.assertNotEquals(mealy.computeOutput(sepWord), mutated.computeOutput(sepWord));
+				
+				Word<Integer> listSepWord = DeterministicEquivalenceTest.findSeparatingWordLarge(mealy, mutated, new ArrayList<>(ALPHABET));
+				Assert.assertEquals(listSepWord, sepWord);
+				
+				// the dense, array-based search also finds a shortest separating word
+				Word<Integer> denseSepWord = DeterministicEquivalenceTest.findSeparatingWord(mealy, mutated, ALPHABET);
+				Assert.assertEquals(sepWord.length(), denseSepWord.length());
+			}
+		}
+		finally {
+			DeterministicEquivalenceTest.mapThreshold = oldThreshold;
+		}
+	}
+	
+	public void testPartialDFA() {
+		CompactDFA<Integer> dfa1 = new CompactDFA<>(ALPHABET);
+		int q0 = dfa1.addIntInitialState(false);
+		int q1 = dfa1.addIntState(false);
+		dfa1.setTransition(q0, 0, q1);
+		dfa1.setTransition(q1, 1, q0);
+		
+		CompactDFA<Integer> dfa2 = new CompactDFA<>(ALPHABET);
+		int p0 = dfa2.addIntInitialState(false);
+		int p1 = dfa2.addIntState(false);
+		dfa2.setTransition(p0, 0, p1);
+		dfa2.setTransition(p1, 1, p0);
+		
+		Assert.assertNull(DeterministicEquivalenceTest.findSeparatingWordLarge(dfa1, dfa2, ALPHABET));
+		
+		dfa2.setTransition(p1, 2, p1);
+		Assert.assertEquals(DeterministicEquivalenceTest.findSeparatingWordLarge(dfa1, dfa2, ALPHABET),
+				Word.fromSymbols(0, 2));
+		
+		dfa1.setTransition(q1, 2, q1);
+		dfa2.setAccepting(p1, true);
+		Assert.assertEquals(DeterministicEquivalenceTest.findSeparatingWordLarge(dfa1, dfa2, ALPHABET),
+				Word.fromSymbols(0));
+	}
+	
+	public void testParallel() {
+		Random rand = new Random(42L);
+		int oldThreshold = DeterministicEquivalenceTest.parallelThreshold;
+		DeterministicEquivalenceTest.parallelThreshold = 1;
+		try {
+			CompactMealy<Integer,Integer> mealy = RandomAutomata.randomMealy(rand, 2000, ALPHABET, Arrays.asList(0, 1), false);
+			CompactMealy<Integer,Integer> minimal = HopcroftMinimization.minimizeMealy(mealy, ALPHABET);
+			Assert.assertNull(DeterministicEquivalenceTest.findSeparatingWordParallel(mealy, minimal, ALPHABET));
+			
+			for (int i = 0; i < 10; i++) {
+				CompactMealy<Integer,Integer> mutated = copy(minimal);
+				int state = rand.nextInt(mutated.size());
+				int input = rand.nextInt(ALPHABET.size());
+				mutated.setTransition(state, input, mutated.getSuccessor(state, input), (Integer) 2);
+				
+				Word<Integer> sepWord = DeterministicEquivalenceTest.findSeparatingWordParallel(mealy, mutated, ALPHABET);
+				Assert.assertNotNull(sepWord);
+				Assert.assertNotEquals(mealy.computeOutput(sepWord), mutated.computeOutput(sepWord));
+				Assert.assertEquals(sepWord.length(),
+						DeterministicEquivalenceTest.findSeparatingWordLarge(mealy, mutated, ALPHABET).length());
+			}
+		}
+		finally {
+			DeterministicEquivalenceTest.parallelThreshold = oldThreshold;
+		}
+	}
+}
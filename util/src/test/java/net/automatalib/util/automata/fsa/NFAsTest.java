@@ -1,9 +1,12 @@
 package net.automatalib.util.automata.fsa;
 
+import java.util.Random;
+
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.fsa.impl.compact.CompactNFA;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 
 import org.testng.Assert;
@@ -32,4 +35,40 @@ public class NFAsTest {
 		
 		Assert.assertEquals(dfa.size(), 2);
 	}
+	
+	public void testDeterminizeRandom() throws Exception {
+		Random rand = new Random(42L);
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		
+		CompactNFA<Integer> nfa = new CompactNFA<>(alphabet);
+		for (int i = 0; i < 12; i++) {
+			nfa.addIntState(rand.nextInt(4) == 0);
+		}
+		nfa.setInitial(0, true);
+		nfa.setInitial(1, true);
+		for (int i = 0; i < 25; i++) {
+			nfa.addTransition(rand.nextInt(12), rand.nextInt(3), rand.nextInt(12));
+		}
+		
+		CompactDFA<Integer> dfa = NFAs.determinize(nfa, false, false);
+		CompactDFA<Integer> partialDfa = NFAs.determinize(nfa, true, false);
+		CompactDFA<Integer> minDfa = NFAs.determinize(nfa);
+		
+		Assert.assertEquals(dfa.size(), partialDfa.size() + 1);
+		
+		WordBuilder<Integer> wb = new WordBuilder<>();
+		for (int i = 0; i < 1000; i++) {
+			int len = rand.nextInt(8);
+			for (int j = 0; j < len; j++) {
+				wb.append(rand.nextInt(3));
+			}
+			Word<Integer> word = wb.toWord();
+			wb.clear();
+			
+			boolean expected = nfa.accepts(word);
+			Assert.assertEquals(dfa.accepts(word), expected);
+			Assert.assertEquals(partialDfa.accepts(word), expected);
+			Assert.assertEquals(minDfa.accepts(word), expected);
+		}
+	}
 }
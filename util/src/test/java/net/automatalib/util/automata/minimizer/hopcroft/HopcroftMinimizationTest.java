@@ -16,8 +16,10 @@
 package net.automatalib.util.automata.minimizer.hopcroft;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 
 import net.automatalib.automata.Automaton;
 import net.automatalib.automata.UniversalDeterministicAutomaton;
@@ -25,9 +27,17 @@ import net.automatalib.automata.concepts.InputAlphabetHolder;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.OffHeapCompactDFA;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
+import net.automatalib.util.automata.copy.AutomatonCopyMethod;
+import net.automatalib.util.automata.copy.AutomatonLowLevelCopy;
 import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.partitionrefinement.Block;
+import net.automatalib.util.partitionrefinement.PaigeTarjan;
+import net.automatalib.util.partitionrefinement.PaigeTarjanInitializers;
+import net.automatalib.util.partitionrefinement.PaigeTarjanInitializers.AutomatonInitialPartitioning;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
 
@@ -71,6 +81,21 @@ public class HopcroftMinimizationTest {
 		}
 	}
 	
+	@Test
+	public void testOffHeapDfas() throws Exception {
+		for (TestDFA<?> testDfa : testDfas) {
+			testMinimizeOffHeapDFA(testDfa);
+		}
+	}
+	
+	private <I> void testMinimizeOffHeapDFA(TestDFA<I> testDfa) throws Exception {
+		try (OffHeapCompactDFA<I> offHeapDfa = new OffHeapCompactDFA<>(testDfa.alphabet)) {
+			AutomatonLowLevelCopy.copy(AutomatonCopyMethod.STATE_BY_STATE, testDfa.dfa, testDfa.alphabet, offHeapDfa);
+			Assert.assertTrue(Automata.testEquivalence(testDfa.dfa, offHeapDfa, testDfa.alphabet));
+			testMinimizeDFA(testDfa.alphabet, offHeapDfa, testDfa.minimalSize, testDfa.initiallyConnected);
+		}
+	}
+	
 	private <I> void testMinimizeDFA(TestDFA<I> testDfa) {
 		testMinimizeDFA(testDfa.alphabet, testDfa.dfa, testDfa.minimalSize, testDfa.initiallyConnected);
 	}
@@ -84,6 +109,10 @@ public class HopcroftMinimizationTest {
 		Assert.assertEquals(resultAfter.size(), expectedStateCount);
 		assertMinimal(resultAfter);
 		
+		CompactDFA<I> resultParallel = HopcroftMinimization.minimizeDFA(dfa, alphabet, PruningMode.PRUNE_AFTER, true);
+		Assert.assertEquals(resultParallel.size(), expectedStateCount);
+		assertMinimal(resultParallel);
+		
 		CompactDFA<I> resultUnpruned = HopcroftMinimization.minimizeDFA(dfa, alphabet, PruningMode.DONT_PRUNE);
 		if (initiallyConnected) {
 			Assert.assertEquals(resultUnpruned.size(), expectedStateCount);
@@ -95,6 +124,164 @@ public class HopcroftMinimizationTest {
 	}
 	
 	
+	@Test
+	public void testParallelRefinement() {
+		Random rand = new Random(42L);
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+		for (int i = 0; i < 10; i++) {
+			CompactDFA<Integer> dfa = RandomAutomata.randomDFA(rand, 500, alphabet, false);
+			
+			PaigeTarjan seq = new PaigeTarjan();
+			PaigeTarjanInitializers.initCompleteDeterministic(seq, dfa, AutomatonInitialPartitioning.BY_STATE_PROPERTY, false);
+			seq.initWorklist(false);
+			seq.computeCoarsestStablePartition();
+			
+			PaigeTarjan par = new PaigeTarjan();
+			PaigeTarjanInitializers.initCompleteDeterministic(par, dfa, AutomatonInitialPartitioning.BY_STATE_PROPERTY, false);
+			par.computeCoarsestStablePartitionParallel();
+			
+			Assert.assertEquals(par.getNumBlocks(), seq.getNumBlocks());
+			int[] blockMap = new int[seq.getNumBlocks()];
+			Arrays.fill(blockMap, -1);
+			for (int j = 0; j < dfa.size(); j++) {
+				int seqId = seq.getBlockForState(j).id;
+				int parId = par.getBlockForState(j).id;
+				if (blockMap[seqId] == -1) {
+					blockMap[seqId] = parId;
+				}
+				Assert.assertEquals(parId, blockMap[seqId]);
+			}
+		}
+	}
+	
+	@Test
+	public void testParallelRefinementFallback() {
+		// partial, non-deterministic transition structures are not supported by the parallel
+		// refinement, which therefore has to fall back to the sequential one
+		Random rand = new Random(42L);
+		int numStates = 200;
+		int numInputs = 2;
+		for (int i = 0; i < 10; i++) {
+			int[] classes = new int[numStates];
+			int[][][] successors = new int[numStates][numInputs][];
+			for (int j = 0; j < numStates; j++) {
+				classes[j] = rand.nextInt(2);
+				for (int k = 0; k < numInputs; k++) {
+					int[] succs = new int[rand.nextInt(3)];
+					for (int l = 0; l < succs.length; l++) {
+						succs[l] = rand.nextInt(numStates);
+					}
+					successors[j][k] = succs;
+				}
+			}
+			
+			PaigeTarjan seq = new PaigeTarjan();
+			initRaw(seq, classes, successors);
+			seq.initWorklist(false);
+			seq.computeCoarsestStablePartition();
+			
+			PaigeTarjan par = new PaigeTarjan();
+			initRaw(par, classes, successors);
+			par.computeCoarsestStablePartitionParallel();
+			
+			Assert.assertTrue(seq.getNumBlocks() > 2);
+			Assert.assertEquals(par.getNumBlocks(), seq.getNumBlocks());
+			for (int j = 0; j < numStates; j++) {
+				for (int k = 0; k < numStates; k++) {
+					Assert.assertEquals(par.getBlockForState(j) == par.getBlockForState(k),
+							seq.getBlockForState(j) == seq.getBlockForState(k));
+				}
+			}
+		}
+	}
+	
+	private static void initRaw(PaigeTarjan pt, int[] classes, int[][][] successors) {
+		int numStates = classes.length;
+		int numInputs = successors[0].length;
+		int numTransitions = 0;
+		for (int[][] stateSuccs : successors) {
+			for (int[] succs : stateSuccs) {
+				numTransitions += succs.length;
+			}
+		}
+		
+		int posDataLow = numStates;
+		int predOfsDataLow = posDataLow + numStates;
+		int predDataLow = predOfsDataLow + numStates * numInputs + 1;
+		int[] data = new int[predDataLow + numTransitions];
+		Block[] blockForState = new Block[numStates];
+		Block[] blocks = new Block[2];
+		
+		for (int i = 0; i < numStates; i++) {
+			Block block = blocks[classes[i]];
+			if (block == null) {
+				block = pt.createBlock();
+				block.high = 0;
+				blocks[classes[i]] = block;
+			}
+			block.high++;
+			blockForState[i] = block;
+			for (int j = 0; j < numInputs; j++) {
+				for (int succ : successors[i][j]) {
+					data[predOfsDataLow + j * numStates + succ]++;
+				}
+			}
+		}
+		
+		int curr = 0;
+		for (Block b : pt.blockList()) {
+			curr += b.high;
+			b.high = curr;
+			b.low = curr;
+		}
+		
+		data[predOfsDataLow] += predDataLow;
+		PaigeTarjanInitializers.prefixSum(data, predOfsDataLow, predDataLow);
+		
+		for (int i = 0; i < numStates; i++) {
+			int pos = --blockForState[i].low;
+			data[pos] = i;
+			data[posDataLow + i] = pos;
+			for (int j = 0; j < numInputs; j++) {
+				for (int succ : successors[i][j]) {
+					data[--data[predOfsDataLow + j * numStates + succ]] = i;
+				}
+			}
+		}
+		
+		pt.setBlockData(data);
+		pt.setPosData(data, posDataLow);
+		pt.setPredOfsData(data, predOfsDataLow);
+		pt.setPredData(data);
+		pt.setBlockForState(blockForState);
+		pt.setSize(numStates, numInputs);
+	}
+	
+	@Test
+	public void testSplitterContainingPredecessors() {
+		// the block {1, 0, 5, 6} contains predecessors of its own states, and is split while it is
+		// being processed as a splitter
+		Alphabet<Integer> alphabet = Alphabets.integers(0, 0);
+		CompactDFA<Integer> dfa = AutomatonBuilders.newDFA(alphabet)
+				.from("s0").on(0).to("s1")
+				.from("s1").on(0).to("s5")
+				.from("s2").on(0).loop()
+				.from("s3").on(0).to("s6")
+				.from("s4").on(0).to("s3")
+				.from("s5").on(0).to("s1")
+				.from("s6").on(0).to("s7")
+				.from("s7").on(0).to("s4")
+				.from("s8").on(0).to("s7")
+				.withInitial("s0")
+				.withAccepting("s0", "s1", "s5", "s6")
+				.create();
+
+		// {s0, s1, s5} are equivalent, all other states are pairwise inequivalent
+		CompactDFA<Integer> result = HopcroftMinimization.minimizeDFA(dfa, alphabet, PruningMode.DONT_PRUNE);
+		Assert.assertEquals(result.size(), 7);
+		assertAllInequivalent(result, alphabet);
+	}
+
 	private static TestDFA<Integer> createTestDFA1() {
 		Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
 		CompactDFA<Integer> dfa = AutomatonBuilders.newDFA(alphabet)
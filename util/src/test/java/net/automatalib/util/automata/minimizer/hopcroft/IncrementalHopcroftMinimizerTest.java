@@ -0,0 +1,204 @@
+/* Copyright (C) 2015 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.hopcroft;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class IncrementalHopcroftMinimizerTest {
+	
+	private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 2);
+	
+	@Test
+	public void testInitialPartition() {
+		CompactDFA<Integer> dfa = RandomAutomata.randomDFA(new Random(42L), 100, ALPHABET, false);
+		IncrementalHopcroftMinimizer<Integer> minimizer = new IncrementalHopcroftMinimizer<>(dfa);
+		
+		Assert.assertEquals(minimizer.getNumClasses(),
+				HopcroftMinimization.minimizeDFA(complete(dfa), ALPHABET, PruningMode.DONT_PRUNE).size());
+		assertMinimalEquivalent(dfa, minimizer.toMinimalDFA());
+	}
+	
+	@Test
+	public void testRandomModifications() {
+		Random random = new Random(42L);
+		for (int sigDepth = 0; sigDepth <= 4; sigDepth += 2) {
+			CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 50, ALPHABET, false);
+			IncrementalHopcroftMinimizer<Integer> minimizer = new IncrementalHopcroftMinimizer<>(dfa, sigDepth);
+			
+			for (int round = 0; round < 200; round++) {
+				int numChanges = 1 + random.nextInt(5);
+				for (int i = 0; i < numChanges; i++) {
+					applyRandomChange(minimizer, random);
+				}
+				checkConsistent(minimizer, random);
+			}
+		}
+	}
+	
+	@Test
+	public void testEmptyLanguage() {
+		CompactDFA<Integer> dfa = new CompactDFA<>(ALPHABET);
+		IncrementalHopcroftMinimizer<Integer> minimizer = new IncrementalHopcroftMinimizer<>(dfa);
+		Assert.assertEquals(minimizer.toMinimalDFA().size(), 0);
+		
+		int init = minimizer.addState(false);
+		minimizer.setInitialState(init);
+		int other = minimizer.addState(false);
+		minimizer.setTransition(init, 0, other);
+		Assert.assertEquals(minimizer.getNumClasses(), 1);
+		Assert.assertEquals(minimizer.toMinimalDFA().size(), 1);
+		
+		minimizer.setAccepting(other, true);
+		Assert.assertEquals(minimizer.getNumClasses(), 3);
+		Assert.assertFalse(minimizer.isEquivalent(init, other));
+		
+		minimizer.setTransition(init, 0, -1);
+		Assert.assertEquals(minimizer.getNumClasses(), 2);
+		Assert.assertEquals(minimizer.toMinimalDFA().size(), 1);
+	}
+	
+	/**
+	 * In a counter, all states far away from the accepting state share the same signature. Repeated
+	 * updates must not require equivalence tests between all of them.
+	 */
+	@Test(timeOut = 10000)
+	public void testCounterUpdates() {
+		int n = 1000;
+		CompactDFA<Integer> dfa = new CompactDFA<>(ALPHABET, n);
+		for (int i = 0; i < n; i++) {
+			dfa.addIntState(i == 0);
+		}
+		dfa.setInitialState(0);
+		for (int i = 0; i < n; i++) {
+			dfa.setTransition(i, 0, (i + 1) % n);
+			dfa.setTransition(i, 1, i);
+		}
+		IncrementalHopcroftMinimizer<Integer> minimizer = new IncrementalHopcroftMinimizer<>(dfa);
+		Assert.assertEquals(minimizer.getNumClasses(), n + 1);
+		
+		for (int round = 0; round < 100; round++) {
+			// states i and i + n/2 become equivalent
+			minimizer.setAccepting(n / 2, true);
+			Assert.assertEquals(minimizer.getNumClasses(), n / 2 + 1);
+			Assert.assertTrue(minimizer.isEquivalent(round, round + n / 2));
+			
+			minimizer.setAccepting(n / 2, false);
+			Assert.assertEquals(minimizer.getNumClasses(), n + 1);
+			Assert.assertFalse(minimizer.isEquivalent(round, round + n / 2));
+		}
+	}
+	
+	private static void applyRandomChange(IncrementalHopcroftMinimizer<Integer> minimizer, Random random) {
+		CompactDFA<Integer> dfa = minimizer.getDFA();
+		int size = dfa.size();
+		int state = random.nextInt(size);
+		int choice = random.nextInt(10);
+		if (choice < 6) {
+			int succ = (random.nextInt(8) == 0) ? -1 : random.nextInt(size);
+			minimizer.setTransition(state, random.nextInt(ALPHABET.size()), succ);
+		}
+		else if (choice < 7) {
+			minimizer.setAccepting(state, !dfa.isAccepting(state));
+		}
+		else if (choice < 8 && size < 80) {
+			int newState = minimizer.addState(random.nextBoolean());
+			minimizer.setTransition(state, random.nextInt(ALPHABET.size()), newState);
+		}
+		else {
+			// make the state equivalent to another one
+			int other = random.nextInt(size);
+			minimizer.setAccepting(state, dfa.isAccepting(other));
+			for (int i = 0; i < ALPHABET.size(); i++) {
+				minimizer.setTransition(state, i, dfa.getIntTransition(other, i));
+			}
+		}
+	}
+	
+	private static void checkConsistent(IncrementalHopcroftMinimizer<Integer> minimizer, Random random) {
+		CompactDFA<Integer> dfa = minimizer.getDFA();
+		CompactDFA<Integer> completed = complete(dfa);
+		
+		Assert.assertEquals(minimizer.getNumClasses(),
+				HopcroftMinimization.minimizeDFA(completed, ALPHABET, PruningMode.DONT_PRUNE).size());
+		for (int i = 0; i < 20; i++) {
+			int s1 = random.nextInt(dfa.size()), s2 = random.nextInt(dfa.size());
+			boolean equivalent = Automata.findSeparatingWord(completed, s1, s2, ALPHABET) == null;
+			Assert.assertEquals(minimizer.isEquivalent(s1, s2), equivalent);
+		}
+		
+		assertMinimalEquivalent(dfa, minimizer.toMinimalDFA());
+	}
+	
+	/**
+	 * Checks that the given minimal DFA is equivalent to the given DFA, and has as many states as the
+	 * minimal complete DFA without the state with an empty language.
+	 */
+	private static void assertMinimalEquivalent(CompactDFA<Integer> dfa, CompactDFA<Integer> minimal) {
+		CompactDFA<Integer> completed = complete(dfa);
+		Assert.assertTrue(Automata.testEquivalence(completed, complete(minimal), ALPHABET));
+		
+		CompactDFA<Integer> reference = HopcroftMinimization.minimizeDFA(completed, ALPHABET);
+		int expectedSize = reference.size();
+		if (expectedSize > 1) {
+			for (int s = 0; s < reference.size(); s++) {
+				if (isEmptySink(reference, s)) {
+					expectedSize--;
+					break;
+				}
+			}
+		}
+		Assert.assertEquals(minimal.size(), expectedSize);
+	}
+	
+	private static boolean isEmptySink(CompactDFA<Integer> dfa, int state) {
+		if (dfa.isAccepting(state)) {
+			return false;
+		}
+		for (int i = 0; i < ALPHABET.size(); i++) {
+			if (dfa.getIntTransition(state, i) != state) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Creates a copy of the given DFA in which undefined transitions lead to an additional rejecting sink.
+	 */
+	private static CompactDFA<Integer> complete(CompactDFA<Integer> dfa) {
+		CompactDFA<Integer> result = new CompactDFA<>(dfa);
+		int sink = result.addIntState(false);
+		for (int s = 0; s < result.size(); s++) {
+			for (int i = 0; i < ALPHABET.size(); i++) {
+				if (result.getIntTransition(s, i) < 0) {
+					result.setTransition(s, i, sink);
+				}
+			}
+		}
+		return result;
+	}
+}